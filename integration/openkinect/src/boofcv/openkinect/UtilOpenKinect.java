@@ -18,6 +18,7 @@
 
 package boofcv.openkinect;
 
+import boofcv.core.image.ConvertByteBuffer;
 import boofcv.struct.image.ImageUInt16;
 import boofcv.struct.image.ImageUInt8;
 import boofcv.struct.image.MultiSpectral;
@@ -26,6 +27,7 @@ import org.openkinect.freenect.Resolution;
 
 import java.io.*;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 /**
  * @author Peter Abeles
@@ -65,13 +67,10 @@ public class UtilOpenKinect {
 	 * @param output Output depth image
 	 */
 	public static void bufferDepthToU16( ByteBuffer input , ImageUInt16 output ) {
-		int indexIn = 0;
-		for( int y = 0; y < output.height; y++ ) {
-			int indexOut = output.startIndex + y*output.stride;
-			for( int x = 0; x < output.width; x++ , indexOut++ ) {
-				output.data[indexOut] = (short)((input.get(indexIn++) & 0xFF) | ((input.get(indexIn++) & 0xFF) << 8 ));
-			}
-		}
+		// depth is little endian and the buffer might be direct, so copy it using bulk operations
+		ByteBuffer buffer = input.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+		buffer.position(0);
+		ConvertByteBuffer.copy(buffer,output.width*2,output);
 	}
 
 	/**
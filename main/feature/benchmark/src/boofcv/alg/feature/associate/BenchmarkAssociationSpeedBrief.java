@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.abst.feature.associate.AssociateDescription;
+import boofcv.abst.feature.associate.ScoreAssociateHamming_B;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.feature.associate.FactoryAssociation;
+import boofcv.misc.Performer;
+import boofcv.misc.ProfileOperation;
+import boofcv.struct.feature.BriefFeatureQueue;
+import boofcv.struct.feature.TupleDesc_B;
+import org.ddogleg.struct.FastQueue;
+
+import java.util.Random;
+
+
+/**
+ * Compares the speed of associating binary descriptors using the generic greedy algorithm against the
+ * packed Hamming distance implementation.
+ *
+ * @author Peter Abeles
+ */
+public class BenchmarkAssociationSpeedBrief {
+
+	static final long TEST_TIME = 1000;
+	static final Random rand = new Random(234234);
+	static final int NUM_FEATURES = 5000;
+	static final int DOF_BRIEF = 512;
+
+	FastQueue<TupleDesc_B> listA = createSet();
+	FastQueue<TupleDesc_B> listB = createSet();
+
+	public class General implements Performer {
+
+		AssociateDescription<TupleDesc_B> alg;
+		String name;
+
+		public General(String name, AssociateDescription<TupleDesc_B> alg) {
+			this.alg = alg;
+			this.name = name;
+		}
+
+		@Override
+		public void process() {
+			alg.setSource(listA);
+			alg.setDestination(listB);
+			alg.associate();
+		}
+
+		@Override
+		public String getName() {
+			return name;
+		}
+	}
+
+	private static FastQueue<TupleDesc_B> createSet() {
+		FastQueue<TupleDesc_B> ret = new BriefFeatureQueue(DOF_BRIEF);
+
+		for( int i = 0; i < NUM_FEATURES; i++ ) {
+			TupleDesc_B t = ret.grow();
+			for( int j = 0; j < t.data.length; j++ ) {
+				t.data[j] = rand.nextInt();
+			}
+		}
+		return ret;
+	}
+
+	public static void main( String argsp[ ] ) {
+		BenchmarkAssociationSpeedBrief app = new BenchmarkAssociationSpeedBrief();
+
+		System.out.println("Features = "+NUM_FEATURES+"  bits = "+DOF_BRIEF+
+				"  threads = "+BoofConcurrency.getMaxThreads());
+
+		ScoreAssociateHamming_B score = new ScoreAssociateHamming_B();
+
+		ProfileOperation.printOpsPerSec(app.new General("Greedy",
+				FactoryAssociation.greedy(score, Double.MAX_VALUE, false)),TEST_TIME);
+		ProfileOperation.printOpsPerSec(app.new General("Greedy Hamming",
+				FactoryAssociation.greedyHamming(Double.MAX_VALUE, false, false)),TEST_TIME);
+		ProfileOperation.printOpsPerSec(app.new General("Greedy Hamming MT",
+				FactoryAssociation.greedyHamming(Double.MAX_VALUE, false, true)),TEST_TIME);
+		ProfileOperation.printOpsPerSec(app.new General("Greedy Backwards",
+				FactoryAssociation.greedy(score, Double.MAX_VALUE, true)),TEST_TIME);
+		ProfileOperation.printOpsPerSec(app.new General("Greedy Hamming Backwards",
+				FactoryAssociation.greedyHamming(Double.MAX_VALUE, true, false)),TEST_TIME);
+		ProfileOperation.printOpsPerSec(app.new General("Greedy Hamming Backwards MT",
+				FactoryAssociation.greedyHamming(Double.MAX_VALUE, true, true)),TEST_TIME);
+	}
+}
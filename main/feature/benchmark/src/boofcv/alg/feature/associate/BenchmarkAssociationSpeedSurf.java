@@ -21,6 +21,7 @@ package boofcv.alg.feature.associate;
 import boofcv.abst.feature.associate.AssociateDescription;
 import boofcv.abst.feature.associate.ScoreAssociation;
 import boofcv.abst.feature.detdesc.DetectDescribePoint;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.core.image.ConvertBufferedImage;
 import boofcv.factory.feature.associate.FactoryAssociation;
 import boofcv.factory.feature.detdesc.FactoryDetectDescribe;
@@ -59,6 +60,7 @@ public class BenchmarkAssociationSpeedSurf {
 		listB = createSet(image2);
 		
 		System.out.println("Size A = "+listA.size()+"  B = "+listB.size());
+		System.out.println("Threads = "+BoofConcurrency.getMaxThreads());
 	}
 
 	public Performer createProfile( String name, AssociateDescription<TupleDesc_F64> alg ) {
@@ -120,6 +122,10 @@ public class BenchmarkAssociationSpeedSurf {
 				FactoryAssociation.greedy(score, Double.MAX_VALUE,  false)),TEST_TIME);
 		ProfileOperation.printOpsPerSec(app.createProfile("Greedy Backwards",
 				FactoryAssociation.greedy(score, Double.MAX_VALUE,  true)),TEST_TIME);
+		ProfileOperation.printOpsPerSec(app.createProfile("Greedy MT",
+				FactoryAssociation.greedy(score, Double.MAX_VALUE,  false, true)),TEST_TIME);
+		ProfileOperation.printOpsPerSec(app.createProfile("Greedy Backwards MT",
+				FactoryAssociation.greedy(score, Double.MAX_VALUE,  true, true)),TEST_TIME);
 		ProfileOperation.printOpsPerSec(app.createProfile("Random Forest",
 				FactoryAssociation.kdRandomForest(DOF, 500, 15, 5, 1233445565)),TEST_TIME);
 		
@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.feature.associate;
+
+import boofcv.alg.feature.associate.FindUnassociated;
+import boofcv.alg.feature.associate.KdForestIndex_F64;
+import boofcv.struct.feature.AssociatedIndex;
+import boofcv.struct.feature.MatchScoreType;
+import boofcv.struct.feature.TupleDesc_F64;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_F64;
+import org.ddogleg.struct.GrowQueue_I32;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * <p>
+ * Matches features using a {@link KdForestIndex_F64}, which is updated incrementally when the source features
+ * change.  Each time {@link #setSource(FastQueue)} is called the new source features are compared against the
+ * previous ones and only the ones which have changed are removed and added to the index.  Features are matched
+ * up with the previous call by descriptor instance, not by their position in the list, so features can be
+ * inserted or removed anywhere in the list.  A descriptor instance which is still in the list but whose value has
+ * been modified is treated as a new feature.  Compared to
+ * {@link AssociateNearestNeighbor}, which builds a new index every time, this is much faster when most
+ * of the source features are the same between calls, e.g. a map of features which is matched against each new
+ * image.  Destination features are searched for in the index, possibly using multiple threads.
+ * </p>
+ *
+ * <p>
+ * Like {@link AssociateNearestNeighbor}, the threshold is a Euclidean distance and the reported score is the
+ * Euclidean distance squared.  Multiple matches for source features are possible while there will only be a
+ * unique match for each destination feature.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class AssociateNearestNeighborIncremental<D extends TupleDesc_F64>
+		implements AssociateDescription<D>
+{
+	// index containing the source features
+	private KdForestIndex_F64 index;
+
+	// ID in the index of each source feature
+	private GrowQueue_I32 srcIds = new GrowQueue_I32();
+	// index of the source feature for each ID in the index
+	private GrowQueue_I32 idToSrc = new GrowQueue_I32();
+
+	// ID in the index of each source descriptor passed in the previous call to setSource()
+	private Map<D,Integer> descToId = new IdentityHashMap<D,Integer>();
+	// work space for creating the new descToId
+	private Map<D,Integer> work = new IdentityHashMap<D,Integer>();
+
+	// list of features in destination set that are to be searched for in the source list
+	private FastQueue<D> listDst;
+
+	// results of searching for each destination feature
+	private GrowQueue_I32 foundIds = new GrowQueue_I32();
+	private GrowQueue_F64 foundDistances = new GrowQueue_F64();
+
+	// List of final associated points
+	private FastQueue<AssociatedIndex> matches = new FastQueue<AssociatedIndex>(100,AssociatedIndex.class,true);
+
+	// creates a list of unassociated features from the list of matches
+	private FindUnassociated unassociated = new FindUnassociated();
+
+	// maximum distance away two points can be
+	private double maxDistance = -1;
+
+	public AssociateNearestNeighborIncremental( KdForestIndex_F64 index ) {
+		this.index = index;
+	}
+
+	@Override
+	public void setSource(FastQueue<D> listSrc) {
+		for( int i = 0; i < listSrc.size; i++ ) {
+			checkDimension(listSrc.data[i].value);
+		}
+		for( int i = 0; i < listSrc.size; i++ ) {
+			if( work.put(listSrc.data[i],-1) != null ) {
+				work.clear();
+				throw new IllegalArgumentException("The same descriptor instance is in the list more than once");
+			}
+		}
+
+		// features which are still in the list keep their ID if they haven't been modified
+		srcIds.resize(listSrc.size);
+		for( int i = 0; i < listSrc.size; i++ ) {
+			D desc = listSrc.data[i];
+			Integer id = descToId.remove(desc);
+			if( id == null ) {
+				srcIds.data[i] = -1;
+			} else if( index.isEqual(id,desc.value) ) {
+				srcIds.data[i] = id;
+			} else {
+				index.remove(id);
+				srcIds.data[i] = -1;
+			}
+		}
+
+		// remove features which are no longer in the list
+		for( int id : descToId.values() ) {
+			index.remove(id);
+		}
+		descToId.clear();
+
+		// add new and modified features
+		for( int i = 0; i < listSrc.size; i++ ) {
+			D desc = listSrc.data[i];
+			if( srcIds.data[i] == -1 )
+				srcIds.data[i] = index.add(desc.value);
+			work.put(desc,srcIds.data[i]);
+		}
+		Map<D,Integer> tmp = descToId;
+		descToId = work;
+		work = tmp;
+
+		if( index.isRebuildRecommended() )
+			index.rebuild();
+
+		idToSrc.resize(index.getNumIds());
+		for( int i = 0; i < srcIds.size; i++ ) {
+			idToSrc.data[srcIds.data[i]] = i;
+		}
+	}
+
+	private void checkDimension( double[] value ) {
+		if( value.length != index.getDof() )
+			throw new IllegalArgumentException("Unexpected descriptor length. "+value.length+" "+index.getDof());
+	}
+
+	@Override
+	public void setDestination(FastQueue<D> listDst) {
+		this.listDst = listDst;
+	}
+
+	@Override
+	public void associate() {
+		index.findNearest(listDst,maxDistance,foundIds,foundDistances);
+
+		matches.reset();
+		for( int i = 0; i < listDst.size; i++ ) {
+			int id = foundIds.data[i];
+			if( id == -1 )
+				continue;
+			matches.grow().setAssociation(idToSrc.data[id],i,foundDistances.data[i]);
+		}
+	}
+
+	/**
+	 * Index containing the source features
+	 */
+	public KdForestIndex_F64 getIndex() {
+		return index;
+	}
+
+	@Override
+	public FastQueue<AssociatedIndex> getMatches() {
+		return matches;
+	}
+
+	@Override
+	public GrowQueue_I32 getUnassociatedSource() {
+		return unassociated.checkSource(matches,srcIds.size);
+	}
+
+	@Override
+	public GrowQueue_I32 getUnassociatedDestination() {
+		return unassociated.checkDestination(matches,listDst.size());
+	}
+
+	@Override
+	public void setThreshold(double score) {
+		this.maxDistance = score;
+	}
+
+	@Override
+	public MatchScoreType getScoreType() {
+		return MatchScoreType.NORM_ERROR;
+	}
+
+	@Override
+	public boolean uniqueSource() {
+		return false;
+	}
+
+	@Override
+	public boolean uniqueDestination() {
+		return true;
+	}
+}
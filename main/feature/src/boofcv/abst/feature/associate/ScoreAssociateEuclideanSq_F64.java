@@ -30,12 +30,30 @@ import boofcv.struct.feature.TupleDesc_F64;
  *
  * @author Peter Abeles
  */
-public class ScoreAssociateEuclideanSq_F64 implements ScoreAssociation<TupleDesc_F64> {
+public class ScoreAssociateEuclideanSq_F64 implements ScoreAssociationBounded<TupleDesc_F64> {
 	@Override
 	public double score(TupleDesc_F64 a, TupleDesc_F64 b) {
 		return DescriptorDistance.euclideanSq(a, b);
 	}
 
+	@Override
+	public double score(TupleDesc_F64 a, TupleDesc_F64 b, double threshold) {
+		final int N = a.value.length;
+		double total = 0;
+		int i = 0;
+		while( i < N ) {
+			int end = Math.min(N,i+8);
+			for( ; i < end; i++ ) {
+				double d = a.value[i]-b.value[i];
+				total += d*d;
+			}
+			if( total > threshold )
+				return total;
+		}
+
+		return total;
+	}
+
 	@Override
 	public MatchScoreType getScoreType() {
 		return MatchScoreType.NORM_ERROR;
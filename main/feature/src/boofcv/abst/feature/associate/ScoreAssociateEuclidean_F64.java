@@ -30,12 +30,32 @@ import boofcv.struct.feature.TupleDesc_F64;
  *
  * @author Peter Abeles
  */
-public class ScoreAssociateEuclidean_F64 implements ScoreAssociation<TupleDesc_F64> {
+public class ScoreAssociateEuclidean_F64 implements ScoreAssociationBounded<TupleDesc_F64> {
 	@Override
 	public double score(TupleDesc_F64 a, TupleDesc_F64 b) {
 		return DescriptorDistance.euclidean(a,b);
 	}
 
+	@Override
+	public double score(TupleDesc_F64 a, TupleDesc_F64 b, double threshold) {
+		final int N = a.value.length;
+		double total = 0;
+		int i = 0;
+		while( i < N ) {
+			int end = Math.min(N,i+8);
+			for( ; i < end; i++ ) {
+				double d = a.value[i]-b.value[i];
+				total += d*d;
+			}
+			// sqrt is monotonic, so comparing after the sqrt ensures the true score is also above the threshold
+			double distance = Math.sqrt(total);
+			if( distance > threshold )
+				return distance;
+		}
+
+		return Math.sqrt(total);
+	}
+
 	@Override
 	public MatchScoreType getScoreType() {
 		return MatchScoreType.NORM_ERROR;
@@ -28,7 +28,7 @@ import boofcv.struct.feature.TupleDesc_B;
  *
  * @author Peter Abeles
  */
-public class ScoreAssociateHamming_B implements ScoreAssociation<TupleDesc_B>{
+public class ScoreAssociateHamming_B implements ScoreAssociationBounded<TupleDesc_B>{
 
 	HammingTable16 table = new HammingTable16();
 
@@ -48,6 +48,25 @@ public class ScoreAssociateHamming_B implements ScoreAssociation<TupleDesc_B>{
 		return score;
 	}
 
+	@Override
+	public double score(TupleDesc_B a, TupleDesc_B b, double threshold) {
+
+		int score = 0;
+
+		for( int i = 0; i < a.data.length; i++ ) {
+			int dataA = a.data[i];
+			int dataB = b.data[i];
+
+			score += table.lookup( (short)dataA , (short)dataB );
+			score += table.lookup( (short)(dataA >> 16) , (short)(dataB >> 16) );
+
+			if( score > threshold )
+				return score;
+		}
+
+		return score;
+	}
+
 	@Override
 	public MatchScoreType getScoreType() {
 		return MatchScoreType.NORM_ERROR;
@@ -27,13 +27,30 @@ import boofcv.struct.feature.TupleDesc_F32;
  *
  * @author Peter Abeles
  */
-public class ScoreAssociateSad_F32 implements ScoreAssociation<TupleDesc_F32>{
+public class ScoreAssociateSad_F32 implements ScoreAssociationBounded<TupleDesc_F32>{
 	@Override
 	public double score(TupleDesc_F32 a, TupleDesc_F32 b) {
 
 		return DescriptorDistance.sad(a, b);
 	}
 
+	@Override
+	public double score(TupleDesc_F32 a, TupleDesc_F32 b, double threshold) {
+		final int N = a.value.length;
+		float total = 0;
+		int i = 0;
+		while( i < N ) {
+			int end = Math.min(N,i+8);
+			for( ; i < end; i++ ) {
+				total += Math.abs( a.value[i] - b.value[i]);
+			}
+			if( total > threshold )
+				return total;
+		}
+
+		return total;
+	}
+
 	@Override
 	public MatchScoreType getScoreType() {
 		return MatchScoreType.NORM_ERROR;
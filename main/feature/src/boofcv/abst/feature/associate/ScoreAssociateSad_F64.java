@@ -27,13 +27,30 @@ import boofcv.struct.feature.TupleDesc_F64;
  *
  * @author Peter Abeles
  */
-public class ScoreAssociateSad_F64 implements ScoreAssociation<TupleDesc_F64>{
+public class ScoreAssociateSad_F64 implements ScoreAssociationBounded<TupleDesc_F64>{
 	@Override
 	public double score(TupleDesc_F64 a, TupleDesc_F64 b) {
 
 		return DescriptorDistance.sad(a, b);
 	}
 
+	@Override
+	public double score(TupleDesc_F64 a, TupleDesc_F64 b, double threshold) {
+		final int N = a.value.length;
+		double total = 0;
+		int i = 0;
+		while( i < N ) {
+			int end = Math.min(N,i+8);
+			for( ; i < end; i++ ) {
+				total += Math.abs( a.value[i] - b.value[i]);
+			}
+			if( total > threshold )
+				return total;
+		}
+
+		return total;
+	}
+
 	@Override
 	public MatchScoreType getScoreType() {
 		return MatchScoreType.NORM_ERROR;
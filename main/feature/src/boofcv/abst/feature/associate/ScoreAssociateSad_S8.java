@@ -27,12 +27,29 @@ import boofcv.struct.feature.TupleDesc_S8;
  *
  * @author Peter Abeles
  */
-public class ScoreAssociateSad_S8 implements ScoreAssociation<TupleDesc_S8>{
+public class ScoreAssociateSad_S8 implements ScoreAssociationBounded<TupleDesc_S8>{
 	@Override
 	public double score(TupleDesc_S8 a, TupleDesc_S8 b) {
 		return DescriptorDistance.sad(a, b);
 	}
 
+	@Override
+	public double score(TupleDesc_S8 a, TupleDesc_S8 b, double threshold) {
+		final int N = a.value.length;
+		int total = 0;
+		int i = 0;
+		while( i < N ) {
+			int end = Math.min(N,i+8);
+			for( ; i < end; i++ ) {
+				total += Math.abs( a.value[i] - b.value[i]);
+			}
+			if( total > threshold )
+				return total;
+		}
+
+		return total;
+	}
+
 	@Override
 	public MatchScoreType getScoreType() {
 		return MatchScoreType.NORM_ERROR;
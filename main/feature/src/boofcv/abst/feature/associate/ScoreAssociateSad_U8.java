@@ -27,13 +27,30 @@ import boofcv.struct.feature.TupleDesc_U8;
  *
  * @author Peter Abeles
  */
-public class ScoreAssociateSad_U8 implements ScoreAssociation<TupleDesc_U8>{
+public class ScoreAssociateSad_U8 implements ScoreAssociationBounded<TupleDesc_U8>{
 	@Override
 	public double score(TupleDesc_U8 a, TupleDesc_U8 b) {
 
 		return DescriptorDistance.sad(a, b);
 	}
 
+	@Override
+	public double score(TupleDesc_U8 a, TupleDesc_U8 b, double threshold) {
+		final int N = a.value.length;
+		int total = 0;
+		int i = 0;
+		while( i < N ) {
+			int end = Math.min(N,i+8);
+			for( ; i < end; i++ ) {
+				total += Math.abs( (a.value[i] & 0xFF) - (b.value[i] & 0xFF));
+			}
+			if( total > threshold )
+				return total;
+		}
+
+		return total;
+	}
+
 	@Override
 	public MatchScoreType getScoreType() {
 		return MatchScoreType.NORM_ERROR;
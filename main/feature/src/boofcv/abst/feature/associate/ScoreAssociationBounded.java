@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.feature.associate;
+
+/**
+ * <p>
+ * {@link ScoreAssociation} which can stop computing the score once it is known to be worse than a threshold.
+ * Intended for distance measures, such as Euclidean or SAD, where the score can only increase as more of the
+ * descriptor is examined.  Brute force association spends most of its time computing scores of
+ * features which are nowhere near the best match and can skip most of that work.
+ * </p>
+ *
+ * <p>
+ * If the score is less than or equal to the threshold then the returned value must be identical to
+ * {@link #score}.  Otherwise a value greater than the threshold is returned, which is less than or equal to
+ * the true score.
+ * </p>
+ *
+ * <p>
+ * Implementations sum the descriptor in small blocks and only compare against the threshold after each block.
+ * Checking after every element would slow down the inner loop more than the early exit saves.
+ * </p>
+ *
+ * @param <Desc> Feature description type.
+ *
+ * @author Peter Abeles
+ */
+public interface ScoreAssociationBounded<Desc> extends ScoreAssociation<Desc> {
+
+	/**
+	 * Computes the fit score between the two features, but stops early if the score is greater than threshold.
+	 *
+	 * @param a first feature
+	 * @param b second feature
+	 * @param threshold Scores greater than this value don't need to be computed exactly.
+	 * @return Quality of fit score if &le; threshold, otherwise a value &gt; threshold.  Lower is better.
+	 */
+	public double score( Desc a , Desc b , double threshold );
+}
@@ -0,0 +1,295 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.feature.detdesc;
+
+import boofcv.struct.feature.TupleDesc;
+import boofcv.struct.image.ImageBase;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * <p>
+ * Detects and describes features in a sequence of images using a pool of worker threads.  Each thread has its
+ * own {@link DetectDescribePoint}, which is created by a {@link DetectDescribeGenerator} the first time it's
+ * needed.  Results are passed to a {@link Listener} in the same order as the input images, on the thread which
+ * called {@link #process(java.util.Iterator, Listener)}.
+ * </p>
+ *
+ * <p>
+ * Memory is bounded by only reading a new image from the iterator when fewer than "maxPending" images are being
+ * processed or are waiting to be passed to the listener.  The iterator must return a new image each time, or at
+ * least not modify an image until its results have been passed to the listener.  Results are recycled after the
+ * listener returns.
+ * </p>
+ *
+ * <p>
+ * Statistics on how long it took and how many features were found are computed each time a sequence is
+ * processed.  The threads are kept between calls to process and are stopped by {@link #shutdown()}.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class DetectDescribeBatch<T extends ImageBase, Desc extends TupleDesc> {
+
+	// creates a detector for each thread
+	private DetectDescribeGenerator<T,Desc> generator;
+	// number of worker threads
+	private int numThreads;
+	// maximum number of images which are being processed or waiting to be passed to the listener
+	private int maxPending;
+
+	// worker threads.  Lazily created
+	private ExecutorService workers;
+
+	// detectors which are not being used
+	private final List<DetectDescribePoint<T,Desc>> detectors = new ArrayList<DetectDescribePoint<T,Desc>>();
+	// results which are not being used
+	private final List<PointDescResults<Desc>> results = new ArrayList<PointDescResults<Desc>>();
+
+	// statistics from the most recent sequence
+	private int imagesProcessed;
+	private long featuresFound;
+	private long elapsedNano;
+	// total time spent by the detectors on all threads
+	private long detectNano;
+
+	/**
+	 * Configures the batch processor
+	 *
+	 * @param generator Creates a detector and describer for each thread.
+	 * @param numThreads Number of worker threads.
+	 * @param maxPending Maximum number of images which can be processed or waiting at any time.  Must be at least
+	 *                   one.  Try twice the number of threads.
+	 */
+	public DetectDescribeBatch( DetectDescribeGenerator<T, Desc> generator, int numThreads, int maxPending ) {
+		if( numThreads < 1 )
+			throw new IllegalArgumentException("There must be at least one thread");
+		if( maxPending < 1 )
+			throw new IllegalArgumentException("maxPending must be at least one");
+
+		this.generator = generator;
+		this.numThreads = numThreads;
+		this.maxPending = maxPending;
+	}
+
+	/**
+	 * Detects and describes features in all the images.  Returns after every image has been processed and its
+	 * results passed to the listener.  If a detector or the listener throws an exception then no more images are
+	 * read and the exception is rethrown after the other images have finished.
+	 *
+	 * @param images Sequence of images which are to be processed
+	 * @param listener Receives the results for each image in the same order as the images.
+	 */
+	public void process( Iterator<T> images , Listener<Desc> listener ) {
+		if( workers == null ) {
+			workers = Executors.newFixedThreadPool(numThreads, new ThreadFactory() {
+				int count = 0;
+				@Override
+				public synchronized Thread newThread(Runnable r) {
+					Thread t = new Thread(r,"DetectDescribeBatch-"+(count++));
+					t.setDaemon(true);
+					return t;
+				}
+			});
+		}
+
+		imagesProcessed = 0;
+		featuresFound = 0;
+		detectNano = 0;
+		long startTime = System.nanoTime();
+
+		LinkedList<Future<PointDescResults<Desc>>> pending = new LinkedList<Future<PointDescResults<Desc>>>();
+		RuntimeException failure = null;
+		int index = 0;
+
+		try {
+			while( true ) {
+				while( pending.size() < maxPending && images.hasNext() ) {
+					pending.add(workers.submit(new Task(images.next())));
+				}
+
+				if( pending.isEmpty() )
+					break;
+
+				PointDescResults<Desc> found = waitFor(pending.removeFirst());
+
+				imagesProcessed++;
+				featuresFound += found.getNumberOfFeatures();
+				listener.processed(index++,found);
+
+				synchronized ( results ) {
+					results.add(found);
+				}
+			}
+		} catch( RuntimeException e ) {
+			failure = e;
+		}
+
+		// let images which are still being processed finish so that nothing is running after it returns
+		while( !pending.isEmpty() ) {
+			try {
+				waitFor(pending.removeFirst());
+			} catch( RuntimeException ignore ) {}
+		}
+
+		elapsedNano = System.nanoTime()-startTime;
+
+		if( failure != null )
+			throw failure;
+	}
+
+	private PointDescResults<Desc> waitFor( Future<PointDescResults<Desc>> future ) {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if( cause instanceof Error )
+				throw (Error)cause;
+			if( cause instanceof RuntimeException )
+				throw (RuntimeException)cause;
+			throw new RuntimeException(cause);
+		}
+	}
+
+	/**
+	 * Stops the worker threads.  If process is called again new threads will be created.
+	 */
+	public void shutdown() {
+		if( workers != null ) {
+			workers.shutdown();
+			workers = null;
+		}
+	}
+
+	/**
+	 * Number of images processed in the most recent sequence
+	 */
+	public int getImagesProcessed() {
+		return imagesProcessed;
+	}
+
+	/**
+	 * Total number of features found in the most recent sequence
+	 */
+	public long getFeaturesFound() {
+		return featuresFound;
+	}
+
+	/**
+	 * How long it took to process the most recent sequence, in seconds.
+	 */
+	public double getElapsedSeconds() {
+		return elapsedNano*1e-9;
+	}
+
+	/**
+	 * Number of images processed per second in the most recent sequence.
+	 */
+	public double getImagesPerSecond() {
+		return elapsedNano == 0 ? 0 : imagesProcessed/getElapsedSeconds();
+	}
+
+	/**
+	 * Number of features found per second in the most recent sequence.
+	 */
+	public double getFeaturesPerSecond() {
+		return elapsedNano == 0 ? 0 : featuresFound/getElapsedSeconds();
+	}
+
+	/**
+	 * Average amount of time a detector spent on each image in the most recent sequence, in milliseconds.  Unlike
+	 * {@link #getImagesPerSecond()}, this doesn't include time spent waiting on the iterator or listener.
+	 */
+	public double getAverageDetectMilli() {
+		return imagesProcessed == 0 ? 0 : detectNano*1e-6/imagesProcessed;
+	}
+
+	public int getNumThreads() {
+		return numThreads;
+	}
+
+	public int getMaxPending() {
+		return maxPending;
+	}
+
+	/**
+	 * Detects and describes features in a single image using one of the detectors in the pool.
+	 */
+	private class Task implements Callable<PointDescResults<Desc>> {
+		T image;
+
+		private Task(T image) {
+			this.image = image;
+		}
+
+		@Override
+		public PointDescResults<Desc> call() throws Exception {
+			DetectDescribePoint<T,Desc> detector;
+			synchronized ( detectors ) {
+				detector = detectors.isEmpty() ? null : detectors.remove(detectors.size()-1);
+			}
+			if( detector == null )
+				detector = generator.create();
+
+			PointDescResults<Desc> found;
+			synchronized ( results ) {
+				found = results.isEmpty() ? null : results.remove(results.size()-1);
+			}
+			if( found == null )
+				found = new PointDescResults<Desc>(detector);
+
+			long before = System.nanoTime();
+			try {
+				detector.detect(image);
+				found.setTo(detector);
+			} finally {
+				addDetectTime(System.nanoTime()-before);
+				synchronized ( detectors ) {
+					detectors.add(detector);
+				}
+			}
+
+			return found;
+		}
+	}
+
+	private synchronized void addDetectTime( long nano ) {
+		detectNano += nano;
+	}
+
+	/**
+	 * Receives the results for each image
+	 */
+	public static interface Listener<Desc extends TupleDesc> {
+		/**
+		 * Called after an image has been processed.  Images are passed in the same order they were read in.
+		 *
+		 * @param index Index of the image in the sequence
+		 * @param results Features found in the image.  Recycled after this function returns.
+		 */
+		public void processed( int index , PointDescResults<Desc> results );
+	}
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.feature.detdesc;
+
+import boofcv.struct.feature.TupleDesc;
+import georegression.struct.point.Point2D_F64;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_F64;
+
+/**
+ * Copy of all the features found by a {@link DetectDescribePoint} in a single image.  Unlike the detector
+ * itself, the features are not overwritten when the detector processes the next image.
+ *
+ * @author Peter Abeles
+ */
+public class PointDescResults<Desc extends TupleDesc> implements PointDescSet<Desc> {
+
+	// location of each feature
+	public FastQueue<Point2D_F64> locations = new FastQueue<Point2D_F64>(10,Point2D_F64.class,true);
+	// scale and orientation of each feature
+	public GrowQueue_F64 scales = new GrowQueue_F64(10);
+	public GrowQueue_F64 orientations = new GrowQueue_F64(10);
+	// description of each feature
+	public FastQueue<Desc> descriptions;
+
+	/**
+	 * Creates storage for descriptions which are created by the specified detector.
+	 *
+	 * @param detector Used to create new descriptions.
+	 */
+	public PointDescResults( final DetectDescribePoint<?,Desc> detector ) {
+		descriptions = new FastQueue<Desc>(10,detector.getDescriptionType(),true) {
+			@Override
+			protected Desc createInstance() {
+				return detector.createDescription();
+			}
+		};
+	}
+
+	/**
+	 * Copies all the features found by the detector.
+	 *
+	 * @param detector Detector which has just processed an image.
+	 */
+	public void setTo( DetectDescribePoint<?,Desc> detector ) {
+		int N = detector.getNumberOfFeatures();
+
+		locations.reset();
+		scales.reset();
+		orientations.reset();
+		descriptions.reset();
+
+		for( int i = 0; i < N; i++ ) {
+			Point2D_F64 p = detector.getLocation(i);
+			locations.grow().set(p.x,p.y);
+			scales.push(detector.getScale(i));
+			orientations.push(detector.getOrientation(i));
+			descriptions.grow().setTo(detector.getDescription(i));
+		}
+	}
+
+	@Override
+	public int getNumberOfFeatures() {
+		return locations.size;
+	}
+
+	@Override
+	public Point2D_F64 getLocation(int featureIndex) {
+		return locations.get(featureIndex);
+	}
+
+	public double getScale( int featureIndex ) {
+		return scales.get(featureIndex);
+	}
+
+	public double getOrientation( int featureIndex ) {
+		return orientations.get(featureIndex);
+	}
+
+	@Override
+	public Desc getDescription(int index) {
+		return descriptions.get(index);
+	}
+}
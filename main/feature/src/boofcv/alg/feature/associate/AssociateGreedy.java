@@ -50,9 +50,9 @@ public class AssociateGreedy<D> {
 	// worst allowed fit score to associate
 	private double maxFitError = Double.MAX_VALUE;
 	// stores the quality of fit score
-	private GrowQueue_F64 fitQuality = new GrowQueue_F64(100);
+	protected GrowQueue_F64 fitQuality = new GrowQueue_F64(100);
 	// stores indexes of associated
-	private GrowQueue_I32 pairs = new GrowQueue_I32(100);
+	protected GrowQueue_I32 pairs = new GrowQueue_I32(100);
 	// various
 	private GrowQueue_F64 workBuffer = new GrowQueue_F64(100);
 	// if true backwardsValidation is done
@@ -146,6 +146,10 @@ public class AssociateGreedy<D> {
 		return fitQuality.data;
 	}
 
+	public double getMaxFitError() {
+		return maxFitError;
+	}
+
 	public void setMaxFitError(double maxFitError) {
 		this.maxFitError = maxFitError;
 	}
@@ -0,0 +1,298 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.struct.feature.PackedTupleArray_B;
+import org.ddogleg.struct.GrowQueue_F64;
+import org.ddogleg.struct.GrowQueue_I32;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Brute force greedy association for binary descriptors using the Hamming distance.  Produces the same results
+ * as {@link AssociateGreedy} with {@link boofcv.abst.feature.associate.ScoreAssociateHamming_B}, but is much
+ * faster.  Descriptors are stored in a {@link PackedTupleArray_B} and each source descriptor is scored against
+ * blocks of destination descriptors in a tight loop using {@link Long#bitCount(long)}.
+ * </p>
+ *
+ * <p>
+ * If concurrent then the source descriptors are split between multiple threads.  For backwards validation each
+ * thread keeps track of the best source descriptor for each destination descriptor.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class AssociateGreedyHamming_B {
+
+	// number of source and destination descriptors in each block of the score matrix
+	private int blockSrc = 32;
+	private int blockDst = 1024;
+
+	// worst allowed fit score to associate
+	private double maxFitError = Double.MAX_VALUE;
+	// stores the quality of fit score
+	private GrowQueue_F64 fitQuality = new GrowQueue_F64(100);
+	// stores indexes of associated
+	private GrowQueue_I32 pairs = new GrowQueue_I32(100);
+	// if true backwardsValidation is done
+	private boolean backwardsValidation;
+	// if true the work is split between threads
+	private boolean concurrent;
+
+	// workspaces used by the threads
+	private final List<Workspace> available = new ArrayList<Workspace>();
+	private final List<Workspace> used = new ArrayList<Workspace>();
+	// best score for each dst descriptor across all threads
+	private Workspace merged = new Workspace();
+
+	/**
+	 * Configure association
+	 *
+	 * @param backwardsValidation If true then backwards validation is performed.
+	 * @param concurrent If true the source descriptors are split between multiple threads.
+	 */
+	public AssociateGreedyHamming_B( boolean backwardsValidation , boolean concurrent ) {
+		this.backwardsValidation = backwardsValidation;
+		this.concurrent = concurrent;
+	}
+
+	/**
+	 * Associates the two sets objects against each other by minimizing the Hamming distance.
+	 *
+	 * @param src Source list.
+	 * @param dst Destination list.
+	 */
+	public void associate( final PackedTupleArray_B src , final PackedTupleArray_B dst ) {
+		if( src.getNumBits() != dst.getNumBits() )
+			throw new IllegalArgumentException("Descriptors must have the same number of bits");
+
+		fitQuality.reset();
+		pairs.reset();
+		fitQuality.resize(src.size);
+		pairs.resize(src.size);
+
+		synchronized ( available ) {
+			available.addAll(used);
+			used.clear();
+		}
+
+		IntRangeTask task = new IntRangeTask() {
+			@Override
+			public void process(int index0, int index1) {
+				Workspace work = backwardsValidation ? grabWorkspace(dst.size) : null;
+				associate(src,dst,index0,index1,work);
+			}
+		};
+
+		if( concurrent )
+			BoofConcurrency.loopBlocks(0,src.size,blockSrc,task);
+		else
+			task.process(0,src.size);
+
+		if( backwardsValidation ) {
+			mergeColumns(dst.size);
+
+			// a match is only valid if it's the unique best match for the dst descriptor too
+			for( int i = 0; i < src.size; i++ ) {
+				int match = pairs.data[i];
+				if( match == -1 )
+					continue;
+
+				if( merged.bestIndex[match] != i || merged.tied[match] ) {
+					pairs.data[i] = -1;
+					fitQuality.data[i] = Double.MAX_VALUE;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Finds the best match for source descriptors index0 to index1-1
+	 */
+	private void associate( PackedTupleArray_B src , PackedTupleArray_B dst , int index0 , int index1 ,
+							Workspace work ) {
+		final int numWords = src.getNumWords();
+		final long dataA[] = src.data;
+		final long dataB[] = dst.data;
+
+		// Hamming distances are integers, so "distance < maxFitError" is the same as "distance < ceil(maxFitError)"
+		int initialScore = maxFitError >= Integer.MAX_VALUE ? Integer.MAX_VALUE : (int)Math.ceil(maxFitError);
+
+		int bestScores[] = new int[blockSrc];
+
+		for( int blockI = index0; blockI < index1; blockI += blockSrc ) {
+			int endI = Math.min(index1, blockI+blockSrc);
+
+			for( int i = blockI; i < endI; i++ ) {
+				pairs.data[i] = -1;
+				bestScores[i-blockI] = initialScore;
+			}
+
+			for( int blockJ = 0; blockJ < dst.size; blockJ += blockDst ) {
+				int endJ = Math.min(dst.size, blockJ+blockDst);
+
+				for( int i = blockI; i < endI; i++ ) {
+					final int offsetA = i*numWords;
+					int bestScore = bestScores[i-blockI];
+					int bestIndex = pairs.data[i];
+
+					for( int j = blockJ; j < endJ; j++ ) {
+						int offsetB = j*numWords;
+
+						int distance = 0;
+						for( int k = 0; k < numWords; k++ ) {
+							distance += Long.bitCount(dataA[offsetA+k] ^ dataB[offsetB+k]);
+						}
+
+						if( distance < bestScore ) {
+							bestIndex = j;
+							bestScore = distance;
+						}
+
+						if( work != null ) {
+							if( distance < work.bestScore[j] ) {
+								work.bestScore[j] = distance;
+								work.bestIndex[j] = i;
+								work.tied[j] = false;
+							} else if( distance == work.bestScore[j] ) {
+								work.tied[j] = true;
+							}
+						}
+					}
+
+					pairs.data[i] = bestIndex;
+					bestScores[i-blockI] = bestScore;
+				}
+			}
+
+			for( int i = blockI; i < endI; i++ ) {
+				fitQuality.data[i] = pairs.data[i] == -1 ? maxFitError : bestScores[i-blockI];
+			}
+		}
+	}
+
+	/**
+	 * Combines the best src descriptor for each dst descriptor found by each thread
+	 */
+	private void mergeColumns( int numDst ) {
+		merged.reset(numDst);
+
+		for( int k = 0; k < used.size(); k++ ) {
+			Workspace work = used.get(k);
+			for( int j = 0; j < numDst; j++ ) {
+				int s = work.bestScore[j];
+				if( s < merged.bestScore[j] ) {
+					merged.bestScore[j] = s;
+					merged.bestIndex[j] = work.bestIndex[j];
+					merged.tied[j] = work.tied[j];
+				} else if( s == merged.bestScore[j] ) {
+					merged.tied[j] = true;
+				}
+			}
+		}
+	}
+
+	private Workspace grabWorkspace( int numDst ) {
+		Workspace work;
+		synchronized ( available ) {
+			work = available.isEmpty() ? new Workspace() : available.remove(available.size()-1);
+			used.add(work);
+		}
+		work.reset(numDst);
+		return work;
+	}
+
+	/**
+	 * Returns a list of association pairs.  Each element in the returned list corresponds
+	 * to an element in the src list.  The value contained in the index indicate which element
+	 * in the dst list that object was associated with.  If a value of -1 is stored then
+	 * no association was found.
+	 *
+	 * @return Array containing associations by src index.
+	 */
+	public int[] getPairs() {
+		return pairs.data;
+	}
+
+	/**
+	 * Quality of fit scores for each association.  Lower fit scores are better.
+	 *
+	 * @return Array of fit sources by src index.
+	 */
+	public double[] getFitQuality() {
+		return fitQuality.data;
+	}
+
+	public void setMaxFitError(double maxFitError) {
+		this.maxFitError = maxFitError;
+	}
+
+	public boolean isBackwardsValidation() {
+		return backwardsValidation;
+	}
+
+	public boolean isConcurrent() {
+		return concurrent;
+	}
+
+	public void setConcurrent(boolean concurrent) {
+		this.concurrent = concurrent;
+	}
+
+	/**
+	 * Specifies the size of the blocks the score matrix is processed in.  The number of source descriptors
+	 * in a block is also the smallest amount of work given to a thread.
+	 *
+	 * @param blockSrc Number of source descriptors in a block.
+	 * @param blockDst Number of destination descriptors in a block.
+	 */
+	public void setBlockSize( int blockSrc , int blockDst ) {
+		if( blockSrc <= 0 || blockDst <= 0 )
+			throw new IllegalArgumentException("Block size must be more than zero");
+		this.blockSrc = blockSrc;
+		this.blockDst = blockDst;
+	}
+
+	/**
+	 * Best score and the source descriptor with it, for each destination descriptor
+	 */
+	private static class Workspace {
+		int bestScore[] = new int[0];
+		int bestIndex[] = new int[0];
+		// true if more than one source descriptor has the best score
+		boolean tied[] = new boolean[0];
+
+		public void reset( int numDst ) {
+			if( bestScore.length < numDst ) {
+				bestScore = new int[numDst];
+				bestIndex = new int[numDst];
+				tied = new boolean[numDst];
+			}
+			for( int j = 0; j < numDst; j++ ) {
+				bestScore[j] = Integer.MAX_VALUE;
+				bestIndex[j] = -1;
+				tied[j] = false;
+			}
+		}
+	}
+}
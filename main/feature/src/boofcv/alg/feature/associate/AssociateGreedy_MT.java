@@ -0,0 +1,285 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.abst.feature.associate.ScoreAssociation;
+import boofcv.abst.feature.associate.ScoreAssociationBounded;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import org.ddogleg.struct.FastQueue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link AssociateGreedy}.  The source list is split into blocks which are
+ * processed by different threads.  Produces results which are identical to {@link AssociateGreedy}.
+ * </p>
+ *
+ * <p>
+ * The entire N by M score matrix is never saved.  To improve cache performance it is traversed in blocks.  If the
+ * score implements {@link ScoreAssociationBounded} then score computations are stopped once they are known to be
+ * worse than the best score so far.  For backwards validation each match is then checked against all the other
+ * source features, which is fast since almost all of those scores stop early.  Otherwise each thread keeps track
+ * of the best score and source feature for each destination feature, requiring memory proportional to the
+ * number of threads times M.
+ * </p>
+ *
+ * <p>
+ * NOTE: The {@link ScoreAssociation} is invoked by multiple threads at the same time and must be thread safe.
+ * </p>
+ *
+ * @param <D> Feature description type.
+ *
+ * @author Peter Abeles
+ */
+public class AssociateGreedy_MT<D> extends AssociateGreedy<D> {
+
+	// number of source and destination features in each block of the score matrix
+	private int blockSrc = 32;
+	private int blockDst = 256;
+
+	// if not null, then the score can stop early
+	private ScoreAssociationBounded<D> bounded;
+
+	// workspaces used by the threads
+	private final List<Workspace> available = new ArrayList<Workspace>();
+	private final List<Workspace> used = new ArrayList<Workspace>();
+
+	// best score for each dst feature across all threads
+	private Workspace merged = new Workspace();
+
+	/**
+	 * Configure association
+	 *
+	 * @param score Computes the association score.  Must be thread safe.
+	 * @param backwardsValidation If true then backwards validation is performed.
+	 */
+	public AssociateGreedy_MT(ScoreAssociation<D> score, boolean backwardsValidation) {
+		super(score, backwardsValidation);
+
+		if( score instanceof ScoreAssociationBounded )
+			bounded = (ScoreAssociationBounded<D>)score;
+	}
+
+	@Override
+	public void associate( final FastQueue<D> src , final FastQueue<D> dst ) {
+		fitQuality.reset();
+		pairs.reset();
+		fitQuality.resize(src.size);
+		pairs.resize(src.size);
+
+		synchronized ( available ) {
+			available.addAll(used);
+			used.clear();
+		}
+
+		// the best score for each dst feature is only needed when validating without bounded scores
+		final boolean trackColumns = isBackwardsValidation() && bounded == null;
+
+		BoofConcurrency.loopBlocks(0,src.size,blockSrc,new IntRangeTask() {
+			@Override
+			public void process(int index0, int index1) {
+				Workspace work = trackColumns ? grabWorkspace(dst.size) : null;
+				associate(src,dst,index0,index1,trackColumns,work);
+			}
+		});
+
+		if( !isBackwardsValidation() )
+			return;
+
+		if( trackColumns ) {
+			mergeColumns(dst.size);
+
+			// a match is only valid if it's the unique best match for the dst feature too
+			for( int i = 0; i < src.size; i++ ) {
+				int match = pairs.data[i];
+				if( match == -1 )
+					continue;
+
+				if( merged.bestIndex[match] != i || merged.tied[match] ) {
+					pairs.data[i] = -1;
+					fitQuality.data[i] = Double.MAX_VALUE;
+				}
+			}
+		} else {
+			BoofConcurrency.loopBlocks(0,src.size,blockSrc,new IntRangeTask() {
+				@Override
+				public void process(int index0, int index1) {
+					validate(src,dst,index0,index1);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Finds the best match for source features index0 to index1-1
+	 */
+	private void associate( FastQueue<D> src , FastQueue<D> dst , int index0 , int index1 ,
+							boolean trackColumns , Workspace work ) {
+		ScoreAssociation<D> score = getScore();
+
+		for( int i = index0; i < index1; i++ ) {
+			pairs.data[i] = -1;
+			fitQuality.data[i] = getMaxFitError();
+		}
+
+		for( int blockI = index0; blockI < index1; blockI += blockSrc ) {
+			int endI = Math.min(index1, blockI+blockSrc);
+
+			for( int blockJ = 0; blockJ < dst.size; blockJ += blockDst ) {
+				int endJ = Math.min(dst.size, blockJ+blockDst);
+
+				for( int i = blockI; i < endI; i++ ) {
+					D a = src.data[i];
+					double bestScore = fitQuality.data[i];
+					int bestIndex = pairs.data[i];
+
+					for( int j = blockJ; j < endJ; j++ ) {
+						D b = dst.data[j];
+
+						double fit;
+						if( bounded == null )
+							fit = score.score(a,b);
+						else
+							fit = bounded.score(a,b,bestScore);
+
+						if( fit < bestScore ) {
+							bestIndex = j;
+							bestScore = fit;
+						}
+
+						if( trackColumns ) {
+							if( fit < work.bestScore[j] ) {
+								work.bestScore[j] = fit;
+								work.bestIndex[j] = i;
+								work.tied[j] = false;
+							} else if( fit == work.bestScore[j] ) {
+								work.tied[j] = true;
+							}
+						}
+					}
+
+					pairs.data[i] = bestIndex;
+					fitQuality.data[i] = bestScore;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Backwards validation for source features index0 to index1-1.  A match is discarded if any other source
+	 * feature has a score which is as good or better with the same destination feature.
+	 */
+	private void validate( FastQueue<D> src , FastQueue<D> dst , int index0 , int index1 ) {
+		for( int i = index0; i < index1; i++ ) {
+			int match = pairs.data[i];
+			if( match == -1 )
+				continue;
+
+			D b = dst.data[match];
+			double scoreToBeat = fitQuality.data[i];
+
+			for( int j = 0; j < src.size; j++ ) {
+				if( j != i && bounded.score(src.data[j],b,scoreToBeat) <= scoreToBeat ) {
+					pairs.data[i] = -1;
+					fitQuality.data[i] = Double.MAX_VALUE;
+					break;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Combines the best src feature for each dst feature found by each thread
+	 */
+	private void mergeColumns( int numDst ) {
+		merged.reset(numDst);
+
+		for( int k = 0; k < used.size(); k++ ) {
+			Workspace work = used.get(k);
+			for( int j = 0; j < numDst; j++ ) {
+				double s = work.bestScore[j];
+				if( s < merged.bestScore[j] ) {
+					merged.bestScore[j] = s;
+					merged.bestIndex[j] = work.bestIndex[j];
+					merged.tied[j] = work.tied[j];
+				} else if( s == merged.bestScore[j] ) {
+					merged.tied[j] = true;
+				}
+			}
+		}
+	}
+
+	private Workspace grabWorkspace( int numDst ) {
+		Workspace work;
+		synchronized ( available ) {
+			work = available.isEmpty() ? new Workspace() : available.remove(available.size()-1);
+			used.add(work);
+		}
+		work.reset(numDst);
+		return work;
+	}
+
+	/**
+	 * Specifies the size of the blocks the score matrix is processed in.  The number of source features
+	 * in a block is also the smallest amount of work given to a thread.
+	 *
+	 * @param blockSrc Number of source features in a block.
+	 * @param blockDst Number of destination features in a block.
+	 */
+	public void setBlockSize( int blockSrc , int blockDst ) {
+		if( blockSrc <= 0 || blockDst <= 0 )
+			throw new IllegalArgumentException("Block size must be more than zero");
+		this.blockSrc = blockSrc;
+		this.blockDst = blockDst;
+	}
+
+	public int getBlockSrc() {
+		return blockSrc;
+	}
+
+	public int getBlockDst() {
+		return blockDst;
+	}
+
+	/**
+	 * Best score and the source feature with it, for each destination feature
+	 */
+	private static class Workspace {
+		double bestScore[] = new double[0];
+		int bestIndex[] = new int[0];
+		// true if more than one source feature has the best score
+		boolean tied[] = new boolean[0];
+
+		public void reset( int numDst ) {
+			if( bestScore.length < numDst ) {
+				bestScore = new double[numDst];
+				bestIndex = new int[numDst];
+				tied = new boolean[numDst];
+			}
+			for( int j = 0; j < numDst; j++ ) {
+				bestScore[j] = Double.MAX_VALUE;
+				bestIndex[j] = -1;
+				tied[j] = false;
+			}
+		}
+	}
+}
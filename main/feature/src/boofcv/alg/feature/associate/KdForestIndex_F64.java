@@ -0,0 +1,803 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.struct.feature.TupleDesc_F64;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_F64;
+import org.ddogleg.struct.GrowQueue_I32;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * <p>
+ * Approximate nearest neighbor index made up of several randomized K-D trees, which are searched at the same time
+ * using best-bin-first.  Unlike the nearest neighbor algorithms in DDogleg, points can be added and removed one at
+ * a time without rebuilding the whole structure.  This makes it well suited for associating a set of long lived
+ * descriptors, e.g. a map, against each new image, where only a few of the descriptors change between frames.
+ * </p>
+ *
+ * <p>
+ * Each point is identified by an integer ID, which is returned when it is added and remains valid until it is
+ * removed.  The IDs of removed points are recycled.  Points are copied into a single array and the trees are
+ * stored as arrays of primitives, so no objects are created per point.
+ * </p>
+ *
+ * <p>
+ * Trees are split at the mean value of an axis, which is randomly selected from the axes with the largest
+ * variance.  When a point is added it's inserted into the leaf it falls inside of in each tree, which is split once
+ * it contains too many points.  After many points have been added or removed the trees can become unbalanced,
+ * see {@link #isRebuildRecommended()} and {@link #rebuild()}.
+ * </p>
+ *
+ * <p>
+ * Search effort is bounded by the number of points whose distance is computed.  If set to zero the search is
+ * exact.  Several searches can run at the same time, see {@link #createSearch()} and
+ * {@link #findNearest(FastQueue, double, GrowQueue_I32, GrowQueue_F64)}, but the index must not be modified
+ * while it is being searched.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class KdForestIndex_F64 {
+
+	// number of elements in each point
+	private int dof;
+
+	// values of all the points.  The point with ID i starts at i*dof
+	private double points[] = new double[0];
+	// true if the ID is assigned to a point
+	private boolean alive[] = new boolean[0];
+	// number of IDs which have ever been assigned
+	private int numIds;
+	// IDs of removed points which can be reused
+	private GrowQueue_I32 freeIds = new GrowQueue_I32();
+	// number of points in the index
+	private int size;
+
+	// the trees in the forest
+	private Tree trees[];
+	// maximum number of points in a leaf before it is split
+	private int maxLeafSize = 16;
+	// number of axes with the largest variance which are considered when splitting
+	private int numConsiderSplit;
+	// number of points used to estimate the variance along each axis
+	private int varianceSampleSize = 100;
+	private Random rand;
+
+	// maximum number of points checked in a search.  If <= 0 there is no limit
+	private int maxPointsChecked;
+
+	// number of add and remove operations since the trees were last built
+	private int modifications;
+	// fraction of the index which can be modified before a rebuild is recommended
+	private double rebuildFraction = 0.5;
+
+	// if true then batch searches are split between threads
+	private boolean concurrent;
+
+	// searches used by batch queries
+	private final List<Search> available = new ArrayList<Search>();
+
+	// work space for building the trees
+	private int workIds[] = new int[0];
+	private double mean[];
+	private double variance[];
+	private int candidates[];
+	private int splitAxis;
+	private double splitValue;
+
+	/**
+	 * Configures the index.
+	 *
+	 * @param dof Number of elements in each point.
+	 * @param numTrees Number of randomized trees.  Try 4 to 8.
+	 * @param numConsiderSplit Number of axes with the largest variance which are randomly selected between when
+	 *                         splitting a node.  Try 5
+	 * @param maxPointsChecked Maximum number of points whose distance is computed in a single search.  Controls speed
+	 *                         and accuracy.  If &le; 0 then the search is exact.
+	 * @param randomSeed Seed used by the random number generator.
+	 * @param concurrent If true then batch searches are split between threads.
+	 */
+	public KdForestIndex_F64( int dof , int numTrees , int numConsiderSplit , int maxPointsChecked ,
+							  long randomSeed , boolean concurrent ) {
+		if( dof <= 0 )
+			throw new IllegalArgumentException("Degree of freedom must be more than zero");
+		if( numTrees <= 0 )
+			throw new IllegalArgumentException("There must be at least one tree");
+		if( numConsiderSplit <= 0 )
+			throw new IllegalArgumentException("numConsiderSplit must be more than zero");
+
+		this.dof = dof;
+		this.numConsiderSplit = Math.min(dof,numConsiderSplit);
+		this.maxPointsChecked = maxPointsChecked;
+		this.rand = new Random(randomSeed);
+		this.concurrent = concurrent;
+
+		mean = new double[dof];
+		variance = new double[dof];
+		candidates = new int[this.numConsiderSplit];
+
+		trees = new Tree[numTrees];
+		for( int i = 0; i < numTrees; i++ ) {
+			trees[i] = new Tree();
+		}
+	}
+
+	/**
+	 * Removes all points from the index.
+	 */
+	public void reset() {
+		numIds = 0;
+		size = 0;
+		freeIds.reset();
+		modifications = 0;
+		for( int i = 0; i < trees.length; i++ ) {
+			trees[i].reset();
+		}
+	}
+
+	/**
+	 * Adds a point to the index.  The point's value is copied.
+	 *
+	 * @param point The point.  Not modified.
+	 * @return ID of the point.
+	 */
+	public int add( double point[] ) {
+		int id;
+		if( freeIds.size > 0 ) {
+			id = freeIds.data[--freeIds.size];
+		} else {
+			id = numIds++;
+			growIds(numIds);
+		}
+		System.arraycopy(point,0,points,id*dof,dof);
+		alive[id] = true;
+		size++;
+		modifications++;
+
+		for( int i = 0; i < trees.length; i++ ) {
+			insert(trees[i],id);
+		}
+
+		return id;
+	}
+
+	/**
+	 * Removes a point from the index.  Its ID can be returned by a later call to {@link #add(double[])}.
+	 *
+	 * @param id ID of the point.
+	 */
+	public void remove( int id ) {
+		if( id < 0 || id >= numIds || !alive[id] )
+			throw new IllegalArgumentException("No point with ID "+id);
+
+		for( int i = 0; i < trees.length; i++ ) {
+			trees[i].remove(id);
+		}
+
+		alive[id] = false;
+		freeIds.push(id);
+		size--;
+		modifications++;
+	}
+
+	/**
+	 * Returns true if a point with the specified ID is in the index.
+	 */
+	public boolean contains( int id ) {
+		return id >= 0 && id < numIds && alive[id];
+	}
+
+	/**
+	 * Returns true if the point with the specified ID has the same value as the provided point.
+	 *
+	 * @param id ID of a point in the index
+	 * @param point The point which is being compared
+	 */
+	public boolean isEqual( int id , double point[] ) {
+		int index = id*dof;
+		for( int i = 0; i < dof; i++ ) {
+			if( points[index++] != point[i] )
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Copies the value of the point with the specified ID.
+	 *
+	 * @param id ID of a point in the index
+	 * @param storage Storage for the point's value.
+	 */
+	public void getPoint( int id , double storage[] ) {
+		System.arraycopy(points,id*dof,storage,0,dof);
+	}
+
+	/**
+	 * Returns true if enough points have been added or removed since the trees were built that they
+	 * might no longer be balanced.
+	 */
+	public boolean isRebuildRecommended() {
+		return modifications > rebuildFraction*Math.max(size,maxLeafSize);
+	}
+
+	/**
+	 * Builds all the trees from scratch using the points currently in the index.
+	 */
+	public void rebuild() {
+		int ids[] = new int[size];
+		int N = 0;
+		for( int id = 0; id < numIds; id++ ) {
+			if( alive[id] )
+				ids[N++] = id;
+		}
+
+		for( int i = 0; i < trees.length; i++ ) {
+			Tree tree = trees[i];
+			tree.reset();
+			if( i > 0 )
+				ids = ids.clone();
+			build(tree,0,ids,0,N);
+		}
+		modifications = 0;
+	}
+
+	/**
+	 * Creates a new search.  Each thread needs its own search.
+	 */
+	public Search createSearch() {
+		return new Search();
+	}
+
+	/**
+	 * Finds the nearest point for every query.  If concurrent then the queries are split between threads.
+	 *
+	 * @param queries Points being searched for.
+	 * @param maxDistance Maximum Euclidean distance the nearest point can be.  If &lt; 0 there is no limit.
+	 * @param ids (Output) ID of the nearest point for each query or -1 if none was found.
+	 * @param distances (Output) Euclidean distance squared to the nearest point for each query.
+	 */
+	public void findNearest( final FastQueue<? extends TupleDesc_F64> queries , final double maxDistance ,
+							 final GrowQueue_I32 ids , final GrowQueue_F64 distances ) {
+		ids.reset();
+		distances.reset();
+		ids.resize(queries.size);
+		distances.resize(queries.size);
+
+		IntRangeTask task = new IntRangeTask() {
+			@Override
+			public void process(int index0, int index1) {
+				Search search;
+				synchronized ( available ) {
+					search = available.isEmpty() ? new Search() : available.remove(available.size()-1);
+				}
+				for( int i = index0; i < index1; i++ ) {
+					ids.data[i] = search.findNearest(queries.data[i].value,maxDistance);
+					distances.data[i] = search.getDistance();
+				}
+				synchronized ( available ) {
+					available.add(search);
+				}
+			}
+		};
+
+		if( concurrent )
+			BoofConcurrency.loopBlocks(0,queries.size,50,task);
+		else
+			task.process(0,queries.size);
+	}
+
+	/**
+	 * Adds the point to the leaf it falls inside of and splits the leaf if it's too big
+	 */
+	private void insert( Tree tree , int id ) {
+		int node = tree.findLeaf(points,id*dof);
+		tree.addToLeaf(node,id);
+
+		if( tree.leafSize[node] >= tree.leafLimit[node] ) {
+			int N = tree.leafSize[node];
+			if( workIds.length < N )
+				workIds = new int[N];
+			System.arraycopy(tree.leafIds[node],0,workIds,0,N);
+			build(tree,node,workIds,0,N);
+		}
+	}
+
+	/**
+	 * Recursively builds a tree from the points and saves it in the specified node.
+	 *
+	 * @param node Node which is to be assigned.  Must be a leaf.
+	 * @param ids IDs of the points.  Reordered.
+	 */
+	private void build( Tree tree , int node , int ids[] , int start , int end ) {
+		if( end-start <= maxLeafSize || !selectSplit(ids,start,end) ) {
+			tree.setLeaf(node,ids,start,end);
+			return;
+		}
+
+		// points below the split go on the left and the others go on the right
+		int axis = splitAxis;
+		double value = splitValue;
+		int middle = start;
+		for( int i = start; i < end; i++ ) {
+			int id = ids[i];
+			if( points[id*dof+axis] < value ) {
+				ids[i] = ids[middle];
+				ids[middle++] = id;
+			}
+		}
+
+		// can happen due to round off error in the mean
+		if( middle == start || middle == end ) {
+			tree.setLeaf(node,ids,start,end);
+			return;
+		}
+
+		int left = tree.createNode();
+		int right = tree.createNode();
+		tree.setSplit(node,axis,value,left,right);
+		build(tree,left,ids,start,middle);
+		build(tree,right,ids,middle,end);
+	}
+
+	/**
+	 * Randomly selects an axis from the ones with the largest variance and splits at its mean.
+	 *
+	 * @return false if all the points are identical along the axes with the largest variance.
+	 */
+	private boolean selectSplit( int ids[] , int start , int end ) {
+		int N = end-start;
+		int numSamples = Math.min(N,varianceSampleSize);
+
+		for( int k = 0; k < dof; k++ ) {
+			mean[k] = 0;
+			variance[k] = 0;
+		}
+		for( int i = 0; i < numSamples; i++ ) {
+			int index = ids[start + (int)((long)i*N/numSamples)]*dof;
+			for( int k = 0; k < dof; k++ ) {
+				mean[k] += points[index+k];
+			}
+		}
+		for( int k = 0; k < dof; k++ ) {
+			mean[k] /= numSamples;
+		}
+		for( int i = 0; i < numSamples; i++ ) {
+			int index = ids[start + (int)((long)i*N/numSamples)]*dof;
+			for( int k = 0; k < dof; k++ ) {
+				double d = points[index+k] - mean[k];
+				variance[k] += d*d;
+			}
+		}
+
+		// axes with the largest variance.  Variance is destroyed as they are selected
+		int numCandidates = 0;
+		for( int c = 0; c < candidates.length; c++ ) {
+			int best = -1;
+			double bestVariance = 0;
+			for( int k = 0; k < dof; k++ ) {
+				if( variance[k] > bestVariance ) {
+					bestVariance = variance[k];
+					best = k;
+				}
+			}
+			if( best == -1 )
+				break;
+			candidates[numCandidates++] = best;
+			variance[best] = -1;
+		}
+
+		if( numCandidates == 0 ) {
+			// the points might only be identical in the sample
+			if( numSamples == N )
+				return false;
+			splitAxis = rand.nextInt(dof);
+		} else {
+			splitAxis = candidates[rand.nextInt(numCandidates)];
+		}
+
+		double sum = 0;
+		for( int i = start; i < end; i++ ) {
+			sum += points[ids[i]*dof+splitAxis];
+		}
+		splitValue = sum/N;
+
+		return true;
+	}
+
+	/**
+	 * Makes sure there is enough storage for the specified number of IDs
+	 */
+	private void growIds( int numIds ) {
+		if( alive.length >= numIds )
+			return;
+
+		int length = Math.max(numIds,alive.length*2);
+		double points[] = new double[length*dof];
+		boolean alive[] = new boolean[length];
+		System.arraycopy(this.points,0,points,0,this.points.length);
+		System.arraycopy(this.alive,0,alive,0,this.alive.length);
+		this.points = points;
+		this.alive = alive;
+	}
+
+	/**
+	 * Number of points in the index
+	 */
+	public int size() {
+		return size;
+	}
+
+	public int getDof() {
+		return dof;
+	}
+
+	/**
+	 * Number of IDs which have been assigned.  All IDs are less than this value.
+	 */
+	public int getNumIds() {
+		return numIds;
+	}
+
+	public int getNumTrees() {
+		return trees.length;
+	}
+
+	public int getMaxPointsChecked() {
+		return maxPointsChecked;
+	}
+
+	public void setMaxPointsChecked(int maxPointsChecked) {
+		this.maxPointsChecked = maxPointsChecked;
+	}
+
+	public int getMaxLeafSize() {
+		return maxLeafSize;
+	}
+
+	/**
+	 * Specifies the maximum number of points in a leaf.  Only affects nodes created after it has been called.
+	 */
+	public void setMaxLeafSize(int maxLeafSize) {
+		if( maxLeafSize <= 0 )
+			throw new IllegalArgumentException("Leaf size must be more than zero");
+		this.maxLeafSize = maxLeafSize;
+	}
+
+	public double getRebuildFraction() {
+		return rebuildFraction;
+	}
+
+	public void setRebuildFraction(double rebuildFraction) {
+		this.rebuildFraction = rebuildFraction;
+	}
+
+	public boolean isConcurrent() {
+		return concurrent;
+	}
+
+	public void setConcurrent(boolean concurrent) {
+		this.concurrent = concurrent;
+	}
+
+	/**
+	 * Best-bin-first search across all the trees.  Nodes which have not been explored are stored in a priority
+	 * queue, ordered by a lower bound on the distance to any point inside of them.  The search stops when the
+	 * best point found is closer than the next node or too many points have been checked.  A point which is
+	 * in more than one tree is only checked once.
+	 */
+	public class Search {
+		// priority queue of unexplored nodes, stored as a binary heap
+		private int heapTree[] = new int[16];
+		private int heapNode[] = new int[16];
+		private double heapBound[] = new double[16];
+		private int heapSize;
+
+		// the last search a point was checked in
+		private int visited[] = new int[0];
+		private int searchNumber;
+
+		private double query[];
+		private int numChecked;
+		private int bestId;
+		private double bestDistance;
+
+		/**
+		 * Searches for the point closest to the query.
+		 *
+		 * @param point The query.  Not modified.
+		 * @param maxDistance Maximum Euclidean distance the nearest point can be.  If &lt; 0 there is no limit.
+		 * @return ID of the nearest point or -1 if none was found.
+		 */
+		public int findNearest( double point[] , double maxDistance ) {
+			if( visited.length < numIds ) {
+				visited = new int[alive.length];
+				searchNumber = 0;
+			}
+			if( ++searchNumber == Integer.MAX_VALUE ) {
+				for( int i = 0; i < visited.length; i++ )
+					visited[i] = 0;
+				searchNumber = 1;
+			}
+
+			query = point;
+			numChecked = 0;
+			heapSize = 0;
+			bestId = -1;
+			bestDistance = maxDistance < 0 ? Double.MAX_VALUE : maxDistance*maxDistance;
+
+			for( int i = 0; i < trees.length; i++ ) {
+				descend(i,0,0);
+			}
+
+			while( heapSize > 0 && (maxPointsChecked <= 0 || numChecked < maxPointsChecked) ) {
+				if( heapBound[0] >= bestDistance )
+					break;
+				int tree = heapTree[0];
+				int node = heapNode[0];
+				double bound = heapBound[0];
+				pop();
+				descend(tree,node,bound);
+			}
+
+			query = null;
+			return bestId;
+		}
+
+		/**
+		 * Euclidean distance squared to the point found by the last search.
+		 */
+		public double getDistance() {
+			return bestDistance;
+		}
+
+		/**
+		 * Follows the branches closest to the query down to a leaf and checks the points in the leaf.
+		 * The other branches are added to the queue.
+		 */
+		private void descend( int treeIndex , int node , double bound ) {
+			Tree tree = trees[treeIndex];
+
+			while( tree.axis[node] >= 0 ) {
+				double diff = query[tree.axis[node]] - tree.split[node];
+				int near,far;
+				if( diff < 0 ) {
+					near = tree.left[node];
+					far = tree.right[node];
+				} else {
+					near = tree.right[node];
+					far = tree.left[node];
+				}
+				double farBound = Math.max(bound,diff*diff);
+				if( farBound < bestDistance )
+					push(treeIndex,far,farBound);
+				node = near;
+			}
+
+			int ids[] = tree.leafIds[node];
+			int N = tree.leafSize[node];
+			for( int i = 0; i < N; i++ ) {
+				int id = ids[i];
+				if( visited[id] == searchNumber )
+					continue;
+				visited[id] = searchNumber;
+				numChecked++;
+
+				// stop computing the distance once it's clearly worse than the best point
+				int index = id*dof;
+				double distance = 0;
+				for( int k = 0; k < dof; ) {
+					int end = Math.min(dof,k+8);
+					for( ; k < end; k++ ) {
+						double d = query[k] - points[index+k];
+						distance += d*d;
+					}
+					if( distance >= bestDistance )
+						break;
+				}
+				if( distance < bestDistance ) {
+					bestDistance = distance;
+					bestId = id;
+				}
+			}
+		}
+
+		private void push( int tree , int node , double bound ) {
+			if( heapSize == heapNode.length ) {
+				int length = heapSize*2;
+				int heapTree[] = new int[length];
+				int heapNode[] = new int[length];
+				double heapBound[] = new double[length];
+				System.arraycopy(this.heapTree,0,heapTree,0,heapSize);
+				System.arraycopy(this.heapNode,0,heapNode,0,heapSize);
+				System.arraycopy(this.heapBound,0,heapBound,0,heapSize);
+				this.heapTree = heapTree;
+				this.heapNode = heapNode;
+				this.heapBound = heapBound;
+			}
+
+			// sift up
+			int i = heapSize++;
+			while( i > 0 ) {
+				int parent = (i-1)/2;
+				if( heapBound[parent] <= bound )
+					break;
+				heapTree[i] = heapTree[parent];
+				heapNode[i] = heapNode[parent];
+				heapBound[i] = heapBound[parent];
+				i = parent;
+			}
+			heapTree[i] = tree;
+			heapNode[i] = node;
+			heapBound[i] = bound;
+		}
+
+		private void pop() {
+			heapSize--;
+			int tree = heapTree[heapSize];
+			int node = heapNode[heapSize];
+			double bound = heapBound[heapSize];
+
+			// sift down
+			int i = 0;
+			while( true ) {
+				int child = 2*i+1;
+				if( child >= heapSize )
+					break;
+				if( child+1 < heapSize && heapBound[child+1] < heapBound[child] )
+					child++;
+				if( bound <= heapBound[child] )
+					break;
+				heapTree[i] = heapTree[child];
+				heapNode[i] = heapNode[child];
+				heapBound[i] = heapBound[child];
+				i = child;
+			}
+			heapTree[i] = tree;
+			heapNode[i] = node;
+			heapBound[i] = bound;
+		}
+	}
+
+	/**
+	 * K-D tree stored in arrays.  Node 0 is the root.  Leaf nodes have an axis of -1.
+	 */
+	private class Tree {
+		int numNodes;
+		// axis the node is split along
+		int axis[] = new int[0];
+		// points below the split value go to the left
+		double split[] = new double[0];
+		int left[] = new int[0];
+		int right[] = new int[0];
+
+		// IDs of the points inside a leaf
+		int leafIds[][] = new int[0][];
+		int leafSize[] = new int[0];
+		// the leaf is split when it contains this many points
+		int leafLimit[] = new int[0];
+
+		public void reset() {
+			numNodes = 0;
+			axis = new int[0];
+			split = new double[0];
+			left = new int[0];
+			right = new int[0];
+			leafIds = new int[0][];
+			leafSize = new int[0];
+			leafLimit = new int[0];
+			createNode();
+		}
+
+		public Tree() {
+			reset();
+		}
+
+		/**
+		 * Creates a new empty leaf
+		 */
+		public int createNode() {
+			if( numNodes == axis.length ) {
+				int length = Math.max(16,numNodes*2);
+				axis = grow(axis,length);
+				split = grow(split,length);
+				left = grow(left,length);
+				right = grow(right,length);
+				leafSize = grow(leafSize,length);
+				leafLimit = grow(leafLimit,length);
+				int leafIds[][] = new int[length][];
+				System.arraycopy(this.leafIds,0,leafIds,0,numNodes);
+				this.leafIds = leafIds;
+			}
+			int node = numNodes++;
+			axis[node] = -1;
+			leafIds[node] = new int[0];
+			leafSize[node] = 0;
+			leafLimit[node] = maxLeafSize+1;
+			return node;
+		}
+
+		public void setLeaf( int node , int ids[] , int start , int end ) {
+			int N = end-start;
+			if( leafIds[node].length < N )
+				leafIds[node] = new int[Math.max(N,maxLeafSize+1)];
+			System.arraycopy(ids,start,leafIds[node],0,N);
+			leafSize[node] = N;
+			// leaves which could not be split are allowed to grow before trying again
+			leafLimit[node] = N > maxLeafSize ? 2*N : maxLeafSize+1;
+		}
+
+		public void setSplit( int node , int axis , double value , int left , int right ) {
+			this.axis[node] = axis;
+			this.split[node] = value;
+			this.left[node] = left;
+			this.right[node] = right;
+			leafIds[node] = null;
+			leafSize[node] = 0;
+		}
+
+		public int findLeaf( double points[] , int index ) {
+			int node = 0;
+			while( axis[node] >= 0 ) {
+				node = points[index+axis[node]] < split[node] ? left[node] : right[node];
+			}
+			return node;
+		}
+
+		public void addToLeaf( int node , int id ) {
+			int N = leafSize[node];
+			if( leafIds[node].length == N ) {
+				leafIds[node] = grow(leafIds[node],Math.max(4,N*2));
+			}
+			leafIds[node][N] = id;
+			leafSize[node] = N+1;
+		}
+
+		public void remove( int id ) {
+			int node = findLeaf(points,id*dof);
+			int ids[] = leafIds[node];
+			int N = leafSize[node];
+			for( int i = 0; i < N; i++ ) {
+				if( ids[i] == id ) {
+					ids[i] = ids[N-1];
+					leafSize[node] = N-1;
+					return;
+				}
+			}
+			throw new RuntimeException("BUG! Point not found in tree");
+		}
+	}
+
+	private static int[] grow( int a[] , int length ) {
+		int ret[] = new int[length];
+		System.arraycopy(a,0,ret,0,Math.min(a.length,length));
+		return ret;
+	}
+
+	private static double[] grow( double a[] , int length ) {
+		double ret[] = new double[length];
+		System.arraycopy(a,0,ret,0,Math.min(a.length,length));
+		return ret;
+	}
+}
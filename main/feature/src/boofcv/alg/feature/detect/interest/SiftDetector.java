@@ -161,8 +161,6 @@ public class SiftDetector {
 
 			currentPixelScale = ss.pixelScale[octave];
 
-			ss.storage.reshape( ss.scale[indexScale].width , ss.scale[indexScale].height );
-
 			for( int scale = 1; scale < ss.numScales-2; scale++ , indexScale++,indexDOG++ ) {
 
 				// use the scale-space image as input for derivatives
@@ -19,12 +19,14 @@
 package boofcv.alg.feature.detect.interest;
 
 import boofcv.abst.filter.derivative.ImageGradient;
+import boofcv.alg.filter.blur.BlurImageOps;
 import boofcv.alg.filter.convolve.ConvolveNormalized;
 import boofcv.alg.misc.PixelMath;
 import boofcv.factory.filter.derivative.FactoryDerivative;
 import boofcv.factory.filter.kernel.FactoryKernelGaussian;
 import boofcv.struct.convolve.Kernel1D_F32;
 import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.ImagePool;
 
 /**
  * Constructs the scale-space in which SIFT detects features.  An octave contains a set of scales.
@@ -83,6 +85,11 @@ public class SiftImageScaleSpace {
 
 	// storage for applying blur
 	protected ImageFloat32 storage;
+	// if not null the blur storage is borrowed from this pool while the pyramid is constructed
+	private ImagePool pool;
+
+	// if true the blur is applied using a recursive filter instead of convolution
+	private boolean recursiveBlur = false;
 
 	/**
 	 * Configures the scale-space.
@@ -146,14 +153,31 @@ public class SiftImageScaleSpace {
 	 * @param input Input image
 	 */
 	public void constructPyramid(ImageFloat32 input) {
+		if( doubleInputImage )
+			reshapeToInput(input.width * 2, input.height * 2);
+		else
+			reshapeToInput(input.width, input.height);
+
+		if( pool == null ) {
+			constructOctaves(input);
+		} else {
+			ImageFloat32 owned = storage;
+			storage = pool.borrow(ImageFloat32.class,scale[0].width,scale[0].height);
+			try {
+				constructOctaves(input);
+			} finally {
+				pool.release(storage);
+				storage = owned;
+			}
+		}
+	}
+
+	private void constructOctaves(ImageFloat32 input) {
 		// compute the first octave
 		if( doubleInputImage ) {
-			reshapeToInput(input.width * 2, input.height * 2);
 			upSample(input,scale[1]);
-
 			blurImage(scale[1],scale[0],sigma);
 		} else {
-			reshapeToInput(input.width, input.height);
 			blurImage(input, scale[0], sigma);
 		}
 		constructRestOfOctave(0);
@@ -216,9 +240,16 @@ public class SiftImageScaleSpace {
 	 * the output image
 	 */
 	private void blurImage( ImageFloat32 input , ImageFloat32 output , double sigma ) {
+		storage.reshape(input.width,input.height);
+
+		// the recursive filter is inaccurate for small sigmas
+		if( recursiveBlur && sigma >= 1 ) {
+			BlurImageOps.gaussianRecursive(input,output,sigma,storage);
+			return;
+		}
+
 		Kernel1D_F32 kernel = FactoryKernelGaussian.gaussian(Kernel1D_F32.class, sigma, -1);
 
-		storage.reshape(input.width,input.height);
 		ConvolveNormalized.horizontal(kernel, input, storage);
 		ConvolveNormalized.vertical(kernel,storage,output);
 	}
@@ -319,6 +350,37 @@ public class SiftImageScaleSpace {
 		}
 	}
 
+	/**
+	 * Specifies if blur is applied using a recursive filter, which takes the same amount of time for any sigma.
+	 * The recursive filter is only used when sigma &ge; 1 since it is less accurate for smaller values.
+	 *
+	 * @see BlurImageOps#gaussianRecursive
+	 *
+	 * @param recursiveBlur true for a recursive filter and false for convolution
+	 */
+	public void setRecursiveBlur(boolean recursiveBlur) {
+		this.recursiveBlur = recursiveBlur;
+	}
+
+	public boolean isRecursiveBlur() {
+		return recursiveBlur;
+	}
+
+	/**
+	 * Specifies a pool which the intermediate image used for blurring is borrowed from while the pyramid is
+	 * being constructed, instead of keeping one in this class between calls.  The pool must only be used by
+	 * the thread which calls {@link #constructPyramid}.
+	 *
+	 * @param pool Pool to borrow from, e.g. {@link ImagePool#local()}.  If null then the image is owned by this class.
+	 */
+	public void setImagePool(ImagePool pool) {
+		this.pool = pool;
+	}
+
+	public ImagePool getImagePool() {
+		return pool;
+	}
+
 	public int getNumOctaves() {
 		return numOctaves;
 	}
@@ -20,6 +20,9 @@ package boofcv.factory.feature.associate;
 
 import boofcv.abst.feature.associate.*;
 import boofcv.alg.feature.associate.AssociateGreedy;
+import boofcv.alg.feature.associate.AssociateGreedyHamming_B;
+import boofcv.alg.feature.associate.AssociateGreedy_MT;
+import boofcv.alg.feature.associate.KdForestIndex_F64;
 import boofcv.struct.feature.*;
 import org.ddogleg.nn.FactoryNearestNeighbor;
 import org.ddogleg.nn.NearestNeighbor;
@@ -49,13 +52,64 @@ public class FactoryAssociation {
 			double maxError ,
 			boolean backwardsValidation )
 	{
-		AssociateGreedy<D> alg = new AssociateGreedy<D>(score,backwardsValidation);
+		return greedy(score,maxError,backwardsValidation,false);
+	}
+
+	/**
+	 * Returns an algorithm for associating features together which uses a brute force greedy algorithm.
+	 * Optionally the source features can be split across multiple threads, which produces identical results.
+	 *
+	 * @see AssociateGreedy
+	 * @see AssociateGreedy_MT
+	 *
+	 * @param score Computes the fit score between two features.  Must be thread safe if concurrent.
+	 * @param maxError Maximum allowed error/fit score between two features.  To disable set to Double.MAX_VALUE
+	 * @param backwardsValidation If true associations are validated by associating in the reverse direction.  If the
+	 *                  forward and reverse matches fit an association is excepted.
+	 * @param concurrent If true the association will be computed using multiple threads.
+	 * @param <D> Data structure being associated
+	 * @return AssociateDescription
+	 */
+	public static <D> AssociateDescription<D>
+	greedy( ScoreAssociation<D> score ,
+			double maxError ,
+			boolean backwardsValidation ,
+			boolean concurrent )
+	{
+		AssociateGreedy<D> alg;
+		if( concurrent )
+			alg = new AssociateGreedy_MT<D>(score,backwardsValidation);
+		else
+			alg = new AssociateGreedy<D>(score,backwardsValidation);
 		alg.setMaxFitError(maxError);
 		WrapAssociateGreedy<D> ret = new WrapAssociateGreedy<D>(alg);
 		return ret;
 	}
 
 
+	/**
+	 * Brute force greedy association for binary descriptors using the Hamming distance.  Produces the same
+	 * results as {@link #greedy} with {@link ScoreAssociateHamming_B}, but is much faster since the descriptors
+	 * are packed into a single array and scored using bit counts.
+	 *
+	 * @see AssociateGreedyHamming_B
+	 *
+	 * @param maxError Maximum allowed Hamming distance between two features.  To disable set to Double.MAX_VALUE
+	 * @param backwardsValidation If true associations are validated by associating in the reverse direction.  If the
+	 *                  forward and reverse matches fit an association is excepted.
+	 * @param concurrent If true the association will be computed using multiple threads.
+	 * @return AssociateDescription
+	 */
+	public static AssociateDescription<TupleDesc_B>
+	greedyHamming( double maxError ,
+				   boolean backwardsValidation ,
+				   boolean concurrent )
+	{
+		AssociateGreedyHamming_B alg = new AssociateGreedyHamming_B(backwardsValidation,concurrent);
+		alg.setMaxFitError(maxError);
+		return new WrapAssociateGreedyHamming_B(alg);
+	}
+
 	/**
 	 * Approximate association using a K-D tree degree of moderate size (10-15) that uses a best-bin-first search
 	 * order.
@@ -99,6 +153,35 @@ public class FactoryAssociation {
 		return new AssociateNearestNeighbor<TupleDesc_F64>(nn,dimension);
 	}
 
+	/**
+	 * Approximate association using multiple random K-D trees which are updated incrementally when the source
+	 * features change, instead of being rebuilt each time.  Best when most of the source features are the same
+	 * between calls, e.g. a map of features.
+	 *
+	 * @see AssociateNearestNeighborIncremental
+	 * @see KdForestIndex_F64
+	 *
+	 * @param dimension Number of elements in the feature vector
+	 * @param maxPointsChecked Maximum number of features whose distance is computed in a search.  Controls speed
+	 *                         and accuracy.  If &le; 0 the search is exact.
+	 * @param numTrees Number of trees that are considered.  Try 4 and tune.
+	 * @param numConsiderSplit Number of axes that are considered when splitting a node.  Try 5
+	 * @param randomSeed Seed used by random number generator
+	 * @param concurrent If true destination features are searched for using multiple threads
+	 * @return Association using approximate nearest neighbor
+	 */
+	public static AssociateDescription<TupleDesc_F64> kdForestIncremental( int dimension,
+																		   int maxPointsChecked ,
+																		   int numTrees ,
+																		   int numConsiderSplit ,
+																		   long randomSeed ,
+																		   boolean concurrent ) {
+		KdForestIndex_F64 index = new KdForestIndex_F64(dimension,numTrees,numConsiderSplit,
+				maxPointsChecked,randomSeed,concurrent);
+
+		return new AssociateNearestNeighborIncremental<TupleDesc_F64>(index);
+	}
+
 	/**
 	 * Given a feature descriptor type it returns a "reasonable" default {@link ScoreAssociation}.
 	 *
@@ -200,4 +200,62 @@ public class FactoryDetectDescribe {
 		return new DetectDescribeFusion<T, D>(detector,orientation,describe);
 	}
 
+	/**
+	 * Creates a {@link DetectDescribeBatch} for processing many images at once using SIFT.  Each thread
+	 * gets its own instance created by {@link #sift}.
+	 *
+	 * @param configSS Configuration for scale-space.  Pass in null for default options.
+	 * @param configDetector Configuration for detector.  Pass in null for default options.
+	 * @param configOri Configuration for region orientation.  Pass in null for default options.
+	 * @param configDesc Configuration for descriptor. Pass in null for default options.
+	 * @param numThreads Number of worker threads.
+	 * @param maxPending Maximum number of images being processed at any time.
+	 * @return SIFT batch processor
+	 */
+	public static DetectDescribeBatch<ImageFloat32,SurfFeature>
+	batchSift( final ConfigSiftScaleSpace configSS,
+			   final ConfigSiftDetector configDetector ,
+			   final ConfigSiftOrientation configOri ,
+			   final ConfigSiftDescribe configDesc ,
+			   int numThreads , int maxPending ) {
+
+		DetectDescribeGenerator<ImageFloat32,SurfFeature> generator =
+				new DetectDescribeGenerator<ImageFloat32, SurfFeature>() {
+			@Override
+			public DetectDescribePoint<ImageFloat32, SurfFeature> create() {
+				return sift(configSS,configDetector,configOri,configDesc);
+			}
+		};
+
+		return new DetectDescribeBatch<ImageFloat32, SurfFeature>(generator,numThreads,maxPending);
+	}
+
+	/**
+	 * Creates a {@link DetectDescribeBatch} for processing many images at once using the stable variant of SURF.
+	 * Each thread gets its own instance created by {@link #surfStable}.
+	 *
+	 * @param configDetector Configuration for SURF detector.  Null for default.
+	 * @param configDescribe Configuration for SURF descriptor.  Null for default.
+	 * @param configOrientation Configuration for region orientation.  Null for default.
+	 * @param imageType Specify type of input image.  Gray and color images produce different descriptors.
+	 * @param numThreads Number of worker threads.
+	 * @param maxPending Maximum number of images being processed at any time.
+	 * @return SURF batch processor
+	 */
+	public static <T extends ImageBase>
+	DetectDescribeBatch<T,SurfFeature> batchSurfStable( final ConfigFastHessian configDetector,
+														final ConfigSurfDescribe.Stablility configDescribe,
+														final ConfigSlidingIntegral configOrientation,
+														final ImageDataType<T> imageType ,
+														int numThreads , int maxPending ) {
+
+		DetectDescribeGenerator<T,SurfFeature> generator = new DetectDescribeGenerator<T, SurfFeature>() {
+			@Override
+			public DetectDescribePoint<T, SurfFeature> create() {
+				return surfStable(configDetector,configDescribe,configOrientation,imageType);
+			}
+		};
+
+		return new DetectDescribeBatch<T, SurfFeature>(generator,numThreads,maxPending);
+	}
 }
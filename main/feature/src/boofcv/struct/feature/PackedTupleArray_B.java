@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.struct.feature;
+
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * <p>
+ * Stores a set of binary descriptors, all with the same number of bits, inside of a single array of longs.
+ * Each descriptor uses {@link #getNumWords()} consecutive elements.  Compared to a list of {@link TupleDesc_B}
+ * there is no overhead from each descriptor being its own object and scanning through all the descriptors
+ * accesses memory sequentially.
+ * </p>
+ *
+ * <p>
+ * The ints in {@link TupleDesc_B} are packed in pairs, with the first int in the lower 32-bits.  Only the first
+ * numBits/32 ints, rounded up, in each descriptor are used.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class PackedTupleArray_B {
+	// number of bits in each descriptor
+	private int numBits;
+	// number of ints in a TupleDesc_B
+	private int numInts;
+	// number of longs used to store each descriptor
+	private int numWords;
+
+	/**
+	 * Packed descriptors.  Descriptor i starts at i*numWords.
+	 */
+	public long data[] = new long[0];
+
+	/**
+	 * Number of descriptors
+	 */
+	public int size;
+
+	/**
+	 * Specifies the size of each descriptor
+	 *
+	 * @param numBits Number of bits in each descriptor.
+	 */
+	public PackedTupleArray_B( int numBits ) {
+		reset(numBits);
+	}
+
+	/**
+	 * Removes all the descriptors and changes the number of bits in each descriptor.
+	 *
+	 * @param numBits Number of bits in each descriptor.
+	 */
+	public void reset( int numBits ) {
+		if( numBits <= 0 )
+			throw new IllegalArgumentException("Number of bits must be more than zero");
+		this.numBits = numBits;
+		this.numInts = numBits/32 + (numBits % 32 == 0 ? 0 : 1);
+		this.numWords = numInts/2 + numInts % 2;
+		this.size = 0;
+	}
+
+	/**
+	 * Removes all the descriptors.
+	 */
+	public void reset() {
+		size = 0;
+	}
+
+	/**
+	 * Adds a copy of the descriptor to the end of the array
+	 */
+	public void add( TupleDesc_B desc ) {
+		if( desc.numBits != numBits )
+			throw new IllegalArgumentException("Expected "+numBits+" bits not "+desc.numBits);
+
+		growCapacity(size+1);
+
+		int index = size*numWords;
+		int i = 0;
+		for( ; i+1 < numInts; i += 2 ) {
+			data[index++] = (desc.data[i] & 0xFFFFFFFFL) | ((long)desc.data[i+1] << 32);
+		}
+		if( i < numInts ) {
+			data[index] = desc.data[i] & 0xFFFFFFFFL;
+		}
+		size++;
+	}
+
+	/**
+	 * Adds copies of all the descriptors in the list
+	 */
+	public void addAll( FastQueue<TupleDesc_B> list ) {
+		growCapacity(size+list.size);
+		for( int i = 0; i < list.size; i++ ) {
+			add(list.data[i]);
+		}
+	}
+
+	/**
+	 * Copies a descriptor into a {@link TupleDesc_B}
+	 *
+	 * @param index Which descriptor
+	 * @param storage Storage for the descriptor.  If null a new instance is created.
+	 * @return The descriptor
+	 */
+	public TupleDesc_B get( int index , TupleDesc_B storage ) {
+		if( index < 0 || index >= size )
+			throw new IllegalArgumentException("Index out of bounds: "+index);
+		if( storage == null )
+			storage = new TupleDesc_B(numBits);
+		else if( storage.numBits != numBits )
+			throw new IllegalArgumentException("Expected "+numBits+" bits not "+storage.numBits);
+
+		int offset = index*numWords;
+		for( int i = 0; i < numInts; i++ ) {
+			long word = data[offset + i/2];
+			storage.data[i] = (int)(i % 2 == 0 ? word : word >>> 32);
+		}
+		return storage;
+	}
+
+	/**
+	 * Ensures that there is enough space to store the specified number of descriptors.  Existing descriptors
+	 * are saved.
+	 */
+	public void growCapacity( int numDescriptors ) {
+		int length = numDescriptors*numWords;
+		if( data.length >= length )
+			return;
+
+		long tmp[] = new long[Math.max(length,data.length*2)];
+		System.arraycopy(data,0,tmp,0,size*numWords);
+		data = tmp;
+	}
+
+	public int getNumBits() {
+		return numBits;
+	}
+
+	public int getNumWords() {
+		return numWords;
+	}
+
+	public int size() {
+		return size;
+	}
+}
@@ -73,4 +73,34 @@ public abstract class StandardScoreAssociationChecks<T> {
 			assertTrue(scorePerfect != 0);
 		}
 	}
+
+	/**
+	 * If the score can stop early make sure it follows the contract in {@link ScoreAssociationBounded}
+	 */
+	@Test
+	public void boundedScore() {
+		ScoreAssociation<T> alg = createScore();
+		if( !(alg instanceof ScoreAssociationBounded) )
+			return;
+
+		ScoreAssociationBounded<T> bounded = (ScoreAssociationBounded<T>)alg;
+
+		for( int trial = 0; trial < 20; trial++ ) {
+			T descA = createDescription();
+			T descB = createDescription();
+
+			double expected = alg.score(descA,descB);
+
+			// the exact score must be returned if it's not above the threshold
+			assertTrue(expected == bounded.score(descA,descB,expected));
+			assertTrue(expected == bounded.score(descA,descB,expected*2+1));
+			assertTrue(expected == bounded.score(descA,descB,Double.MAX_VALUE));
+
+			// it can stop early, but must still be above the threshold and can't be more than the true score
+			double threshold = expected/2;
+			double found = bounded.score(descA,descB,threshold);
+			assertTrue(found > threshold);
+			assertTrue(found <= expected);
+		}
+	}
 }
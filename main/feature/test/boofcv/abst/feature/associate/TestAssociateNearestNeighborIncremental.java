@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.feature.associate;
+
+import boofcv.alg.feature.associate.KdForestIndex_F64;
+import boofcv.struct.feature.AssociatedIndex;
+import boofcv.struct.feature.TupleDesc_F64;
+import org.ddogleg.struct.FastQueue;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestAssociateNearestNeighborIncremental extends StandardAssociateDescriptionChecks<TupleDesc_F64> {
+
+	Random rand = new Random(234);
+
+	public TestAssociateNearestNeighborIncremental() {
+		super(TupleDesc_F64.class);
+	}
+
+	@Override
+	public AssociateDescription<TupleDesc_F64> createAlg() {
+		// exact search will produce perfect results
+		KdForestIndex_F64 index = new KdForestIndex_F64(1,2,5,0,234,false);
+		return new AssociateNearestNeighborIncremental<TupleDesc_F64>(index);
+	}
+
+	@Override
+	protected TupleDesc_F64 c(double value) {
+		TupleDesc_F64 s = new TupleDesc_F64(1);
+		s.value[0] = value;
+		return s;
+	}
+
+	/**
+	 * Change the source list between calls and see if the index is updated correctly
+	 */
+	@Test
+	public void changingSource() {
+		KdForestIndex_F64 index = new KdForestIndex_F64(4,2,5,0,234,false);
+		AssociateNearestNeighborIncremental<TupleDesc_F64> alg =
+				new AssociateNearestNeighborIncremental<TupleDesc_F64>(index);
+
+		FastQueue<TupleDesc_F64> src = new FastQueue<TupleDesc_F64>(TupleDesc_F64.class,false);
+		for( int i = 0; i < 50; i++ ) {
+			src.add(random());
+		}
+		alg.setSource(src);
+		assertEquals(50,index.size());
+
+		// change some, remove some from the end, then add a few
+		for( int trial = 0; trial < 3; trial++ ) {
+			for( int i = 0; i < src.size; i += 4 ) {
+				src.data[i] = random();
+			}
+			src.size -= 5;
+			for( int i = 0; i < 3; i++ ) {
+				src.add(random());
+			}
+			alg.setSource(src);
+			assertEquals(src.size,index.size());
+
+			// each source feature should match up with itself
+			alg.setDestination(src);
+			alg.associate();
+
+			FastQueue<AssociatedIndex> matches = alg.getMatches();
+			assertEquals(src.size,matches.size);
+			for( int i = 0; i < matches.size; i++ ) {
+				AssociatedIndex a = matches.get(i);
+				assertEquals(a.dst,a.src);
+				assertEquals(0,a.fitScore,1e-8);
+			}
+			assertEquals(0,alg.getUnassociatedSource().size);
+		}
+
+		// shrink the list to nothing
+		src.reset();
+		alg.setSource(src);
+		assertEquals(0,index.size());
+	}
+
+	/**
+	 * Removing a feature from the middle of the list should only remove that feature from the index
+	 */
+	@Test
+	public void setSource_removeMiddle() {
+		CountingIndex index = new CountingIndex();
+		AssociateNearestNeighborIncremental<TupleDesc_F64> alg =
+				new AssociateNearestNeighborIncremental<TupleDesc_F64>(index);
+
+		FastQueue<TupleDesc_F64> src = new FastQueue<TupleDesc_F64>(TupleDesc_F64.class,false);
+		for( int i = 0; i < 50; i++ ) {
+			src.add(random());
+		}
+		alg.setSource(src);
+		assertEquals(50,index.numAdd);
+
+		index.numAdd = index.numRemove = 0;
+		System.arraycopy(src.data,21,src.data,20,src.size-21);
+		src.size--;
+		alg.setSource(src);
+		assertEquals(0,index.numAdd);
+		assertEquals(1,index.numRemove);
+		assertEquals(49,index.size());
+
+		// modifying a feature in place should replace it
+		index.numAdd = index.numRemove = 0;
+		src.get(5).value[0] += 0.5;
+		alg.setSource(src);
+		assertEquals(1,index.numAdd);
+		assertEquals(1,index.numRemove);
+
+		// each source feature should match up with itself
+		alg.setDestination(src);
+		alg.associate();
+		FastQueue<AssociatedIndex> matches = alg.getMatches();
+		assertEquals(src.size,matches.size);
+		for( int i = 0; i < matches.size; i++ ) {
+			assertEquals(matches.get(i).dst,matches.get(i).src);
+		}
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void setSource_duplicate() {
+		AssociateNearestNeighborIncremental<TupleDesc_F64> alg =
+				new AssociateNearestNeighborIncremental<TupleDesc_F64>(new CountingIndex());
+
+		FastQueue<TupleDesc_F64> src = new FastQueue<TupleDesc_F64>(TupleDesc_F64.class,false);
+		TupleDesc_F64 t = random();
+		src.add(t);
+		src.add(t);
+		alg.setSource(src);
+	}
+
+	/**
+	 * A bad descriptor should not affect the next call
+	 */
+	@Test
+	public void setSource_badDimension() {
+		AssociateNearestNeighborIncremental<TupleDesc_F64> alg =
+				new AssociateNearestNeighborIncremental<TupleDesc_F64>(new CountingIndex());
+
+		FastQueue<TupleDesc_F64> src = new FastQueue<TupleDesc_F64>(TupleDesc_F64.class,false);
+		src.add(random());
+		src.add(new TupleDesc_F64(3));
+		try {
+			alg.setSource(src);
+			fail("Expected an exception");
+		} catch( IllegalArgumentException ignore ) {}
+
+		src.size = 1;
+		alg.setSource(src);
+		assertEquals(1,alg.getIndex().size());
+	}
+
+	/**
+	 * Counts the number of times the index is modified
+	 */
+	private static class CountingIndex extends KdForestIndex_F64 {
+		int numAdd,numRemove;
+
+		public CountingIndex() {
+			super(4,2,5,0,234,false);
+		}
+
+		@Override
+		public int add(double[] point) {
+			numAdd++;
+			return super.add(point);
+		}
+
+		@Override
+		public void remove(int id) {
+			numRemove++;
+			super.remove(id);
+		}
+	}
+
+	private TupleDesc_F64 random() {
+		TupleDesc_F64 t = new TupleDesc_F64(4);
+		for( int i = 0; i < t.value.length; i++ ) {
+			t.value[i] = rand.nextDouble();
+		}
+		return t;
+	}
+}
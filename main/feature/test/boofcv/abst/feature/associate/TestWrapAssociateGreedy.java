@@ -19,6 +19,7 @@
 package boofcv.abst.feature.associate;
 
 import boofcv.alg.feature.associate.AssociateGreedy;
+import boofcv.alg.feature.associate.AssociateGreedy_MT;
 import boofcv.struct.feature.TupleDesc_F64;
 import org.junit.Test;
 
@@ -51,6 +52,30 @@ public class TestWrapAssociateGreedy {
 		}.allTests();
 	}
 
+	@Test
+	public void normal_MT() {
+		new StandardTests() {
+			@Override
+			public AssociateDescription<TupleDesc_F64> createAlg() {
+				ScoreAssociateEuclidean_F64 score = new ScoreAssociateEuclidean_F64();
+				AssociateGreedy<TupleDesc_F64> greedy = new AssociateGreedy_MT<TupleDesc_F64>(score,false);
+				return new WrapAssociateGreedy<TupleDesc_F64>(greedy);
+			}
+		}.allTests();
+	}
+
+	@Test
+	public void backwards_MT() {
+		new StandardTests() {
+			@Override
+			public AssociateDescription<TupleDesc_F64> createAlg() {
+				ScoreAssociateEuclidean_F64 score = new ScoreAssociateEuclidean_F64();
+				AssociateGreedy<TupleDesc_F64> greedy = new AssociateGreedy_MT<TupleDesc_F64>(score,true);
+				return new WrapAssociateGreedy<TupleDesc_F64>(greedy);
+			}
+		}.allTests();
+	}
+
 	private static abstract class StandardTests extends StandardAssociateDescriptionChecks<TupleDesc_F64>
 	{
 		public StandardTests() {
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.feature.associate;
+
+import boofcv.alg.feature.associate.AssociateGreedy;
+import boofcv.alg.feature.associate.AssociateGreedyHamming_B;
+import boofcv.struct.feature.AssociatedIndex;
+import boofcv.struct.feature.BriefFeatureQueue;
+import boofcv.struct.feature.TupleDesc_B;
+import org.ddogleg.struct.FastQueue;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestWrapAssociateGreedyHamming_B {
+
+	Random rand = new Random(234);
+
+	/**
+	 * Should produce the same output as the generic greedy association
+	 */
+	@Test
+	public void compareToGreedy() {
+		FastQueue<TupleDesc_B> src = createData(60);
+		FastQueue<TupleDesc_B> dst = createData(50);
+		for( int i = 0; i < 10; i++ ) {
+			dst.get(i*2).setTo(src.get(i*5));
+		}
+
+		for( boolean backwards : new boolean[]{false,true} ) {
+			WrapAssociateGreedy<TupleDesc_B> expected = new WrapAssociateGreedy<TupleDesc_B>(
+					new AssociateGreedy<TupleDesc_B>(new ScoreAssociateHamming_B(),backwards));
+			WrapAssociateGreedyHamming_B alg = new WrapAssociateGreedyHamming_B(
+					new AssociateGreedyHamming_B(backwards,false));
+
+			expected.setThreshold(100);
+			alg.setThreshold(100);
+
+			expected.setSource(src); expected.setDestination(dst); expected.associate();
+			alg.setSource(src); alg.setDestination(dst); alg.associate();
+
+			FastQueue<AssociatedIndex> e = expected.getMatches();
+			FastQueue<AssociatedIndex> f = alg.getMatches();
+			assertTrue(e.size >= 10);
+			assertEquals(e.size,f.size);
+			for( int i = 0; i < e.size; i++ ) {
+				assertEquals(e.get(i).src,f.get(i).src);
+				assertEquals(e.get(i).dst,f.get(i).dst);
+				assertTrue(e.get(i).fitScore == f.get(i).fitScore);
+			}
+
+			checkEquals(expected.getUnassociatedSource().data, alg.getUnassociatedSource().data,
+					expected.getUnassociatedSource().size);
+			checkEquals(expected.getUnassociatedDestination().data, alg.getUnassociatedDestination().data,
+					expected.getUnassociatedDestination().size);
+			assertEquals(expected.uniqueDestination(),alg.uniqueDestination());
+		}
+	}
+
+	@Test
+	public void emptyLists() {
+		WrapAssociateGreedyHamming_B alg = new WrapAssociateGreedyHamming_B(
+				new AssociateGreedyHamming_B(true,false));
+
+		alg.setSource(createData(0));
+		alg.setDestination(createData(5));
+		alg.associate();
+		assertEquals(0,alg.getMatches().size);
+		assertEquals(0,alg.getUnassociatedSource().size);
+		assertEquals(5,alg.getUnassociatedDestination().size);
+
+		alg.setSource(createData(5));
+		alg.setDestination(createData(0));
+		alg.associate();
+		assertEquals(0,alg.getMatches().size);
+		assertEquals(5,alg.getUnassociatedSource().size);
+	}
+
+	private void checkEquals( int[] expected , int[] found , int length ) {
+		for( int i = 0; i < length; i++ )
+			assertEquals(expected[i],found[i]);
+	}
+
+	private FastQueue<TupleDesc_B> createData( int total ) {
+		FastQueue<TupleDesc_B> ret = new BriefFeatureQueue(256);
+
+		for( int i = 0; i < total; i++ ) {
+			TupleDesc_B d = ret.grow();
+			for( int j = 0; j < d.data.length; j++ )
+				d.data[j] = rand.nextInt();
+		}
+
+		return ret;
+	}
+}
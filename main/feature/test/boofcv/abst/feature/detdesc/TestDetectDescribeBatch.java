@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.feature.detdesc;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.factory.feature.detdesc.FactoryDetectDescribe;
+import boofcv.struct.feature.SurfFeature;
+import boofcv.struct.feature.TupleDesc_F64;
+import boofcv.struct.image.ImageDataType;
+import boofcv.struct.image.ImageFloat32;
+import georegression.struct.point.Point2D_F64;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestDetectDescribeBatch {
+
+	Random rand = new Random(234);
+
+	/**
+	 * Results should be the same as processing each image one at a time with a single detector
+	 */
+	@Test
+	public void compareToSingle() {
+		List<ImageFloat32> images = new ArrayList<ImageFloat32>();
+		for( int i = 0; i < 6; i++ ) {
+			ImageFloat32 image = new ImageFloat32(80,70);
+			ImageMiscOps.fillUniform(image,rand,0,100);
+			images.add(image);
+		}
+
+		DetectDescribePoint<ImageFloat32,SurfFeature> single =
+				FactoryDetectDescribe.surfStable(null,null,null,ImageDataType.single(ImageFloat32.class));
+		final List<PointDescResults<SurfFeature>> expected = new ArrayList<PointDescResults<SurfFeature>>();
+		for( ImageFloat32 image : images ) {
+			single.detect(image);
+			PointDescResults<SurfFeature> r = new PointDescResults<SurfFeature>(single);
+			r.setTo(single);
+			expected.add(r);
+		}
+
+		DetectDescribeBatch<ImageFloat32,SurfFeature> alg = FactoryDetectDescribe.batchSurfStable(
+				null,null,null,ImageDataType.single(ImageFloat32.class),3,4);
+
+		final int count[] = new int[1];
+		alg.process(images.iterator(),new DetectDescribeBatch.Listener<SurfFeature>() {
+			@Override
+			public void processed(int index, PointDescResults<SurfFeature> results) {
+				assertEquals(count[0]++,index);
+				PointDescResults<SurfFeature> e = expected.get(index);
+				assertEquals(e.getNumberOfFeatures(),results.getNumberOfFeatures());
+				for( int i = 0; i < e.getNumberOfFeatures(); i++ ) {
+					assertEquals(0,e.getLocation(i).distance(results.getLocation(i)),1e-8);
+					assertEquals(e.getScale(i),results.getScale(i),1e-8);
+					assertEquals(e.getOrientation(i),results.getOrientation(i),1e-8);
+					SurfFeature a = e.getDescription(i);
+					SurfFeature b = results.getDescription(i);
+					for( int j = 0; j < a.size(); j++ )
+						assertEquals(a.value[j],b.value[j],1e-8);
+				}
+			}
+		});
+		alg.shutdown();
+
+		assertEquals(images.size(),count[0]);
+		assertEquals(images.size(),alg.getImagesProcessed());
+		int total = 0;
+		for( PointDescResults<SurfFeature> e : expected )
+			total += e.getNumberOfFeatures();
+		assertEquals(total,alg.getFeaturesFound());
+		assertTrue(alg.getElapsedSeconds() > 0);
+		assertTrue(alg.getImagesPerSecond() > 0);
+	}
+
+	/**
+	 * Checks that results are in order and that no more than maxPending images are read ahead of the listener
+	 */
+	@Test
+	public void orderAndBoundedMemory() {
+		final int maxPending = 3;
+		final int numImages = 30;
+		final int numRead[] = new int[1];
+		final int numProcessed[] = new int[1];
+
+		Iterator<ImageFloat32> images = new Iterator<ImageFloat32>() {
+			@Override
+			public boolean hasNext() {
+				return numRead[0] < numImages;
+			}
+
+			@Override
+			public ImageFloat32 next() {
+				assertTrue(numRead[0]-numProcessed[0] < maxPending);
+				// encode the image's index in its width
+				return new ImageFloat32(1+numRead[0]++,2);
+			}
+
+			@Override
+			public void remove() {}
+		};
+
+		DetectDescribeBatch<ImageFloat32,TupleDesc_F64> alg =
+				new DetectDescribeBatch<ImageFloat32,TupleDesc_F64>(new DummyGenerator(),4,maxPending);
+
+		for( int trial = 0; trial < 2; trial++ ) {
+			numRead[0] = numProcessed[0] = 0;
+			alg.process(images,new DetectDescribeBatch.Listener<TupleDesc_F64>() {
+				@Override
+				public void processed(int index, PointDescResults<TupleDesc_F64> results) {
+					assertEquals(numProcessed[0]++,index);
+					assertEquals(index+1,results.getNumberOfFeatures());
+					assertEquals(index,results.getLocation(index).x,1e-8);
+					assertEquals(index,results.getDescription(index).value[0],1e-8);
+				}
+			});
+			assertEquals(numImages,numProcessed[0]);
+			assertEquals(numImages*(numImages+1)/2,alg.getFeaturesFound());
+		}
+		alg.shutdown();
+	}
+
+	/**
+	 * An exception thrown by a detector should be passed to the caller
+	 */
+	@Test
+	public void exception() {
+		List<ImageFloat32> images = new ArrayList<ImageFloat32>();
+		for( int i = 0; i < 10; i++ ) {
+			images.add(new ImageFloat32(i == 5 ? 100 : 5,2));
+		}
+
+		DetectDescribeBatch<ImageFloat32,TupleDesc_F64> alg =
+				new DetectDescribeBatch<ImageFloat32,TupleDesc_F64>(new DummyGenerator(),2,4);
+
+		final int numProcessed[] = new int[1];
+		try {
+			alg.process(images.iterator(),new DetectDescribeBatch.Listener<TupleDesc_F64>() {
+				@Override
+				public void processed(int index, PointDescResults<TupleDesc_F64> results) {
+					numProcessed[0]++;
+				}
+			});
+			fail("Exception should have been thrown");
+		} catch( IllegalArgumentException ignore ) {}
+		alg.shutdown();
+
+		assertEquals(5,numProcessed[0]);
+	}
+
+	private static class DummyGenerator implements DetectDescribeGenerator<ImageFloat32,TupleDesc_F64> {
+		@Override
+		public DetectDescribePoint<ImageFloat32, TupleDesc_F64> create() {
+			return new Dummy();
+		}
+	}
+
+	/**
+	 * Creates one feature for each column in the image
+	 */
+	private static class Dummy implements DetectDescribePoint<ImageFloat32,TupleDesc_F64> {
+		int N;
+
+		@Override
+		public TupleDesc_F64 getDescription(int index) {
+			TupleDesc_F64 d = new TupleDesc_F64(1);
+			d.value[0] = index;
+			return d;
+		}
+
+		@Override
+		public void detect(ImageFloat32 input) {
+			if( input.width == 100 )
+				throw new IllegalArgumentException("Bad image");
+			N = input.width;
+		}
+
+		@Override
+		public boolean hasScale() {return true;}
+
+		@Override
+		public boolean hasOrientation() {return true;}
+
+		@Override
+		public TupleDesc_F64 createDescription() {return new TupleDesc_F64(1);}
+
+		@Override
+		public Class<TupleDesc_F64> getDescriptionType() {return TupleDesc_F64.class;}
+
+		@Override
+		public int getNumberOfFeatures() {return N;}
+
+		@Override
+		public Point2D_F64 getLocation(int featureIndex) {return new Point2D_F64(featureIndex,1);}
+
+		@Override
+		public double getScale(int featureIndex) {return 2;}
+
+		@Override
+		public double getOrientation(int featureIndex) {return 3;}
+	}
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.abst.feature.associate.ScoreAssociateHamming_B;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.feature.BriefFeatureQueue;
+import boofcv.struct.feature.PackedTupleArray_B;
+import boofcv.struct.feature.TupleDesc_B;
+import org.ddogleg.struct.FastQueue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestAssociateGreedyHamming_B {
+
+	Random rand = new Random(234);
+
+	int originalMaxThreads;
+
+	@Before
+	public void before() {
+		originalMaxThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(3);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalMaxThreads);
+	}
+
+	/**
+	 * Compare against the generic greedy algorithm.  Results should be identical.
+	 */
+	@Test
+	public void compareToGreedy() {
+		for( int numBits : new int[]{32,100,512} ) {
+			FastQueue<TupleDesc_B> src = createData(200, numBits);
+			FastQueue<TupleDesc_B> dst = createData(150, numBits);
+
+			// create a few good matches and a tie
+			for( int i = 0; i < 10; i++ ) {
+				dst.get(i*3).setTo(src.get(i*7));
+			}
+			dst.get(40).setTo(src.get(50));
+			dst.get(41).setTo(src.get(50));
+
+			PackedTupleArray_B packedSrc = new PackedTupleArray_B(numBits);
+			PackedTupleArray_B packedDst = new PackedTupleArray_B(numBits);
+			packedSrc.addAll(src);
+			packedDst.addAll(dst);
+
+			for( boolean backwards : new boolean[]{false,true} ) {
+				for( double maxError : new double[]{Double.MAX_VALUE,numBits*0.4,numBits*0.4+0.5} ) {
+					AssociateGreedy<TupleDesc_B> expected =
+							new AssociateGreedy<TupleDesc_B>(new ScoreAssociateHamming_B(),backwards);
+					expected.setMaxFitError(maxError);
+					expected.associate(src,dst);
+
+					for( boolean concurrent : new boolean[]{false,true} ) {
+						AssociateGreedyHamming_B alg = new AssociateGreedyHamming_B(backwards,concurrent);
+						alg.setMaxFitError(maxError);
+						alg.setBlockSize(7,13);
+
+						// call it twice to make sure the internal state is reset
+						alg.associate(packedDst,packedSrc);
+						alg.associate(packedSrc,packedDst);
+
+						int numMatches = 0;
+						for( int i = 0; i < src.size; i++ ) {
+							assertEquals(expected.getPairs()[i],alg.getPairs()[i]);
+							assertTrue(expected.getFitQuality()[i] == alg.getFitQuality()[i]);
+							if( alg.getPairs()[i] >= 0 )
+								numMatches++;
+						}
+						assertTrue(numMatches >= 10);
+					}
+				}
+			}
+		}
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void differentNumberOfBits() {
+		AssociateGreedyHamming_B alg = new AssociateGreedyHamming_B(false,false);
+		alg.associate(new PackedTupleArray_B(32),new PackedTupleArray_B(64));
+	}
+
+	private FastQueue<TupleDesc_B> createData( int total , int numBits ) {
+		FastQueue<TupleDesc_B> ret = new BriefFeatureQueue(numBits);
+
+		for( int i = 0; i < total; i++ ) {
+			TupleDesc_B d = ret.grow();
+			for( int j = 0; j < d.data.length; j++ )
+				d.data[j] = rand.nextInt();
+			// unused bits are always zero
+			if( numBits % 32 != 0 )
+				d.data[d.data.length-1] &= (1 << (numBits % 32))-1;
+		}
+
+		return ret;
+	}
+}
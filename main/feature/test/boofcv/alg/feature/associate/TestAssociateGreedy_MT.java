@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.abst.feature.associate.*;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.feature.TupleDesc_B;
+import boofcv.struct.feature.TupleDesc_F64;
+import org.ddogleg.struct.FastQueue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestAssociateGreedy_MT {
+
+	Random rand = new Random(234);
+
+	int originalMaxThreads;
+
+	@Before
+	public void before() {
+		originalMaxThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(3);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalMaxThreads);
+	}
+
+	/**
+	 * Compare against the single threaded version using scores which can and can't stop early
+	 */
+	@Test
+	public void compareToSingleThread_F64() {
+		FastQueue<TupleDesc_F64> src = createData_F64(200, 64);
+		FastQueue<TupleDesc_F64> dst = createData_F64(150, 64);
+
+		// duplicate features create ties, which backwards validation must reject
+		dst.get(10).set(src.get(5));
+		dst.get(11).set(src.get(5));
+		src.get(20).set(src.get(21));
+		dst.get(30).set(src.get(21));
+
+		compareToSingleThread(new ScoreAssociateEuclidean_F64(), src, dst);
+		compareToSingleThread(new ScoreAssociateEuclideanSq_F64(), src, dst);
+		compareToSingleThread(new ScoreAssociateSad_F64(), src, dst);
+		compareToSingleThread(new ScoreAssociateCorrelation(), src, dst);
+	}
+
+	@Test
+	public void compareToSingleThread_B() {
+		FastQueue<TupleDesc_B> src = createData_B(200, 256);
+		FastQueue<TupleDesc_B> dst = createData_B(150, 256);
+
+		// hamming distance has lots of ties
+		compareToSingleThread(new ScoreAssociateHamming_B(), src, dst);
+	}
+
+	private <D> void compareToSingleThread( ScoreAssociation<D> score , FastQueue<D> src , FastQueue<D> dst ) {
+		for( boolean backwards : new boolean[]{false,true} ) {
+			for( double maxError : new double[]{Double.MAX_VALUE,medianScore(score,src,dst)} ) {
+				AssociateGreedy<D> expected = new AssociateGreedy<D>(score,backwards);
+				expected.setMaxFitError(maxError);
+				expected.associate(src,dst);
+
+				// the default block size and blocks which don't evenly divide the number of features
+				for( int blockSize : new int[]{0,7} ) {
+					AssociateGreedy_MT<D> alg = new AssociateGreedy_MT<D>(score,backwards);
+					alg.setMaxFitError(maxError);
+					if( blockSize > 0 )
+						alg.setBlockSize(blockSize,blockSize+6);
+
+					// call it twice to make sure the internal state is reset
+					alg.associate(dst,src);
+					alg.associate(src,dst);
+
+					int numMatches = 0;
+					for( int i = 0; i < src.size; i++ ) {
+						assertEquals(expected.getPairs()[i],alg.getPairs()[i]);
+						assertTrue(expected.getFitQuality()[i] == alg.getFitQuality()[i]);
+						if( alg.getPairs()[i] >= 0 )
+							numMatches++;
+					}
+					// sanity check to make sure the test isn't trivial
+					assertTrue(numMatches > 0);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Used to select a max error which will cause some features to not be associated
+	 */
+	private <D> double medianScore( ScoreAssociation<D> score , FastQueue<D> src , FastQueue<D> dst ) {
+		double best[] = new double[src.size];
+		for( int i = 0; i < src.size; i++ ) {
+			best[i] = Double.MAX_VALUE;
+			for( int j = 0; j < dst.size; j++ ) {
+				best[i] = Math.min(best[i],score.score(src.get(i),dst.get(j)));
+			}
+		}
+		Arrays.sort(best);
+		return best[best.length/2];
+	}
+
+	@Test
+	public void empty() {
+		AssociateGreedy_MT<TupleDesc_F64> alg =
+				new AssociateGreedy_MT<TupleDesc_F64>(new ScoreAssociateEuclidean_F64(),true);
+
+		alg.associate(createData_F64(0, 5), createData_F64(10, 5));
+		alg.associate(createData_F64(10, 5), createData_F64(0, 5));
+
+		for( int i = 0; i < 10; i++ ) {
+			assertEquals(-1, alg.getPairs()[i]);
+		}
+	}
+
+	private FastQueue<TupleDesc_F64> createData_F64( int total , final int dof ) {
+		FastQueue<TupleDesc_F64> ret = new FastQueue<TupleDesc_F64>(total,TupleDesc_F64.class, true) {
+			@Override
+			protected TupleDesc_F64 createInstance() {
+				return new TupleDesc_F64(dof);
+			}
+		};
+
+		for( int i = 0; i < total; i++ ) {
+			TupleDesc_F64 d = ret.grow();
+			for( int j = 0; j < dof; j++ )
+				d.value[j] = rand.nextGaussian();
+		}
+
+		return ret;
+	}
+
+	private FastQueue<TupleDesc_B> createData_B( int total , final int numBits ) {
+		FastQueue<TupleDesc_B> ret = new FastQueue<TupleDesc_B>(total,TupleDesc_B.class, true) {
+			@Override
+			protected TupleDesc_B createInstance() {
+				return new TupleDesc_B(numBits);
+			}
+		};
+
+		for( int i = 0; i < total; i++ ) {
+			TupleDesc_B d = ret.grow();
+			for( int j = 0; j < d.data.length; j++ )
+				d.data[j] = rand.nextInt();
+		}
+
+		return ret;
+	}
+}
@@ -0,0 +1,273 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.feature.TupleDesc_F64;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_F64;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestKdForestIndex_F64 {
+
+	Random rand = new Random(234);
+
+	int dof = 8;
+
+	int originalMaxThreads;
+
+	@Before
+	public void before() {
+		originalMaxThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(3);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalMaxThreads);
+	}
+
+	/**
+	 * With no limit on the number of points checked the search should be exact
+	 */
+	@Test
+	public void exactSearch() {
+		KdForestIndex_F64 alg = new KdForestIndex_F64(dof,3,5,0,234,false);
+
+		List<double[]> points = new ArrayList<double[]>();
+		for( int i = 0; i < 500; i++ ) {
+			double p[] = random();
+			points.add(p);
+			assertEquals(i,alg.add(p));
+		}
+		assertEquals(500,alg.size());
+
+		checkExact(alg,points,null);
+
+		// should produce the same results after the trees are balanced
+		alg.rebuild();
+		checkExact(alg,points,null);
+	}
+
+	/**
+	 * Add and remove points one at a time and see if the search is still exact
+	 */
+	@Test
+	public void incremental() {
+		KdForestIndex_F64 alg = new KdForestIndex_F64(dof,3,5,0,234,false);
+		alg.setMaxLeafSize(4);
+
+		List<double[]> points = new ArrayList<double[]>();
+		boolean alive[] = new boolean[400];
+
+		for( int i = 0; i < 300; i++ ) {
+			double p[] = random();
+			points.add(p);
+			alg.add(p);
+			alive[i] = true;
+		}
+
+		// remove every third point
+		for( int i = 0; i < 300; i += 3 ) {
+			alg.remove(i);
+			alive[i] = false;
+			assertFalse(alg.contains(i));
+		}
+		assertEquals(200,alg.size());
+		checkExact(alg,points,alive);
+
+		// IDs of removed points should be recycled
+		for( int i = 0; i < 100; i++ ) {
+			double p[] = random();
+			int id = alg.add(p);
+			assertFalse(alive[id]);
+			alive[id] = true;
+			points.set(id,p);
+		}
+		assertEquals(300,alg.size());
+		assertEquals(300,alg.getNumIds());
+		checkExact(alg,points,alive);
+	}
+
+	/**
+	 * Many identical points, which can't be split
+	 */
+	@Test
+	public void duplicatePoints() {
+		KdForestIndex_F64 alg = new KdForestIndex_F64(dof,2,5,0,234,false);
+		alg.setMaxLeafSize(4);
+
+		double p[] = random();
+		for( int i = 0; i < 100; i++ ) {
+			alg.add(p);
+		}
+		double q[] = random();
+		int idQ = alg.add(q);
+
+		KdForestIndex_F64.Search search = alg.createSearch();
+		assertEquals(idQ,search.findNearest(q,-1));
+		assertEquals(0,search.getDistance(),1e-8);
+		assertTrue(search.findNearest(p,-1) < 100);
+
+		alg.rebuild();
+		assertEquals(idQ,search.findNearest(q,-1));
+	}
+
+	@Test
+	public void maxDistance() {
+		KdForestIndex_F64 alg = new KdForestIndex_F64(1,2,5,0,234,false);
+		alg.add(new double[]{1});
+
+		KdForestIndex_F64.Search search = alg.createSearch();
+		assertEquals(-1,search.findNearest(new double[]{1.1},0.05));
+		assertEquals(-1,search.findNearest(new double[]{1.1},0.1));
+		assertEquals(0,search.findNearest(new double[]{1.1},0.2));
+		assertEquals(0.01,search.getDistance(),1e-8);
+		assertEquals(0,search.findNearest(new double[]{1.1},Double.MAX_VALUE));
+	}
+
+	/**
+	 * When the number of points checked is limited most of the results should still be correct
+	 */
+	@Test
+	public void approximate() {
+		KdForestIndex_F64 alg = new KdForestIndex_F64(dof,4,5,100,234,false);
+
+		List<double[]> points = new ArrayList<double[]>();
+		for( int i = 0; i < 2000; i++ ) {
+			double p[] = random();
+			points.add(p);
+			alg.add(p);
+		}
+		alg.rebuild();
+
+		KdForestIndex_F64.Search search = alg.createSearch();
+		int numCorrect = 0;
+		for( int i = 0; i < 200; i++ ) {
+			double q[] = points.get(i*10).clone();
+			for( int k = 0; k < dof; k++ )
+				q[k] += rand.nextGaussian()*0.01;
+			if( search.findNearest(q,-1) == bruteForce(points,null,q) )
+				numCorrect++;
+		}
+		assertTrue(numCorrect > 180);
+	}
+
+	/**
+	 * Concurrent batch search should produce the same results as a single thread
+	 */
+	@Test
+	public void findNearest_batch_concurrent() {
+		KdForestIndex_F64 alg = new KdForestIndex_F64(dof,4,5,50,234,false);
+		for( int i = 0; i < 1000; i++ ) {
+			alg.add(random());
+		}
+
+		FastQueue<TupleDesc_F64> queries = new FastQueue<TupleDesc_F64>(TupleDesc_F64.class,false);
+		for( int i = 0; i < 500; i++ ) {
+			TupleDesc_F64 t = new TupleDesc_F64(dof);
+			t.value = random();
+			queries.add(t);
+		}
+
+		GrowQueue_I32 expectedIds = new GrowQueue_I32();
+		GrowQueue_F64 expectedDistances = new GrowQueue_F64();
+		alg.findNearest(queries,-1,expectedIds,expectedDistances);
+
+		KdForestIndex_F64.Search search = alg.createSearch();
+		for( int i = 0; i < queries.size; i++ ) {
+			assertEquals(search.findNearest(queries.get(i).value,-1),expectedIds.get(i));
+			assertEquals(search.getDistance(),expectedDistances.get(i),1e-8);
+		}
+
+		alg.setConcurrent(true);
+		GrowQueue_I32 foundIds = new GrowQueue_I32();
+		GrowQueue_F64 foundDistances = new GrowQueue_F64();
+		alg.findNearest(queries,-1,foundIds,foundDistances);
+
+		assertEquals(queries.size,foundIds.size);
+		for( int i = 0; i < queries.size; i++ ) {
+			assertEquals(expectedIds.get(i),foundIds.get(i));
+			assertEquals(expectedDistances.get(i),foundDistances.get(i),1e-8);
+		}
+	}
+
+	@Test
+	public void isRebuildRecommended() {
+		KdForestIndex_F64 alg = new KdForestIndex_F64(dof,2,5,0,234,false);
+		for( int i = 0; i < 100; i++ ) {
+			alg.add(random());
+		}
+		assertTrue(alg.isRebuildRecommended());
+		alg.rebuild();
+		assertFalse(alg.isRebuildRecommended());
+
+		alg.remove(5);
+		alg.add(random());
+		assertFalse(alg.isRebuildRecommended());
+	}
+
+	private void checkExact( KdForestIndex_F64 alg , List<double[]> points , boolean alive[] ) {
+		KdForestIndex_F64.Search search = alg.createSearch();
+		for( int i = 0; i < 200; i++ ) {
+			double q[] = random();
+			int expected = bruteForce(points,alive,q);
+			assertEquals(expected,search.findNearest(q,-1));
+		}
+	}
+
+	private int bruteForce( List<double[]> points , boolean alive[] , double q[] ) {
+		int best = -1;
+		double bestDistance = Double.MAX_VALUE;
+		for( int i = 0; i < points.size(); i++ ) {
+			if( alive != null && !alive[i] )
+				continue;
+			double p[] = points.get(i);
+			double d = 0;
+			for( int k = 0; k < dof; k++ ) {
+				d += (p[k]-q[k])*(p[k]-q[k]);
+			}
+			if( d < bestDistance ) {
+				bestDistance = d;
+				best = i;
+			}
+		}
+		return best;
+	}
+
+	private double[] random() {
+		double p[] = new double[dof];
+		for( int k = 0; k < dof; k++ ) {
+			p[k] = rand.nextDouble();
+		}
+		return p;
+	}
+}
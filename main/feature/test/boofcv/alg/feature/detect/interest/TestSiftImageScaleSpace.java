@@ -21,6 +21,7 @@ package boofcv.alg.feature.detect.interest;
 import boofcv.alg.misc.GImageMiscOps;
 import boofcv.alg.misc.ImageStatistics;
 import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.ImagePool;
 import boofcv.testing.BoofTesting;
 import org.junit.Test;
 
@@ -192,4 +193,59 @@ public class TestSiftImageScaleSpace {
 			assertEquals(sum1,sum2,1e-6);
 		}
 	}
+
+	/**
+	 * Using a recursive blur should produce a similar scale-space
+	 */
+	@Test
+	public void recursiveBlur() {
+		ImageFloat32 input = new ImageFloat32(60,50);
+		for( int y = 0; y < input.height; y++ ) {
+			for( int x = 0; x < input.width; x++ ) {
+				input.set(x,y,(float)(50+40*Math.sin(x/5.0)*Math.cos(y/7.0)));
+			}
+		}
+
+		SiftImageScaleSpace expected = new SiftImageScaleSpace(1.6f, 5, 2, false);
+		SiftImageScaleSpace found = new SiftImageScaleSpace(1.6f, 5, 2, false);
+		found.setRecursiveBlur(true);
+
+		expected.constructPyramid(input);
+		found.constructPyramid(input);
+
+		// compare away from the image border, where the two handle the border differently
+		for( int i = 0; i < 5; i++ ) {
+			ImageFloat32 a = expected.getPyramidLayer(i);
+			ImageFloat32 b = found.getPyramidLayer(i);
+			BoofTesting.assertEquals(a.subimage(15,15,45,35),b.subimage(15,15,45,35),0.5);
+		}
+	}
+
+	/**
+	 * Borrowing the blur storage from a pool should produce the same pyramid and return the image afterwards
+	 */
+	@Test
+	public void constructPyramid_pool() {
+		ImageFloat32 input = new ImageFloat32(60,50);
+		GImageMiscOps.fillUniform(input, rand, 0, 100);
+
+		SiftImageScaleSpace expected = new SiftImageScaleSpace(1.6f, 5, 3, true);
+		SiftImageScaleSpace found = new SiftImageScaleSpace(1.6f, 5, 3, true);
+		ImagePool pool = new ImagePool();
+		found.setImagePool(pool);
+
+		expected.constructPyramid(input);
+		found.constructPyramid(input);
+		for( int i = 0; i < 15; i++ ) {
+			BoofTesting.assertEquals(expected.getPyramidLayer(i),found.getPyramidLayer(i),0);
+		}
+		assertEquals(0,pool.getBorrowedCount());
+		assertEquals(1,pool.getAvailableCount());
+
+		// the storage should be reused the next time
+		pool.resetCounters();
+		found.constructPyramid(input);
+		assertEquals(0,pool.getAllocationCount());
+		assertEquals(1,found.storage.width*found.storage.height);
+	}
 }
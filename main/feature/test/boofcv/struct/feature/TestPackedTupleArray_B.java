@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.struct.feature;
+
+import org.ddogleg.struct.FastQueue;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPackedTupleArray_B {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void reset_numWords() {
+		PackedTupleArray_B alg = new PackedTupleArray_B(512);
+		assertEquals(8,alg.getNumWords());
+		alg.reset(32);
+		assertEquals(1,alg.getNumWords());
+		alg.reset(65);
+		assertEquals(2,alg.getNumWords());
+		alg.reset(96);
+		assertEquals(2,alg.getNumWords());
+		assertEquals(96,alg.getNumBits());
+		assertEquals(0,alg.size());
+	}
+
+	/**
+	 * Add descriptors then read them back, including sizes which don't fill the last long
+	 */
+	@Test
+	public void add_get() {
+		for( int numBits : new int[]{5,32,64,96,100,512} ) {
+			PackedTupleArray_B alg = new PackedTupleArray_B(numBits);
+
+			FastQueue<TupleDesc_B> list = new BriefFeatureQueue(numBits);
+			for( int i = 0; i < 30; i++ ) {
+				TupleDesc_B d = list.grow();
+				for( int j = 0; j < d.data.length; j++ )
+					d.data[j] = rand.nextInt();
+			}
+
+			alg.add(list.get(0));
+			alg.addAll(list);
+			assertEquals(31,alg.size());
+
+			TupleDesc_B found = alg.get(0,null);
+			assertEquals(numBits,found.numBits);
+			for( int i = 0; i < list.size; i++ ) {
+				alg.get(i+1,found);
+				assertArrayEquals(list.get(i).data,found.data);
+			}
+		}
+	}
+
+	/**
+	 * The Hamming distance computed from the packed longs should be the same as the original descriptor
+	 */
+	@Test
+	public void hammingDistance() {
+		int numBits = 100;
+		TupleDesc_B a = new TupleDesc_B(numBits);
+		TupleDesc_B b = new TupleDesc_B(numBits);
+		for( int j = 0; j < a.data.length; j++ ) {
+			a.data[j] = rand.nextInt();
+			b.data[j] = rand.nextInt();
+		}
+
+		PackedTupleArray_B alg = new PackedTupleArray_B(numBits);
+		alg.add(a);
+		alg.add(b);
+
+		int found = 0;
+		for( int k = 0; k < alg.getNumWords(); k++ ) {
+			found += Long.bitCount(alg.data[k] ^ alg.data[alg.getNumWords()+k]);
+		}
+
+		int expected = 0;
+		for( int j = 0; j < a.data.length; j++ )
+			expected += Integer.bitCount(a.data[j] ^ b.data[j]);
+
+		assertEquals(expected,found);
+	}
+
+	@Test
+	public void add_wrongSize() {
+		PackedTupleArray_B alg = new PackedTupleArray_B(64);
+		try {
+			alg.add(new TupleDesc_B(32));
+			fail("Should have thrown an exception");
+		} catch( IllegalArgumentException ignore ){}
+	}
+}
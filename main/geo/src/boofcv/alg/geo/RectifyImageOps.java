@@ -487,4 +487,45 @@ public class RectifyImageOps {
 		return ret;
 	}
 
+	/**
+	 * Computes a {@link DistortionMap_F32} for rectifying an image given its radial distortion and
+	 * rectification matrix.  The map is immutable and can be shared between many {@link ImageDistort},
+	 * including ones in different threads, or saved to disk.
+	 *
+	 * @see #rectifyImage(DistortionMap_F32, Class)
+	 *
+	 * @param param Intrinsic parameters.
+	 * @param rectify Transform for rectifying the image.
+	 * @param width Width of the rectified image.
+	 * @param height Height of the rectified image.
+	 * @return Map from rectified pixels to distorted pixels.
+	 */
+	public static DistortionMap_F32 rectifyMap( IntrinsicParameters param, DenseMatrix64F rectify ,
+												int width , int height )
+	{
+		PointTransform_F32 transform = transformRectToPixel_F32(param, rectify);
+
+		return DistortionMap_F32.compute(new PointToPixelTransform_F32(transform),width,height);
+	}
+
+	/**
+	 * Creates an {@link ImageDistort} for rectifying an image using a precomputed map.  Creating the
+	 * distortion is cheap since the map is shared and not copied.
+	 *
+	 * @see #rectifyMap(IntrinsicParameters, DenseMatrix64F, int, int)
+	 *
+	 * @param map Map from rectified pixels to distorted pixels.
+	 * @param imageType Type of single band image the transform is to be applied to.
+	 * @return ImageDistort for rectifying the image.
+	 */
+	public static <T extends ImageSingleBand> ImageDistort<T>
+	rectifyImage( DistortionMap_F32 map , Class<T> imageType )
+	{
+		InterpolatePixel<T> interp = FactoryInterpolation.bilinearPixel(imageType);
+
+		ImageDistortCache<T> ret = FactoryDistort.distortCached(interp,null,imageType,false);
+		ret.setMap(map);
+
+		return ret;
+	}
 }
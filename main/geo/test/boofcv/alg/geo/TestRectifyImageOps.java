@@ -18,10 +18,14 @@
 
 package boofcv.alg.geo;
 
+import boofcv.alg.distort.DistortionMap_F32;
 import boofcv.alg.distort.PointTransformHomography_F32;
+import boofcv.alg.misc.ImageMiscOps;
 import boofcv.struct.calib.IntrinsicParameters;
 import boofcv.struct.distort.PointTransform_F32;
 import boofcv.struct.distort.PointTransform_F64;
+import boofcv.struct.image.ImageFloat32;
+import boofcv.testing.BoofTesting;
 import georegression.geometry.GeometryMath_F64;
 import georegression.struct.point.Point2D_F32;
 import georegression.struct.point.Point2D_F64;
@@ -29,6 +33,8 @@ import org.ejml.data.DenseMatrix64F;
 import org.ejml.ops.CommonOps;
 import org.junit.Test;
 
+import java.util.Random;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
@@ -247,4 +253,27 @@ public class TestRectifyImageOps {
 		assertEquals(expected.x, found.x, 1e-4);
 		assertEquals(expected.y, found.y, 1e-4);
 	}
+
+	/**
+	 * Rectifying with a shared map should produce the same results as computing the map internally
+	 */
+	@Test
+	public void rectifyImage_map() {
+		IntrinsicParameters param =
+				new IntrinsicParameters(300,320,0,150,130,width,height, false, new double[]{0.1,1e-4});
+
+		DenseMatrix64F rect = new DenseMatrix64F(3,3,true,1.1,0,0,0,2,0,0.1,0,3);
+
+		ImageFloat32 input = new ImageFloat32(width,height);
+		ImageFloat32 expected = new ImageFloat32(width,height);
+		ImageFloat32 found = new ImageFloat32(width,height);
+		ImageMiscOps.fillUniform(input,new Random(234),0,100);
+
+		RectifyImageOps.rectifyImage(param,rect,ImageFloat32.class).apply(input,expected);
+
+		DistortionMap_F32 map = RectifyImageOps.rectifyMap(param,rect,width,height);
+		RectifyImageOps.rectifyImage(map,ImageFloat32.class).apply(input,found);
+
+		BoofTesting.assertEquals(expected,found,1e-8);
+	}
 }
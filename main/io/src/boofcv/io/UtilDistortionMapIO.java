@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.io;
+
+import boofcv.alg.distort.DistortionMap_F32;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * <p>
+ * Saves and loads {@link DistortionMap_F32} in a compact binary format.  Loaded maps are memory mapped
+ * so that the operating system pages them in as needed and can share them between processes.
+ * </p>
+ *
+ * <p>
+ * File format, little endian:
+ * <pre>
+ * int32 magic number 'BDMF'
+ * int32 format version
+ * int32 width
+ * int32 height
+ * float32[2*width*height] interleaved (x,y) source coordinates in row-major order
+ * </pre>
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class UtilDistortionMapIO {
+
+	public static final int MAGIC = 0x42444D46;
+	public static final int VERSION = 1;
+	public static final int HEADER_BYTES = 16;
+
+	// number of floats written at once
+	private static final int BLOCK_SIZE = 64*1024;
+
+	/**
+	 * Saves the map to a file.
+	 *
+	 * @param map The map being saved.
+	 * @param fileName Name of the output file.
+	 * @throws IOException
+	 */
+	public static void save( DistortionMap_F32 map , String fileName ) throws IOException {
+		FileOutputStream out = new FileOutputStream(fileName);
+		try {
+			FileChannel channel = out.getChannel();
+
+			ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+			header.putInt(MAGIC);
+			header.putInt(VERSION);
+			header.putInt(map.getWidth());
+			header.putInt(map.getHeight());
+			header.flip();
+			writeFully(channel, header);
+
+			FloatBuffer data = map.getData();
+			ByteBuffer block = ByteBuffer.allocate(BLOCK_SIZE*4).order(ByteOrder.LITTLE_ENDIAN);
+			FloatBuffer blockF = block.asFloatBuffer();
+			while( data.hasRemaining() ) {
+				int length = Math.min(BLOCK_SIZE,data.remaining());
+				blockF.clear();
+				for( int i = 0; i < length; i++ ) {
+					blockF.put(data.get());
+				}
+				block.clear();
+				block.limit(length*4);
+				writeFully(channel, block);
+			}
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Loads a map by memory mapping the file.  The returned map is read only and remains valid after
+	 * the file has been closed.
+	 *
+	 * @param fileName Name of the file being loaded.
+	 * @return The map.
+	 * @throws IOException If the file can't be read or isn't a distortion map.
+	 */
+	public static DistortionMap_F32 load( String fileName ) throws IOException {
+		RandomAccessFile file = new RandomAccessFile(fileName,"r");
+		try {
+			FileChannel channel = file.getChannel();
+			long size = channel.size();
+			if( size < HEADER_BYTES )
+				throw new IOException("File is too small to be a distortion map");
+
+			MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY,0,size);
+			mapped.order(ByteOrder.LITTLE_ENDIAN);
+
+			if( mapped.getInt() != MAGIC )
+				throw new IOException("Not a distortion map file");
+			int version = mapped.getInt();
+			if( version != VERSION )
+				throw new IOException("Unsupported version "+version);
+			int width = mapped.getInt();
+			int height = mapped.getInt();
+
+			if( width <= 0 || height <= 0 || size != HEADER_BYTES + 8L*width*height )
+				throw new IOException("Unexpected file size for a "+width+" x "+height+" map");
+
+			ByteBuffer data = mapped.slice().order(ByteOrder.LITTLE_ENDIAN);
+			return new DistortionMap_F32(width,height,data.asFloatBuffer());
+		} finally {
+			file.close();
+		}
+	}
+
+	private static void writeFully( FileChannel channel , ByteBuffer buffer ) throws IOException {
+		while( buffer.hasRemaining() ) {
+			channel.write(buffer);
+		}
+	}
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.io;
+
+import boofcv.alg.distort.DistortionMap_F32;
+import boofcv.alg.distort.PixelTransformAffine_F32;
+import georegression.struct.affine.Affine2D_F32;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestUtilDistortionMapIO {
+
+	@Test
+	public void save_load() throws IOException {
+		PixelTransformAffine_F32 tran = new PixelTransformAffine_F32(new Affine2D_F32(1.1f,0.1f,-0.05f,0.9f,3,-2));
+
+		// large enough that it is written in several blocks
+		DistortionMap_F32 orig = DistortionMap_F32.compute(tran,310,250);
+
+		UtilDistortionMapIO.save(orig,"temp.map");
+		File f = new File("temp.map");
+		assertEquals(UtilDistortionMapIO.HEADER_BYTES+orig.getStorageBytes(),f.length());
+
+		DistortionMap_F32 found = UtilDistortionMapIO.load("temp.map");
+
+		assertEquals(orig.getWidth(),found.getWidth());
+		assertEquals(orig.getHeight(),found.getHeight());
+
+		for( int y = 0; y < orig.getHeight(); y++ ) {
+			for( int x = 0; x < orig.getWidth(); x++ ) {
+				assertTrue(orig.getX(x,y) == found.getX(x,y));
+				assertTrue(orig.getY(x,y) == found.getY(x,y));
+			}
+		}
+
+		// clean up.  On some platforms the file can't be deleted while it is still mapped
+		found = null;
+		System.gc();
+		f.delete();
+	}
+
+	@Test
+	public void load_notMap() throws IOException {
+		FileOutputStream out = new FileOutputStream("temp.map");
+		for( int i = 0; i < 100; i++ )
+			out.write(i);
+		out.close();
+
+		try {
+			UtilDistortionMapIO.load("temp.map");
+			fail("Should have thrown an exception");
+		} catch( IOException ignore ) {}
+
+		assertTrue(new File("temp.map").delete());
+	}
+}
@@ -22,6 +22,7 @@ import boofcv.alg.distort.ImageDistort;
 import boofcv.alg.distort.PixelTransformHomography_F32;
 import boofcv.alg.interpolate.InterpolatePixel;
 import boofcv.alg.misc.GImageMiscOps;
+import boofcv.alg.misc.ImageInterleavedTestingOps;
 import boofcv.core.image.GeneralizedImageOps;
 import boofcv.core.image.border.BorderType;
 import boofcv.core.image.border.FactoryImageBorder;
@@ -32,6 +33,7 @@ import boofcv.misc.PerformerBase;
 import boofcv.misc.ProfileOperation;
 import boofcv.struct.distort.PixelTransform_F32;
 import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.ImageInterleavedInt8;
 import boofcv.struct.image.ImageSingleBand;
 import boofcv.struct.image.MultiSpectral;
 import georegression.struct.homo.Homography2D_F32;
@@ -51,6 +53,10 @@ public class BenchmarkColorConvert {
 	public static MultiSpectral<ImageFloat32> src_F32;
 	public static MultiSpectral<ImageFloat32> dst_F32;
 
+	public static ImageInterleavedInt8 src_I8;
+	public static ImageInterleavedInt8 dst_I8;
+	public static ImageInterleavedInt8 dst_I8_half;
+
 	public static class RGB_to_HSV_F32 extends PerformerBase {
 
 		@Override
@@ -83,6 +89,66 @@ public class BenchmarkColorConvert {
 		}
 	}
 
+	public static class RGB_to_LAB_F32 extends PerformerBase {
+
+		@Override
+		public void process() {
+			ColorLab.rgbToLab_F32(src_F32,dst_F32);
+		}
+	}
+
+	/**
+	 * What is required to use the F32 functions with an interleaved image
+	 */
+	public static class RGB_to_HSV_Interleaved_F32 extends PerformerBase {
+
+		@Override
+		public void process() {
+			deinterleave(src_I8,src_F32);
+			ColorHsv.rgbToHsv_F32(src_F32,dst_F32);
+		}
+	}
+
+	public static class RGB_to_Packed extends PerformerBase {
+		String name;
+		int space;
+		boolean concurrent;
+		ImageInterleavedInt8 dst;
+
+		public RGB_to_Packed(String name, int space, int downSample, boolean concurrent) {
+			this.name = name;
+			this.space = space;
+			this.concurrent = concurrent;
+			this.dst = downSample == 1 ? dst_I8 : dst_I8_half;
+		}
+
+		@Override
+		public void process() {
+			int downSample = src_I8.width/dst.width;
+			switch( space ) {
+				case 0: ColorPackedU8.rgbToYCbCr(src_I8,downSample,dst,concurrent); break;
+				case 1: ColorPackedU8.rgbToHsv(src_I8,downSample,dst,concurrent); break;
+				case 2: ColorPackedU8.rgbToLab(src_I8,downSample,dst,concurrent); break;
+			}
+		}
+
+		@Override
+		public String getName() {
+			return name;
+		}
+	}
+
+	public static void deinterleave( ImageInterleavedInt8 src , MultiSpectral<ImageFloat32> dst ) {
+		for( int y = 0; y < src.height; y++ ) {
+			int indexSrc = src.startIndex + y*src.stride;
+			int indexDst = dst.startIndex + y*dst.stride;
+			for( int x = 0; x < src.width; x++ , indexDst++ ) {
+				for( int band = 0; band < 3; band++ )
+					dst.bands[band].data[indexDst] = src.data[indexSrc++] & 0xFF;
+			}
+		}
+	}
+
 	public static void main( String args[] ) {
 		System.out.println("=========  Profile Image Size " + imgWidth + " x " + imgHeight + " ==========");
 		System.out.println();
@@ -96,5 +162,22 @@ public class BenchmarkColorConvert {
 		ProfileOperation.printOpsPerSec(new HSV_to_RGB_F32(),TEST_TIME);
 		ProfileOperation.printOpsPerSec(new RGB_to_YUV_F32(),TEST_TIME);
 		ProfileOperation.printOpsPerSec(new YUV_to_RGB_F32(),TEST_TIME);
+		ProfileOperation.printOpsPerSec(new RGB_to_LAB_F32(),TEST_TIME);
+
+		src_I8 = new ImageInterleavedInt8(imgWidth,imgHeight,3);
+		dst_I8 = new ImageInterleavedInt8(imgWidth,imgHeight,3);
+		dst_I8_half = new ImageInterleavedInt8(imgWidth/2,imgHeight/2,3);
+		ImageInterleavedTestingOps.randomize(src_I8,rand);
+
+		System.out.println();
+		System.out.println("Interleaved U8 input");
+		ProfileOperation.printOpsPerSec(new RGB_to_HSV_Interleaved_F32(),TEST_TIME);
+		String names[] = new String[]{"YCbCr","HSV","LAB"};
+		for( int space = 0; space < 3; space++ ) {
+			String n = "RGB_to_"+names[space]+"_Packed";
+			ProfileOperation.printOpsPerSec(new RGB_to_Packed(n,space,1,false),TEST_TIME);
+			ProfileOperation.printOpsPerSec(new RGB_to_Packed(n+"_MT",space,1,true),TEST_TIME);
+			ProfileOperation.printOpsPerSec(new RGB_to_Packed(n+"_Down2",space,2,false),TEST_TIME);
+		}
 	}
 }
@@ -19,6 +19,8 @@
 package boofcv.alg.distort;
 
 import boofcv.alg.interpolate.InterpolatePixel;
+import boofcv.alg.interpolate.TypeInterpolate;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.core.image.GeneralizedImageOps;
 import boofcv.core.image.border.BorderType;
 import boofcv.core.image.border.FactoryImageBorder;
@@ -32,8 +34,6 @@ import boofcv.struct.image.ImageFloat32;
 import boofcv.struct.image.ImageSingleBand;
 import georegression.struct.homo.Homography2D_F32;
 
-import java.util.Random;
-
 /**
  * @author Peter Abeles
  */
@@ -91,15 +91,22 @@ public class BenchmarkImageDistort<T extends ImageSingleBand> {
 	}
 
 	public class MapBilinear_F32 extends PerformerBase {
-		ImageDistort<T> alg;
+		ImageDistortCache<T> alg;
+		String name;
 
-		public MapBilinear_F32( Homography2D_F32 homography ) {
+		public MapBilinear_F32( Homography2D_F32 homography , boolean precompute ) {
 			PixelTransform_F32 tran = new PixelTransformHomography_F32(homography);
 			InterpolatePixel<T> interp = FactoryInterpolation.bilinearPixel(imageType);
 			ImageBorder<T> border = FactoryImageBorder.general(imageType, BorderType.EXTENDED);
 
-			alg = FactoryDistort.distortCached(interp,border,imageType);
+			alg = FactoryDistort.distortCached(interp,border,imageType,precompute);
 			alg.setModel(tran);
+			name = precompute ? "MapBilinearPrecomputed_F32" : "MapBilinear_F32";
+		}
+
+		@Override
+		public String getName() {
+			return name;
 		}
 
 		@Override
@@ -108,18 +115,42 @@ public class BenchmarkImageDistort<T extends ImageSingleBand> {
 		}
 	}
 
-	private void benchmark() {
-		Random rand = new Random(234);
+	public class MapBilinear_MT_F32 extends PerformerBase {
+		ImageDistort<T> alg;
+
+		public MapBilinear_MT_F32( Homography2D_F32 homography ) {
+			PixelTransform_F32 tran = new PixelTransformHomography_F32(homography);
 
-		Homography2D_F32 affine = new Homography2D_F32((float)rand.nextGaussian(),(float)rand.nextGaussian(),
-				(float)rand.nextGaussian(),(float)rand.nextGaussian(),(float)rand.nextGaussian(),
-				(float)rand.nextGaussian(),(float)rand.nextGaussian(),(float)rand.nextGaussian(),
-				(float)rand.nextGaussian());
+			alg = FactoryDistort.distortCached_MT(TypeInterpolate.BILINEAR,BorderType.EXTENDED,0,imageType);
+			alg.setModel(tran);
+		}
+
+		@Override
+		public void process() {
+			alg.apply(src_F32, dst_F32,0,0,imgWidth,imgHeight);
+		}
+	}
+
+	/**
+	 * Prints the latency of a single frame and the amount of memory used by the cache
+	 */
+	private void printCached( MapBilinear_F32 performer ) {
+		double opsPerSec = ProfileOperation.profileOpsPerSec(performer,TEST_TIME,true);
+		System.out.printf("%30s  ops/sec = %7.3f  latency = %6.2f ms  cache = %6d KiB\n",performer.getName(),
+				opsPerSec,1000.0/opsPerSec,performer.alg.getCacheBytes()/1024);
+	}
+
+	private void benchmark() {
+		// mild perspective distortion which keeps most of the image inside the source, like rectification does
+		Homography2D_F32 affine = new Homography2D_F32(0.95f,0.05f,20f,-0.04f,0.97f,15f,1e-5f,2e-5f,1f);
 
 		System.out.println("=========  Profile Image Size " + imgWidth + " x " + imgHeight + " ==========");
+		System.out.println("Threads = "+ BoofConcurrency.getMaxThreads());
 		System.out.println();
 
-		ProfileOperation.printOpsPerSec(new MapBilinear_F32(affine),TEST_TIME);
+		printCached(new MapBilinear_F32(affine,false));
+		printCached(new MapBilinear_F32(affine,true));
+		ProfileOperation.printOpsPerSec(new MapBilinear_MT_F32(affine),TEST_TIME);
 		ProfileOperation.printOpsPerSec(new HomographyBilinear_F32(affine),TEST_TIME);
 		ProfileOperation.printOpsPerSec(new HomographyBilinearCrop_F32(affine),TEST_TIME);
 
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.enhance;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.misc.PerformerBase;
+import boofcv.misc.ProfileOperation;
+import boofcv.struct.image.ImageUInt16;
+import boofcv.struct.image.ImageUInt8;
+
+import java.util.Random;
+
+/**
+ * @author Peter Abeles
+ */
+public class BenchmarkEnhanceImageOps {
+	public static final int imgWidth = 640;
+	public static final int imgHeight = 480;
+	public static final Random rand = new Random(234);
+
+	public static final int TEST_TIME = 1000;
+
+	static ImageUInt8 input = new ImageUInt8(imgWidth,imgHeight);
+	static ImageUInt8 output = new ImageUInt8(imgWidth,imgHeight);
+	static ImageUInt16 input16 = new ImageUInt16(imgWidth,imgHeight);
+	static ImageUInt16 output16 = new ImageUInt16(imgWidth,imgHeight);
+
+	public static class EqualizeLocal extends PerformerBase {
+		int radius;
+		int histogram[] = new int[256];
+		int transform[] = new int[256];
+
+		public EqualizeLocal(int radius) {
+			this.radius = radius;
+		}
+
+		@Override
+		public void process() {
+			EnhanceImageOps.equalizeLocal(input,radius,output,histogram,transform);
+		}
+
+		@Override
+		public String getName() {
+			return "equalizeLocal radius "+radius;
+		}
+	}
+
+	public static class Tiled extends PerformerBase {
+		TiledAdaptiveEqualization alg;
+
+		public Tiled(int tiles, boolean concurrent) {
+			alg = new TiledAdaptiveEqualization(tiles,tiles,2,concurrent);
+		}
+
+		@Override
+		public void process() {
+			alg.process(input,output);
+		}
+
+		@Override
+		public String getName() {
+			return "Tiled U8 "+alg.getTilesX()+" concurrent "+alg.isConcurrent();
+		}
+	}
+
+	public static class Tiled16 extends PerformerBase {
+		TiledAdaptiveEqualization alg;
+
+		public Tiled16(int tiles, boolean concurrent) {
+			alg = new TiledAdaptiveEqualization(tiles,tiles,2,concurrent);
+		}
+
+		@Override
+		public void process() {
+			alg.process(input16,4095,output16);
+		}
+
+		@Override
+		public String getName() {
+			return "Tiled U16 12-bit "+alg.getTilesX()+" concurrent "+alg.isConcurrent();
+		}
+	}
+
+	public static void main( String args[] ) {
+		System.out.println("=========  Profile Image Size " + imgWidth + " x " + imgHeight + " ==========");
+		System.out.println();
+
+		ImageMiscOps.fillUniform(input, rand, 0, 256);
+		ImageMiscOps.fillUniform(input16, rand, 0, 4096);
+
+		ProfileOperation.printOpsPerSec(new EqualizeLocal(10),TEST_TIME);
+		ProfileOperation.printOpsPerSec(new EqualizeLocal(40),TEST_TIME);
+		ProfileOperation.printOpsPerSec(new Tiled(8,false),TEST_TIME);
+		ProfileOperation.printOpsPerSec(new Tiled(8,true),TEST_TIME);
+		ProfileOperation.printOpsPerSec(new Tiled(16,false),TEST_TIME);
+		ProfileOperation.printOpsPerSec(new Tiled16(8,false),TEST_TIME);
+		ProfileOperation.printOpsPerSec(new Tiled16(8,true),TEST_TIME);
+	}
+}
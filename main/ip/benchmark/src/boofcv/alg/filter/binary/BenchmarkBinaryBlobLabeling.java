@@ -63,6 +63,36 @@ public class BenchmarkBinaryBlobLabeling {
 		}
 	}
 
+	public static class NewAlg8_MT extends PerformerBase {
+
+		LinearContourLabelChang2004_MT alg = new LinearContourLabelChang2004_MT(8);
+
+		@Override
+		public void process() {
+			alg.process(input,output);
+		}
+	}
+
+	public static class NewAlg4_MT extends PerformerBase {
+
+		LinearContourLabelChang2004_MT alg = new LinearContourLabelChang2004_MT(4);
+
+		@Override
+		public void process() {
+			alg.process(input,output);
+		}
+	}
+
+	public static class RunLength8 extends PerformerBase {
+
+		RunLengthContourLabel alg = new RunLengthContourLabel(8);
+
+		@Override
+		public void process() {
+			alg.process(input);
+		}
+	}
+
 	public static void main(String args[]) {
 		System.out.println("=========  Profile Image Size "+ imgWidth +" x "+ imgHeight  +" ==========");
 
@@ -80,6 +110,18 @@ public class BenchmarkBinaryBlobLabeling {
 
 		ProfileOperation.printOpsPerSec(new NewAlg8(), TEST_TIME);
 		ProfileOperation.printOpsPerSec(new NewAlg4(), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new NewAlg8_MT(), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new NewAlg4_MT(), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new RunLength8(), TEST_TIME);
+
+		System.out.println("=========  Sparse image, 2% of pixels set ==========");
+		ImageMiscOps.fill(input,0);
+		for( int i = 0; i < imgWidth*imgHeight/50; i++ ) {
+			input.set(rand.nextInt(imgWidth-2)+1,rand.nextInt(imgHeight-2)+1,1);
+		}
+
+		ProfileOperation.printOpsPerSec(new NewAlg8(), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new RunLength8(), TEST_TIME);
 
 	}
 }
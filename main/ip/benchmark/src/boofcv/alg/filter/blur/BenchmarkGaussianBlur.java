@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.blur;
+
+import boofcv.abst.filter.blur.GaussianBoxBlurFilter;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.ImageUInt8;
+import com.google.caliper.Param;
+import com.google.caliper.Runner;
+import com.google.caliper.SimpleBenchmark;
+
+import java.util.Random;
+
+/**
+ * Compares Gaussian blur by convolution against the recursive filter and box filter approximation for
+ * different sigmas.
+ *
+ * @author Peter Abeles
+ */
+public class BenchmarkGaussianBlur extends SimpleBenchmark {
+	static int imgWidth = 640;
+	static int imgHeight = 480;
+
+	static ImageFloat32 input = new ImageFloat32(imgWidth,imgHeight);
+	static ImageFloat32 output = new ImageFloat32(imgWidth,imgHeight);
+	static ImageFloat32 storage = new ImageFloat32(imgWidth,imgHeight);
+	static ImageUInt8 inputU8 = new ImageUInt8(imgWidth,imgHeight);
+	static ImageUInt8 outputU8 = new ImageUInt8(imgWidth,imgHeight);
+	static ImageUInt8 storageU8 = new ImageUInt8(imgWidth,imgHeight);
+
+	@Param({"1", "2", "4", "8","16"}) private double sigma;
+
+	public BenchmarkGaussianBlur() {
+		Random rand = new Random(234);
+		ImageMiscOps.fillUniform(input,rand,0,200);
+		ImageMiscOps.fillUniform(inputU8,rand,0,200);
+	}
+
+	public int timeKernel_F32(int reps) {
+		for( int i = 0; i < reps; i++ )
+			BlurImageOps.gaussian(input,output,sigma,-1,storage);
+		return 0;
+	}
+
+	public int timeKernel_F32_MT(int reps) {
+		for( int i = 0; i < reps; i++ )
+			BlurImageOps.gaussian(input,output,sigma,-1,storage,true);
+		return 0;
+	}
+
+	public int timeRecursive_F32(int reps) {
+		for( int i = 0; i < reps; i++ )
+			BlurImageOps.gaussianRecursive(input,output,sigma,storage);
+		return 0;
+	}
+
+	public int timeRecursive_F32_MT(int reps) {
+		for( int i = 0; i < reps; i++ )
+			BlurImageOps.gaussianRecursive(input,output,sigma,storage,true);
+		return 0;
+	}
+
+	public int timeBox3_F32(int reps) {
+		for( int i = 0; i < reps; i++ )
+			BlurImageOps.gaussianBox(input,output,sigma,3,storage);
+		return 0;
+	}
+
+	public int timeBox3_Filter_F32(int reps) {
+		GaussianBoxBlurFilter<ImageFloat32> filter = new GaussianBoxBlurFilter<ImageFloat32>(ImageFloat32.class,sigma,3);
+		for( int i = 0; i < reps; i++ )
+			filter.process(input,output);
+		return 0;
+	}
+
+	public int timeKernel_U8(int reps) {
+		for( int i = 0; i < reps; i++ )
+			BlurImageOps.gaussian(inputU8,outputU8,sigma,-1,storageU8);
+		return 0;
+	}
+
+	public int timeBox3_U8(int reps) {
+		for( int i = 0; i < reps; i++ )
+			BlurImageOps.gaussianBox(inputU8,outputU8,sigma,3,storageU8);
+		return 0;
+	}
+
+	public static void main( String args[] ) {
+		System.out.println("=========  Profile Image Size "+imgWidth+" x "+imgHeight+" ==========");
+		System.out.println();
+
+		Runner.main(BenchmarkGaussianBlur.class, args);
+	}
+}
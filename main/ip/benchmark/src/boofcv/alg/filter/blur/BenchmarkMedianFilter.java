@@ -18,6 +18,8 @@
 
 package boofcv.alg.filter.blur;
 
+import boofcv.alg.filter.blur.impl.ImplMedianHistogramConstant;
+import boofcv.alg.filter.blur.impl.ImplMedianHistogramConstant_MT;
 import boofcv.alg.filter.blur.impl.ImplMedianHistogramInner;
 import boofcv.alg.filter.blur.impl.ImplMedianHistogramInnerNaive;
 import boofcv.alg.filter.blur.impl.ImplMedianSortNaive;
@@ -50,7 +52,7 @@ public class BenchmarkMedianFilter extends SimpleBenchmark {
 	static ImageSInt32 out_I32 = new ImageSInt32(imgWidth,imgHeight);
 
 	// iterate through different sized kernel radius
-	@Param({"1", "2", "3", "5","10"}) private int radius;
+	@Param({"1", "2", "3", "5","10","20"}) private int radius;
 
 	public BenchmarkMedianFilter() {
 		Random rand = new Random(234);
@@ -82,6 +84,24 @@ public class BenchmarkMedianFilter extends SimpleBenchmark {
 		return 0;
 	}
 
+	public int timeBlurImageOps_I8_MT(int reps) {
+		for( int i = 0; i < reps; i++ )
+			BlurImageOps.median(imgInt8, out_I8, radius, true);
+		return 0;
+	}
+
+	public int timeHistogramConstant_I8(int reps) {
+		for( int i = 0; i < reps; i++ )
+			ImplMedianHistogramConstant.process(imgInt8,out_I8,radius,null);
+		return 0;
+	}
+
+	public int timeHistogramConstant_I8_MT(int reps) {
+		for( int i = 0; i < reps; i++ )
+			ImplMedianHistogramConstant_MT.process(imgInt8,out_I8,radius);
+		return 0;
+	}
+
 	public int timeSortNaive_I8(int reps) {
 		for( int i = 0; i < reps; i++ )
 			ImplMedianSortNaive.process(imgInt8,out_I8,radius,null);
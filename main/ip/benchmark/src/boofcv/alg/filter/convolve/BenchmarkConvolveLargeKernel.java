@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.convolve;
+
+import boofcv.alg.filter.convolve.fft.ConvolveFft_F32;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.factory.filter.kernel.FactoryKernelGaussian;
+import boofcv.struct.convolve.Kernel2D_F32;
+import boofcv.struct.image.ImageFloat32;
+import com.google.caliper.Param;
+import com.google.caliper.Runner;
+import com.google.caliper.SimpleBenchmark;
+
+import java.util.Random;
+
+/**
+ * Compares spatial convolution against FFT convolution for large 2D kernels
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings({"UnusedDeclaration"})
+public class BenchmarkConvolveLargeKernel extends SimpleBenchmark {
+	static int width = 640;
+	static int height = 480;
+
+	static Kernel2D_F32 kernel;
+	static ImageFloat32 input = new ImageFloat32(width,height);
+	static ImageFloat32 output = new ImageFloat32(width,height);
+
+	ConvolveFft_F32 fft = new ConvolveFft_F32();
+	ConvolveFft_F32 fftMT = new ConvolveFft_F32(ConvolveFft_F32.DEFAULT_MAX_TILE,true);
+
+	@Param({"3", "5", "7", "10", "15", "30"}) private int radius;
+
+	public BenchmarkConvolveLargeKernel() {
+		ImageMiscOps.fillUniform(input,new Random(234),0,20);
+	}
+
+	@Override protected void setUp() throws Exception {
+		kernel = FactoryKernelGaussian.gaussian(Kernel2D_F32.class,-1,radius);
+	}
+
+	public int timeSpatial_F32(int reps) {
+		for( int i = 0; i < reps; i++ )
+			ConvolveImageNoBorder.convolve(kernel,input,output);
+		return 0;
+	}
+
+	public int timeFft_F32(int reps) {
+		for( int i = 0; i < reps; i++ )
+			fft.convolve(kernel,input,output);
+		return 0;
+	}
+
+	public int timeFft_F32_MT(int reps) {
+		for( int i = 0; i < reps; i++ )
+			fftMT.convolve(kernel,input,output);
+		return 0;
+	}
+
+	public int timeGeneric_F32(int reps) {
+		for( int i = 0; i < reps; i++ )
+			GConvolveImageOps.convolve(kernel,input,output);
+		return 0;
+	}
+
+	public static void main( String args[] ) {
+		System.out.println("=========  Profile Image Size "+ width +" x "+ height +" ==========");
+		System.out.println();
+
+		Runner.main(BenchmarkConvolveLargeKernel.class, args);
+	}
+}
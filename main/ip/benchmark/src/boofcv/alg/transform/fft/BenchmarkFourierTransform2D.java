@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.transform.fft;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.image.ImageFloat32;
+import com.google.caliper.Param;
+import com.google.caliper.Runner;
+import com.google.caliper.SimpleBenchmark;
+
+import java.util.Random;
+
+/**
+ * Benchmarks the 2D Fourier transform for power of two and other image sizes
+ *
+ * @author Peter Abeles
+ */
+public class BenchmarkFourierTransform2D extends SimpleBenchmark {
+
+	@Param({"256", "500", "512", "1000"}) private int size;
+
+	ImageFloat32 input;
+	ImageFloat32 spectrum;
+	ImageFloat32 output;
+
+	FourierTransform2D_F32 alg = new FourierTransform2D_F32(false);
+	FourierTransform2D_F32 algMT = new FourierTransform2D_F32(true);
+
+	@Override
+	protected void setUp() throws Exception {
+		input = new ImageFloat32(size,size);
+		spectrum = new ImageFloat32(FourierTransform2D_F32.packedWidth(size),size);
+		output = new ImageFloat32(size,size);
+		ImageMiscOps.fillUniform(input,new Random(234),0,200);
+	}
+
+	public int timeForward_F32(int reps) {
+		for( int i = 0; i < reps; i++ )
+			alg.forward(input,spectrum);
+		return 0;
+	}
+
+	public int timeForward_F32_MT(int reps) {
+		for( int i = 0; i < reps; i++ )
+			algMT.forward(input,spectrum);
+		return 0;
+	}
+
+	public int timeInverse_F32(int reps) {
+		for( int i = 0; i < reps; i++ )
+			alg.inverse(spectrum,output);
+		return 0;
+	}
+
+	public int timeInverse_F32_MT(int reps) {
+		for( int i = 0; i < reps; i++ )
+			algMT.inverse(spectrum,output);
+		return 0;
+	}
+
+	public static void main( String args[] ) {
+		Runner.main(BenchmarkFourierTransform2D.class, args);
+	}
+}
@@ -22,6 +22,7 @@ import boofcv.alg.misc.GImageMiscOps;
 import boofcv.misc.PerformerBase;
 import boofcv.misc.ProfileOperation;
 import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.ImageFloat32;
 import boofcv.struct.image.ImageUInt8;
 import boofcv.struct.image.MultiSpectral;
 
@@ -44,12 +45,26 @@ public class BenchmarkConvertBufferedImage {
 	static MultiSpectral<ImageUInt8> multiInt8;
 	
 	static ImageBase boofImg;
+	static boolean concurrent;
+
+	// every layout of BufferedImage which can be created using a type
+	static int[] types = new int[]{
+			BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_INT_ARGB, BufferedImage.TYPE_INT_ARGB_PRE,
+			BufferedImage.TYPE_INT_BGR, BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_4BYTE_ABGR,
+			BufferedImage.TYPE_4BYTE_ABGR_PRE, BufferedImage.TYPE_USHORT_565_RGB, BufferedImage.TYPE_USHORT_555_RGB,
+			BufferedImage.TYPE_BYTE_GRAY, BufferedImage.TYPE_USHORT_GRAY, BufferedImage.TYPE_BYTE_BINARY,
+			BufferedImage.TYPE_BYTE_INDEXED};
+
+	static String[] typeNames = new String[]{
+			"TYPE_INT_RGB", "TYPE_INT_ARGB", "TYPE_INT_ARGB_PRE", "TYPE_INT_BGR", "TYPE_3BYTE_BGR",
+			"TYPE_4BYTE_ABGR", "TYPE_4BYTE_ABGR_PRE", "TYPE_USHORT_565_RGB", "TYPE_USHORT_555_RGB",
+			"TYPE_BYTE_GRAY", "TYPE_USHORT_GRAY", "TYPE_BYTE_BINARY", "TYPE_BYTE_INDEXED"};
 
 	public static class FromBuffToBoof extends PerformerBase
 	{
 		@Override
 		public void process() {
-			ConvertBufferedImage.convertFrom(imgBuff,boofImg,true);
+			ConvertBufferedImage.convertFrom(imgBuff,boofImg,true,concurrent);
 		}
 	}
 
@@ -106,6 +121,27 @@ public class BenchmarkConvertBufferedImage {
 
 	}
 	
+	/**
+	 * Converts from the BufferedImage into the image and a sub-image of a larger image, with and without threads
+	 */
+	public static void evaluateConvertFrom( ImageBase image , String name )
+	{
+		ImageBase larger = image._createNew(imgWidth+20,imgHeight+20);
+		ImageBase sub = larger.subimage(10,10,imgWidth+10,imgHeight+10);
+
+		for( int i = 0; i < 2; i++ ) {
+			concurrent = i == 1;
+			String label = concurrent ? "concurrent" : "sequential";
+			boofImg = image;
+			System.out.printf("  to %-18s %-10s     %10.2f ops/sec\n",name,label,
+					ProfileOperation.profileOpsPerSec(new FromBuffToBoof(),1000, false));
+			boofImg = sub;
+			System.out.printf("  to %-18s %-10s sub %10.2f ops/sec\n",name,label,
+					ProfileOperation.profileOpsPerSec(new FromBuffToBoof(),1000, false));
+		}
+		concurrent = false;
+	}
+
 	public static void main( String args[] ) {
 		imgInt8 = new ImageUInt8(imgWidth,imgHeight);
 		multiInt8 = new MultiSpectral<ImageUInt8>(ImageUInt8.class,imgWidth,imgHeight,3);
@@ -139,6 +175,23 @@ public class BenchmarkConvertBufferedImage {
 		System.out.printf("extractBuffered              %10.2f ops/sec\n",
 				ProfileOperation.profileOpsPerSec(new ExtractBuffered(),1000, false));
 
+		System.out.println();
+		System.out.println("=========  Profiling BufferedImage to BoofCV for every type ==========");
+		System.out.println();
+
+		for( int i = 0; i < types.length; i++ ) {
+			createBufferedImage(types[i]);
+			int numBands = types[i] == BufferedImage.TYPE_BYTE_INDEXED ? 3 : imgBuff.getRaster().getNumBands();
+
+			System.out.println("---- "+typeNames[i]+" ----");
+			evaluateConvertFrom(new ImageUInt8(imgWidth,imgHeight),"ImageUInt8");
+			evaluateConvertFrom(new ImageFloat32(imgWidth,imgHeight),"ImageFloat32");
+			evaluateConvertFrom(new MultiSpectral<ImageUInt8>(ImageUInt8.class,imgWidth,imgHeight,numBands),
+					"MultiSpectral_U8");
+			evaluateConvertFrom(new MultiSpectral<ImageFloat32>(ImageFloat32.class,imgWidth,imgHeight,numBands),
+					"MultiSpectral_F32");
+		}
+
 		System.out.println();
 		System.out.println("=========  Profiling for ImageInterleavedInt8 ==========");
 		System.out.println();
@@ -42,6 +42,7 @@ public class GenerateImageMiscOps extends CodeGeneratorBase {
 		printPreamble();
 		printAllGeneric();
 		printAllSpecific();
+		printBuffer();
 		out.println("}");
 	}
 
@@ -334,6 +335,46 @@ public class GenerateImageMiscOps extends CodeGeneratorBase {
 				"\t}\n\n");
 	}
 
+	public void printBuffer() {
+		out.print("\t/**\n" +
+				"\t * Fills the whole image with the specified value\n" +
+				"\t *\n" +
+				"\t * @param input An image.\n" +
+				"\t * @param value The value that the image is being filled with.\n" +
+				"\t */\n" +
+				"\tpublic static void fill(ImageUInt8Buffer input, int value) {\n" +
+				"\n" +
+				"\t\tfor (int y = 0; y < input.height; y++) {\n" +
+				"\t\t\tint index = input.getStartIndex() + y * input.getStride();\n" +
+				"\t\t\tfor (int x = 0; x < input.width; x++) {\n" +
+				"\t\t\t\tinput.data.put(index++, (byte)value);\n" +
+				"\t\t\t}\n" +
+				"\t\t}\n" +
+				"\t}\n" +
+				"\n" +
+				"\t/**\n" +
+				"\t * Draws a filled rectangle that is aligned along the image axis inside the image.\n" +
+				"\t *\n" +
+				"\t * @param img Image the rectangle is drawn in.  Modified\n" +
+				"\t * @param value Value of the rectangle\n" +
+				"\t * @param x0 Top left x-coordinate\n" +
+				"\t * @param y0 Top left y-coordinate\n" +
+				"\t * @param width Rectangle width\n" +
+				"\t * @param height Rectangle height\n" +
+				"\t */\n" +
+				"\tpublic static void fillRectangle(ImageUInt8Buffer img, int value, int x0, int y0, int width, int height) {\n" +
+				"\t\tint x1 = x0 + width;\n" +
+				"\t\tint y1 = y0 + height;\n" +
+				"\n" +
+				"\t\tfor (int y = y0; y < y1; y++) {\n" +
+				"\t\t\tfor (int x = x0; x < x1; x++) {\n" +
+				"\t\t\t\tif( img.isInBounds(x,y ))\n" +
+				"\t\t\t\t\timg.unsafe_set(x, y, value);\n" +
+				"\t\t\t}\n" +
+				"\t\t}\n" +
+				"\t}\n" +
+				"\n");
+	}
 
 	public static void main( String args[] ) throws FileNotFoundException {
 		GenerateImageMiscOps gen = new GenerateImageMiscOps();
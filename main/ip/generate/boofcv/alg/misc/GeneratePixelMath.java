@@ -41,6 +41,7 @@ public class GeneratePixelMath extends CodeGeneratorBase {
 		printPreamble();
 		printAllSigned();
 		printAll();
+		printBuffer();
 		out.println("}");
 	}
 
@@ -50,6 +51,8 @@ public class GeneratePixelMath extends CodeGeneratorBase {
 				"\n" +
 				"import boofcv.alg.InputSanityCheck;\n" +
 				"\n" +
+				"import java.nio.ByteBuffer;\n" +
+				"\n" +
 				"/**\n" +
 				" * Functions which perform basic arithmetic (e.g. addition, subtraction, multiplication, or " +
 				"division) on a pixel by pixel basis.\n" +
@@ -497,6 +500,107 @@ public class GeneratePixelMath extends CodeGeneratorBase {
 				"\t}\n\n");
 	}
 
+	public void printBuffer() {
+		out.print("\t/**\n" +
+				"\t * Multiply each element by a scalar value. Both input and output images can\n" +
+				"\t * be the same instance.\n" +
+				"\t *\n" +
+				"\t * @param input The input image. Not modified.\n" +
+				"\t * @param value What each element is multiplied by.\n" +
+				"\t * @param output The output image. Modified.\n" +
+				"\t */\n" +
+				"\tpublic static void multiply( ImageUInt8Buffer input , double value , ImageUInt8Buffer output ) {\n" +
+				"\n" +
+				"\t\tInputSanityCheck.checkSameShape(input,output);\n" +
+				"\n" +
+				"\t\tfor( int y = 0; y < input.height; y++ ) {\n" +
+				"\t\t\tint indexSrc = input.startIndex + y* input.stride;\n" +
+				"\t\t\tint indexDst = output.startIndex + y* output.stride;\n" +
+				"\t\t\tint end = indexSrc + input.width;\n" +
+				"\n" +
+				"\t\t\tfor( ; indexSrc < end; indexSrc++, indexDst++ ) {\n" +
+				"\t\t\t\toutput.data.put(indexDst, (byte)((input.data.get(indexSrc) & 0xFF) * value));\n" +
+				"\t\t\t}\n" +
+				"\t\t}\n" +
+				"\t}\n" +
+				"\n" +
+				"\t/**\n" +
+				"\t * Add a scalar value to each element. Both input and output images can be the same instance.\n" +
+				"\t *\n" +
+				"\t * @param input The input image. Not modified.\n" +
+				"\t * @param value What is added to each element.\n" +
+				"\t * @param output The output image. Modified.\n" +
+				"\t */\n" +
+				"\tpublic static void plus( ImageUInt8Buffer input , int value , ImageUInt8Buffer output ) {\n" +
+				"\n" +
+				"\t\tInputSanityCheck.checkSameShape(input,output);\n" +
+				"\n" +
+				"\t\tfor( int y = 0; y < input.height; y++ ) {\n" +
+				"\t\t\tint indexSrc = input.startIndex + y* input.stride;\n" +
+				"\t\t\tint indexDst = output.startIndex + y* output.stride;\n" +
+				"\t\t\tint end = indexSrc + input.width;\n" +
+				"\n" +
+				"\t\t\tfor( ; indexSrc < end; indexSrc++, indexDst++ ) {\n" +
+				"\t\t\t\toutput.data.put(indexDst, (byte)((input.data.get(indexSrc) & 0xFF) + value));\n" +
+				"\t\t\t}\n" +
+				"\t\t}\n" +
+				"\t}\n" +
+				"\n" +
+				"\t/**\n" +
+				"\t * Bounds image pixels to be between these two values\n" +
+				"\t * \n" +
+				"\t * @param img Image\n" +
+				"\t * @param min minimum value.\n" +
+				"\t * @param max maximum value.\n" +
+				"\t */\n" +
+				"\tpublic static void boundImage( ImageUInt8Buffer img , int min , int max ) {\n" +
+				"\t\tfinal int h = img.getHeight();\n" +
+				"\t\tfinal int w = img.getWidth();\n" +
+				"\n" +
+				"\t\tByteBuffer data = img.data;\n" +
+				"\n" +
+				"\t\tfor (int y = 0; y < h; y++) {\n" +
+				"\t\t\tint index = img.getStartIndex() + y * img.getStride();\n" +
+				"\t\t\tint indexEnd = index+w;\n" +
+				"\t\t\tfor (; index < indexEnd; index++) {\n" +
+				"\t\t\t\tint value = data.get(index) & 0xFF;\n" +
+				"\t\t\t\tif( value < min )\n" +
+				"\t\t\t\t\tdata.put(index, (byte)min);\n" +
+				"\t\t\t\telse if( value > max )\n" +
+				"\t\t\t\t\tdata.put(index, (byte)max);\n" +
+				"\t\t\t}\n" +
+				"\t\t}\n" +
+				"\t}\n" +
+				"\n" +
+				"\t/**\n" +
+				"\t * <p>\n" +
+				"\t * Computes the absolute value of the difference between each pixel in the two images.<br>\n" +
+				"\t * d(x,y) = |img1(x,y) - img2(x,y)|\n" +
+				"\t * </p>\n" +
+				"\t * @param imgA Input image. Not modified.\n" +
+				"\t * @param imgB Input image. Not modified.\n" +
+				"\t * @param diff Absolute value of difference image. Modified.\n" +
+				"\t */\n" +
+				"\tpublic static void diffAbs( ImageUInt8Buffer imgA , ImageUInt8Buffer imgB , ImageUInt8 diff ) {\n" +
+				"\t\tInputSanityCheck.checkSameShape(imgA,imgB,diff);\n" +
+				"\n" +
+				"\t\tfinal int h = imgA.getHeight();\n" +
+				"\t\tfinal int w = imgA.getWidth();\n" +
+				"\n" +
+				"\t\tfor (int y = 0; y < h; y++) {\n" +
+				"\t\t\tint indexA = imgA.getStartIndex() + y * imgA.getStride();\n" +
+				"\t\t\tint indexB = imgB.getStartIndex() + y * imgB.getStride();\n" +
+				"\t\t\tint indexDiff = diff.getStartIndex() + y * diff.getStride();\n" +
+				"\n" +
+				"\t\t\tint indexEnd = indexA+w;\n" +
+				"\t\t\tfor (; indexA < indexEnd; indexA++, indexB++, indexDiff++ ) {\n" +
+				"\t\t\t\tdiff.data[indexDiff] = (byte)Math.abs((imgA.data.get(indexA) & 0xFF) - (imgB.data.get(indexB) & 0xFF));\n" +
+				"\t\t\t}\n" +
+				"\t\t}\n" +
+				"\t}\n" +
+				"\n");
+	}
+
 	public static void main( String args[] ) throws FileNotFoundException {
 		GeneratePixelMath gen = new GeneratePixelMath();
 		gen.generate();
@@ -49,6 +49,8 @@ public class GenerateConvertImage extends CodeGeneratorBase {
 			printAverage(in);
 		}
 
+		printBufferConvert();
+
 		out.print("\n" +
 				"}\n");
 	}
@@ -59,6 +61,8 @@ public class GenerateConvertImage extends CodeGeneratorBase {
 				"import boofcv.core.image.impl.ImplConvertMsToSingle;\n" +
 				"import boofcv.struct.image.*;\n" +
 				"\n" +
+				"import java.nio.ByteBuffer;\n" +
+				"\n" +
 				"/**\n" +
 				" * <p>\n" +
 				" * Functions for converting between different image types. Pixel values are converted by typecasting.\n" +
@@ -123,6 +127,91 @@ public class GenerateConvertImage extends CodeGeneratorBase {
 				"\t}\n");
 	}
 
+	private void printBufferConvert() {
+		out.print("\n" +
+				"\t/**\n" +
+				"\t * <p>\n" +
+				"\t * Converts an {@link boofcv.struct.image.ImageUInt8Buffer} into a {@link boofcv.struct.image.ImageUInt8}.\n" +
+				"\t * Each row is copied out of the buffer with a single bulk operation.\n" +
+				"\t * </p>\n" +
+				"\t *\n" +
+				"\t * @param input Input image which is being converted. Not modified.\n" +
+				"\t * @param output (Optional) The output image.  If null a new image is created. Modified.\n" +
+				"\t * @return Converted image.\n" +
+				"\t */\n" +
+				"\tpublic static ImageUInt8 convert(ImageUInt8Buffer input, ImageUInt8 output) {\n" +
+				"\t\tif (output == null) {\n" +
+				"\t\t\toutput = new ImageUInt8(input.width, input.height);\n" +
+				"\t\t} else {\n" +
+				"\t\t\tInputSanityCheck.checkSameShape(input, output);\n" +
+				"\t\t}\n" +
+				"\n" +
+				"\t\tByteBuffer src = input.data.duplicate();\n" +
+				"\t\tfor (int y = 0; y < input.height; y++) {\n" +
+				"\t\t\tsrc.position(input.startIndex + y*input.stride);\n" +
+				"\t\t\tsrc.get(output.data, output.startIndex + y*output.stride, input.width);\n" +
+				"\t\t}\n" +
+				"\n" +
+				"\t\treturn output;\n" +
+				"\t}\n" +
+				"\n" +
+				"\t/**\n" +
+				"\t * <p>\n" +
+				"\t * Converts an {@link boofcv.struct.image.ImageUInt8} into a {@link boofcv.struct.image.ImageUInt8Buffer}.\n" +
+				"\t * Each row is copied into the buffer with a single bulk operation.\n" +
+				"\t * </p>\n" +
+				"\t *\n" +
+				"\t * @param input Input image which is being converted. Not modified.\n" +
+				"\t * @param output (Optional) The output image.  If null a new image is created. Modified.\n" +
+				"\t * @return Converted image.\n" +
+				"\t */\n" +
+				"\tpublic static ImageUInt8Buffer convert(ImageUInt8 input, ImageUInt8Buffer output) {\n" +
+				"\t\tif (output == null) {\n" +
+				"\t\t\toutput = new ImageUInt8Buffer(input.width, input.height);\n" +
+				"\t\t} else {\n" +
+				"\t\t\tInputSanityCheck.checkSameShape(input, output);\n" +
+				"\t\t}\n" +
+				"\n" +
+				"\t\tByteBuffer dst = output.data.duplicate();\n" +
+				"\t\tfor (int y = 0; y < input.height; y++) {\n" +
+				"\t\t\tdst.position(output.startIndex + y*output.stride);\n" +
+				"\t\t\tdst.put(input.data, input.startIndex + y*input.stride, input.width);\n" +
+				"\t\t}\n" +
+				"\n" +
+				"\t\treturn output;\n" +
+				"\t}\n" +
+				"\n" +
+				"\t/**\n" +
+				"\t * <p>\n" +
+				"\t * Converts an {@link boofcv.struct.image.ImageUInt8Buffer} into a {@link boofcv.struct.image.ImageFloat32}.\n" +
+				"\t * Pixels are read directly from the buffer, there is no intermediate copy.\n" +
+				"\t * </p>\n" +
+				"\t *\n" +
+				"\t * @param input Input image which is being converted. Not modified.\n" +
+				"\t * @param output (Optional) The output image.  If null a new image is created. Modified.\n" +
+				"\t * @return Converted image.\n" +
+				"\t */\n" +
+				"\tpublic static ImageFloat32 convert(ImageUInt8Buffer input, ImageFloat32 output) {\n" +
+				"\t\tif (output == null) {\n" +
+				"\t\t\toutput = new ImageFloat32(input.width, input.height);\n" +
+				"\t\t} else {\n" +
+				"\t\t\tInputSanityCheck.checkSameShape(input, output);\n" +
+				"\t\t}\n" +
+				"\n" +
+				"\t\tfor (int y = 0; y < input.height; y++) {\n" +
+				"\t\t\tint indexSrc = input.startIndex + y*input.stride;\n" +
+				"\t\t\tint indexDst = output.startIndex + y*output.stride;\n" +
+				"\t\t\tint end = indexSrc + input.width;\n" +
+				"\n" +
+				"\t\t\tfor (; indexSrc < end; indexSrc++) {\n" +
+				"\t\t\t\toutput.data[indexDst++] = input.data.get(indexSrc) & 0xFF;\n" +
+				"\t\t\t}\n" +
+				"\t\t}\n" +
+				"\n" +
+				"\t\treturn output;\n" +
+				"\t}\n");
+	}
+
 	public static void main( String args[] ) throws FileNotFoundException {
 		GenerateConvertImage app = new GenerateConvertImage();
 
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.filter.blur;
+
+import boofcv.alg.filter.blur.impl.ImplGaussianBox;
+import boofcv.factory.filter.kernel.FactoryKernelGaussian;
+import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.ImageSingleBand;
+import boofcv.struct.image.ImageUInt8;
+
+/**
+ * Approximates Gaussian blur using several box filter passes, see {@link ImplGaussianBox}.  The scratch image
+ * and column sums are saved between calls, so once the image size stops changing no more memory is allocated.
+ *
+ * @author Peter Abeles
+ */
+public class GaussianBoxBlurFilter<T extends ImageSingleBand> implements BlurFilter<T> {
+
+	// the Gaussian's standard deviation
+	private double sigma;
+	// radius of each box filter pass
+	private int radii[];
+	// stores intermediate results
+	private T storage;
+	// sum of each column in the vertical pass
+	private int workI32[] = new int[0];
+	private float workF32[] = new float[0];
+
+	// type of image it processes
+	Class<T> inputType;
+
+	/**
+	 * Configures the filter
+	 *
+	 * @param inputType Type of image being processed.  {@link ImageUInt8} or {@link ImageFloat32}.
+	 * @param sigma Gaussian distribution's sigma.  Must be &gt; 0.
+	 * @param numPasses Number of box filters applied.  Three is a good choice.
+	 */
+	public GaussianBoxBlurFilter(Class<T> inputType, double sigma, int numPasses) {
+		if( inputType != ImageUInt8.class && inputType != ImageFloat32.class )
+			throw new IllegalArgumentException("Unsupported image type: "+inputType.getSimpleName());
+
+		this.inputType = inputType;
+		this.radii = new int[numPasses];
+		setSigma(sigma);
+	}
+
+	public void setSigma( double sigma ) {
+		this.sigma = sigma;
+		ImplGaussianBox.computeRadii(sigma,radii);
+	}
+
+	public double getSigma() {
+		return sigma;
+	}
+
+	/**
+	 * Radius of the region which influences a pixel.  Sum of the radius of each pass.
+	 */
+	@Override
+	public int getRadius() {
+		int total = 0;
+		for( int i = 0; i < radii.length; i++ )
+			total += radii[i];
+		return total;
+	}
+
+	/**
+	 * Selects sigma using the same relationship as a Gaussian kernel of the specified radius
+	 */
+	@Override
+	public void setRadius(int radius) {
+		setSigma(FactoryKernelGaussian.sigmaForRadius(radius,0));
+	}
+
+	@Override
+	public void process(T input, T output) {
+		if( storage == null ) {
+			storage = (T)input._createNew(input.width,input.height);
+		} else {
+			storage.reshape(input.width,input.height);
+		}
+
+		if( input instanceof ImageUInt8 ) {
+			if( workI32.length < input.width )
+				workI32 = new int[input.width];
+			ImplGaussianBox.process((ImageUInt8)input,(ImageUInt8)output,radii,(ImageUInt8)storage,workI32);
+		} else {
+			if( workF32.length < input.width )
+				workF32 = new float[input.width];
+			ImplGaussianBox.process((ImageFloat32)input,(ImageFloat32)output,radii,(ImageFloat32)storage,workF32);
+		}
+	}
+
+	@Override
+	public int getHorizontalBorder() {
+		return 0;
+	}
+
+	@Override
+	public int getVerticalBorder() {
+		return 0;
+	}
+
+	@Override
+	public Class<T> getInputType() {
+		return inputType;
+	}
+}
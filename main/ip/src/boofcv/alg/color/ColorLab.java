@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.color;
+
+import boofcv.alg.InputSanityCheck;
+import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.MultiSpectral;
+
+/**
+ * <p>
+ * Color conversion between RGB and CIE L*a*b*.  Lab is designed to be perceptually uniform, the Euclidean distance
+ * between two colors approximates how different they appear to a person, which makes it well suited to color
+ * segmentation.  L is lightness with a range of [0,100], while a and b are the green-red and blue-yellow color
+ * components and are approximately in the range [-128,127].
+ * </p>
+ *
+ * <p>
+ * RGB is assumed to be sRGB with values from 0 to 255 and the D65 white point.  Conversion is done by first converting
+ * into linear RGB, then CIE XYZ, and finally Lab.
+ * </p>
+ *
+ * <p>
+ * Sources for equations:
+ * <ul>
+ *     <li>http://en.wikipedia.org/wiki/Lab_color_space</li>
+ *     <li>http://en.wikipedia.org/wiki/SRGB</li>
+ * </ul>
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ColorLab {
+
+	// D65 white point
+	public static final double Xn = 0.950456;
+	public static final double Yn = 1.0;
+	public static final double Zn = 1.088754;
+
+	// threshold for the linear portion of the Lab function
+	public static final double epsilon = 0.008856;
+	public static final double kappa = 7.787;
+
+	/**
+	 * Conversion from RGB to Lab.
+	 *
+	 * @param r Red [0 to 255]
+	 * @param g Green [0 to 255]
+	 * @param b Blue [0 to 255]
+	 * @param lab (Output) L*a*b* color
+	 */
+	public static void rgbToLab( double r , double g , double b , double lab[] ) {
+		r = srgbToLinear(r/255.0);
+		g = srgbToLinear(g/255.0);
+		b = srgbToLinear(b/255.0);
+
+		double X = 0.412453*r + 0.357580*g + 0.180423*b;
+		double Y = 0.212671*r + 0.715160*g + 0.072169*b;
+		double Z = 0.019334*r + 0.119193*g + 0.950227*b;
+
+		double fx = f(X/Xn);
+		double fy = f(Y/Yn);
+		double fz = f(Z/Zn);
+
+		lab[0] = 116.0*fy - 16.0;
+		lab[1] = 500.0*(fx - fy);
+		lab[2] = 200.0*(fy - fz);
+	}
+
+	/**
+	 * Conversion from RGB to Lab.
+	 *
+	 * @param r Red [0 to 255]
+	 * @param g Green [0 to 255]
+	 * @param b Blue [0 to 255]
+	 * @param lab (Output) L*a*b* color
+	 */
+	public static void rgbToLab( float r , float g , float b , float lab[] ) {
+		r = (float)srgbToLinear(r/255.0);
+		g = (float)srgbToLinear(g/255.0);
+		b = (float)srgbToLinear(b/255.0);
+
+		float X = 0.412453f*r + 0.357580f*g + 0.180423f*b;
+		float Y = 0.212671f*r + 0.715160f*g + 0.072169f*b;
+		float Z = 0.019334f*r + 0.119193f*g + 0.950227f*b;
+
+		float fx = (float)f(X/Xn);
+		float fy = (float)f(Y/Yn);
+		float fz = (float)f(Z/Zn);
+
+		lab[0] = 116.0f*fy - 16.0f;
+		lab[1] = 500.0f*(fx - fy);
+		lab[2] = 200.0f*(fy - fz);
+	}
+
+	/**
+	 * Conversion from Lab to RGB.  The RGB values are not bounded to the range of 0 to 255.
+	 *
+	 * @param L Lightness [0 to 100]
+	 * @param a Green-red component
+	 * @param b Blue-yellow component
+	 * @param rgb (Output) RGB color
+	 */
+	public static void labToRgb( double L , double a , double b , double rgb[] ) {
+		double fy = (L + 16.0)/116.0;
+		double fx = fy + a/500.0;
+		double fz = fy - b/200.0;
+
+		double X = Xn*fInv(fx);
+		double Y = Yn*fInv(fy);
+		double Z = Zn*fInv(fz);
+
+		rgb[0] = 255.0*linearToSrgb( 3.240479*X - 1.537150*Y - 0.498535*Z);
+		rgb[1] = 255.0*linearToSrgb(-0.969256*X + 1.875992*Y + 0.041556*Z);
+		rgb[2] = 255.0*linearToSrgb( 0.055648*X - 0.204043*Y + 1.057311*Z);
+	}
+
+	/**
+	 * Conversion from Lab to RGB.  The RGB values are not bounded to the range of 0 to 255.
+	 *
+	 * @param L Lightness [0 to 100]
+	 * @param a Green-red component
+	 * @param b Blue-yellow component
+	 * @param rgb (Output) RGB color
+	 */
+	public static void labToRgb( float L , float a , float b , float rgb[] ) {
+		float fy = (L + 16.0f)/116.0f;
+		float fx = fy + a/500.0f;
+		float fz = fy - b/200.0f;
+
+		float X = (float)(Xn*fInv(fx));
+		float Y = (float)(Yn*fInv(fy));
+		float Z = (float)(Zn*fInv(fz));
+
+		rgb[0] = (float)(255.0*linearToSrgb( 3.240479f*X - 1.537150f*Y - 0.498535f*Z));
+		rgb[1] = (float)(255.0*linearToSrgb(-0.969256f*X + 1.875992f*Y + 0.041556f*Z));
+		rgb[2] = (float)(255.0*linearToSrgb( 0.055648f*X - 0.204043f*Y + 1.057311f*Z));
+	}
+
+	/**
+	 * Removes sRGB gamma correction.
+	 *
+	 * @param c sRGB value from 0 to 1
+	 * @return Linear RGB value from 0 to 1
+	 */
+	public static double srgbToLinear( double c ) {
+		if( c <= 0.04045 )
+			return c/12.92;
+		else
+			return Math.pow((c + 0.055)/1.055, 2.4);
+	}
+
+	/**
+	 * Applies sRGB gamma correction.
+	 *
+	 * @param c Linear RGB value from 0 to 1
+	 * @return sRGB value from 0 to 1
+	 */
+	public static double linearToSrgb( double c ) {
+		if( c <= 0.0031308 )
+			return 12.92*c;
+		else
+			return 1.055*Math.pow(c, 1.0/2.4) - 0.055;
+	}
+
+	/**
+	 * Non-linear function used to compute Lab from normalized XYZ.
+	 */
+	public static double f( double t ) {
+		if( t > epsilon )
+			return Math.cbrt(t);
+		else
+			return kappa*t + 16.0/116.0;
+	}
+
+	/**
+	 * Inverse of {@link #f(double)}.
+	 */
+	public static double fInv( double t ) {
+		double t3 = t*t*t;
+		if( t3 > epsilon )
+			return t3;
+		else
+			return (t - 16.0/116.0)/kappa;
+	}
+
+	/**
+	 * Convert a 3-channel {@link MultiSpectral} image from RGB into Lab.
+	 *
+	 * @param rgb (Input) RGB encoded image
+	 * @param lab (Output) Lab encoded image
+	 */
+	public static void rgbToLab_F32( MultiSpectral<ImageFloat32> rgb , MultiSpectral<ImageFloat32> lab ) {
+
+		InputSanityCheck.checkSameShape(rgb,lab);
+
+		ImageFloat32 R = rgb.getBand(0);
+		ImageFloat32 G = rgb.getBand(1);
+		ImageFloat32 B = rgb.getBand(2);
+
+		ImageFloat32 L = lab.getBand(0);
+		ImageFloat32 A = lab.getBand(1);
+		ImageFloat32 BB = lab.getBand(2);
+
+		float pixel[] = new float[3];
+
+		for( int row = 0; row < lab.height; row++ ) {
+			int indexLab = lab.startIndex + row*lab.stride;
+			int indexRgb = rgb.startIndex + row*rgb.stride;
+
+			for( int col = 0; col < lab.width; col++ , indexLab++ , indexRgb++) {
+				rgbToLab(R.data[indexRgb],G.data[indexRgb],B.data[indexRgb],pixel);
+
+				L.data[indexLab] = pixel[0];
+				A.data[indexLab] = pixel[1];
+				BB.data[indexLab] = pixel[2];
+			}
+		}
+	}
+
+	/**
+	 * Convert a 3-channel {@link MultiSpectral} image from Lab into RGB.
+	 *
+	 * @param lab (Input) Lab encoded image
+	 * @param rgb (Output) RGB encoded image
+	 */
+	public static void labToRgb_F32( MultiSpectral<ImageFloat32> lab , MultiSpectral<ImageFloat32> rgb ) {
+
+		InputSanityCheck.checkSameShape(lab,rgb);
+
+		ImageFloat32 L = lab.getBand(0);
+		ImageFloat32 A = lab.getBand(1);
+		ImageFloat32 BB = lab.getBand(2);
+
+		ImageFloat32 R = rgb.getBand(0);
+		ImageFloat32 G = rgb.getBand(1);
+		ImageFloat32 B = rgb.getBand(2);
+
+		float pixel[] = new float[3];
+
+		for( int row = 0; row < lab.height; row++ ) {
+			int indexLab = lab.startIndex + row*lab.stride;
+			int indexRgb = rgb.startIndex + row*rgb.stride;
+
+			for( int col = 0; col < lab.width; col++ , indexLab++ , indexRgb++) {
+				labToRgb(L.data[indexLab],A.data[indexLab],BB.data[indexLab],pixel);
+
+				R.data[indexRgb] = pixel[0];
+				G.data[indexRgb] = pixel[1];
+				B.data[indexRgb] = pixel[2];
+			}
+		}
+	}
+}
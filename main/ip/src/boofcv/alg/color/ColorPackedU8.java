@@ -0,0 +1,402 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.color;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.struct.image.ImageInterleavedInt8;
+import boofcv.struct.image.ImageUInt8;
+import boofcv.struct.image.MultiSpectral;
+
+/**
+ * <p>
+ * Fused color conversions from 8-bit RGB images into 8-bit images with the color bands packed together in an
+ * {@link ImageInterleavedInt8}.  The input can be interleaved or {@link MultiSpectral} and is read directly, avoiding
+ * the need to split the bands apart and convert them into floating point images first.  Integer fixed point math and
+ * look up tables are used instead of floating point math.  The input can optionally be down sampled at the same time
+ * by averaging the RGB values inside each square block.  The image is processed one row at a time and if concurrent
+ * blocks of rows are processed in parallel.
+ * </p>
+ *
+ * <p>
+ * Output encoding for each color space:
+ * <ul>
+ *     <li>YCbCr: Same as {@link ColorYuv#rgbToYCbCr(int, int, int, byte[])}</li>
+ *     <li>HSV: Hue is scaled from [0,2*PI) to [0,255], saturation from [0,1] to [0,255], value is unchanged.</li>
+ *     <li>Lab: L is scaled from [0,100] to [0,255], a and b are offset by 128.  See {@link ColorLab}.</li>
+ * </ul>
+ * The first three bands in the input are assumed to be red, green, and blue.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ColorPackedU8 {
+
+	// fractional bits in fixed point math
+	private static final int SHIFT = 12;
+	private static final int ROUND = 1 << (SHIFT-1);
+
+	// ---------- HSV look up tables
+	// (255 << SHIFT)/max, used to compute saturation
+	private static final int HSV_SAT[] = new int[256];
+	// (256/6 << SHIFT)/delta, used to compute hue
+	private static final int HSV_HUE[] = new int[256];
+	// offset for each 60 degree sector of hue which the maximum color selects
+	private static final int HSV_SECTOR_G = (int)Math.round(2*256.0/6.0*(1 << SHIFT));
+	private static final int HSV_SECTOR_B = (int)Math.round(4*256.0/6.0*(1 << SHIFT));
+
+	// ---------- Lab look up tables
+	// number of fractional bits used to encode linear RGB and XYZ
+	private static final int LAB_SHIFT = 15;
+	private static final int LAB_ONE = 1 << LAB_SHIFT;
+	// sRGB to linear RGB
+	private static final int LAB_GAMMA[] = new int[256];
+	// Lab's non-linear function f(t)
+	private static final int LAB_F[] = new int[LAB_ONE+1];
+	// linear RGB to XYZ divided by the white point
+	private static final int LAB_XYZ[] = new int[9];
+	// converts f(t) into Lab, scaled by 4 additional bits
+	private static final int LAB_L_MUL = (int)Math.round(116.0*255.0/100.0*16);
+	private static final int LAB_L_ADD = (int)Math.round(-16.0*255.0/100.0*(1 << (LAB_SHIFT+4))) + (1 << (LAB_SHIFT+3));
+	private static final int LAB_A_MUL = 500*16;
+	private static final int LAB_B_MUL = 200*16;
+	private static final int LAB_AB_ADD = (128 << (LAB_SHIFT+4)) + (1 << (LAB_SHIFT+3));
+
+	static {
+		for( int i = 1; i < 256; i++ ) {
+			HSV_SAT[i] = (int)Math.round(255.0*(1 << SHIFT)/i);
+			HSV_HUE[i] = (int)Math.round(256.0/6.0*(1 << SHIFT)/i);
+		}
+
+		for( int i = 0; i < 256; i++ ) {
+			LAB_GAMMA[i] = (int)Math.round(ColorLab.srgbToLinear(i/255.0)*LAB_ONE);
+		}
+		for( int i = 0; i <= LAB_ONE; i++ ) {
+			LAB_F[i] = (int)Math.round(ColorLab.f(i/(double)LAB_ONE)*LAB_ONE);
+		}
+
+		double xyz[] = new double[]{
+				0.412453/ColorLab.Xn, 0.357580/ColorLab.Xn, 0.180423/ColorLab.Xn,
+				0.212671/ColorLab.Yn, 0.715160/ColorLab.Yn, 0.072169/ColorLab.Yn,
+				0.019334/ColorLab.Zn, 0.119193/ColorLab.Zn, 0.950227/ColorLab.Zn};
+		for( int i = 0; i < 9; i++ ) {
+			LAB_XYZ[i] = (int)Math.round(xyz[i]*(1 << SHIFT));
+		}
+	}
+
+	/**
+	 * Converts RGB into YCbCr
+	 *
+	 * @param rgb (Input) RGB image with 3 or more bands
+	 * @param downSample Amount the input is down sampled by.  1 = no down sampling.
+	 * @param ycbcr (Output) YCbCr image with 3 bands. Must be rgb.width/downSample by rgb.height/downSample
+	 * @param concurrent If true the image is processed using multiple threads
+	 */
+	public static void rgbToYCbCr( ImageInterleavedInt8 rgb , int downSample ,
+								   ImageInterleavedInt8 ycbcr , boolean concurrent ) {
+		process(new ReaderInterleaved(rgb),downSample,ycbcr,Space.YCBCR,concurrent);
+	}
+
+	/**
+	 * Converts RGB into YCbCr
+	 *
+	 * @param rgb (Input) RGB image with 3 or more bands
+	 * @param downSample Amount the input is down sampled by.  1 = no down sampling.
+	 * @param ycbcr (Output) YCbCr image with 3 bands. Must be rgb.width/downSample by rgb.height/downSample
+	 * @param concurrent If true the image is processed using multiple threads
+	 */
+	public static void rgbToYCbCr( MultiSpectral<ImageUInt8> rgb , int downSample ,
+								   ImageInterleavedInt8 ycbcr , boolean concurrent ) {
+		process(new ReaderMulti(rgb),downSample,ycbcr,Space.YCBCR,concurrent);
+	}
+
+	/**
+	 * Converts RGB into HSV
+	 *
+	 * @param rgb (Input) RGB image with 3 or more bands
+	 * @param downSample Amount the input is down sampled by.  1 = no down sampling.
+	 * @param hsv (Output) HSV image with 3 bands. Must be rgb.width/downSample by rgb.height/downSample
+	 * @param concurrent If true the image is processed using multiple threads
+	 */
+	public static void rgbToHsv( ImageInterleavedInt8 rgb , int downSample ,
+								 ImageInterleavedInt8 hsv , boolean concurrent ) {
+		process(new ReaderInterleaved(rgb),downSample,hsv,Space.HSV,concurrent);
+	}
+
+	/**
+	 * Converts RGB into HSV
+	 *
+	 * @param rgb (Input) RGB image with 3 or more bands
+	 * @param downSample Amount the input is down sampled by.  1 = no down sampling.
+	 * @param hsv (Output) HSV image with 3 bands. Must be rgb.width/downSample by rgb.height/downSample
+	 * @param concurrent If true the image is processed using multiple threads
+	 */
+	public static void rgbToHsv( MultiSpectral<ImageUInt8> rgb , int downSample ,
+								 ImageInterleavedInt8 hsv , boolean concurrent ) {
+		process(new ReaderMulti(rgb),downSample,hsv,Space.HSV,concurrent);
+	}
+
+	/**
+	 * Converts RGB into CIE Lab
+	 *
+	 * @param rgb (Input) RGB image with 3 or more bands
+	 * @param downSample Amount the input is down sampled by.  1 = no down sampling.
+	 * @param lab (Output) Lab image with 3 bands. Must be rgb.width/downSample by rgb.height/downSample
+	 * @param concurrent If true the image is processed using multiple threads
+	 */
+	public static void rgbToLab( ImageInterleavedInt8 rgb , int downSample ,
+								 ImageInterleavedInt8 lab , boolean concurrent ) {
+		process(new ReaderInterleaved(rgb),downSample,lab,Space.LAB,concurrent);
+	}
+
+	/**
+	 * Converts RGB into CIE Lab
+	 *
+	 * @param rgb (Input) RGB image with 3 or more bands
+	 * @param downSample Amount the input is down sampled by.  1 = no down sampling.
+	 * @param lab (Output) Lab image with 3 bands. Must be rgb.width/downSample by rgb.height/downSample
+	 * @param concurrent If true the image is processed using multiple threads
+	 */
+	public static void rgbToLab( MultiSpectral<ImageUInt8> rgb , int downSample ,
+								 ImageInterleavedInt8 lab , boolean concurrent ) {
+		process(new ReaderMulti(rgb),downSample,lab,Space.LAB,concurrent);
+	}
+
+	/**
+	 * Reads in RGB one row at a time, converts it, and writes it to the output.
+	 */
+	private static void process( final RowReader reader , final int downSample ,
+								 final ImageInterleavedInt8 output , final Space space , boolean concurrent ) {
+		if( downSample < 1 )
+			throw new IllegalArgumentException("downSample must be at least 1");
+		if( reader.numBands < 3 )
+			throw new IllegalArgumentException("Input must have at least 3 bands");
+		if( output.numBands != 3 )
+			throw new IllegalArgumentException("Output must have 3 bands");
+		if( output.width != reader.width/downSample || output.height != reader.height/downSample )
+			throw new IllegalArgumentException("Output must be "+(reader.width/downSample)+" x "+
+					(reader.height/downSample));
+
+		IntRangeTask task = new IntRangeTask() {
+			@Override
+			public void process(int y0, int y1) {
+				int r[] = new int[output.width];
+				int g[] = new int[output.width];
+				int b[] = new int[output.width];
+
+				for( int y = y0; y < y1; y++ ) {
+					reader.read(y*downSample,downSample,output.width,r,g,b);
+
+					int indexOut = output.startIndex + y*output.stride;
+					switch( space ) {
+						case YCBCR: rowYCbCr(r,g,b,output.width,output.data,indexOut); break;
+						case HSV: rowHsv(r,g,b,output.width,output.data,indexOut); break;
+						case LAB: rowLab(r,g,b,output.width,output.data,indexOut); break;
+					}
+				}
+			}
+		};
+
+		if( concurrent )
+			BoofConcurrency.loopBlocks(0,output.height,task);
+		else
+			task.process(0,output.height);
+	}
+
+	private static void rowYCbCr( int r[] , int g[] , int b[] , int width , byte output[] , int index ) {
+		for( int x = 0; x < width; x++ ) {
+			int R = r[x], G = g[x], B = b[x];
+			// same coefficients as ColorYuv.rgbToYCbCr
+			output[index++] = (byte)((( 187*R + 629*G + 63*B ) >> 10) + 16);
+			output[index++] = (byte)(((-103*R - 346*G + 450*B) >> 10) + 128);
+			output[index++] = (byte)((( 450*R - 409*G - 41*B ) >> 10) + 128);
+		}
+	}
+
+	private static void rowHsv( int r[] , int g[] , int b[] , int width , byte output[] , int index ) {
+		for( int x = 0; x < width; x++ ) {
+			int R = r[x], G = g[x], B = b[x];
+
+			int max = R > G ? ( R > B ? R : B) : ( G > B ? G : B );
+			int min = R < G ? ( R < B ? R : B) : ( G < B ? G : B );
+			int delta = max - min;
+
+			int h;
+			if( delta == 0 )
+				h = 0;
+			else if( R == max )
+				h = (G - B)*HSV_HUE[delta];
+			else if( G == max )
+				h = (B - R)*HSV_HUE[delta] + HSV_SECTOR_G;
+			else
+				h = (R - G)*HSV_HUE[delta] + HSV_SECTOR_B;
+
+			output[index++] = (byte)((h + ROUND) >> SHIFT);
+			output[index++] = (byte)((delta*HSV_SAT[max] + ROUND) >> SHIFT);
+			output[index++] = (byte)max;
+		}
+	}
+
+	private static void rowLab( int r[] , int g[] , int b[] , int width , byte output[] , int index ) {
+		final int xyz[] = LAB_XYZ;
+
+		for( int x = 0; x < width; x++ ) {
+			int R = LAB_GAMMA[r[x]], G = LAB_GAMMA[g[x]], B = LAB_GAMMA[b[x]];
+
+			int X = (xyz[0]*R + xyz[1]*G + xyz[2]*B + ROUND) >> SHIFT;
+			int Y = (xyz[3]*R + xyz[4]*G + xyz[5]*B + ROUND) >> SHIFT;
+			int Z = (xyz[6]*R + xyz[7]*G + xyz[8]*B + ROUND) >> SHIFT;
+
+			int fx = LAB_F[X > LAB_ONE ? LAB_ONE : X];
+			int fy = LAB_F[Y > LAB_ONE ? LAB_ONE : Y];
+			int fz = LAB_F[Z > LAB_ONE ? LAB_ONE : Z];
+
+			output[index++] = (byte)clamp((LAB_L_MUL*fy + LAB_L_ADD) >> (LAB_SHIFT+4));
+			output[index++] = (byte)clamp((LAB_A_MUL*(fx - fy) + LAB_AB_ADD) >> (LAB_SHIFT+4));
+			output[index++] = (byte)clamp((LAB_B_MUL*(fy - fz) + LAB_AB_ADD) >> (LAB_SHIFT+4));
+		}
+	}
+
+	private static int clamp( int value ) {
+		if( value < 0 ) return 0;
+		if( value > 255 ) return 255;
+		return value;
+	}
+
+	private static enum Space {
+		YCBCR,HSV,LAB
+	}
+
+	/**
+	 * Reads a row of RGB values from the input image.  If down sampled the average value in each block is returned.
+	 */
+	private static abstract class RowReader {
+		int width,height,numBands;
+
+		/**
+		 * @param y0 First row in the input image
+		 * @param downSample Size of the square block which is averaged
+		 * @param length Number of output pixels
+		 */
+		public void read( int y0 , int downSample , int length , int r[] , int g[] , int b[] ) {
+			if( downSample == 1 ) {
+				readRow(y0,length,r,g,b);
+			} else {
+				int N = downSample*downSample;
+				int half = N/2;
+				sumBlocks(y0,downSample,length,r,g,b);
+				for( int x = 0; x < length; x++ ) {
+					r[x] = (r[x] + half)/N;
+					g[x] = (g[x] + half)/N;
+					b[x] = (b[x] + half)/N;
+				}
+			}
+		}
+
+		protected abstract void readRow( int y , int length , int r[] , int g[] , int b[] );
+
+		protected abstract void sumBlocks( int y0 , int downSample , int length , int r[] , int g[] , int b[] );
+	}
+
+	private static class ReaderInterleaved extends RowReader {
+		ImageInterleavedInt8 image;
+
+		private ReaderInterleaved(ImageInterleavedInt8 image) {
+			this.image = image;
+			this.width = image.width;
+			this.height = image.height;
+			this.numBands = image.numBands;
+		}
+
+		@Override
+		protected void readRow(int y, int length, int[] r, int[] g, int[] b) {
+			byte data[] = image.data;
+			int numBands = image.numBands;
+			int index = image.startIndex + y*image.stride;
+			for( int x = 0; x < length; x++ , index += numBands ) {
+				r[x] = data[index] & 0xFF;
+				g[x] = data[index+1] & 0xFF;
+				b[x] = data[index+2] & 0xFF;
+			}
+		}
+
+		@Override
+		protected void sumBlocks(int y0, int downSample, int length, int[] r, int[] g, int[] b) {
+			byte data[] = image.data;
+			int numBands = image.numBands;
+
+			for( int x = 0; x < length; x++ ) {
+				int sumR = 0, sumG = 0, sumB = 0;
+				for( int y = y0; y < y0+downSample; y++ ) {
+					int index = image.startIndex + y*image.stride + x*downSample*numBands;
+					for( int i = 0; i < downSample; i++ , index += numBands ) {
+						sumR += data[index] & 0xFF;
+						sumG += data[index+1] & 0xFF;
+						sumB += data[index+2] & 0xFF;
+					}
+				}
+				r[x] = sumR; g[x] = sumG; b[x] = sumB;
+			}
+		}
+	}
+
+	private static class ReaderMulti extends RowReader {
+		byte dataR[],dataG[],dataB[];
+		int startIndex,stride;
+
+		private ReaderMulti(MultiSpectral<ImageUInt8> image) {
+			this.width = image.width;
+			this.height = image.height;
+			this.numBands = image.getNumBands();
+			if( numBands >= 3 ) {
+				dataR = image.getBand(0).data;
+				dataG = image.getBand(1).data;
+				dataB = image.getBand(2).data;
+			}
+			this.startIndex = image.startIndex;
+			this.stride = image.stride;
+		}
+
+		@Override
+		protected void readRow(int y, int length, int[] r, int[] g, int[] b) {
+			int index = startIndex + y*stride;
+			for( int x = 0; x < length; x++ , index++ ) {
+				r[x] = dataR[index] & 0xFF;
+				g[x] = dataG[index] & 0xFF;
+				b[x] = dataB[index] & 0xFF;
+			}
+		}
+
+		@Override
+		protected void sumBlocks(int y0, int downSample, int length, int[] r, int[] g, int[] b) {
+			for( int x = 0; x < length; x++ ) {
+				int sumR = 0, sumG = 0, sumB = 0;
+				for( int y = y0; y < y0+downSample; y++ ) {
+					int index = startIndex + y*stride + x*downSample;
+					for( int i = 0; i < downSample; i++ , index++ ) {
+						sumR += dataR[index] & 0xFF;
+						sumG += dataG[index] & 0xFF;
+						sumB += dataB[index] & 0xFF;
+					}
+				}
+				r[x] = sumR; g[x] = sumG; b[x] = sumB;
+			}
+		}
+	}
+}
@@ -21,6 +21,7 @@ package boofcv.alg.distort;
 import boofcv.alg.distort.impl.DistortSupport;
 import boofcv.alg.interpolate.InterpolatePixel;
 import boofcv.alg.interpolate.TypeInterpolate;
+import boofcv.core.image.border.BorderType;
 import boofcv.core.image.border.FactoryImageBorder;
 import boofcv.core.image.border.ImageBorder;
 import boofcv.factory.distort.FactoryDistort;
@@ -168,7 +169,8 @@ public class DistortImageOps {
 
 	/**
 	 * Easy way to create {@link ImageDistort} given {@link PixelTransform_F32}.  To improve
-	 * performance the distortion is automatically cached.
+	 * performance the distortion is automatically cached.  For bilinear interpolation the interpolation
+	 * weights are also precomputed.
 	 *
 	 * @see FactoryDistort
 	 * @see FactoryInterpolation
@@ -183,7 +185,34 @@ public class DistortImageOps {
 										TypeInterpolate interpType,
 										Class<T> imageType ) {
 		InterpolatePixel<T> interp = FactoryInterpolation.createPixel(0, 255, interpType, imageType);
-		ImageDistort<T> distorter = FactoryDistort.distortCached(interp, FactoryImageBorder.value(imageType, 0), imageType);
+		ImageDistort<T> distorter = FactoryDistort.distortCached(interp, FactoryImageBorder.value(imageType, 0),
+				imageType, interpType == TypeInterpolate.BILINEAR);
+		distorter.setModel(new PointToPixelTransform_F32(transform));
+
+		return distorter;
+	}
+
+	/**
+	 * Easy way to create {@link ImageDistort} given {@link PixelTransform_F32}.  To improve
+	 * performance the distortion is automatically cached.  If concurrent then the image is split into tiles
+	 * which are processed by multiple threads.
+	 *
+	 * @see ImageDistort_MT
+	 *
+	 * @param transform Image transform.
+	 * @param interpType Which interpolation. Try bilinear.
+	 * @param imageType Image of single band image it will process.
+	 * @param concurrent If true the image will be distorted using multiple threads.
+	 * @return The {@link ImageDistort}
+	 */
+	public static <T extends ImageSingleBand>
+	ImageDistort<T> createImageDistort( PointTransform_F32 transform ,
+										TypeInterpolate interpType,
+										Class<T> imageType , boolean concurrent ) {
+		if( !concurrent )
+			return createImageDistort(transform,interpType,imageType);
+
+		ImageDistort<T> distorter = FactoryDistort.distortCached_MT(interpType, BorderType.VALUE, 0, imageType);
 		distorter.setModel(new PointToPixelTransform_F32(transform));
 
 		return distorter;
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.distort;
+
+import boofcv.struct.distort.PixelTransform_F32;
+
+import java.nio.FloatBuffer;
+
+/**
+ * <p>
+ * Immutable look up table which specifies the location of each output pixel inside the source image.
+ * Computing the distortion for each pixel can be expensive, e.g. when lens distortion is removed, but only
+ * needs to be done once for a fixed image size.  Once computed a single map can be shared by any number of
+ * {@link ImageDistortCache} at the same time, including ones in different threads.
+ * </p>
+ *
+ * <p>
+ * The (x,y) coordinates are stored interleaved in row-major order inside a {@link FloatBuffer}, 8 bytes per pixel.
+ * The buffer can be on the heap or a memory mapped file, see boofcv.io.UtilDistortionMapIO.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class DistortionMap_F32 {
+
+	// shape of the output image
+	private final int width;
+	private final int height;
+
+	// interleaved (x,y) source coordinates.  Only absolute get() is used so it is safe to read from
+	// multiple threads
+	final FloatBuffer data;
+
+	/**
+	 * Creates a map from an existing buffer.  The buffer's contents must not be modified after this.
+	 *
+	 * @param width Width of the output image.
+	 * @param height Height of the output image.
+	 * @param data Interleaved (x,y) source coordinates, starting at index 0.  Must have 2*width*height elements.
+	 */
+	public DistortionMap_F32(int width, int height, FloatBuffer data) {
+		if( width <= 0 || height <= 0 )
+			throw new IllegalArgumentException("Width and height must be positive");
+		if( data.capacity() != 2*width*height )
+			throw new IllegalArgumentException("Expected "+(2*width*height)+" elements not "+data.capacity());
+
+		this.width = width;
+		this.height = height;
+		this.data = data.asReadOnlyBuffer();
+	}
+
+	/**
+	 * Computes the map by applying the transform to every pixel in the output image.
+	 *
+	 * @param dstToSrc Transform from output pixel to source pixel.
+	 * @param width Width of the output image.
+	 * @param height Height of the output image.
+	 * @return The map.
+	 */
+	public static DistortionMap_F32 compute( PixelTransform_F32 dstToSrc , int width , int height ) {
+		float map[] = new float[width*height*2];
+
+		int index = 0;
+		for( int y = 0; y < height; y++ ) {
+			for( int x = 0; x < width; x++ ) {
+				dstToSrc.compute(x,y);
+				map[index++] = dstToSrc.distX;
+				map[index++] = dstToSrc.distY;
+			}
+		}
+
+		return new DistortionMap_F32(width,height,FloatBuffer.wrap(map));
+	}
+
+	/**
+	 * Source image x-coordinate of the output pixel.
+	 */
+	public float getX( int x , int y ) {
+		return data.get((y*width+x)*2);
+	}
+
+	/**
+	 * Source image y-coordinate of the output pixel.
+	 */
+	public float getY( int x , int y ) {
+		return data.get((y*width+x)*2+1);
+	}
+
+	/**
+	 * Returns a read only view of the interleaved (x,y) coordinates.  Each call returns a new view
+	 * so its position and limit can be changed without affecting other users.
+	 */
+	public FloatBuffer getData() {
+		return data.duplicate();
+	}
+
+	/**
+	 * Number of bytes used to store the map.
+	 */
+	public long getStorageBytes() {
+		return 4L*data.capacity();
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+}
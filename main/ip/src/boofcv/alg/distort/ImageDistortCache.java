@@ -22,12 +22,24 @@ import boofcv.alg.interpolate.InterpolatePixel;
 import boofcv.core.image.border.ImageBorder;
 import boofcv.struct.distort.PixelTransform_F32;
 import boofcv.struct.image.ImageSingleBand;
-import georegression.struct.point.Point2D_F32;
+
+import java.nio.FloatBuffer;
 
 /**
+ * <p>
  * Except for very simple functions, computing the per pixel distortion is an expensive operation.
  * To overcome this problem the distortion is computed once and cached.  Then when the image is distorted
  * again the save results are simply recalled and not computed again.
+ * </p>
+ *
+ * <p>
+ * The cache is stored in a single float array with the (x,y) source coordinate of each output pixel
+ * packed together in row-major order, 8 bytes per pixel.  Optionally, when bilinear interpolation is used,
+ * the index of the top-left source pixel and the bilinear weights can be precomputed too.  That removes all
+ * the per-pixel bounds checks and float to int conversions from the inner loop at the cost of an additional
+ * 12 bytes per pixel.  The precomputed values depend on the shape of the source image and are recomputed
+ * if it changes.  Either way the output is identical to the non-cached distortion.
+ * </p>
  *
  * @author Peter Abeles
  */
@@ -35,12 +47,23 @@ public abstract class ImageDistortCache<T extends ImageSingleBand> implements Im
 
 	// size of output image
 	private int width=-1,height=-1;
-	private Point2D_F32 map[];
+	// source pixel for each output pixel
+	private DistortionMap_F32 map;
 	// sub pixel interpolation
 	private InterpolatePixel<T> interp;
 	// handle the image border
 	private ImageBorder<T> border;
 
+	// should the bilinear interpolation be precomputed
+	private boolean precomputeBilinear;
+	// index of the top-left source pixel relative to the source's startIndex.  -1 if the source
+	// pixel can't be interpolated with the precomputed values.
+	private int srcIndexes[];
+	// bilinear weights along x and y, interleaved (ax,ay) pairs
+	private float weights[];
+	// shape of the source image the precomputed values were computed for
+	private int srcWidth=-1,srcHeight=-1,srcStride=-1;
+
 	// transform
 	private PixelTransform_F32 dstToSrc;
 
@@ -67,6 +90,60 @@ public abstract class ImageDistortCache<T extends ImageSingleBand> implements Im
 		this.dstToSrc = dstToSrc;
 	}
 
+	/**
+	 * Uses a map which has already been computed instead of computing one from the model.  The map can be
+	 * shared with other instances, but precomputed bilinear values are not shared.
+	 *
+	 * @param map The distortion map.  Its shape must match the output image.
+	 */
+	public void setMap( DistortionMap_F32 map ) {
+		this.map = map;
+		this.width = map.getWidth();
+		this.height = map.getHeight();
+		this.srcWidth = this.srcHeight = this.srcStride = -1;
+	}
+
+	/**
+	 * Returns the distortion map.  Null if no image has been distorted and no map was specified.
+	 */
+	public DistortionMap_F32 getMap() {
+		return map;
+	}
+
+	/**
+	 * If set to true and the interpolation is bilinear then the source pixel indexes and interpolation weights
+	 * are precomputed.  Ignored for other types of interpolation.
+	 *
+	 * @param precomputeBilinear true to precompute bilinear interpolation
+	 */
+	public void setPrecomputeBilinear(boolean precomputeBilinear) {
+		this.precomputeBilinear = precomputeBilinear;
+		if( !precomputeBilinear ) {
+			srcIndexes = null;
+			weights = null;
+			srcWidth = srcHeight = srcStride = -1;
+		}
+	}
+
+	public boolean isPrecomputeBilinear() {
+		return precomputeBilinear;
+	}
+
+	/**
+	 * Number of bytes used by the cached distortion, including a shared map.  Zero until the first
+	 * image has been distorted.
+	 *
+	 * @return Size of the cache in bytes.
+	 */
+	public long getCacheBytes() {
+		long total = 0;
+		if( map != null )
+			total += map.getStorageBytes();
+		if( srcIndexes != null )
+			total += 4L*srcIndexes.length + 4L*weights.length;
+		return total;
+	}
+
 	@Override
 	public void apply(T srcImg, T dstImg) {
 		init(srcImg, dstImg);
@@ -92,27 +169,57 @@ public abstract class ImageDistortCache<T extends ImageSingleBand> implements Im
 	}
 
 	private void init(T srcImg, T dstImg) {
-		if( width == -1 ) {
+		if( map == null ) {
 			width = dstImg.width;
 			height = dstImg.height;
-			map = new Point2D_F32[width*height];
-			for( int i = 0; i < map.length; i++ ) {
-				map[i] = new Point2D_F32();
-			}
-
-			int index = 0;
-			for( int y = 0; y < height; y++ ) {
-				for( int x = 0; x < width; x++ ) {
-					dstToSrc.compute(x,y);
-					map[index++].set(dstToSrc.distX,dstToSrc.distY);
-				}
-			}
+			map = DistortionMap_F32.compute(dstToSrc,width,height);
 		} else if( dstImg.width != width || dstImg.height != height )
 			throw new IllegalArgumentException("Unexpected dstImg dimension");
 
 		this.srcImg = srcImg;
 		this.dstImg = dstImg;
 		interp.setImage(srcImg);
+
+		if( precomputeBilinear && isBilinearSupported(interp) ) {
+			if( srcImg.width != srcWidth || srcImg.height != srcHeight || srcImg.stride != srcStride )
+				precomputeBilinear(srcImg);
+		}
+	}
+
+	/**
+	 * Computes the index of the top-left source pixel and bilinear weights for each output pixel.
+	 * Pixels along the source's right and bottom edge are not precomputed since the bilinear interpolation
+	 * handles them as a special case.
+	 */
+	private void precomputeBilinear( T srcImg ) {
+		srcWidth = srcImg.width;
+		srcHeight = srcImg.height;
+		srcStride = srcImg.stride;
+
+		int N = width*height;
+		if( srcIndexes == null || srcIndexes.length != N ) {
+			srcIndexes = new int[N];
+			weights = new float[N*2];
+		}
+
+		final FloatBuffer map = this.map.data;
+		final float maxX = srcWidth-1;
+		final float maxY = srcHeight-1;
+
+		for( int i = 0; i < N; i++ ) {
+			float x = map.get(i*2);
+			float y = map.get(i*2+1);
+
+			if( x >= 0f && x < maxX && y >= 0f && y < maxY ) {
+				int xt = (int)x;
+				int yt = (int)y;
+				srcIndexes[i] = yt*srcStride + xt;
+				weights[i*2] = x - xt;
+				weights[i*2+1] = y - yt;
+			} else {
+				srcIndexes[i] = -1;
+			}
+		}
 	}
 
 	public void applyBorder() {
@@ -127,18 +234,33 @@ public abstract class ImageDistortCache<T extends ImageSingleBand> implements Im
 		final float widthF = srcImg.getWidth();
 		final float heightF = srcImg.getHeight();
 
+		final FloatBuffer map = this.map.data;
+		final int srcIndexes[] = this.srcIndexes;
+		final float weights[] = this.weights;
+
 		for( int y = y0; y < y1; y++ ) {
 			int indexDst = dstImg.startIndex + dstImg.stride*y + x0;
-			for( int x = x0; x < x1; x++ , indexDst++ ) {
-				Point2D_F32 s = map[indexDst];
+			int indexMap = y*width + x0;
+			for( int x = x0; x < x1; x++ , indexDst++ , indexMap++ ) {
+				if( srcIndexes != null ) {
+					int indexSrc = srcIndexes[indexMap];
+					if( indexSrc >= 0 ) {
+						assign(indexDst,interpolateBilinear(srcImg.startIndex + indexSrc,
+								weights[indexMap*2],weights[indexMap*2+1]));
+						continue;
+					}
+				}
+
+				float sx = map.get(indexMap*2);
+				float sy = map.get(indexMap*2+1);
 
-				if( s.x < minInterpX || s.x >= maxInterpX || s.y < minInterpY || s.y >= maxInterpY ) {
-					if( s.x < 0f || s.x >= widthF || s.y < 0f || s.y >= heightF )
-						assign(indexDst,(float)border.getGeneral((int)s.x,(int)s.y));
+				if( sx < minInterpX || sx >= maxInterpX || sy < minInterpY || sy >= maxInterpY ) {
+					if( sx < 0f || sx >= widthF || sy < 0f || sy >= heightF )
+						assign(indexDst,(float)border.getGeneral((int)sx,(int)sy));
 					else
-						assign(indexDst,interp.get(s.x, s.y));
+						assign(indexDst,interp.get(sx, sy));
 				} else {
-					assign(indexDst,interp.get_unsafe(s.x, s.y));
+					assign(indexDst,interp.get_unsafe(sx, sy));
 				}
 			}
 		}
@@ -153,20 +275,56 @@ public abstract class ImageDistortCache<T extends ImageSingleBand> implements Im
 		final float widthF = srcImg.getWidth();
 		final float heightF = srcImg.getHeight();
 
+		final FloatBuffer map = this.map.data;
+		final int srcIndexes[] = this.srcIndexes;
+		final float weights[] = this.weights;
+
 		for( int y = y0; y < y1; y++ ) {
 			int indexDst = dstImg.startIndex + dstImg.stride*y + x0;
-			for( int x = x0; x < x1; x++ , indexDst++ ) {
-				Point2D_F32 s = map[indexDst];
+			int indexMap = y*width + x0;
+			for( int x = x0; x < x1; x++ , indexDst++ , indexMap++ ) {
+				if( srcIndexes != null ) {
+					int indexSrc = srcIndexes[indexMap];
+					if( indexSrc >= 0 ) {
+						assign(indexDst,interpolateBilinear(srcImg.startIndex + indexSrc,
+								weights[indexMap*2],weights[indexMap*2+1]));
+						continue;
+					}
+				}
 
-				if( s.x < minInterpX || s.x >= maxInterpX || s.y < minInterpY || s.y >= maxInterpY ) {
-					if( s.x >= 0f && s.x < widthF && s.y >= 0f && s.y < heightF )
-						assign(indexDst,interp.get(s.x, s.y));
+				float sx = map.get(indexMap*2);
+				float sy = map.get(indexMap*2+1);
+
+				if( sx < minInterpX || sx >= maxInterpX || sy < minInterpY || sy >= maxInterpY ) {
+					if( sx >= 0f && sx < widthF && sy >= 0f && sy < heightF )
+						assign(indexDst,interp.get(sx, sy));
 				} else {
-					assign(indexDst,interp.get_unsafe(s.x, s.y));
+					assign(indexDst,interp.get_unsafe(sx, sy));
 				}
 			}
 		}
 	}
 
+	/**
+	 * Returns true if {@link #interpolateBilinear(int, float, float)} produces the same output as
+	 * the provided interpolation algorithm.
+	 */
+	protected boolean isBilinearSupported( InterpolatePixel<T> interp ) {
+		return false;
+	}
+
+	/**
+	 * Bilinear interpolation using precomputed values.  The pixel to the right and below are always
+	 * inside the image.
+	 *
+	 * @param indexSrc Index of the top-left pixel in the source image's data array.
+	 * @param ax Weight along x-axis
+	 * @param ay Weight along y-axis
+	 * @return Interpolated value
+	 */
+	protected float interpolateBilinear( int indexSrc , float ax , float ay ) {
+		throw new RuntimeException("Not supported");
+	}
+
 	protected abstract void assign( int indexDst , float value );
 }
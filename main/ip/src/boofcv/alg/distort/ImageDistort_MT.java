@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.distort;
+
+import boofcv.alg.interpolate.InterpolatePixel;
+import boofcv.alg.interpolate.TypeInterpolate;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.core.image.border.BorderType;
+import boofcv.core.image.border.FactoryImageBorder;
+import boofcv.core.image.border.ImageBorder;
+import boofcv.factory.distort.FactoryDistort;
+import boofcv.factory.interpolate.FactoryInterpolation;
+import boofcv.struct.distort.PixelTransform_F32;
+import boofcv.struct.image.ImageSingleBand;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link ImageDistort}.  The destination image is split into rectangular tiles
+ * which are small enough to stay in cache and the tiles are processed by the threads in
+ * {@link BoofConcurrency}.  Each thread uses its own {@link ImageDistortCache}, with its own
+ * {@link InterpolatePixel} and {@link ImageBorder}, so only the {@link DistortionMap_F32} is shared.
+ * Output is identical to the single threaded distortion.
+ * </p>
+ *
+ * <p>
+ * {@link PixelTransform_F32} is not thread safe so the distortion map is computed by a single thread the first
+ * time an image is processed, or provided with {@link #setMap(DistortionMap_F32)}.  This makes the most sense when
+ * the same distortion is applied to many images.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ImageDistort_MT<T extends ImageSingleBand> implements ImageDistort<T> {
+
+	// used to create the interpolation and border for each worker
+	private TypeInterpolate interpType;
+	private BorderType borderType;
+	private double borderValue;
+	private Class<T> imageType;
+
+	// size of a tile in the destination image
+	private int tileWidth = 128;
+	private int tileHeight = 64;
+
+	// transform
+	private PixelTransform_F32 dstToSrc;
+	// source pixel for each destination pixel.  Shared by all the workers
+	private DistortionMap_F32 map;
+
+	// workers which are not being used by a thread
+	private final List<ImageDistortCache<T>> available = new ArrayList<ImageDistortCache<T>>();
+
+	/**
+	 * Specifies configuration parameters
+	 *
+	 * @param interpType Type of interpolation
+	 * @param borderType How borders are handled.  If null then pixels outside the source image are not modified.
+	 * @param borderValue Value of pixels outside the image when borderType is {@link BorderType#VALUE}.
+	 * @param imageType Type of image being processed
+	 */
+	public ImageDistort_MT(TypeInterpolate interpType, BorderType borderType, double borderValue,
+						   Class<T> imageType) {
+		this.interpType = interpType;
+		this.borderType = borderType;
+		this.borderValue = borderValue;
+		this.imageType = imageType;
+	}
+
+	@Override
+	public void setModel(PixelTransform_F32 dstToSrc) {
+		this.dstToSrc = dstToSrc;
+		this.map = null;
+	}
+
+	/**
+	 * Uses a map which has already been computed instead of computing one from the model.
+	 *
+	 * @param map The distortion map.  Its shape must match the output image.
+	 */
+	public void setMap( DistortionMap_F32 map ) {
+		this.map = map;
+	}
+
+	/**
+	 * Returns the distortion map.  Null if no image has been distorted and no map was specified.
+	 */
+	public DistortionMap_F32 getMap() {
+		return map;
+	}
+
+	/**
+	 * Specifies the size of the tiles the destination image is split into
+	 *
+	 * @param tileWidth Width of a tile.  &ge; 1
+	 * @param tileHeight Height of a tile. &ge; 1
+	 */
+	public void setTileSize( int tileWidth , int tileHeight ) {
+		if( tileWidth < 1 || tileHeight < 1 )
+			throw new IllegalArgumentException("Tiles must have at least one pixel");
+		this.tileWidth = tileWidth;
+		this.tileHeight = tileHeight;
+	}
+
+	public int getTileWidth() {
+		return tileWidth;
+	}
+
+	public int getTileHeight() {
+		return tileHeight;
+	}
+
+	@Override
+	public void apply(T srcImg, T dstImg) {
+		apply(srcImg,dstImg,0,0,dstImg.width,dstImg.height);
+	}
+
+	@Override
+	public void apply(final T srcImg, final T dstImg,
+					  final int dstX0, final int dstY0, final int dstX1, final int dstY1) {
+		if( map == null ) {
+			map = DistortionMap_F32.compute(dstToSrc,dstImg.width,dstImg.height);
+		} else if( dstImg.width != map.getWidth() || dstImg.height != map.getHeight() )
+			throw new IllegalArgumentException("Unexpected dstImg dimension");
+
+		final int tilesX = (dstX1-dstX0+tileWidth-1)/tileWidth;
+		final int tilesY = (dstY1-dstY0+tileHeight-1)/tileHeight;
+
+		if( tilesX <= 0 || tilesY <= 0 )
+			return;
+
+		BoofConcurrency.loopBlocks(0,tilesX*tilesY,new IntRangeTask() {
+			@Override
+			public void process(int index0, int index1) {
+				ImageDistortCache<T> worker = grabWorker();
+				try {
+					for( int i = index0; i < index1; i++ ) {
+						int x0 = dstX0 + (i%tilesX)*tileWidth;
+						int y0 = dstY0 + (i/tilesX)*tileHeight;
+						int x1 = Math.min(x0+tileWidth,dstX1);
+						int y1 = Math.min(y0+tileHeight,dstY1);
+
+						worker.apply(srcImg,dstImg,x0,y0,x1,y1);
+					}
+				} finally {
+					releaseWorker(worker);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Returns a worker which isn't being used by any other thread.  A new one is created if needed.
+	 */
+	private ImageDistortCache<T> grabWorker() {
+		ImageDistortCache<T> worker;
+		synchronized ( available ) {
+			worker = available.isEmpty() ? null : available.remove(available.size()-1);
+		}
+		if( worker == null )
+			worker = createWorker();
+		if( worker.getMap() != map )
+			worker.setMap(map);
+		return worker;
+	}
+
+	private void releaseWorker( ImageDistortCache<T> worker ) {
+		synchronized ( available ) {
+			available.add(worker);
+		}
+	}
+
+	/**
+	 * Creates a new single threaded distortion with its own interpolation and border.
+	 */
+	protected ImageDistortCache<T> createWorker() {
+		InterpolatePixel<T> interp = FactoryInterpolation.createPixel(0, 255, interpType, imageType);
+
+		ImageBorder<T> border;
+		if( borderType == null )
+			border = null;
+		else if( borderType == BorderType.VALUE )
+			border = FactoryImageBorder.value(imageType, borderValue);
+		else
+			border = FactoryImageBorder.general(imageType, borderType);
+
+		return FactoryDistort.distortCached(interp,border,imageType,false);
+	}
+}
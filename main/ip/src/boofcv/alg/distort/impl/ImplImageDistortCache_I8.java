@@ -20,6 +20,7 @@ package boofcv.alg.distort.impl;
 
 import boofcv.alg.distort.ImageDistortCache;
 import boofcv.alg.interpolate.InterpolatePixel;
+import boofcv.alg.interpolate.impl.ImplBilinearPixel_U8;
 import boofcv.core.image.border.ImageBorder;
 import boofcv.struct.image.ImageInt8;
 
@@ -39,4 +40,22 @@ public class ImplImageDistortCache_I8<T extends ImageInt8> extends ImageDistortC
 	protected void assign(int indexDst, float value) {
 		dstImg.data[indexDst] = (byte)value;
 	}
+
+	@Override
+	protected boolean isBilinearSupported(InterpolatePixel<T> interp) {
+		return interp instanceof ImplBilinearPixel_U8;
+	}
+
+	@Override
+	protected float interpolateBilinear(int index, float ax, float ay) {
+		final int stride = srcImg.stride;
+		final byte data[] = srcImg.data;
+
+		float val = (1.0f - ax) * (1.0f - ay) * (data[index] & 0xFF); // (x,y)
+		val += ax * (1.0f - ay) * (data[index + 1] & 0xFF); // (x+1,y)
+		val += ax * ay * (data[index + 1 + stride] & 0xFF); // (x+1,y+1)
+		val += (1.0f - ax) * ay * (data[index + stride] & 0xFF); // (x,y+1)
+
+		return val;
+	}
 }
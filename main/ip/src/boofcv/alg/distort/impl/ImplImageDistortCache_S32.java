@@ -20,6 +20,7 @@ package boofcv.alg.distort.impl;
 
 import boofcv.alg.distort.ImageDistortCache;
 import boofcv.alg.interpolate.InterpolatePixel;
+import boofcv.alg.interpolate.impl.ImplBilinearPixel_S32;
 import boofcv.core.image.border.ImageBorder;
 import boofcv.struct.image.ImageSInt32;
 
@@ -39,4 +40,22 @@ public class ImplImageDistortCache_S32 extends ImageDistortCache<ImageSInt32> {
 	protected void assign(int indexDst, float value) {
 		dstImg.data[indexDst] = (int)value;
 	}
+
+	@Override
+	protected boolean isBilinearSupported(InterpolatePixel<ImageSInt32> interp) {
+		return interp instanceof ImplBilinearPixel_S32;
+	}
+
+	@Override
+	protected float interpolateBilinear(int index, float ax, float ay) {
+		final int stride = srcImg.stride;
+		final int data[] = srcImg.data;
+
+		float val = (1.0f - ax) * (1.0f - ay) * data[index]; // (x,y)
+		val += ax * (1.0f - ay) * data[index + 1]; // (x+1,y)
+		val += ax * ay * data[index + 1 + stride]; // (x+1,y+1)
+		val += (1.0f - ax) * ay * data[index + stride]; // (x,y+1)
+
+		return val;
+	}
 }
@@ -211,6 +211,39 @@ public class EnhanceImageOps {
 		}
 	}
 
+	/**
+	 * Contrast limited adaptive histogram equalization using tiles.  The cost does not depend on the size of the
+	 * tiles.  To avoid declaring new storage each call use {@link TiledAdaptiveEqualization} directly.
+	 *
+	 * @param input Input image.
+	 * @param tilesX Number of tiles along the x-axis.  Try 8
+	 * @param tilesY Number of tiles along the y-axis.  Try 8
+	 * @param clipLimit Maximum histogram bin height relative to a uniform histogram.  If &le; 0 there is no limit.  Try 2
+	 * @param output Output image.
+	 * @param concurrent If true multiple threads will be used
+	 */
+	public static void equalizeLocalTiled( ImageUInt8 input , int tilesX , int tilesY , double clipLimit ,
+										   ImageUInt8 output , boolean concurrent ) {
+		new TiledAdaptiveEqualization(tilesX,tilesY,clipLimit,concurrent).process(input,output);
+	}
+
+	/**
+	 * Contrast limited adaptive histogram equalization using tiles.  The cost does not depend on the size of the
+	 * tiles.  To avoid declaring new storage each call use {@link TiledAdaptiveEqualization} directly.
+	 *
+	 * @param input Input image.
+	 * @param maxValue Maximum possible pixel value.  Larger values are treated as maxValue.
+	 * @param tilesX Number of tiles along the x-axis.  Try 8
+	 * @param tilesY Number of tiles along the y-axis.  Try 8
+	 * @param clipLimit Maximum histogram bin height relative to a uniform histogram.  If &le; 0 there is no limit.  Try 2
+	 * @param output Output image.
+	 * @param concurrent If true multiple threads will be used
+	 */
+	public static void equalizeLocalTiled( ImageUInt16 input , int maxValue , int tilesX , int tilesY ,
+										   double clipLimit , ImageUInt16 output , boolean concurrent ) {
+		new TiledAdaptiveEqualization(tilesX,tilesY,clipLimit,concurrent).process(input,maxValue,output);
+	}
+
 	/**
 	 * Applies a Laplacian-4 based sharpen filter to the image.
 	 *
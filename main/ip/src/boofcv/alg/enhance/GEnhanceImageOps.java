@@ -79,6 +79,32 @@ public class GEnhanceImageOps {
 		}
 	}
 
+	/**
+	 * Contrast limited adaptive histogram equalization using tiles.
+	 *
+	 * @see TiledAdaptiveEqualization
+	 *
+	 * @param input Input image.
+	 * @param maxValue Maximum possible pixel value.  Ignored for ImageUInt8.
+	 * @param tilesX Number of tiles along the x-axis.
+	 * @param tilesY Number of tiles along the y-axis.
+	 * @param clipLimit Maximum histogram bin height relative to a uniform histogram.  If &le; 0 there is no limit.
+	 * @param output Output image.
+	 * @param concurrent If true multiple threads will be used
+	 */
+	public static <T extends ImageSingleBand>
+	void equalizeLocalTiled( T input , int maxValue , int tilesX , int tilesY , double clipLimit ,
+							 T output , boolean concurrent ) {
+		if( input instanceof ImageUInt8 ) {
+			EnhanceImageOps.equalizeLocalTiled((ImageUInt8)input,tilesX,tilesY,clipLimit,(ImageUInt8)output,concurrent);
+		} else if( input instanceof ImageUInt16 ) {
+			EnhanceImageOps.equalizeLocalTiled((ImageUInt16)input,maxValue,tilesX,tilesY,clipLimit,
+					(ImageUInt16)output,concurrent);
+		} else {
+			throw new IllegalArgumentException("Unsupported image type "+input.getClass().getSimpleName());
+		}
+	}
+
 	/**
 	 * Applies a Laplacian-4 based sharpen filter to the image.
 	 *
@@ -0,0 +1,358 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.enhance;
+
+import boofcv.alg.InputSanityCheck;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.struct.image.ImageUInt16;
+import boofcv.struct.image.ImageUInt8;
+
+/**
+ * <p>
+ * Contrast limited adaptive histogram equalization (CLAHE) which uses a grid of tiles.  The image is divided into
+ * tilesX by tilesY tiles and an equalization look up table is computed from the histogram of each tile.  Before the
+ * table is computed the histogram is clipped at the contrast limit and the clipped counts are redistributed across
+ * all the bins, which prevents noise in uniform regions from being amplified.  The output value of each pixel is
+ * found by bilinear interpolation between the tables of the four closest tile centers, removing discontinuities
+ * at tile borders.
+ * </p>
+ *
+ * <p>
+ * Unlike {@link EnhanceImageOps#equalizeLocal} the computational cost does not depend on the size of the local
+ * region.  Each pixel is read once to compute the histograms and once more to apply the interpolated tables.  When
+ * concurrent, tables are computed for tiles in parallel and the output is computed for blocks of rows in parallel.
+ * Internal storage is recycled between calls, making it suitable for processing video.
+ * </p>
+ *
+ * <p>
+ * [1] K. Zuiderveld, "Contrast Limited Adaptive Histogram Equalization" Graphics Gems IV, 1994
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class TiledAdaptiveEqualization {
+
+	// number of tiles along each axis
+	private int tilesX, tilesY;
+	// limit on the histogram relative to a uniform histogram
+	private double clipLimit;
+	// should it be processed with multiple threads
+	private boolean concurrent;
+
+	// look up table for every tile.  Table for tile (tx,ty) starts at (ty*tilesX + tx)*numValues
+	private int luts[] = new int[0];
+	// number of possible pixel values and the maximum pixel value
+	private int numValues;
+	private int maxValue;
+
+	// offset of the look up tables on either side of each column and weight of the second table
+	private int colOffset0[] = new int[0], colOffset1[] = new int[0];
+	private float colWeight[] = new float[0];
+	// offset of the look up tables above and below each row and weight of the second table
+	private int rowOffset0[] = new int[0], rowOffset1[] = new int[0];
+	private float rowWeight[] = new float[0];
+
+	/**
+	 * Configures the algorithm
+	 *
+	 * @param tilesX Number of tiles along the x-axis.  Try 8
+	 * @param tilesY Number of tiles along the y-axis.  Try 8
+	 * @param clipLimit Maximum value of a histogram bin relative to the height of a uniform histogram.  Larger values
+	 *                  allow more contrast.  If &le; 0 then the histogram is not clipped.  Try 2.
+	 * @param concurrent If true the image is processed using multiple threads
+	 */
+	public TiledAdaptiveEqualization(int tilesX, int tilesY, double clipLimit, boolean concurrent) {
+		if( tilesX < 1 || tilesY < 1 )
+			throw new IllegalArgumentException("There must be at least one tile along each axis");
+
+		this.tilesX = tilesX;
+		this.tilesY = tilesY;
+		this.clipLimit = clipLimit;
+		this.concurrent = concurrent;
+	}
+
+	/**
+	 * Equalizes the image.
+	 *
+	 * @param input Input image.  Not modified.
+	 * @param output Output image.  Can be the same instance as the input.
+	 */
+	public void process( final ImageUInt8 input , final ImageUInt8 output ) {
+		InputSanityCheck.checkSameShape(input, output);
+		setup(input.width, input.height, 255);
+
+		run(tilesX*tilesY, new IntRangeTask() {
+			@Override
+			public void process(int i0, int i1) {
+				int histogram[] = new int[numValues];
+
+				for( int i = i0; i < i1; i++ ) {
+					int tx = i % tilesX, ty = i / tilesX;
+					int x0 = tileStart(tx,tilesX,input.width), x1 = tileStart(tx+1,tilesX,input.width);
+					int y0 = tileStart(ty,tilesY,input.height), y1 = tileStart(ty+1,tilesY,input.height);
+
+					for( int j = 0; j < numValues; j++ )
+						histogram[j] = 0;
+
+					for( int y = y0; y < y1; y++ ) {
+						int index = input.startIndex + y*input.stride + x0;
+						int end = index + x1 - x0;
+						for( ; index < end; index++ ) {
+							histogram[input.data[index] & 0xFF]++;
+						}
+					}
+
+					computeTable(histogram, (x1-x0)*(y1-y0), i*numValues);
+				}
+			}
+		});
+
+		run(input.height, new IntRangeTask() {
+			@Override
+			public void process(int y0, int y1) {
+				for( int y = y0; y < y1; y++ ) {
+					int offsetA = rowOffset0[y], offsetB = rowOffset1[y];
+					float wy = rowWeight[y];
+
+					int indexIn = input.startIndex + y*input.stride;
+					int indexOut = output.startIndex + y*output.stride;
+					for( int x = 0; x < input.width; x++ ) {
+						int value = input.data[indexIn++] & 0xFF;
+						output.data[indexOut++] = (byte)interpolate(value, x, offsetA, offsetB, wy);
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * Equalizes the image.  Pixels with values larger than maxValue are treated as if they are maxValue.
+	 *
+	 * @param input Input image.  Not modified.
+	 * @param maxValue Maximum possible pixel value, e.g. 4095 for a 12-bit camera.  The size of each tile's look up
+	 *                 table is determined by this value.
+	 * @param output Output image.  Can be the same instance as the input.
+	 */
+	public void process( final ImageUInt16 input , int maxValue , final ImageUInt16 output ) {
+		InputSanityCheck.checkSameShape(input, output);
+		if( maxValue < 1 || maxValue > 0xFFFF )
+			throw new IllegalArgumentException("maxValue must be from 1 to 65535");
+		setup(input.width, input.height, maxValue);
+
+		run(tilesX*tilesY, new IntRangeTask() {
+			@Override
+			public void process(int i0, int i1) {
+				int histogram[] = new int[numValues];
+				int maxValue = TiledAdaptiveEqualization.this.maxValue;
+
+				for( int i = i0; i < i1; i++ ) {
+					int tx = i % tilesX, ty = i / tilesX;
+					int x0 = tileStart(tx,tilesX,input.width), x1 = tileStart(tx+1,tilesX,input.width);
+					int y0 = tileStart(ty,tilesY,input.height), y1 = tileStart(ty+1,tilesY,input.height);
+
+					for( int j = 0; j < numValues; j++ )
+						histogram[j] = 0;
+
+					for( int y = y0; y < y1; y++ ) {
+						int index = input.startIndex + y*input.stride + x0;
+						int end = index + x1 - x0;
+						for( ; index < end; index++ ) {
+							int value = input.data[index] & 0xFFFF;
+							histogram[value > maxValue ? maxValue : value]++;
+						}
+					}
+
+					computeTable(histogram, (x1-x0)*(y1-y0), i*numValues);
+				}
+			}
+		});
+
+		run(input.height, new IntRangeTask() {
+			@Override
+			public void process(int y0, int y1) {
+				int maxValue = TiledAdaptiveEqualization.this.maxValue;
+
+				for( int y = y0; y < y1; y++ ) {
+					int offsetA = rowOffset0[y], offsetB = rowOffset1[y];
+					float wy = rowWeight[y];
+
+					int indexIn = input.startIndex + y*input.stride;
+					int indexOut = output.startIndex + y*output.stride;
+					for( int x = 0; x < input.width; x++ ) {
+						int value = input.data[indexIn++] & 0xFFFF;
+						if( value > maxValue ) value = maxValue;
+						output.data[indexOut++] = (short)interpolate(value, x, offsetA, offsetB, wy);
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * Declares storage and precomputes which tiles and weights are used by each row and column
+	 */
+	private void setup( int width , int height , int maxValue ) {
+		if( width < tilesX || height < tilesY )
+			throw new IllegalArgumentException("Image is smaller than the number of tiles");
+
+		this.maxValue = maxValue;
+		this.numValues = maxValue + 1;
+
+		int N = tilesX*tilesY*numValues;
+		if( luts.length < N )
+			luts = new int[N];
+
+		if( colWeight.length < width ) {
+			colOffset0 = new int[width];
+			colOffset1 = new int[width];
+			colWeight = new float[width];
+		}
+		if( rowWeight.length < height ) {
+			rowOffset0 = new int[height];
+			rowOffset1 = new int[height];
+			rowWeight = new float[height];
+		}
+
+		computeWeights(width, tilesX, numValues, colOffset0, colOffset1, colWeight);
+		computeWeights(height, tilesY, tilesX*numValues, rowOffset0, rowOffset1, rowWeight);
+	}
+
+	/**
+	 * For each pixel along an axis, finds the two tiles whose centers it lies between and the weight of the second.
+	 * Pixels outside of the first or last tile's center only use that tile.
+	 */
+	private static void computeWeights( int length , int tiles , int stride ,
+										int offset0[] , int offset1[] , float weight[] ) {
+		double tileLength = length/(double)tiles;
+
+		for( int i = 0; i < length; i++ ) {
+			double t = (i + 0.5)/tileLength - 0.5;
+			int t0 = (int)Math.floor(t);
+
+			if( t0 < 0 ) {
+				offset0[i] = offset1[i] = 0;
+				weight[i] = 0;
+			} else if( t0 >= tiles-1 ) {
+				offset0[i] = offset1[i] = (tiles-1)*stride;
+				weight[i] = 0;
+			} else {
+				offset0[i] = t0*stride;
+				offset1[i] = (t0+1)*stride;
+				weight[i] = (float)(t - t0);
+			}
+		}
+	}
+
+	/**
+	 * Bilinear interpolation between the tables of the four tiles around the pixel
+	 */
+	private int interpolate( int value , int x , int offsetA , int offsetB , float wy ) {
+		int a = colOffset0[x] + value, b = colOffset1[x] + value;
+		float wx = colWeight[x];
+
+		int v00 = luts[offsetA + a], v01 = luts[offsetA + b];
+		int v10 = luts[offsetB + a], v11 = luts[offsetB + b];
+
+		float top = v00 + wx*(v01 - v00);
+		float bottom = v10 + wx*(v11 - v10);
+
+		return (int)(top + wy*(bottom - top) + 0.5f);
+	}
+
+	/**
+	 * Clips the histogram, redistributes the clipped counts, and computes the equalization table from it.
+	 *
+	 * @param histogram Histogram of the tile.  Modified.
+	 * @param total Number of pixels in the tile
+	 * @param offset Index of the tile's table in luts
+	 */
+	private void computeTable( int histogram[] , int total , int offset ) {
+		if( clipLimit > 0 ) {
+			int limit = Math.max(1,(int)(clipLimit*total/numValues));
+
+			int excess = 0;
+			for( int i = 0; i < numValues; i++ ) {
+				if( histogram[i] > limit ) {
+					excess += histogram[i] - limit;
+					histogram[i] = limit;
+				}
+			}
+
+			// spread the excess uniformly with the remainder being evenly spaced
+			int add = excess/numValues;
+			int remainder = excess - add*numValues;
+			for( int i = 0; i < numValues; i++ ) {
+				histogram[i] += add;
+			}
+			if( remainder > 0 ) {
+				int step = Math.max(1,numValues/remainder);
+				for( int i = 0; i < numValues && remainder > 0; i += step, remainder-- ) {
+					histogram[i]++;
+				}
+			}
+		}
+
+		float scale = maxValue/(float)total;
+		int sum = 0;
+		for( int i = 0; i < numValues; i++ ) {
+			sum += histogram[i];
+			int value = (int)(sum*scale + 0.5f);
+			luts[offset+i] = value > maxValue ? maxValue : value;
+		}
+	}
+
+	private void run( int length , IntRangeTask task ) {
+		if( concurrent )
+			BoofConcurrency.loopBlocks(0,length,task);
+		else
+			task.process(0,length);
+	}
+
+	/**
+	 * Index of the first pixel in a tile
+	 */
+	private static int tileStart( int tile , int tiles , int length ) {
+		return (int)((long)tile*length/tiles);
+	}
+
+	public int getTilesX() {
+		return tilesX;
+	}
+
+	public int getTilesY() {
+		return tilesY;
+	}
+
+	public double getClipLimit() {
+		return clipLimit;
+	}
+
+	public void setClipLimit(double clipLimit) {
+		this.clipLimit = clipLimit;
+	}
+
+	public boolean isConcurrent() {
+		return concurrent;
+	}
+
+	public void setConcurrent(boolean concurrent) {
+		this.concurrent = concurrent;
+	}
+}
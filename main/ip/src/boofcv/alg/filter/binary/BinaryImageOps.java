@@ -309,6 +309,57 @@ public class BinaryImageOps {
 		return alg.getContours().toList();
 	}
 
+	/**
+	 * Same as {@link #contour(ImageUInt8, int, ImageSInt32)} but can optionally split the work across
+	 * multiple threads.  The results are identical.
+	 *
+	 * @see LinearContourLabelChang2004_MT
+	 *
+	 * @param input Input binary image.  Not modified.
+	 * @param rule Connectivity rule.  Can be 4 or 8.  8 is more commonly used.
+	 * @param output (Optional) Output labeled image. If null, an image will be declared internally.  Modified.
+	 * @param concurrent If true then the image will be processed using multiple threads.
+	 * @return List of found contours for each blob.
+	 */
+	public static List<Contour> contour(ImageUInt8 input, int rule, ImageSInt32 output, boolean concurrent) {
+		if( !concurrent )
+			return contour(input,rule,output);
+
+		if( output == null ) {
+			output = new ImageSInt32(input.width,input.height);
+		} else {
+			InputSanityCheck.checkSameShape(input,output);
+		}
+
+		LinearContourLabelChang2004_MT alg = new LinearContourLabelChang2004_MT(rule);
+		alg.process(input,output);
+		return alg.getContours().toList();
+	}
+
+	/**
+	 * <p>
+	 * Same as {@link #contour(ImageUInt8, int, ImageSInt32)} but a labeled image is not created.  Blobs are
+	 * found by connecting runs of pixels, which is much faster and uses less memory when the image is sparse.
+	 * The found contours are identical.
+	 * </p>
+	 *
+	 * @see RunLengthContourLabel
+	 *
+	 * @param input Input binary image.  Not modified.
+	 * @param rule Connectivity rule.  Can be 4 or 8.  8 is more commonly used.
+	 * @param clusters (Optional) Output.  If not null then the pixels in each blob are written to it.  Modified.
+	 * @return List of found contours for each blob.
+	 */
+	public static List<Contour> contourRunLength(ImageUInt8 input, int rule, List<List<Point2D_I32>> clusters) {
+		RunLengthContourLabel alg = new RunLengthContourLabel(rule);
+		alg.process(input);
+		if( clusters != null ) {
+			clusters.clear();
+			clusters.addAll(alg.getClusters(null));
+		}
+		return alg.getContours().toList();
+	}
+
 	/**
 	 * Used to change the labels in a labeled binary image.
 	 *
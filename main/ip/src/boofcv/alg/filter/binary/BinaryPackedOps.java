@@ -0,0 +1,578 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.binary;
+
+import boofcv.alg.InputSanityCheck;
+import boofcv.struct.image.ImageBinaryPacked;
+import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.ImageUInt8;
+
+/**
+ * <p>
+ * Binary operations on {@link ImageBinaryPacked}.  The same operations as in {@link BinaryImageOps} are provided
+ * and they produce identical results, including along the image border.  Since pixels are packed 64 to a word,
+ * logical operations are applied to 64 pixels at once and neighbors are found by shifting words.  Morphological
+ * operations process the image one row at a time and the output can be the same image as the input.
+ * </p>
+ *
+ * <p>
+ * Functions are also provided for converting to and from binary {@link ImageUInt8} images, such as the ones
+ * created by {@link ThresholdImageOps}, and for thresholding directly into a packed image.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class BinaryPackedOps {
+
+	private static final int ERODE4 = 0;
+	private static final int DILATE4 = 1;
+	private static final int EDGE4 = 2;
+	private static final int ERODE8 = 3;
+	private static final int DILATE8 = 4;
+	private static final int EDGE8 = 5;
+	private static final int NOISE = 6;
+
+	/**
+	 * Packs a binary image.  Pixels in the input image must have a value of zero or one.
+	 *
+	 * @param input Binary image.  Not modified.
+	 * @param output Packed binary image.  If null a new instance will be declared, Modified.
+	 * @return The packed image
+	 */
+	public static ImageBinaryPacked pack( ImageUInt8 input , ImageBinaryPacked output ) {
+		output = checkDeclare(input.width,input.height,output);
+
+		final int N = ImageBinaryPacked.wordsPerRow(input.width);
+		final long lastMask = ImageBinaryPacked.lastWordMask(input.width);
+
+		for( int y = 0; y < input.height; y++ ) {
+			int indexIn = input.startIndex + y*input.stride;
+			int indexOut = output.startIndex + y*output.stride;
+
+			for( int i = 0; i < N; i++ , indexOut++ ) {
+				int length = Math.min(ImageBinaryPacked.BITS,input.width-i*ImageBinaryPacked.BITS);
+				long word = 0;
+				for( int b = 0; b < length; b++ ) {
+					word |= (long)(input.data[indexIn++] & 0x01) << b;
+				}
+				if( i == N-1 )
+					word = (output.data[indexOut] & ~lastMask) | word;
+				output.data[indexOut] = word;
+			}
+		}
+
+		return output;
+	}
+
+	/**
+	 * Unpacks a binary image into an image with one byte per pixel.
+	 *
+	 * @param input Packed binary image.  Not modified.
+	 * @param output Binary image.  If null a new instance will be declared, Modified.
+	 * @return The unpacked image
+	 */
+	public static ImageUInt8 unpack( ImageBinaryPacked input , ImageUInt8 output ) {
+		if( output == null ) {
+			output = new ImageUInt8(input.width,input.height);
+		} else {
+			InputSanityCheck.checkSameShape(input,output);
+		}
+
+		final int N = ImageBinaryPacked.wordsPerRow(input.width);
+
+		for( int y = 0; y < input.height; y++ ) {
+			int indexIn = input.startIndex + y*input.stride;
+			int indexOut = output.startIndex + y*output.stride;
+
+			for( int i = 0; i < N; i++ , indexIn++ ) {
+				int length = Math.min(ImageBinaryPacked.BITS,input.width-i*ImageBinaryPacked.BITS);
+				long word = input.data[indexIn];
+				for( int b = 0; b < length; b++ ) {
+					output.data[indexOut++] = (byte)((word >>> b) & 0x01);
+				}
+			}
+		}
+
+		return output;
+	}
+
+	/**
+	 * Thresholds the image directly into a packed binary image.  Same as
+	 * {@link ThresholdImageOps#threshold(ImageFloat32, ImageUInt8, float, boolean)} followed by
+	 * {@link #pack}, but without the intermediate image.
+	 *
+	 * @param input Input image. Not modified.
+	 * @param output Packed binary output image. If null a new image will be declared. Modified.
+	 * @param threshold threshold value.
+	 * @param down If true inliers are below the threshold and false they are above the threshold.
+	 * @return Output image.
+	 */
+	public static ImageBinaryPacked threshold( ImageFloat32 input , ImageBinaryPacked output ,
+											   float threshold , boolean down ) {
+		output = checkDeclare(input.width,input.height,output);
+
+		final int N = ImageBinaryPacked.wordsPerRow(input.width);
+		final long lastMask = ImageBinaryPacked.lastWordMask(input.width);
+
+		for( int y = 0; y < input.height; y++ ) {
+			int indexIn = input.startIndex + y*input.stride;
+			int indexOut = output.startIndex + y*output.stride;
+
+			for( int i = 0; i < N; i++ , indexOut++ ) {
+				int length = Math.min(ImageBinaryPacked.BITS,input.width-i*ImageBinaryPacked.BITS);
+				long word = 0;
+				if( down ) {
+					for( int b = 0; b < length; b++ ) {
+						if( input.data[indexIn++] <= threshold )
+							word |= 1L << b;
+					}
+				} else {
+					for( int b = 0; b < length; b++ ) {
+						if( input.data[indexIn++] >= threshold )
+							word |= 1L << b;
+					}
+				}
+				if( i == N-1 )
+					word = (output.data[indexOut] & ~lastMask) | word;
+				output.data[indexOut] = word;
+			}
+		}
+
+		return output;
+	}
+
+	/**
+	 * Thresholds the image directly into a packed binary image.  Same as
+	 * {@link ThresholdImageOps#threshold(ImageUInt8, ImageUInt8, int, boolean)} followed by
+	 * {@link #pack}, but without the intermediate image.
+	 *
+	 * @param input Input image. Not modified.
+	 * @param output Packed binary output image. If null a new image will be declared. Modified.
+	 * @param threshold threshold value.
+	 * @param down If true inliers are below the threshold and false they are above the threshold.
+	 * @return Output image.
+	 */
+	public static ImageBinaryPacked threshold( ImageUInt8 input , ImageBinaryPacked output ,
+											   int threshold , boolean down ) {
+		output = checkDeclare(input.width,input.height,output);
+
+		final int N = ImageBinaryPacked.wordsPerRow(input.width);
+		final long lastMask = ImageBinaryPacked.lastWordMask(input.width);
+
+		for( int y = 0; y < input.height; y++ ) {
+			int indexIn = input.startIndex + y*input.stride;
+			int indexOut = output.startIndex + y*output.stride;
+
+			for( int i = 0; i < N; i++ , indexOut++ ) {
+				int length = Math.min(ImageBinaryPacked.BITS,input.width-i*ImageBinaryPacked.BITS);
+				long word = 0;
+				if( down ) {
+					for( int b = 0; b < length; b++ ) {
+						if( (input.data[indexIn++] & 0xFF) <= threshold )
+							word |= 1L << b;
+					}
+				} else {
+					for( int b = 0; b < length; b++ ) {
+						if( (input.data[indexIn++] & 0xFF) >= threshold )
+							word |= 1L << b;
+					}
+				}
+				if( i == N-1 )
+					word = (output.data[indexOut] & ~lastMask) | word;
+				output.data[indexOut] = word;
+			}
+		}
+
+		return output;
+	}
+
+	/**
+	 * For each pixel it applies the logical 'and' operator between two images.
+	 *
+	 * @param inputA First input image. Not modified.
+	 * @param inputB Second input image. Not modified.
+	 * @param output Output image. Can be same as either input.  If null a new instance will be declared, Modified.
+	 * @return Output of logical operation.
+	 */
+	public static ImageBinaryPacked logicAnd( ImageBinaryPacked inputA , ImageBinaryPacked inputB ,
+											  ImageBinaryPacked output ) {
+		InputSanityCheck.checkSameShape(inputA,inputB);
+		output = checkDeclare(inputA.width,inputA.height,output);
+
+		final int N = ImageBinaryPacked.wordsPerRow(inputA.width);
+		final long lastMask = ImageBinaryPacked.lastWordMask(inputA.width);
+
+		for( int y = 0; y < inputA.height; y++ ) {
+			int indexA = inputA.startIndex + y*inputA.stride;
+			int indexB = inputB.startIndex + y*inputB.stride;
+			int indexOut = output.startIndex + y*output.stride;
+
+			for( int i = 0; i < N-1; i++ ) {
+				output.data[indexOut++] = inputA.data[indexA++] & inputB.data[indexB++];
+			}
+			if( N > 0 ) {
+				long word = inputA.data[indexA] & inputB.data[indexB];
+				output.data[indexOut] = (output.data[indexOut] & ~lastMask) | (word & lastMask);
+			}
+		}
+
+		return output;
+	}
+
+	/**
+	 * For each pixel it applies the logical 'or' operator between two images.
+	 *
+	 * @param inputA First input image. Not modified.
+	 * @param inputB Second input image. Not modified.
+	 * @param output Output image. Can be same as either input.  If null a new instance will be declared, Modified.
+	 * @return Output of logical operation.
+	 */
+	public static ImageBinaryPacked logicOr( ImageBinaryPacked inputA , ImageBinaryPacked inputB ,
+											 ImageBinaryPacked output ) {
+		InputSanityCheck.checkSameShape(inputA,inputB);
+		output = checkDeclare(inputA.width,inputA.height,output);
+
+		final int N = ImageBinaryPacked.wordsPerRow(inputA.width);
+		final long lastMask = ImageBinaryPacked.lastWordMask(inputA.width);
+
+		for( int y = 0; y < inputA.height; y++ ) {
+			int indexA = inputA.startIndex + y*inputA.stride;
+			int indexB = inputB.startIndex + y*inputB.stride;
+			int indexOut = output.startIndex + y*output.stride;
+
+			for( int i = 0; i < N-1; i++ ) {
+				output.data[indexOut++] = inputA.data[indexA++] | inputB.data[indexB++];
+			}
+			if( N > 0 ) {
+				long word = inputA.data[indexA] | inputB.data[indexB];
+				output.data[indexOut] = (output.data[indexOut] & ~lastMask) | (word & lastMask);
+			}
+		}
+
+		return output;
+	}
+
+	/**
+	 * For each pixel it applies the logical 'xor' operator between two images.
+	 *
+	 * @param inputA First input image. Not modified.
+	 * @param inputB Second input image. Not modified.
+	 * @param output Output image. Can be same as either input.  If null a new instance will be declared, Modified.
+	 * @return Output of logical operation.
+	 */
+	public static ImageBinaryPacked logicXor( ImageBinaryPacked inputA , ImageBinaryPacked inputB ,
+											  ImageBinaryPacked output ) {
+		InputSanityCheck.checkSameShape(inputA,inputB);
+		output = checkDeclare(inputA.width,inputA.height,output);
+
+		final int N = ImageBinaryPacked.wordsPerRow(inputA.width);
+		final long lastMask = ImageBinaryPacked.lastWordMask(inputA.width);
+
+		for( int y = 0; y < inputA.height; y++ ) {
+			int indexA = inputA.startIndex + y*inputA.stride;
+			int indexB = inputB.startIndex + y*inputB.stride;
+			int indexOut = output.startIndex + y*output.stride;
+
+			for( int i = 0; i < N-1; i++ ) {
+				output.data[indexOut++] = inputA.data[indexA++] ^ inputB.data[indexB++];
+			}
+			if( N > 0 ) {
+				long word = inputA.data[indexA] ^ inputB.data[indexB];
+				output.data[indexOut] = (output.data[indexOut] & ~lastMask) | (word & lastMask);
+			}
+		}
+
+		return output;
+	}
+
+	/**
+	 * Erodes an image according to a 4-neighborhood.  Unless a pixel is connected to all its neighbors its value
+	 * is set to zero.
+	 *
+	 * @see BinaryImageOps#erode4
+	 *
+	 * @param input  Input image. Not modified.
+	 * @param output If not null, the output image.  Can be the same as the input.  If null a new image is declared
+	 *               and returned.  Modified.
+	 * @return Output image.
+	 */
+	public static ImageBinaryPacked erode4( ImageBinaryPacked input , ImageBinaryPacked output ) {
+		return morph(input,output,ERODE4);
+	}
+
+	/**
+	 * Dilates an image according to a 4-neighborhood.  If a pixel is connected to any other pixel then its output
+	 * value will be one.
+	 *
+	 * @see BinaryImageOps#dilate4
+	 *
+	 * @param input  Input image. Not modified.
+	 * @param output If not null, the output image.  Can be the same as the input.  If null a new image is declared
+	 *               and returned.  Modified.
+	 * @return Output image.
+	 */
+	public static ImageBinaryPacked dilate4( ImageBinaryPacked input , ImageBinaryPacked output ) {
+		return morph(input,output,DILATE4);
+	}
+
+	/**
+	 * Removes all pixels but ones which are on the edge of an object, using a 4-neighborhood.
+	 *
+	 * @see BinaryImageOps#edge4
+	 *
+	 * @param input  Input image. Not modified.
+	 * @param output If not null, the output image.  Can be the same as the input.  If null a new image is declared
+	 *               and returned.  Modified.
+	 * @return Output image.
+	 */
+	public static ImageBinaryPacked edge4( ImageBinaryPacked input , ImageBinaryPacked output ) {
+		return morph(input,output,EDGE4);
+	}
+
+	/**
+	 * Erodes an image according to a 8-neighborhood.  Unless a pixel is connected to all its neighbors its value
+	 * is set to zero.
+	 *
+	 * @see BinaryImageOps#erode8
+	 *
+	 * @param input  Input image. Not modified.
+	 * @param output If not null, the output image.  Can be the same as the input.  If null a new image is declared
+	 *               and returned.  Modified.
+	 * @return Output image.
+	 */
+	public static ImageBinaryPacked erode8( ImageBinaryPacked input , ImageBinaryPacked output ) {
+		return morph(input,output,ERODE8);
+	}
+
+	/**
+	 * Dilates an image according to a 8-neighborhood.  If a pixel is connected to any other pixel then its output
+	 * value will be one.
+	 *
+	 * @see BinaryImageOps#dilate8
+	 *
+	 * @param input  Input image. Not modified.
+	 * @param output If not null, the output image.  Can be the same as the input.  If null a new image is declared
+	 *               and returned.  Modified.
+	 * @return Output image.
+	 */
+	public static ImageBinaryPacked dilate8( ImageBinaryPacked input , ImageBinaryPacked output ) {
+		return morph(input,output,DILATE8);
+	}
+
+	/**
+	 * Removes all pixels but ones which are on the edge of an object, using a 8-neighborhood.
+	 *
+	 * @see BinaryImageOps#edge8
+	 *
+	 * @param input  Input image. Not modified.
+	 * @param output If not null, the output image.  Can be the same as the input.  If null a new image is declared
+	 *               and returned.  Modified.
+	 * @return Output image.
+	 */
+	public static ImageBinaryPacked edge8( ImageBinaryPacked input , ImageBinaryPacked output ) {
+		return morph(input,output,EDGE8);
+	}
+
+	/**
+	 * Removes small bits of spurious noise.  An 8-neighborhood is used.  If a pixel is connected to less than 2
+	 * neighbors then its value zero.  If connected to more than 6 then its value is one.  Otherwise it retains its
+	 * original value.
+	 *
+	 * @see BinaryImageOps#removePointNoise
+	 *
+	 * @param input  Input image. Not modified.
+	 * @param output If not null, the output image.  Can be the same as the input.  If null a new image is declared
+	 *               and returned.  Modified.
+	 * @return Output image.
+	 */
+	public static ImageBinaryPacked removePointNoise( ImageBinaryPacked input , ImageBinaryPacked output ) {
+		return morph(input,output,NOISE);
+	}
+
+	/**
+	 * Applies a 3x3 binary operation.  Three rows are kept in work buffers, with an extra word on each side.
+	 * Pixels outside the image have a value of one for erode and edge, and zero for the others.  Each output
+	 * row is written after the row below it has been read, so the output can be the input.
+	 */
+	private static ImageBinaryPacked morph( ImageBinaryPacked input , ImageBinaryPacked output , int operation ) {
+		output = checkDeclare(input.width,input.height,output);
+
+		final int N = ImageBinaryPacked.wordsPerRow(input.width);
+		if( N == 0 || input.height == 0 )
+			return output;
+
+		final long fill = operation == ERODE4 || operation == ERODE8 ||
+				operation == EDGE4 || operation == EDGE8 ? ~0L : 0L;
+		final long lastMask = ImageBinaryPacked.lastWordMask(input.width);
+
+		long up[] = new long[N+2];
+		long center[] = new long[N+2];
+		long down[] = new long[N+2];
+		long result[] = new long[N+2];
+
+		loadRow(input,-1,fill,lastMask,up);
+		loadRow(input,0,fill,lastMask,center);
+
+		for( int y = 0; y < input.height; y++ ) {
+			loadRow(input,y+1,fill,lastMask,down);
+
+			switch( operation ) {
+				case ERODE4:
+					for( int i = 1; i <= N; i++ ) {
+						long c = center[i];
+						long left = (c << 1) | (center[i-1] >>> 63);
+						long right = (c >>> 1) | (center[i+1] << 63);
+						result[i] = c & left & right & up[i] & down[i];
+					}
+					break;
+
+				case DILATE4:
+					for( int i = 1; i <= N; i++ ) {
+						long c = center[i];
+						long left = (c << 1) | (center[i-1] >>> 63);
+						long right = (c >>> 1) | (center[i+1] << 63);
+						result[i] = c | left | right | up[i] | down[i];
+					}
+					break;
+
+				case EDGE4:
+					for( int i = 1; i <= N; i++ ) {
+						long c = center[i];
+						long left = (c << 1) | (center[i-1] >>> 63);
+						long right = (c >>> 1) | (center[i+1] << 63);
+						result[i] = c & ~(left & right & up[i] & down[i]);
+					}
+					break;
+
+				case ERODE8:
+					for( int i = 1; i <= N; i++ ) {
+						long c = center[i];
+						long u = up[i];
+						long d = down[i];
+						long neighbors = ((c << 1) | (center[i-1] >>> 63)) & ((c >>> 1) | (center[i+1] << 63)) &
+								u & ((u << 1) | (up[i-1] >>> 63)) & ((u >>> 1) | (up[i+1] << 63)) &
+								d & ((d << 1) | (down[i-1] >>> 63)) & ((d >>> 1) | (down[i+1] << 63));
+						result[i] = c & neighbors;
+					}
+					break;
+
+				case DILATE8:
+					for( int i = 1; i <= N; i++ ) {
+						long c = center[i];
+						long u = up[i];
+						long d = down[i];
+						long neighbors = ((c << 1) | (center[i-1] >>> 63)) | ((c >>> 1) | (center[i+1] << 63)) |
+								u | ((u << 1) | (up[i-1] >>> 63)) | ((u >>> 1) | (up[i+1] << 63)) |
+								d | ((d << 1) | (down[i-1] >>> 63)) | ((d >>> 1) | (down[i+1] << 63));
+						result[i] = c | neighbors;
+					}
+					break;
+
+				case EDGE8:
+					for( int i = 1; i <= N; i++ ) {
+						long c = center[i];
+						long u = up[i];
+						long d = down[i];
+						long neighbors = ((c << 1) | (center[i-1] >>> 63)) & ((c >>> 1) | (center[i+1] << 63)) &
+								u & ((u << 1) | (up[i-1] >>> 63)) & ((u >>> 1) | (up[i+1] << 63)) &
+								d & ((d << 1) | (down[i-1] >>> 63)) & ((d >>> 1) | (down[i+1] << 63));
+						result[i] = c & ~neighbors;
+					}
+					break;
+
+				case NOISE:
+					for( int i = 1; i <= N; i++ ) {
+						long c = center[i];
+						long u = up[i];
+						long d = down[i];
+
+						// count the number of neighbors for all 64 pixels at once.  Each bit in the count is
+						// stored in a different word
+						long s0 = 0, s1 = 0, s2 = 0, s3 = 0, x, c0, c1, c2;
+						x = (c << 1) | (center[i-1] >>> 63);
+						c0 = s0 & x; s0 ^= x; c1 = s1 & c0; s1 ^= c0; c2 = s2 & c1; s2 ^= c1; s3 |= c2;
+						x = (c >>> 1) | (center[i+1] << 63);
+						c0 = s0 & x; s0 ^= x; c1 = s1 & c0; s1 ^= c0; c2 = s2 & c1; s2 ^= c1; s3 |= c2;
+						x = u;
+						c0 = s0 & x; s0 ^= x; c1 = s1 & c0; s1 ^= c0; c2 = s2 & c1; s2 ^= c1; s3 |= c2;
+						x = (u << 1) | (up[i-1] >>> 63);
+						c0 = s0 & x; s0 ^= x; c1 = s1 & c0; s1 ^= c0; c2 = s2 & c1; s2 ^= c1; s3 |= c2;
+						x = (u >>> 1) | (up[i+1] << 63);
+						c0 = s0 & x; s0 ^= x; c1 = s1 & c0; s1 ^= c0; c2 = s2 & c1; s2 ^= c1; s3 |= c2;
+						x = d;
+						c0 = s0 & x; s0 ^= x; c1 = s1 & c0; s1 ^= c0; c2 = s2 & c1; s2 ^= c1; s3 |= c2;
+						x = (d << 1) | (down[i-1] >>> 63);
+						c0 = s0 & x; s0 ^= x; c1 = s1 & c0; s1 ^= c0; c2 = s2 & c1; s2 ^= c1; s3 |= c2;
+						x = (d >>> 1) | (down[i+1] << 63);
+						c0 = s0 & x; s0 ^= x; c1 = s1 & c0; s1 ^= c0; c2 = s2 & c1; s2 ^= c1; s3 |= c2;
+
+						// count >= 2 if any bit above the first is set.  count > 6 if it's 7 or 8
+						long atLeastTwo = s1 | s2 | s3;
+						long moreThanSix = s3 | (s2 & s1 & s0);
+						result[i] = (c | moreThanSix) & atLeastTwo;
+					}
+					break;
+
+				default:
+					throw new RuntimeException("Unknown operation");
+			}
+
+			// save the results
+			int indexOut = output.startIndex + y*output.stride;
+			System.arraycopy(result,1,output.data,indexOut,N-1);
+			int last = indexOut+N-1;
+			output.data[last] = (output.data[last] & ~lastMask) | (result[N] & lastMask);
+
+			// the row below becomes the center row
+			long tmp[] = up;
+			up = center;
+			center = down;
+			down = tmp;
+		}
+
+		return output;
+	}
+
+	/**
+	 * Copies a row into the work buffer.  The words on each side, bits after the last pixel, and rows outside
+	 * the image are set to the fill value.
+	 */
+	private static void loadRow( ImageBinaryPacked image , int y , long fill , long lastMask , long row[] ) {
+		int N = row.length-2;
+
+		if( y < 0 || y >= image.height ) {
+			for( int i = 0; i < row.length; i++ )
+				row[i] = fill;
+			return;
+		}
+
+		row[0] = fill;
+		System.arraycopy(image.data,image.startIndex + y*image.stride,row,1,N);
+		row[N] = (row[N] & lastMask) | (fill & ~lastMask);
+		row[N+1] = fill;
+	}
+
+	private static ImageBinaryPacked checkDeclare( int width , int height , ImageBinaryPacked output ) {
+		if( output == null )
+			return new ImageBinaryPacked(width,height);
+		if( output.width != width || output.height != height )
+			throw new IllegalArgumentException("Image shapes are not the same");
+		return output;
+	}
+}
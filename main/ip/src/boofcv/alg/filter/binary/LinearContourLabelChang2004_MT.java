@@ -0,0 +1,447 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.binary;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.struct.image.ImageSInt32;
+import boofcv.struct.image.ImageUInt8;
+import georegression.struct.point.Point2D_I32;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_I32;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Concurrent version of {@link LinearContourLabelChang2004}.  Produces the same labeled image and contours as
+ * the single threaded version, including the order of labels and contour points.
+ * </p>
+ *
+ * <p>
+ * The image is split into horizontal strips which are labeled independently by different threads using
+ * {@link LinearContourLabelChang2004}.  Blobs which touch across the seam between two strips are then merged
+ * using union-find, and labels are assigned in the order the blobs would have been encountered by a single raster
+ * scan.  The contours of a blob which is entirely inside of one strip are used as is.  The contours of a blob which
+ * was split by a seam are traced again inside its bounding box, with different blobs being traced by different
+ * threads.  This works because the contours found by the algorithm only depend on the pixels in a blob.
+ * </p>
+ *
+ * <p>
+ * The speed up depends on most blobs being smaller than a strip.  A single blob which covers most of the image
+ * will be traced twice.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class LinearContourLabelChang2004_MT {
+
+	// connectivity rule
+	private int rule;
+
+	// strips will be at least this many rows tall
+	private int minimumStripHeight = 64;
+
+	// workspaces used by the threads
+	private final List<Workspace> available = new ArrayList<Workspace>();
+	private final List<Workspace> used = new ArrayList<Workspace>();
+	// workspace used to process each strip, in order from the top
+	private final List<Workspace> strips = new ArrayList<Workspace>();
+
+	// index of the first global label in each strip.  Global label = offset + local label - 1
+	private GrowQueue_I32 offsets = new GrowQueue_I32();
+	// union-find forest of global labels
+	private GrowQueue_I32 parents = new GrowQueue_I32();
+	// final label for each global label
+	private GrowQueue_I32 finalLabels = new GrowQueue_I32();
+	// number of global labels in the same blob as each global label, only valid for roots
+	private GrowQueue_I32 setSizes = new GrowQueue_I32();
+
+	// labels of blobs which were split by a seam
+	private GrowQueue_I32 splitBlobs = new GrowQueue_I32();
+	// bounding box of each split blob: x0,y0,x1,y1 exclusive
+	private GrowQueue_I32 splitBounds = new GrowQueue_I32();
+
+	// found contours for each blob
+	private FastQueue<Contour> contours = new FastQueue<Contour>(Contour.class,true);
+	// reference to the contours which are returned.  Either 'contours' or the contours of a single strip
+	private FastQueue<Contour> results = contours;
+
+	/**
+	 * Configures the algorithm.
+	 *
+	 * @param rule Connectivity rule.  4 or 8
+	 */
+	public LinearContourLabelChang2004_MT( int rule ) {
+		if( rule != 4 && rule != 8 )
+			throw new IllegalArgumentException("Connectivity rule must be 4 or 8 not "+rule);
+		this.rule = rule;
+	}
+
+	/**
+	 * Processes the binary image to find the contour of and label blobs.
+	 *
+	 * @param binary Input binary image. Not modified.
+	 * @param labeled Output. Labeled image.  Modified.
+	 */
+	public void process( final ImageUInt8 binary , final ImageSInt32 labeled ) {
+		synchronized ( available ) {
+			available.addAll(used);
+			used.clear();
+			strips.clear();
+		}
+		contours.reset();
+
+		// label each strip independently
+		BoofConcurrency.loopBlocks(0,binary.height,minimumStripHeight,new IntRangeTask() {
+			@Override
+			public void process(int y0, int y1) {
+				Workspace work = grabWorkspace();
+				work.y0 = y0;
+				work.y1 = y1;
+				work.alg.process(binary.subimage(0,y0,binary.width,y1),labeled.subimage(0,y0,labeled.width,y1));
+				synchronized ( available ) {
+					strips.add(work);
+				}
+			}
+		});
+		sortStrips();
+
+		// the image wasn't split up so the results are already correct
+		if( strips.size() == 1 ) {
+			results = strips.get(0).alg.getContours();
+			return;
+		}
+		results = contours;
+
+		mergeSeams(labeled);
+		assignFinalLabels();
+
+		// relabel the image and copy the contours of blobs which are inside a single strip
+		BoofConcurrency.loopBlocks(0,strips.size(),new IntRangeTask() {
+			@Override
+			public void process(int index0, int index1) {
+				for( int i = index0; i < index1; i++ ) {
+					relabelStrip(i,labeled);
+				}
+			}
+		});
+
+		// trace blobs which were split by a seam again
+		BoofConcurrency.loopBlocks(0,splitBlobs.size,new IntRangeTask() {
+			@Override
+			public void process(int index0, int index1) {
+				Workspace work = grabWorkspace();
+				for( int i = index0; i < index1; i++ ) {
+					traceSplitBlob(i,labeled,work);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Sorts the strips from top to bottom
+	 */
+	private void sortStrips() {
+		for( int i = 1; i < strips.size(); i++ ) {
+			Workspace w = strips.get(i);
+			int j = i-1;
+			while( j >= 0 && strips.get(j).y0 > w.y0 ) {
+				strips.set(j+1,strips.get(j));
+				j--;
+			}
+			strips.set(j+1,w);
+		}
+	}
+
+	/**
+	 * Unions labels of pixels which are connected across the seam between two strips
+	 */
+	private void mergeSeams( ImageSInt32 labeled ) {
+		offsets.reset();
+		int total = 0;
+		for( int i = 0; i < strips.size(); i++ ) {
+			offsets.push(total);
+			total += strips.get(i).alg.getContours().size;
+		}
+
+		parents.resize(total);
+		setSizes.resize(total);
+		for( int i = 0; i < total; i++ ) {
+			parents.data[i] = i;
+			setSizes.data[i] = 1;
+		}
+
+		for( int i = 1; i < strips.size(); i++ ) {
+			int offsetA = offsets.data[i-1];
+			int offsetB = offsets.data[i];
+			int y = strips.get(i).y0;
+
+			int indexA = labeled.startIndex + (y-1)*labeled.stride;
+			int indexB = labeled.startIndex + y*labeled.stride;
+
+			for( int x = 0; x < labeled.width; x++ ) {
+				int b = labeled.data[indexB+x];
+				if( b == 0 )
+					continue;
+
+				int a = labeled.data[indexA+x];
+				if( a != 0 )
+					union(offsetA+a-1,offsetB+b-1);
+
+				if( rule == 8 ) {
+					if( x > 0 && (a = labeled.data[indexA+x-1]) != 0 )
+						union(offsetA+a-1,offsetB+b-1);
+					if( x < labeled.width-1 && (a = labeled.data[indexA+x+1]) != 0 )
+						union(offsetA+a-1,offsetB+b-1);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Assigns the final label to each blob in the order the first pixel in each blob is encountered in a
+	 * raster scan.  Global labels are already in that order.
+	 */
+	private void assignFinalLabels() {
+		int total = parents.size;
+		finalLabels.resize(total);
+		for( int i = 0; i < total; i++ ) {
+			finalLabels.data[i] = 0;
+		}
+
+		splitBlobs.reset();
+		splitBounds.reset();
+
+		int stripIndex = 0;
+		for( int i = 0; i < total; i++ ) {
+			while( stripIndex+1 < strips.size() && offsets.data[stripIndex+1] <= i )
+				stripIndex++;
+
+			int root = find(i);
+			boolean split = setSizes.data[root] > 1;
+
+			if( finalLabels.data[root] == 0 ) {
+				finalLabels.data[root] = contours.size+1;
+				Contour c = contours.grow();
+				c.reset();
+				c.id = contours.size;
+
+				if( split ) {
+					splitBlobs.push(c.id);
+					splitBounds.push(Integer.MAX_VALUE);
+					splitBounds.push(Integer.MAX_VALUE);
+					splitBounds.push(-1);
+					splitBounds.push(-1);
+				}
+			}
+			int label = finalLabels.data[root];
+			finalLabels.data[i] = label;
+
+			if( split ) {
+				// the external contour encloses all the pixels in this part of the blob
+				Workspace strip = strips.get(stripIndex);
+				Contour c = strip.alg.getContours().get(i-offsets.data[stripIndex]);
+				int index = findSplitIndex(label)*4;
+				for( int j = 0; j < c.external.size(); j++ ) {
+					Point2D_I32 p = c.external.get(j);
+					int y = p.y + strip.y0;
+					splitBounds.data[index  ] = Math.min(splitBounds.data[index  ],p.x);
+					splitBounds.data[index+1] = Math.min(splitBounds.data[index+1],y);
+					splitBounds.data[index+2] = Math.max(splitBounds.data[index+2],p.x+1);
+					splitBounds.data[index+3] = Math.max(splitBounds.data[index+3],y+1);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Finds the index of a split blob in the list.  Split blobs are added in increasing order of their label.
+	 */
+	private int findSplitIndex( int label ) {
+		int lower = 0, upper = splitBlobs.size-1;
+		while( lower < upper ) {
+			int middle = (lower+upper)/2;
+			if( splitBlobs.data[middle] < label )
+				lower = middle+1;
+			else
+				upper = middle;
+		}
+		return lower;
+	}
+
+	/**
+	 * Changes the labels inside a strip to their final value and copies contours of blobs which are
+	 * entirely inside the strip
+	 */
+	private void relabelStrip( int stripIndex , ImageSInt32 labeled ) {
+		Workspace strip = strips.get(stripIndex);
+		int offset = offsets.data[stripIndex] - 1;
+
+		for( int y = strip.y0; y < strip.y1; y++ ) {
+			int index = labeled.startIndex + y*labeled.stride;
+			int end = index + labeled.width;
+			for( ; index < end; index++ ) {
+				int v = labeled.data[index];
+				if( v != 0 )
+					labeled.data[index] = finalLabels.data[offset + v];
+			}
+		}
+
+		FastQueue<Contour> found = strip.alg.getContours();
+		for( int i = 0; i < found.size; i++ ) {
+			int global = offset+1+i;
+			// assignFinalLabels() compressed every path, so the parent is the root.  Calling find() here
+			// would modify the forest from multiple threads
+			if( setSizes.data[parents.data[global]] > 1 )
+				continue;
+			Contour c = contours.get(finalLabels.data[global]-1);
+			strip.copy(found.get(i),c,0,strip.y0);
+		}
+	}
+
+	/**
+	 * Traces the contours of a blob which was split between strips inside of its bounding box
+	 */
+	private void traceSplitBlob( int index , ImageSInt32 labeled , Workspace work ) {
+		int label = splitBlobs.data[index];
+		int x0 = splitBounds.data[index*4];
+		int y0 = splitBounds.data[index*4+1];
+		int x1 = splitBounds.data[index*4+2];
+		int y1 = splitBounds.data[index*4+3];
+
+		// create a binary image of just this blob
+		work.mask.reshape(x1-x0,y1-y0);
+		work.maskLabeled.reshape(x1-x0,y1-y0);
+		for( int y = y0; y < y1; y++ ) {
+			int indexIn = labeled.startIndex + y*labeled.stride + x0;
+			int indexOut = (y-y0)*work.mask.stride;
+			for( int x = x0; x < x1; x++ ) {
+				work.mask.data[indexOut++] = labeled.data[indexIn++] == label ? (byte)1 : (byte)0;
+			}
+		}
+
+		work.alg.process(work.mask,work.maskLabeled);
+		if( work.alg.getContours().size != 1 )
+			throw new RuntimeException("BUG! Expected a single blob inside the mask");
+
+		work.copy(work.alg.getContours().get(0),contours.get(label-1),x0,y0);
+	}
+
+	private int find( int label ) {
+		int root = label;
+		while( parents.data[root] != root )
+			root = parents.data[root];
+
+		// path compression
+		while( parents.data[label] != root ) {
+			int next = parents.data[label];
+			parents.data[label] = root;
+			label = next;
+		}
+		return root;
+	}
+
+	private void union( int a , int b ) {
+		int rootA = find(a);
+		int rootB = find(b);
+		if( rootA == rootB )
+			return;
+
+		// the lower label becomes the root so that it's easy to see which blob is encountered first
+		if( rootA < rootB ) {
+			parents.data[rootB] = rootA;
+			setSizes.data[rootA] += setSizes.data[rootB];
+		} else {
+			parents.data[rootA] = rootB;
+			setSizes.data[rootB] += setSizes.data[rootA];
+		}
+	}
+
+	private Workspace grabWorkspace() {
+		Workspace work;
+		synchronized ( available ) {
+			work = available.isEmpty() ? new Workspace() : available.remove(available.size()-1);
+			used.add(work);
+		}
+		work.points.reset();
+		work.lists.reset();
+		return work;
+	}
+
+	public FastQueue<Contour> getContours() {
+		return results;
+	}
+
+	public int getMinimumStripHeight() {
+		return minimumStripHeight;
+	}
+
+	/**
+	 * Specifies the minimum number of rows in each strip.
+	 */
+	public void setMinimumStripHeight(int minimumStripHeight) {
+		if( minimumStripHeight < 1 )
+			throw new IllegalArgumentException("Strip height must be at least one");
+		this.minimumStripHeight = minimumStripHeight;
+	}
+
+	/**
+	 * Data used by a single thread.  The storage for contour points is used by the final contours, so a
+	 * workspace can't be recycled until process is called again.
+	 */
+	private class Workspace {
+		LinearContourLabelChang2004 alg = new LinearContourLabelChang2004(rule);
+		// rows in the strip processed by this workspace
+		int y0,y1;
+
+		// storage for points in the final contours
+		FastQueue<Point2D_I32> points = new FastQueue<Point2D_I32>(Point2D_I32.class,true);
+		FastQueue<List<Point2D_I32>> lists = new FastQueue<List<Point2D_I32>>((Class)ArrayList.class,true);
+
+		// image containing a single blob which is being traced
+		ImageUInt8 mask = new ImageUInt8(1,1);
+		ImageSInt32 maskLabeled = new ImageSInt32(1,1);
+
+		/**
+		 * Copies the contours while adding an offset to each point
+		 */
+		void copy( Contour src , Contour dst , int offsetX , int offsetY ) {
+			dst.external.clear();
+			dst.internal.clear();
+			copy(src.external,dst.external,offsetX,offsetY);
+			for( int i = 0; i < src.internal.size(); i++ ) {
+				List<Point2D_I32> inner = lists.grow();
+				inner.clear();
+				copy(src.internal.get(i),inner,offsetX,offsetY);
+				dst.internal.add(inner);
+			}
+		}
+
+		void copy( List<Point2D_I32> src , List<Point2D_I32> dst , int offsetX , int offsetY ) {
+			for( int i = 0; i < src.size(); i++ ) {
+				Point2D_I32 p = src.get(i);
+				Point2D_I32 q = points.grow();
+				q.set(p.x+offsetX,p.y+offsetY);
+				dst.add(q);
+			}
+		}
+	}
+}
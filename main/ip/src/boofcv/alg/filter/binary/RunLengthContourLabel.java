@@ -0,0 +1,382 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.binary;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.image.ImageSInt32;
+import boofcv.struct.image.ImageUInt8;
+import georegression.struct.point.Point2D_I32;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_I32;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Finds the contours and pixels of blobs in a binary image without creating a labeled image.  Intended for sparse
+ * images where most of the pixels are zero.  Each row is compressed into runs of consecutive pixels with a value
+ * of one and the runs are connected into blobs using union-find.  Memory is proportional to the number of runs
+ * instead of the number of pixels in the image.
+ * </p>
+ *
+ * <p>
+ * Blobs are assigned the same labels and contours as {@link LinearContourLabelChang2004}.  Contours are found by
+ * running {@link LinearContourLabelChang2004} on a binary image which only contains the bounding box of a single
+ * blob, so the memory required is determined by the largest blob.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class RunLengthContourLabel {
+
+	// connectivity rule
+	private int rule;
+
+	// first and last+1 x-coordinate of each run
+	private GrowQueue_I32 runX0 = new GrowQueue_I32();
+	private GrowQueue_I32 runX1 = new GrowQueue_I32();
+	// index of the first run in each row.  Has one more element than the number of rows
+	private GrowQueue_I32 rowStart = new GrowQueue_I32();
+
+	// union-find forest of runs.  The root is always the first run in a blob
+	private GrowQueue_I32 parents = new GrowQueue_I32();
+	// label of each run
+	private GrowQueue_I32 runLabels = new GrowQueue_I32();
+
+	// runs sorted by blob.  The runs for blob 'i' start at blobStart[i]
+	private GrowQueue_I32 blobRuns = new GrowQueue_I32();
+	private GrowQueue_I32 blobStart = new GrowQueue_I32();
+	// row of each run in blobRuns
+	private GrowQueue_I32 blobRunRows = new GrowQueue_I32();
+	// bounding box of each blob: x0,y0,x1,y1 exclusive
+	private GrowQueue_I32 bounds = new GrowQueue_I32();
+
+	// used to trace the contour of a single blob
+	private LinearContourLabelChang2004 tracer;
+	private ImageUInt8 mask = new ImageUInt8(1,1);
+	private ImageSInt32 maskLabeled = new ImageSInt32(1,1);
+
+	// storage for the found contours
+	private FastQueue<Point2D_I32> storagePoints = new FastQueue<Point2D_I32>(Point2D_I32.class,true);
+	private FastQueue<List<Point2D_I32>> storageLists = new FastQueue<List<Point2D_I32>>((Class)ArrayList.class,true);
+	private FastQueue<Contour> contours = new FastQueue<Contour>(Contour.class,true);
+
+	/**
+	 * Configures the algorithm.
+	 *
+	 * @param rule Connectivity rule.  4 or 8
+	 */
+	public RunLengthContourLabel( int rule ) {
+		if( rule != 4 && rule != 8 )
+			throw new IllegalArgumentException("Connectivity rule must be 4 or 8 not "+rule);
+		this.rule = rule;
+		tracer = new LinearContourLabelChang2004(rule);
+	}
+
+	/**
+	 * Finds the blobs and their contours.
+	 *
+	 * @param binary Input binary image. Not modified.
+	 */
+	public void process( ImageUInt8 binary ) {
+		findRuns(binary);
+		connectRuns();
+		sortRunsByBlob();
+
+		storagePoints.reset();
+		storageLists.reset();
+		for( int i = 0; i < contours.size; i++ ) {
+			traceBlob(i);
+		}
+	}
+
+	/**
+	 * Compresses each row into runs of pixels with a value of one
+	 */
+	private void findRuns( ImageUInt8 binary ) {
+		runX0.reset();
+		runX1.reset();
+		rowStart.reset();
+
+		for( int y = 0; y < binary.height; y++ ) {
+			rowStart.push(runX0.size);
+
+			int start = binary.startIndex + y*binary.stride;
+			int end = start + binary.width;
+			int index = start;
+
+			while( index < end ) {
+				// skip over zeros
+				while( index < end && binary.data[index] == 0 )
+					index++;
+				if( index == end )
+					break;
+				runX0.push(index-start);
+				while( index < end && binary.data[index] != 0 )
+					index++;
+				runX1.push(index-start);
+			}
+		}
+		rowStart.push(runX0.size);
+	}
+
+	/**
+	 * Unions overlapping runs in adjacent rows then assigns labels in the order blobs are encountered in a
+	 * raster scan
+	 */
+	private void connectRuns() {
+		int total = runX0.size;
+		parents.resize(total);
+		for( int i = 0; i < total; i++ )
+			parents.data[i] = i;
+
+		// with 8-connectivity runs which touch diagonally are connected
+		int slack = rule == 8 ? 1 : 0;
+
+		int numRows = rowStart.size-1;
+		for( int y = 1; y < numRows; y++ ) {
+			int a = rowStart.data[y-1], endA = rowStart.data[y];
+			int b = rowStart.data[y], endB = rowStart.data[y+1];
+
+			while( a < endA && b < endB ) {
+				if( runX0.data[a] < runX1.data[b] + slack && runX0.data[b] < runX1.data[a] + slack )
+					union(a,b);
+
+				// advance whichever run ends first
+				if( runX1.data[a] < runX1.data[b] )
+					a++;
+				else
+					b++;
+			}
+		}
+
+		// the root of each blob is its first run, which is also the first run encountered in a raster scan
+		contours.reset();
+		runLabels.resize(total);
+		for( int i = 0; i < total; i++ ) {
+			int root = find(i);
+			if( root == i ) {
+				Contour c = contours.grow();
+				c.reset();
+				c.id = contours.size;
+				runLabels.data[i] = c.id;
+			} else {
+				runLabels.data[i] = runLabels.data[root];
+			}
+		}
+	}
+
+	/**
+	 * Creates a list of runs for each blob and computes the blob's bounding box
+	 */
+	private void sortRunsByBlob() {
+		int numBlobs = contours.size;
+		int total = runX0.size;
+
+		blobStart.resize(numBlobs+1);
+		for( int i = 0; i <= numBlobs; i++ )
+			blobStart.data[i] = 0;
+		for( int i = 0; i < total; i++ )
+			blobStart.data[runLabels.data[i]]++;
+		// convert counts into the index of the first run
+		for( int i = 1; i <= numBlobs; i++ )
+			blobStart.data[i] += blobStart.data[i-1];
+
+		bounds.resize(numBlobs*4);
+		for( int i = 0; i < numBlobs; i++ ) {
+			bounds.data[i*4  ] = Integer.MAX_VALUE;
+			bounds.data[i*4+1] = Integer.MAX_VALUE;
+			bounds.data[i*4+2] = -1;
+			bounds.data[i*4+3] = -1;
+		}
+
+		// labels start at one, so blobStart[label] is currently the end of blob 'label-1'.  Fill it in
+		// from the back to keep runs in raster order
+		blobRuns.resize(total);
+		blobRunRows.resize(total);
+		int y = rowStart.size-2;
+		for( int i = total-1; i >= 0; i-- ) {
+			while( rowStart.data[y] > i )
+				y--;
+			int blob = runLabels.data[i]-1;
+			int index = --blobStart.data[blob+1];
+			blobRuns.data[index] = i;
+			blobRunRows.data[index] = y;
+
+			int b = blob*4;
+			bounds.data[b  ] = Math.min(bounds.data[b],runX0.data[i]);
+			bounds.data[b+1] = Math.min(bounds.data[b+1],y);
+			bounds.data[b+2] = Math.max(bounds.data[b+2],runX1.data[i]);
+			bounds.data[b+3] = Math.max(bounds.data[b+3],y+1);
+		}
+		// blobStart[blob+1] now points to the start of 'blob', shift it down by one
+		for( int i = 0; i < numBlobs; i++ )
+			blobStart.data[i] = blobStart.data[i+1];
+		blobStart.data[numBlobs] = total;
+	}
+
+	/**
+	 * Traces the contour of a single blob inside its bounding box
+	 */
+	private void traceBlob( int blob ) {
+		int x0 = bounds.data[blob*4];
+		int y0 = bounds.data[blob*4+1];
+		int x1 = bounds.data[blob*4+2];
+		int y1 = bounds.data[blob*4+3];
+
+		// A blob with a single run is common in sparse images.  It has no internal contour and the external
+		// contour goes to the end of the run then back again without repeating the end points
+		if( blobStart.data[blob+1]-blobStart.data[blob] == 1 ) {
+			List<Point2D_I32> external = contours.get(blob).external;
+			for( int x = x0; x < x1; x++ )
+				addPoint(external,x,y0);
+			for( int x = x1-2; x > x0; x-- )
+				addPoint(external,x,y0);
+			return;
+		}
+
+		mask.reshape(x1-x0,y1-y0);
+		maskLabeled.reshape(x1-x0,y1-y0);
+		ImageMiscOps.fill(mask,0);
+
+		for( int i = blobStart.data[blob]; i < blobStart.data[blob+1]; i++ ) {
+			int run = blobRuns.data[i];
+			int index = (blobRunRows.data[i]-y0)*mask.stride - x0;
+			for( int x = runX0.data[run]; x < runX1.data[run]; x++ ) {
+				mask.data[index+x] = 1;
+			}
+		}
+
+		tracer.process(mask,maskLabeled);
+		if( tracer.getContours().size != 1 )
+			throw new RuntimeException("BUG! Expected a single blob inside the mask");
+
+		Contour src = tracer.getContours().get(0);
+		Contour dst = contours.get(blob);
+		copy(src.external,dst.external,x0,y0);
+		for( int i = 0; i < src.internal.size(); i++ ) {
+			List<Point2D_I32> inner = storageLists.grow();
+			inner.clear();
+			copy(src.internal.get(i),inner,x0,y0);
+			dst.internal.add(inner);
+		}
+	}
+
+	private void copy( List<Point2D_I32> src , List<Point2D_I32> dst , int offsetX , int offsetY ) {
+		for( int i = 0; i < src.size(); i++ ) {
+			Point2D_I32 p = src.get(i);
+			addPoint(dst,p.x+offsetX,p.y+offsetY);
+		}
+	}
+
+	private void addPoint( List<Point2D_I32> list , int x , int y ) {
+		Point2D_I32 p = storagePoints.grow();
+		p.set(x,y);
+		list.add(p);
+	}
+
+	/**
+	 * Returns the coordinate of every pixel in each blob.  Same as calling
+	 * {@link BinaryImageOps#labelToClusters(ImageSInt32, int, FastQueue)} on the labeled image.
+	 *
+	 * @param queue (Optional) Storage for pixel coordinates.  Improves runtime performance. Can be null.
+	 * @return List of pixels in each cluster.
+	 */
+	public List<List<Point2D_I32>> getClusters( FastQueue<Point2D_I32> queue ) {
+		if( queue == null ) {
+			queue = new FastQueue<Point2D_I32>(Point2D_I32.class,true);
+		} else
+			queue.reset();
+
+		List<List<Point2D_I32>> ret = new ArrayList<List<Point2D_I32>>();
+		for( int blob = 0; blob < contours.size; blob++ ) {
+			List<Point2D_I32> cluster = new ArrayList<Point2D_I32>();
+			for( int i = blobStart.data[blob]; i < blobStart.data[blob+1]; i++ ) {
+				int run = blobRuns.data[i];
+				int y = blobRunRows.data[i];
+				for( int x = runX0.data[run]; x < runX1.data[run]; x++ ) {
+					Point2D_I32 p = queue.grow();
+					p.set(x,y);
+					cluster.add(p);
+				}
+			}
+			ret.add(cluster);
+		}
+		return ret;
+	}
+
+	/**
+	 * Renders the labels into an image.  Not needed by the algorithm, but useful for visualization.
+	 *
+	 * @param labeled Output labeled image.  Must be the same shape as the input image.  Modified.
+	 */
+	public void renderLabels( ImageSInt32 labeled ) {
+		if( labeled.height != rowStart.size-1 )
+			throw new IllegalArgumentException("Labeled image isn't the same shape as the input image");
+
+		ImageMiscOps.fill(labeled,0);
+		for( int y = 0; y < labeled.height; y++ ) {
+			int start = labeled.startIndex + y*labeled.stride;
+			for( int i = rowStart.data[y]; i < rowStart.data[y+1]; i++ ) {
+				int label = runLabels.data[i];
+				for( int x = runX0.data[i]; x < runX1.data[i]; x++ ) {
+					labeled.data[start+x] = label;
+				}
+			}
+		}
+	}
+
+	private int find( int run ) {
+		int root = run;
+		while( parents.data[root] != root )
+			root = parents.data[root];
+
+		// path compression
+		while( parents.data[run] != root ) {
+			int next = parents.data[run];
+			parents.data[run] = root;
+			run = next;
+		}
+		return root;
+	}
+
+	private void union( int a , int b ) {
+		int rootA = find(a);
+		int rootB = find(b);
+		if( rootA < rootB )
+			parents.data[rootB] = rootA;
+		else if( rootB < rootA )
+			parents.data[rootA] = rootB;
+	}
+
+	/**
+	 * Contour of each blob.  The index of a contour is its label minus one.
+	 */
+	public FastQueue<Contour> getContours() {
+		return contours;
+	}
+
+	/**
+	 * Number of runs found in the image
+	 */
+	public int getNumberOfRuns() {
+		return runX0.size;
+	}
+}
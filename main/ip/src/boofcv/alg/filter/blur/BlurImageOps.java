@@ -19,11 +19,17 @@
 package boofcv.alg.filter.blur;
 
 import boofcv.alg.InputSanityCheck;
+import boofcv.alg.filter.blur.impl.ImplGaussianBox;
+import boofcv.alg.filter.blur.impl.ImplGaussianRecursive;
+import boofcv.alg.filter.blur.impl.ImplGaussianRecursive_MT;
+import boofcv.alg.filter.blur.impl.ImplMedianHistogramConstant;
+import boofcv.alg.filter.blur.impl.ImplMedianHistogramConstant_MT;
 import boofcv.alg.filter.blur.impl.ImplMedianHistogramInner;
 import boofcv.alg.filter.blur.impl.ImplMedianSortEdgeNaive;
 import boofcv.alg.filter.blur.impl.ImplMedianSortNaive;
 import boofcv.alg.filter.convolve.ConvolveImageMean;
 import boofcv.alg.filter.convolve.ConvolveNormalized;
+import boofcv.alg.filter.convolve.ConvolveNormalized_MT;
 import boofcv.factory.filter.kernel.FactoryKernelGaussian;
 import boofcv.struct.convolve.Kernel1D_F32;
 import boofcv.struct.convolve.Kernel1D_I32;
@@ -38,6 +44,12 @@ import boofcv.struct.image.ImageUInt8;
  */
 public class BlurImageOps {
 
+	/**
+	 * Median filters with a radius this size or larger use {@link ImplMedianHistogramConstant}, which takes the
+	 * same amount of time for any radius.  Smaller filters are faster with {@link ImplMedianHistogramInner}.
+	 */
+	public static final int MEDIAN_CONSTANT_TIME_RADIUS = 5;
+
 	/**
 	 * Applies a mean box filter.
 	 *
@@ -62,7 +74,8 @@ public class BlurImageOps {
 	}
 
 	/**
-	 * Applies a median filter.
+	 * Applies a median filter.  For larger radii a filter which takes constant time per pixel is used,
+	 * see {@link #MEDIAN_CONSTANT_TIME_RADIUS}.
 	 *
 	 * @param input Input image.  Not modified.
 	 * @param output (Optional) Storage for output image, Can be null.  Modified.
@@ -70,17 +83,38 @@ public class BlurImageOps {
 	 * @return Output blurred image.
 	 */
 	public static ImageUInt8 median(ImageUInt8 input, ImageUInt8 output, int radius) {
+		return median(input,output,radius,false);
+	}
+
+	/**
+	 * Applies a median filter.  Optionally the image can be split into vertical strips which are processed by
+	 * different threads, in which case the constant time filter is used for any radius.  The output is identical
+	 * either way.
+	 *
+	 * @param input Input image.  Not modified.
+	 * @param output (Optional) Storage for output image, Can be null.  Modified.
+	 * @param radius Radius of the median blur function.
+	 * @param concurrent If true the image will be processed using multiple threads.
+	 * @return Output blurred image.
+	 */
+	public static ImageUInt8 median(ImageUInt8 input, ImageUInt8 output, int radius, boolean concurrent) {
 		if( radius <= 0 )
 			throw new IllegalArgumentException("Radius must be > 0");
 
 		output = InputSanityCheck.checkDeclare(input,output);
 
-		int w = radius*2+1;
-		int offset[] = new int[ w*w ];
-		int histogram[] = new int[ 256 ];
+		if( concurrent ) {
+			ImplMedianHistogramConstant_MT.process(input, output, radius);
+		} else if( radius >= MEDIAN_CONSTANT_TIME_RADIUS ) {
+			ImplMedianHistogramConstant.process(input, output, radius, null);
+		} else {
+			int w = radius*2+1;
+			int offset[] = new int[ w*w ];
+			int histogram[] = new int[ 256 ];
 
-		ImplMedianHistogramInner.process(input, output, radius, offset, histogram);
-		ImplMedianSortEdgeNaive.process(input, output, radius, offset);
+			ImplMedianHistogramInner.process(input, output, radius, offset, histogram);
+			ImplMedianSortEdgeNaive.process(input, output, radius, offset);
+		}
 
 		return output;
 	}
@@ -97,13 +131,58 @@ public class BlurImageOps {
 	 */
 	public static ImageUInt8 gaussian(ImageUInt8 input, ImageUInt8 output, double sigma , int radius,
 									  ImageUInt8 storage ) {
+		return gaussian(input,output,sigma,radius,storage,false);
+	}
+
+	/**
+	 * Applies Gaussian blur.  Optionally the convolution can be split across several threads, see
+	 * {@link boofcv.concurrency.BoofConcurrency}.  The output is identical either way.
+	 *
+	 * @param input Input image.  Not modified.
+	 * @param output (Optional) Storage for output image, Can be null.  Modified.
+	 * @param sigma Gaussian distribution's sigma.  If <= 0 then will be selected based on radius.
+	 * @param radius Radius of the Gaussian blur function. If <= 0 then radius will be determined by sigma.
+	 * @param storage (Optional) Storage for intermediate results.  Same size as input image.  Can be null.
+	 * @param concurrent If true the image will be processed using multiple threads.
+	 * @return Output blurred image.
+	 */
+	public static ImageUInt8 gaussian(ImageUInt8 input, ImageUInt8 output, double sigma , int radius,
+									  ImageUInt8 storage , boolean concurrent ) {
 		output = InputSanityCheck.checkDeclare(input,output);
 		storage = InputSanityCheck.checkDeclare(input,storage);
 
 		Kernel1D_I32 kernel = FactoryKernelGaussian.gaussian(Kernel1D_I32.class,sigma,radius);
 
-		ConvolveNormalized.horizontal(kernel,input,storage);
-		ConvolveNormalized.vertical(kernel,storage,output);
+		if( concurrent ) {
+			ConvolveNormalized_MT.horizontal(kernel,input,storage);
+			ConvolveNormalized_MT.vertical(kernel,storage,output);
+		} else {
+			ConvolveNormalized.horizontal(kernel,input,storage);
+			ConvolveNormalized.vertical(kernel,storage,output);
+		}
+
+		return output;
+	}
+
+	/**
+	 * Approximates Gaussian blur by applying several box filters in a row.  The cost per pixel does not depend
+	 * on sigma.  Three passes are a good trade off between speed and accuracy, see {@link ImplGaussianBox}.
+	 *
+	 * @param input Input image.  Not modified.
+	 * @param output (Optional) Storage for output image, Can be null.  Modified.
+	 * @param sigma Gaussian distribution's sigma.  Must be &gt; 0.
+	 * @param numPasses Number of box filters applied.  Must be &ge; 1.
+	 * @param storage (Optional) Storage for intermediate results.  Same size as input image.  Can be null.
+	 * @return Output blurred image.
+	 */
+	public static ImageUInt8 gaussianBox(ImageUInt8 input, ImageUInt8 output,
+										  double sigma , int numPasses , ImageUInt8 storage ) {
+		output = InputSanityCheck.checkDeclare(input,output);
+		storage = InputSanityCheck.checkDeclare(input,storage);
+
+		int radii[] = new int[numPasses];
+		ImplGaussianBox.computeRadii(sigma,radii);
+		ImplGaussianBox.process(input,output,radii,storage,null);
 
 		return output;
 	}
@@ -164,13 +243,106 @@ public class BlurImageOps {
 	public static ImageFloat32 gaussian(ImageFloat32 input, ImageFloat32 output,
 										double sigma , int radius,
 										ImageFloat32 storage ) {
+		return gaussian(input,output,sigma,radius,storage,false);
+	}
+
+	/**
+	 * Applies Gaussian blur.  Optionally the convolution can be split across several threads, see
+	 * {@link boofcv.concurrency.BoofConcurrency}.  The output is identical either way.
+	 *
+	 * @param input Input image.  Not modified.
+	 * @param output (Optional) Storage for output image, Can be null.  Modified.
+	 * @param sigma Gaussian distribution's sigma.  If <= 0 then will be selected based on radius.
+	 * @param radius Radius of the Gaussian blur function. If <= 0 then radius will be determined by sigma.
+	 * @param storage (Optional) Storage for intermediate results.  Same size as input image.  Can be null.
+	 * @param concurrent If true the image will be processed using multiple threads.
+	 * @return Output blurred image.
+	 */
+	public static ImageFloat32 gaussian(ImageFloat32 input, ImageFloat32 output,
+										double sigma , int radius,
+										ImageFloat32 storage , boolean concurrent ) {
 		output = InputSanityCheck.checkDeclare(input,output);
 		storage = InputSanityCheck.checkDeclare(input,storage);
 
 		Kernel1D_F32 kernel = FactoryKernelGaussian.gaussian(Kernel1D_F32.class,sigma, radius);
 
-		ConvolveNormalized.horizontal(kernel,input,storage);
-		ConvolveNormalized.vertical(kernel,storage,output);
+		if( concurrent ) {
+			ConvolveNormalized_MT.horizontal(kernel,input,storage);
+			ConvolveNormalized_MT.vertical(kernel,storage,output);
+		} else {
+			ConvolveNormalized.horizontal(kernel,input,storage);
+			ConvolveNormalized.vertical(kernel,storage,output);
+		}
+
+		return output;
+	}
+
+	/**
+	 * Applies Gaussian blur using a recursive filter.  Unlike {@link #gaussian(ImageFloat32, ImageFloat32, double, int, ImageFloat32)}
+	 * the run time does not depend on sigma, making it much faster for large sigmas.  The results are an
+	 * approximation, see {@link ImplGaussianRecursive} for a discussion of accuracy.
+	 *
+	 * @param input Input image.  Not modified.
+	 * @param output (Optional) Storage for output image, Can be null.  Modified.
+	 * @param sigma Gaussian distribution's sigma.  Must be &ge; 0.5.
+	 * @param storage (Optional) Storage for intermediate results.  Same size as input image.  Can be null.
+	 * @return Output blurred image.
+	 */
+	public static ImageFloat32 gaussianRecursive(ImageFloat32 input, ImageFloat32 output,
+												 double sigma , ImageFloat32 storage ) {
+		return gaussianRecursive(input,output,sigma,storage,false);
+	}
+
+	/**
+	 * Applies Gaussian blur using a recursive filter.  Optionally the work can be split across several threads.
+	 * The output is identical either way.
+	 *
+	 * @see #gaussianRecursive(ImageFloat32, ImageFloat32, double, ImageFloat32)
+	 *
+	 * @param input Input image.  Not modified.
+	 * @param output (Optional) Storage for output image, Can be null.  Modified.
+	 * @param sigma Gaussian distribution's sigma.  Must be &ge; 0.5.
+	 * @param storage (Optional) Storage for intermediate results.  Same size as input image.  Can be null.
+	 * @param concurrent If true the image will be processed using multiple threads.
+	 * @return Output blurred image.
+	 */
+	public static ImageFloat32 gaussianRecursive(ImageFloat32 input, ImageFloat32 output,
+												 double sigma , ImageFloat32 storage , boolean concurrent ) {
+		output = InputSanityCheck.checkDeclare(input,output);
+		storage = InputSanityCheck.checkDeclare(input,storage);
+
+		ImplGaussianRecursive.Coefficients c = ImplGaussianRecursive.coefficients(sigma);
+
+		if( concurrent ) {
+			ImplGaussianRecursive_MT.horizontal(c,input,storage);
+			ImplGaussianRecursive_MT.vertical(c,storage,output);
+		} else {
+			ImplGaussianRecursive.horizontal(c,input,storage,0,input.height);
+			ImplGaussianRecursive.vertical(c,storage,output,0,input.width,null);
+		}
+
+		return output;
+	}
+
+	/**
+	 * Approximates Gaussian blur by applying several box filters in a row.  The cost per pixel does not depend
+	 * on sigma.  Three passes are a good trade off between speed and accuracy, see {@link ImplGaussianBox}.
+	 *
+	 * @param input Input image.  Not modified.
+	 * @param output (Optional) Storage for output image, Can be null.  Modified.
+	 * @param sigma Gaussian distribution's sigma.  Must be &gt; 0.
+	 * @param numPasses Number of box filters applied.  Must be &ge; 1.
+	 * @param storage (Optional) Storage for intermediate results.  Same size as input image.  Can be null.
+	 * @return Output blurred image.
+	 */
+	public static ImageFloat32 gaussianBox(ImageFloat32 input, ImageFloat32 output,
+										  double sigma , int numPasses , ImageFloat32 storage ) {
+		output = InputSanityCheck.checkDeclare(input,output);
+		storage = InputSanityCheck.checkDeclare(input,storage);
+
+		int radii[] = new int[numPasses];
+		ImplGaussianBox.computeRadii(sigma,radii);
+		ImplGaussianBox.process(input,output,radii,storage,null);
 
 		return output;
 	}
@@ -72,6 +72,28 @@ public class GBlurImageOps {
 		}
 	}
 
+	/**
+	 * Applies a median filter.  Optionally the image can be processed using multiple threads.  Only
+	 * {@link ImageUInt8} has a concurrent implementation, other types are processed by a single thread.
+	 *
+	 * @param input Input image.  Not modified.
+	 * @param output (Optional) Storage for output image, Can be null.  Modified.
+	 * @param radius Radius of the median blur function.
+	 * @param concurrent If true the image will be processed using multiple threads.
+	 * @param <T> Input image type.
+	 * @return Output blurred image.
+	 */
+	public static <T extends ImageSingleBand>
+	T median(T input, T output, int radius , boolean concurrent ) {
+		if( input instanceof ImageUInt8 ) {
+			return (T)BlurImageOps.median((ImageUInt8)input,(ImageUInt8)output,radius,concurrent);
+		} else if( input instanceof ImageFloat32) {
+			return (T)BlurImageOps.median((ImageFloat32)input,(ImageFloat32)output,radius);
+		} else  {
+			throw new IllegalArgumentException("Unsupported image type");
+		}
+	}
+
 	/**
 	 * Applies Gaussian blur.
 	 *
@@ -85,10 +107,74 @@ public class GBlurImageOps {
 	 */
 	public static <T extends ImageSingleBand>
 	T gaussian(T input, T output, double sigma , int radius, T storage ) {
+		return gaussian(input,output,sigma,radius,storage,false);
+	}
+
+	/**
+	 * Applies Gaussian blur.  Optionally the convolution can be split across several threads.
+	 *
+	 * @param input Input image.  Not modified.
+	 * @param output (Optional) Storage for output image, Can be null.  Modified.
+	 * @param sigma Gaussian distribution's sigma.  If <= 0 then will be selected based on radius.
+	 * @param radius Radius of the Gaussian blur function. If <= 0 then radius will be determined by sigma.
+	 * @param storage (Optional) Storage for intermediate results.  Same size as input image.  Can be null.
+	 * @param concurrent If true the image will be processed using multiple threads.
+	 * @param <T> Input image type.
+	 * @return Output blurred image.
+	 */
+	public static <T extends ImageSingleBand>
+	T gaussian(T input, T output, double sigma , int radius, T storage , boolean concurrent ) {
+		if( input instanceof ImageUInt8 ) {
+			return (T)BlurImageOps.gaussian((ImageUInt8)input,(ImageUInt8)output,sigma,radius,(ImageUInt8)storage,concurrent);
+		} else if( input instanceof ImageFloat32) {
+			return (T)BlurImageOps.gaussian((ImageFloat32)input,(ImageFloat32)output,sigma,radius,(ImageFloat32)storage,concurrent);
+		} else  {
+			throw new IllegalArgumentException("Unsupported image type: "+input.getClass().getSimpleName());
+		}
+	}
+
+	/**
+	 * Applies Gaussian blur using a recursive filter whose run time does not depend on sigma.  Only
+	 * {@link ImageFloat32} is supported.
+	 *
+	 * @see BlurImageOps#gaussianRecursive(ImageFloat32, ImageFloat32, double, ImageFloat32, boolean)
+	 *
+	 * @param input Input image.  Not modified.
+	 * @param output (Optional) Storage for output image, Can be null.  Modified.
+	 * @param sigma Gaussian distribution's sigma.  Must be &ge; 0.5.
+	 * @param storage (Optional) Storage for intermediate results.  Same size as input image.  Can be null.
+	 * @param concurrent If true the image will be processed using multiple threads.
+	 * @param <T> Input image type.
+	 * @return Output blurred image.
+	 */
+	public static <T extends ImageSingleBand>
+	T gaussianRecursive(T input, T output, double sigma, T storage , boolean concurrent ) {
+		if( input instanceof ImageFloat32) {
+			return (T)BlurImageOps.gaussianRecursive((ImageFloat32)input,(ImageFloat32)output,sigma,(ImageFloat32)storage,concurrent);
+		} else  {
+			throw new IllegalArgumentException("Unsupported image type: "+input.getClass().getSimpleName());
+		}
+	}
+
+	/**
+	 * Approximates Gaussian blur by applying several box filters in a row.
+	 *
+	 * @see BlurImageOps#gaussianBox(ImageFloat32, ImageFloat32, double, int, ImageFloat32)
+	 *
+	 * @param input Input image.  Not modified.
+	 * @param output (Optional) Storage for output image, Can be null.  Modified.
+	 * @param sigma Gaussian distribution's sigma.  Must be &gt; 0.
+	 * @param numPasses Number of box filters applied.  Must be &ge; 1.
+	 * @param storage (Optional) Storage for intermediate results.  Same size as input image.  Can be null.
+	 * @param <T> Input image type.
+	 * @return Output blurred image.
+	 */
+	public static <T extends ImageSingleBand>
+	T gaussianBox(T input, T output, double sigma, int numPasses, T storage ) {
 		if( input instanceof ImageUInt8 ) {
-			return (T)BlurImageOps.gaussian((ImageUInt8)input,(ImageUInt8)output,sigma,radius,(ImageUInt8)storage);
+			return (T)BlurImageOps.gaussianBox((ImageUInt8)input,(ImageUInt8)output,sigma,numPasses,(ImageUInt8)storage);
 		} else if( input instanceof ImageFloat32) {
-			return (T)BlurImageOps.gaussian((ImageFloat32)input,(ImageFloat32)output,sigma,radius,(ImageFloat32)storage);
+			return (T)BlurImageOps.gaussianBox((ImageFloat32)input,(ImageFloat32)output,sigma,numPasses,(ImageFloat32)storage);
 		} else  {
 			throw new IllegalArgumentException("Unsupported image type: "+input.getClass().getSimpleName());
 		}
@@ -0,0 +1,326 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.blur.impl;
+
+import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.ImageUInt8;
+
+/**
+ * <p>
+ * Approximates Gaussian blur by repeatedly applying a box filter.  Each box filter is computed using a sliding window,
+ * so the cost per pixel doesn't depend on the size of the box.  The box sizes are selected so that the variance of
+ * all the passes combined matches the Gaussian's variance.  Three passes are typically enough to make the result
+ * visually indistinguishable from Gaussian blur.  Along the image border the mean is computed using only the pixels
+ * inside the image, the same as {@link boofcv.alg.filter.convolve.ConvolveImageMean}.
+ * </p>
+ *
+ * <p>
+ * Kovesi, P. "Fast Almost-Gaussian Filtering" Digital Image Computing: Techniques and Applications (DICTA), 2010
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ImplGaussianBox {
+
+	// integer division is replaced by multiplication with a fixed point reciprocal.  The result is exact
+	// as long as the number of pixels summed is less than 2^16
+	private static final int SHIFT = 40;
+
+	private static long reciprocal( int count ) {
+		return ((1L << SHIFT) + count - 1)/count;
+	}
+
+	/**
+	 * Selects the radius of each box filter so that their combined variance is as close to sigma<sup>2</sup>
+	 * as possible.  The widths of the boxes differ by at most two.  A radius of zero means the pass does nothing.
+	 *
+	 * @param sigma Gaussian's standard deviation.  Must be &gt; 0.
+	 * @param radii Output.  The radius of each pass.  The number of passes is the length of the array.
+	 */
+	public static void computeRadii( double sigma , int radii[] ) {
+		if( sigma <= 0 )
+			throw new IllegalArgumentException("Sigma must be > 0");
+		int n = radii.length;
+		if( n == 0 )
+			throw new IllegalArgumentException("There must be at least one pass");
+
+		// ideal box width if all the boxes were the same size
+		double idealWidth = Math.sqrt(12*sigma*sigma/n + 1);
+		int widthLower = (int)Math.floor(idealWidth);
+		if( widthLower % 2 == 0 )
+			widthLower--;
+
+		// number of boxes which have the smaller width
+		double numerator = 12*sigma*sigma - n*widthLower*widthLower - 4*n*widthLower - 3*n;
+		int m = (int)Math.round(numerator/(-4*widthLower - 4));
+		m = Math.max(0,Math.min(n,m));
+
+		for( int i = 0; i < n; i++ ) {
+			int width = i < m ? widthLower : widthLower + 2;
+			radii[i] = (width-1)/2;
+		}
+	}
+
+	/**
+	 * Blurs the image by applying a box filter for each radius.  The scratch image is the only intermediate
+	 * storage used, no memory is allocated if 'work' is provided.
+	 *
+	 * @param input Input image.  Not modified.
+	 * @param output Output image.  Can be the same as the input.  Modified.
+	 * @param radii Radius of each box filter pass.  See {@link #computeRadii(double, int[])}.
+	 * @param storage Scratch image.  Same size as input.
+	 * @param work (Optional) Storage for column sums.  At least as long as the image's width.  Can be null.
+	 */
+	public static void process( ImageUInt8 input , ImageUInt8 output , int radii[] ,
+								ImageUInt8 storage , int work[] ) {
+		ImageUInt8 src = input;
+		for( int i = 0; i < radii.length; i++ ) {
+			if( radii[i] <= 0 )
+				continue;
+			horizontal(src,storage,radii[i]);
+			vertical(storage,output,radii[i],work);
+			src = output;
+		}
+		// every pass was the identity
+		if( src == input )
+			output.setTo(input);
+	}
+
+	/**
+	 * Computes the mean along each row.  Can't be done in place.
+	 *
+	 * @param input Input image.  Not modified.
+	 * @param output Output image.  Modified.
+	 * @param radius Radius of the box
+	 */
+	public static void horizontal( ImageUInt8 input , ImageUInt8 output , int radius ) {
+		final int width = input.width;
+		if( width == 0 )
+			return;
+
+		for( int y = 0; y < input.height; y++ ) {
+			int indexIn = input.startIndex + y*input.stride;
+			int indexOut = output.startIndex + y*output.stride;
+
+			int end = Math.min(radius,width-1);
+			int total = 0;
+			for( int i = 0; i <= end; i++ )
+				total += input.data[indexIn+i] & 0xFF;
+			int count = end+1;
+
+			long scale = reciprocal(count);
+
+			for( int x = 0; x < width; x++ ) {
+				output.data[indexOut+x] = (byte)(((total + count/2)*scale) >>> SHIFT);
+
+				int add = x + radius + 1;
+				int remove = x - radius;
+				if( add < width ) {
+					total += input.data[indexIn+add] & 0xFF;
+					count++;
+				}
+				if( remove >= 0 ) {
+					total -= input.data[indexIn+remove] & 0xFF;
+					count--;
+				}
+				if( (add >= width || remove < 0) && count > 0 )
+					scale = reciprocal(count);
+			}
+		}
+	}
+
+	/**
+	 * Computes the mean along each column.  All the columns in a row are processed at once so that memory is
+	 * accessed in order.  Can't be done in place.
+	 *
+	 * @param input Input image.  Not modified.
+	 * @param output Output image.  Modified.
+	 * @param radius Radius of the box
+	 * @param work (Optional) Storage for the sum of each column.  At least as long as the image's width.  Can be null.
+	 */
+	public static void vertical( ImageUInt8 input , ImageUInt8 output , int radius , int work[] ) {
+		final int width = input.width;
+		final int height = input.height;
+		if( height == 0 )
+			return;
+		if( work == null ) {
+			work = new int[ width ];
+		} else if( work.length < width ) {
+			throw new IllegalArgumentException("'work' must be at least of length "+width);
+		}
+
+		int end = Math.min(radius,height-1);
+		for( int x = 0; x < width; x++ )
+			work[x] = 0;
+		for( int y = 0; y <= end; y++ ) {
+			int indexIn = input.startIndex + y*input.stride;
+			for( int x = 0; x < width; x++ )
+				work[x] += input.data[indexIn+x] & 0xFF;
+		}
+		int count = end+1;
+
+		for( int y = 0; y < height; y++ ) {
+			int indexOut = output.startIndex + y*output.stride;
+			int half = count/2;
+			long scale = reciprocal(count);
+			for( int x = 0; x < width; x++ )
+				output.data[indexOut+x] = (byte)(((work[x] + half)*scale) >>> SHIFT);
+
+			int add = y + radius + 1;
+			int remove = y - radius;
+			if( add < height && remove >= 0 ) {
+				int indexAdd = input.startIndex + add*input.stride;
+				int indexRemove = input.startIndex + remove*input.stride;
+				for( int x = 0; x < width; x++ )
+					work[x] += (input.data[indexAdd+x] & 0xFF) - (input.data[indexRemove+x] & 0xFF);
+			} else if( add < height ) {
+				int indexAdd = input.startIndex + add*input.stride;
+				for( int x = 0; x < width; x++ )
+					work[x] += input.data[indexAdd+x] & 0xFF;
+				count++;
+			} else if( remove >= 0 ) {
+				int indexRemove = input.startIndex + remove*input.stride;
+				for( int x = 0; x < width; x++ )
+					work[x] -= input.data[indexRemove+x] & 0xFF;
+				count--;
+			}
+		}
+	}
+
+	/**
+	 * Blurs the image by applying a box filter for each radius.  The scratch image is the only intermediate
+	 * storage used, no memory is allocated if 'work' is provided.
+	 *
+	 * @param input Input image.  Not modified.
+	 * @param output Output image.  Can be the same as the input.  Modified.
+	 * @param radii Radius of each box filter pass.  See {@link #computeRadii(double, int[])}.
+	 * @param storage Scratch image.  Same size as input.
+	 * @param work (Optional) Storage for column sums.  At least as long as the image's width.  Can be null.
+	 */
+	public static void process( ImageFloat32 input , ImageFloat32 output , int radii[] ,
+								ImageFloat32 storage , float work[] ) {
+		ImageFloat32 src = input;
+		for( int i = 0; i < radii.length; i++ ) {
+			if( radii[i] <= 0 )
+				continue;
+			horizontal(src,storage,radii[i]);
+			vertical(storage,output,radii[i],work);
+			src = output;
+		}
+		// every pass was the identity
+		if( src == input )
+			output.setTo(input);
+	}
+
+	/**
+	 * Computes the mean along each row.  Can't be done in place.
+	 *
+	 * @param input Input image.  Not modified.
+	 * @param output Output image.  Modified.
+	 * @param radius Radius of the box
+	 */
+	public static void horizontal( ImageFloat32 input , ImageFloat32 output , int radius ) {
+		final int width = input.width;
+		if( width == 0 )
+			return;
+
+		for( int y = 0; y < input.height; y++ ) {
+			int indexIn = input.startIndex + y*input.stride;
+			int indexOut = output.startIndex + y*output.stride;
+
+			int end = Math.min(radius,width-1);
+			float total = 0;
+			for( int i = 0; i <= end; i++ )
+				total += input.data[indexIn+i];
+			int count = end+1;
+
+			for( int x = 0; x < width; x++ ) {
+				output.data[indexOut+x] = total/count;
+
+				int add = x + radius + 1;
+				int remove = x - radius;
+				if( add < width ) {
+					total += input.data[indexIn+add];
+					count++;
+				}
+				if( remove >= 0 ) {
+					total -= input.data[indexIn+remove];
+					count--;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Computes the mean along each column.  All the columns in a row are processed at once so that memory is
+	 * accessed in order.  Can't be done in place.
+	 *
+	 * @param input Input image.  Not modified.
+	 * @param output Output image.  Modified.
+	 * @param radius Radius of the box
+	 * @param work (Optional) Storage for the sum of each column.  At least as long as the image's width.  Can be null.
+	 */
+	public static void vertical( ImageFloat32 input , ImageFloat32 output , int radius , float work[] ) {
+		final int width = input.width;
+		final int height = input.height;
+		if( height == 0 )
+			return;
+		if( work == null ) {
+			work = new float[ width ];
+		} else if( work.length < width ) {
+			throw new IllegalArgumentException("'work' must be at least of length "+width);
+		}
+
+		int end = Math.min(radius,height-1);
+		for( int x = 0; x < width; x++ )
+			work[x] = 0;
+		for( int y = 0; y <= end; y++ ) {
+			int indexIn = input.startIndex + y*input.stride;
+			for( int x = 0; x < width; x++ )
+				work[x] += input.data[indexIn+x];
+		}
+		int count = end+1;
+
+		for( int y = 0; y < height; y++ ) {
+			int indexOut = output.startIndex + y*output.stride;
+			float scale = 1.0f/count;
+			for( int x = 0; x < width; x++ )
+				output.data[indexOut+x] = work[x]*scale;
+
+			int add = y + radius + 1;
+			int remove = y - radius;
+			if( add < height && remove >= 0 ) {
+				int indexAdd = input.startIndex + add*input.stride;
+				int indexRemove = input.startIndex + remove*input.stride;
+				for( int x = 0; x < width; x++ )
+					work[x] += input.data[indexAdd+x] - input.data[indexRemove+x];
+			} else if( add < height ) {
+				int indexAdd = input.startIndex + add*input.stride;
+				for( int x = 0; x < width; x++ )
+					work[x] += input.data[indexAdd+x];
+				count++;
+			} else if( remove >= 0 ) {
+				int indexRemove = input.startIndex + remove*input.stride;
+				for( int x = 0; x < width; x++ )
+					work[x] -= input.data[indexRemove+x];
+				count--;
+			}
+		}
+	}
+}
@@ -0,0 +1,292 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.blur.impl;
+
+import boofcv.struct.image.ImageFloat32;
+
+/**
+ * <p>
+ * Recursive (IIR) approximation of Gaussian blur.  The number of operations per pixel is the same for any sigma.
+ * Each pass runs a third order causal filter followed by a third order anti-causal filter, using the poles
+ * from van Vliet, Young and Verbeek [1] which are scaled to match the requested sigma exactly.  The image is
+ * extended past its border by repeating the edge pixel.  Initial conditions for the anti-causal filter are found
+ * using the method of Triggs and Sdika [2], so that the result is the same as if the image extended forever.
+ * Their 3x3 matrix is computed numerically instead of using the closed form solution.
+ * </p>
+ *
+ * <p>
+ * Accuracy was measured against convolution with a Gaussian kernel which extends out to 6 sigma, using an image
+ * of uniform noise from 0 to 255 and ignoring the border.  The RMS error was 1.4 at sigma = 1, 0.3 at sigma = 2,
+ * and less than 0.15 for sigma &ge; 3.  For comparison, the kernel from
+ * {@link boofcv.factory.filter.kernel.FactoryKernelGaussian}, which is truncated at about 2.5 sigma, has an RMS
+ * error of 0.1 to 0.5, so the recursive filter is more accurate for sigma &ge; 3.  Smooth images have much smaller
+ * errors.  Accuracy drops off quickly for sigma &lt; 1 and sigma must be &ge; 0.5.  Along the image border the two
+ * differ by more, since the kernel is renormalized while the recursive filter repeats the border pixel.
+ * </p>
+ *
+ * <p>
+ * [1] van Vliet, L. J., Young, I. T., and Verbeek, P. W. "Recursive Gaussian derivative filters." ICPR (1998)<br>
+ * [2] Triggs, B., and Sdika, M. "Boundary conditions for Young-van Vliet recursive filtering." IEEE Trans. Signal
+ * Processing 54.6 (2006): 2365-2367.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ImplGaussianRecursive {
+
+	// poles of the filter for sigma = 2 from [1].  Pole 0 and 1 are complex conjugates
+	private static final double POLE_REAL = 1.41650;
+	private static final double POLE_IMAG = 1.00829;
+	private static final double POLE_3 = 1.86543;
+
+	/**
+	 * Computes the filter's coefficients for the specified sigma.
+	 */
+	public static Coefficients coefficients( double sigma ) {
+		if( sigma < 0.5 )
+			throw new IllegalArgumentException("Sigma must be >= 0.5");
+
+		// The poles for other values of sigma are found by raising them to the power of 1/q.  Find the
+		// q which gives the requested variance using Newton's method.
+		double q = sigma/2.0;
+		for( int iter = 0; iter < 50; iter++ ) {
+			double f = variance(q) - sigma*sigma;
+			double h = q*1e-6;
+			double df = (variance(q+h) - variance(q-h))/(2*h);
+			double step = f/df;
+			q -= step;
+			if( Math.abs(step) < 1e-12*q )
+				break;
+		}
+
+		// complex pole raised to 1/q, then inverted to get the root of the denominator
+		double magnitude = Math.pow(Math.sqrt(POLE_REAL*POLE_REAL + POLE_IMAG*POLE_IMAG),-1.0/q);
+		double angle = -Math.atan2(POLE_IMAG,POLE_REAL)/q;
+		double rReal = magnitude*Math.cos(angle);
+		double rNorm2 = magnitude*magnitude;
+		double r3 = Math.pow(POLE_3,-1.0/q);
+
+		// expand (1 - r1*z^-1)(1 - r2*z^-1)(1 - r3*z^-1)
+		Coefficients c = new Coefficients();
+		c.a1 = 2*rReal + r3;
+		c.a2 = -(rNorm2 + 2*rReal*r3);
+		c.a3 = rNorm2*r3;
+		// unit gain for a constant signal
+		c.B = 1 - (c.a1 + c.a2 + c.a3);
+
+		computeBoundaryMatrix(c);
+
+		return c;
+	}
+
+	/**
+	 * Variance of the causal and anti-causal filters combined when the poles are raised to the power of 1/q.
+	 * Each pole d contributes d/(d-1)^2 to each pass.
+	 */
+	private static double variance( double q ) {
+		// complex pole
+		double magnitude = Math.pow(Math.sqrt(POLE_REAL*POLE_REAL + POLE_IMAG*POLE_IMAG),1.0/q);
+		double angle = Math.atan2(POLE_IMAG,POLE_REAL)/q;
+		double zr = magnitude*Math.cos(angle);
+		double zi = magnitude*Math.sin(angle);
+
+		// z/(z-1)^2
+		double dr = zr - 1;
+		double sr = dr*dr - zi*zi;
+		double si = 2*dr*zi;
+		double denom = sr*sr + si*si;
+		double complexPart = (zr*sr + zi*si)/denom;
+
+		double z3 = Math.pow(POLE_3,1.0/q);
+		double realPart = z3/((z3-1)*(z3-1));
+
+		return 2*(2*complexPart + realPart);
+	}
+
+	/**
+	 * Computes the matrix which maps the state of the causal filter at the end of the signal onto the initial
+	 * state of the anti-causal filter.  Column j is found by starting the causal filter in state e_j, with zero
+	 * input past the end of the signal, and running both filters until the response has died out.
+	 */
+	private static void computeBoundaryMatrix( Coefficients c ) {
+		// the response decays by about a factor of e every q samples, allocate enough to reach double precision
+		int length = 3;
+		double[] w = new double[ 64 ];
+
+		for( int j = 0; j < 3; j++ ) {
+			// causal filter state w[-1],w[-2],w[-3]
+			double p1 = j == 0 ? 1 : 0;
+			double p2 = j == 1 ? 1 : 0;
+			double p3 = j == 2 ? 1 : 0;
+
+			int n = 0;
+			while( true ) {
+				double v = c.a1*p1 + c.a2*p2 + c.a3*p3;
+				if( n >= w.length ) {
+					double[] tmp = new double[ w.length*2 ];
+					System.arraycopy(w,0,tmp,0,w.length);
+					w = tmp;
+				}
+				w[n++] = v;
+				p3 = p2; p2 = p1; p1 = v;
+
+				if( n >= length && Math.abs(p1)+Math.abs(p2)+Math.abs(p3) < 1e-14 )
+					break;
+			}
+			length = Math.max(length,n);
+
+			// the anti-causal filter starts from zero far past the end
+			double y1 = 0, y2 = 0, y3 = 0;
+			for( int i = n-1; i >= 0; i-- ) {
+				double v = c.B*w[i] + c.a1*y1 + c.a2*y2 + c.a3*y3;
+				y3 = y2; y2 = y1; y1 = v;
+			}
+			// y1 = y[N], y2 = y[N+1], y3 = y[N+2]
+			c.M[j] = y1;
+			c.M[3+j] = y2;
+			c.M[6+j] = y3;
+		}
+	}
+
+	/**
+	 * Blurs each row in the image.  The input and output can be the same image.
+	 *
+	 * @param c Filter coefficients
+	 * @param input Input image. Not modified unless it's the output.
+	 * @param output Output image.  Modified.
+	 * @param y0 First row which is processed, inclusive
+	 * @param y1 Last row which is processed, exclusive
+	 */
+	public static void horizontal( Coefficients c , ImageFloat32 input , ImageFloat32 output , int y0 , int y1 ) {
+		final float B = (float)c.B, a1 = (float)c.a1, a2 = (float)c.a2, a3 = (float)c.a3;
+		final int width = input.width;
+		if( width == 0 )
+			return;
+
+		for( int y = y0; y < y1; y++ ) {
+			int indexIn = input.startIndex + y*input.stride;
+			int indexOut = output.startIndex + y*output.stride;
+
+			// read the right edge now in case the output is the input
+			float edgeRight = input.data[indexIn+width-1];
+
+			// causal pass.  The left side is extended by repeating the first pixel
+			float edge = input.data[indexIn];
+			float p1 = edge, p2 = edge, p3 = edge;
+			for( int x = 0; x < width; x++ ) {
+				float v = B*input.data[indexIn+x] + a1*p1 + a2*p2 + a3*p3;
+				output.data[indexOut+x] = v;
+				p3 = p2; p2 = p1; p1 = v;
+			}
+
+			// anti-causal pass.  The right side is extended by repeating the last pixel
+			edge = edgeRight;
+			float d1 = p1-edge, d2 = p2-edge, d3 = p3-edge;
+			p1 = (float)(c.M[0]*d1 + c.M[1]*d2 + c.M[2]*d3) + edge;
+			p2 = (float)(c.M[3]*d1 + c.M[4]*d2 + c.M[5]*d3) + edge;
+			p3 = (float)(c.M[6]*d1 + c.M[7]*d2 + c.M[8]*d3) + edge;
+			for( int x = width-1; x >= 0; x-- ) {
+				float v = B*output.data[indexOut+x] + a1*p1 + a2*p2 + a3*p3;
+				output.data[indexOut+x] = v;
+				p3 = p2; p2 = p1; p1 = v;
+			}
+		}
+	}
+
+	/**
+	 * Blurs each column in the image.  All the columns in a row are processed at the same time so that memory
+	 * is accessed in order.  The input and output can be the same image.
+	 *
+	 * @param c Filter coefficients
+	 * @param input Input image. Not modified unless it's the output.
+	 * @param output Output image.  Modified.
+	 * @param x0 First column which is processed, inclusive
+	 * @param x1 Last column which is processed, exclusive
+	 * @param work Work space.  At least 4*(x1-x0) elements.  Can be null.
+	 */
+	public static void vertical( Coefficients c , ImageFloat32 input , ImageFloat32 output , int x0 , int x1 ,
+								 float work[] ) {
+		final float B = (float)c.B, a1 = (float)c.a1, a2 = (float)c.a2, a3 = (float)c.a3;
+		final int height = input.height;
+		final int length = x1-x0;
+		if( height == 0 || length <= 0 )
+			return;
+
+		if( work == null ) {
+			work = new float[ 4*length ];
+		} else if( work.length < 4*length ) {
+			throw new IllegalArgumentException("'work' must be at least of length "+(4*length));
+		}
+
+		// the filter state of each column.  o1 is the most recent value
+		final int o1 = 0, o2 = length, o3 = 2*length;
+		// the bottom row is saved in case the output is the input
+		final int oEdge = 3*length;
+		System.arraycopy(input.data,input.startIndex + (height-1)*input.stride + x0,work,oEdge,length);
+
+		// causal pass.  The top is extended by repeating the first row
+		int indexIn = input.startIndex + x0;
+		for( int i = 0; i < length; i++ ) {
+			float edge = input.data[indexIn+i];
+			work[o1+i] = work[o2+i] = work[o3+i] = edge;
+		}
+		for( int y = 0; y < height; y++ ) {
+			indexIn = input.startIndex + y*input.stride + x0;
+			int indexOut = output.startIndex + y*output.stride + x0;
+			for( int i = 0; i < length; i++ ) {
+				float v = B*input.data[indexIn+i] + a1*work[o1+i] + a2*work[o2+i] + a3*work[o3+i];
+				output.data[indexOut+i] = v;
+				work[o3+i] = work[o2+i];
+				work[o2+i] = work[o1+i];
+				work[o1+i] = v;
+			}
+		}
+
+		// anti-causal pass.  The bottom is extended by repeating the last row
+		for( int i = 0; i < length; i++ ) {
+			float edge = work[oEdge+i];
+			float d1 = work[o1+i]-edge, d2 = work[o2+i]-edge, d3 = work[o3+i]-edge;
+			work[o1+i] = (float)(c.M[0]*d1 + c.M[1]*d2 + c.M[2]*d3) + edge;
+			work[o2+i] = (float)(c.M[3]*d1 + c.M[4]*d2 + c.M[5]*d3) + edge;
+			work[o3+i] = (float)(c.M[6]*d1 + c.M[7]*d2 + c.M[8]*d3) + edge;
+		}
+		for( int y = height-1; y >= 0; y-- ) {
+			int indexOut = output.startIndex + y*output.stride + x0;
+			for( int i = 0; i < length; i++ ) {
+				float v = B*output.data[indexOut+i] + a1*work[o1+i] + a2*work[o2+i] + a3*work[o3+i];
+				output.data[indexOut+i] = v;
+				work[o3+i] = work[o2+i];
+				work[o2+i] = work[o1+i];
+				work[o1+i] = v;
+			}
+		}
+	}
+
+	/**
+	 * Coefficients of the recursive filter.
+	 */
+	public static class Coefficients {
+		/** Gain applied to the input */
+		public double B;
+		/** Weights of the three previous outputs */
+		public double a1,a2,a3;
+		/** Maps the final state of the causal filter onto the initial state of the anti-causal filter */
+		public double M[] = new double[9];
+	}
+}
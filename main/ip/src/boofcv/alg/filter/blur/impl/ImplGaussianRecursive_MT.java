@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.blur.impl;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.struct.image.ImageFloat32;
+
+/**
+ * Concurrent implementation of {@link ImplGaussianRecursive}.  The horizontal pass is split up by rows and the
+ * vertical pass by columns.  The output is identical to the single threaded version.
+ *
+ * @author Peter Abeles
+ */
+public class ImplGaussianRecursive_MT {
+
+	/**
+	 * Blurs each row in the image.  See {@link ImplGaussianRecursive#horizontal}.
+	 */
+	public static void horizontal( final ImplGaussianRecursive.Coefficients c ,
+								   final ImageFloat32 input , final ImageFloat32 output ) {
+		BoofConcurrency.loopBlocks(0,input.height,new IntRangeTask() {
+			@Override
+			public void process(int y0, int y1) {
+				ImplGaussianRecursive.horizontal(c,input,output,y0,y1);
+			}
+		});
+	}
+
+	/**
+	 * Blurs each column in the image.  See {@link ImplGaussianRecursive#vertical}.
+	 */
+	public static void vertical( final ImplGaussianRecursive.Coefficients c ,
+								 final ImageFloat32 input , final ImageFloat32 output ) {
+		// narrow blocks would share cache lines between threads
+		BoofConcurrency.loopBlocks(0,input.width,32,new IntRangeTask() {
+			@Override
+			public void process(int x0, int x1) {
+				ImplGaussianRecursive.vertical(c,input,output,x0,x1,null);
+			}
+		});
+	}
+}
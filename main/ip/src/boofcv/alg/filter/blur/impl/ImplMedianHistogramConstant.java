@@ -0,0 +1,270 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.blur.impl;
+
+import boofcv.struct.image.ImageUInt8;
+
+/**
+ * <p>
+ * Median filter which takes a constant amount of time per pixel, independent of the radius.  A histogram is
+ * maintained for every column in the image.  When moving down a row each column histogram has one pixel added and one
+ * removed.  When moving along a row the kernel's histogram is updated by adding and removing an entire column
+ * histogram.  To make that cheap the histograms are split into 16 coarse bins, which are always kept up to date,
+ * and 256 fine bins which are only updated for the coarse bin which contains the median.  The image border is
+ * handled by shrinking the region, the same as {@link ImplMedianSortEdgeNaive}.
+ * </p>
+ *
+ * <p>
+ * Perreault, S. and Hebert, P. "Median Filtering in Constant Time" IEEE Trans. Image Processing, 2007
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ImplMedianHistogramConstant {
+
+	/**
+	 * Applies a median filter to the entire image, including the border.
+	 *
+	 * @param input Input image. Not modified.
+	 * @param output Filtered output image. Modified.
+	 * @param radius Size of the filter region.
+	 * @param storage (Optional) Storage for column histograms.  See {@link #storageSize}.  Can be null.
+	 */
+	public static void process(ImageUInt8 input, ImageUInt8 output , int radius , short storage[] ) {
+		process(input,output,radius,0,input.width,storage);
+	}
+
+	/**
+	 * Number of elements needed to store the column histograms used to process the specified range of columns
+	 */
+	public static int storageSize( int width , int radius , int x0 , int x1 ) {
+		int numCols = Math.min(width,x1+radius) - Math.max(0,x0-radius);
+		return numCols*(256+16);
+	}
+
+	/**
+	 * Applies a median filter to a vertical strip in the image.  Strips can be processed independently.
+	 *
+	 * @param input Input image. Not modified.
+	 * @param output Filtered output image. Modified.
+	 * @param radius Size of the filter region.
+	 * @param x0 First column in the output which is processed, inclusive.
+	 * @param x1 Last column in the output which is processed, exclusive.
+	 * @param storage (Optional) Storage for column histograms.  See {@link #storageSize}.  Can be null.
+	 */
+	public static void process(ImageUInt8 input, ImageUInt8 output , int radius , int x0 , int x1 ,
+							   short storage[] ) {
+		if( x0 >= x1 || input.height == 0 )
+			return;
+
+		final int width = input.width;
+		final int height = input.height;
+
+		// columns which contribute to the output
+		final int cx0 = Math.max(0,x0-radius);
+		final int cx1 = Math.min(width,x1+radius);
+		final int numCols = cx1-cx0;
+
+		int size = storageSize(width,radius,x0,x1);
+		if( storage == null ) {
+			storage = new short[ size ];
+		} else if( storage.length < size ) {
+			throw new IllegalArgumentException("'storage' must be at least of length "+size);
+		}
+
+		// fine and coarse histograms for each column are stored in the same array.  A column has at most
+		// 2*radius+1 pixels in it, so shorts are used to reduce cache misses
+		final short[] colFine = storage;
+		final int coarseStart = numCols*256;
+		for( int i = 0; i < size; i++ )
+			storage[i] = 0;
+
+		int kernelCoarse[] = new int[16];
+		int kernelFine[] = new int[256];
+		// the x-coordinate that each fine bin in the kernel is valid for
+		int valid[] = new int[16];
+
+		// initialize column histograms with the rows above the first row
+		for( int y = 0; y < radius && y < height; y++ ) {
+			addRow(input,y,cx0,cx1,colFine,coarseStart);
+		}
+
+		for( int y = 0; y < height; y++ ) {
+			// update the column histograms for the new row
+			int rowRemove = y - radius - 1;
+			int rowAdd = y + radius;
+			if( rowRemove >= 0 && rowAdd < height )
+				replaceRow(input,rowRemove,rowAdd,cx0,cx1,colFine,coarseStart);
+			else if( rowRemove >= 0 )
+				removeRow(input,rowRemove,cx0,cx1,colFine,coarseStart);
+			else if( rowAdd < height )
+				addRow(input,rowAdd,cx0,cx1,colFine,coarseStart);
+
+			int numRows = Math.min(height,y+radius+1) - Math.max(0,y-radius);
+
+			// initialize the kernel's coarse histogram for the first pixel in the row
+			for( int i = 0; i < 16; i++ ) {
+				kernelCoarse[i] = 0;
+				valid[i] = Integer.MIN_VALUE;
+			}
+			int kx0 = Math.max(0,x0-radius);
+			int kx1 = Math.min(width,x0+radius+1);
+			for( int col = kx0; col < kx1; col++ ) {
+				int c = coarseStart + (col-cx0)*16;
+				for( int i = 0; i < 16; i++ )
+					kernelCoarse[i] += colFine[c+i];
+			}
+
+			int indexOut = output.startIndex + y*output.stride + x0;
+			for( int x = x0; x < x1; x++ ) {
+				if( x > x0 ) {
+					int add = x + radius;
+					int remove = x - radius - 1;
+					if( add < width && remove >= 0 ) {
+						int a = coarseStart + (add-cx0)*16;
+						int r = coarseStart + (remove-cx0)*16;
+						for( int i = 0; i < 16; i++ )
+							kernelCoarse[i] += colFine[a+i] - colFine[r+i];
+					} else if( add < width ) {
+						int c = coarseStart + (add-cx0)*16;
+						for( int i = 0; i < 16; i++ )
+							kernelCoarse[i] += colFine[c+i];
+					} else if( remove >= 0 ) {
+						int c = coarseStart + (remove-cx0)*16;
+						for( int i = 0; i < 16; i++ )
+							kernelCoarse[i] -= colFine[c+i];
+					}
+				}
+
+				int numCols_x = Math.min(width,x+radius+1) - Math.max(0,x-radius);
+				int threshold = (numRows*numCols_x)/2 + 1;
+
+				// find the coarse bin which contains the median
+				int count = 0;
+				int bin;
+				for( bin = 0; bin < 15; bin++ ) {
+					if( count + kernelCoarse[bin] >= threshold )
+						break;
+					count += kernelCoarse[bin];
+				}
+
+				updateFine(bin,x,radius,width,cx0,colFine,kernelFine,valid);
+
+				// find the median inside the coarse bin
+				int fine = bin*16;
+				int end = fine+15;
+				for( ; fine < end; fine++ ) {
+					count += kernelFine[fine];
+					if( count >= threshold )
+						break;
+				}
+
+				output.data[indexOut++] = (byte)fine;
+			}
+		}
+	}
+
+	/**
+	 * Adds all the pixels in a row to the column histograms
+	 */
+	private static void addRow( ImageUInt8 input , int y , int cx0 , int cx1 ,
+								short colFine[] , int coarseStart ) {
+		int indexIn = input.startIndex + y*input.stride + cx0;
+		for( int col = 0; col < cx1-cx0; col++ ) {
+			int value = input.data[indexIn++] & 0xFF;
+			colFine[col*256 + value]++;
+			colFine[coarseStart + col*16 + (value >> 4)]++;
+		}
+	}
+
+	/**
+	 * Removes all the pixels in a row from the column histograms
+	 */
+	private static void removeRow( ImageUInt8 input , int y , int cx0 , int cx1 ,
+								   short colFine[] , int coarseStart ) {
+		int indexIn = input.startIndex + y*input.stride + cx0;
+		for( int col = 0; col < cx1-cx0; col++ ) {
+			int value = input.data[indexIn++] & 0xFF;
+			colFine[col*256 + value]--;
+			colFine[coarseStart + col*16 + (value >> 4)]--;
+		}
+	}
+
+	/**
+	 * Removes the pixels in one row and adds the pixels in another row to the column histograms
+	 */
+	private static void replaceRow( ImageUInt8 input , int yRemove , int yAdd , int cx0 , int cx1 ,
+									short colFine[] , int coarseStart ) {
+		int indexRemove = input.startIndex + yRemove*input.stride + cx0;
+		int indexAdd = input.startIndex + yAdd*input.stride + cx0;
+		for( int col = 0; col < cx1-cx0; col++ ) {
+			int valueRemove = input.data[indexRemove++] & 0xFF;
+			int valueAdd = input.data[indexAdd++] & 0xFF;
+			colFine[col*256 + valueRemove]--;
+			colFine[col*256 + valueAdd]++;
+			colFine[coarseStart + col*16 + (valueRemove >> 4)]--;
+			colFine[coarseStart + col*16 + (valueAdd >> 4)]++;
+		}
+	}
+
+	/**
+	 * Brings the fine histogram for the specified coarse bin up to date.  If it was last updated recently then
+	 * it's incrementally updated, otherwise it is computed from scratch.
+	 */
+	private static void updateFine( int bin , int x , int radius , int width , int cx0 ,
+									short colFine[] , int kernelFine[] , int valid[] ) {
+		int last = valid[bin];
+		int offset = bin*16;
+
+		if( last == x )
+			return;
+
+		if( last == Integer.MIN_VALUE || x - last > 2*radius+1 ) {
+			for( int i = 0; i < 16; i++ )
+				kernelFine[offset+i] = 0;
+			int kx0 = Math.max(0,x-radius);
+			int kx1 = Math.min(width,x+radius+1);
+			for( int col = kx0; col < kx1; col++ ) {
+				int c = (col-cx0)*256 + offset;
+				for( int i = 0; i < 16; i++ )
+					kernelFine[offset+i] += colFine[c+i];
+			}
+		} else {
+			for( int xx = last+1; xx <= x; xx++ ) {
+				int add = xx + radius;
+				int remove = xx - radius - 1;
+				if( add < width && remove >= 0 ) {
+					int a = (add-cx0)*256 + offset;
+					int r = (remove-cx0)*256 + offset;
+					for( int i = 0; i < 16; i++ )
+						kernelFine[offset+i] += colFine[a+i] - colFine[r+i];
+				} else if( add < width ) {
+					int c = (add-cx0)*256 + offset;
+					for( int i = 0; i < 16; i++ )
+						kernelFine[offset+i] += colFine[c+i];
+				} else if( remove >= 0 ) {
+					int c = (remove-cx0)*256 + offset;
+					for( int i = 0; i < 16; i++ )
+						kernelFine[offset+i] -= colFine[c+i];
+				}
+			}
+		}
+		valid[bin] = x;
+	}
+}
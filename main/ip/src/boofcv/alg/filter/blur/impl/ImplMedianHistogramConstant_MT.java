@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.blur.impl;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.struct.image.ImageUInt8;
+
+/**
+ * Concurrent implementation of {@link ImplMedianHistogramConstant}.  The image is split into vertical strips
+ * which are processed by different threads.  Each strip has its own column histograms, so columns within the
+ * radius of a seam are added to two histograms.  The output is identical to the single threaded version.
+ *
+ * @author Peter Abeles
+ */
+public class ImplMedianHistogramConstant_MT {
+
+	/**
+	 * Applies a median filter to the entire image, including the border.
+	 *
+	 * @param input Input image. Not modified.
+	 * @param output Filtered output image. Modified.
+	 * @param radius Size of the filter region.
+	 */
+	public static void process(final ImageUInt8 input, final ImageUInt8 output , final int radius ) {
+		// strips much narrower than the kernel spend most of their time on overlapping columns
+		int minStrip = Math.max(16,2*radius+1);
+
+		BoofConcurrency.loopBlocks(0,input.width,minStrip,new IntRangeTask() {
+			@Override
+			public void process(int x0, int x1) {
+				ImplMedianHistogramConstant.process(input,output,radius,x0,x1,null);
+			}
+		});
+	}
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.convolve;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.struct.convolve.Kernel1D_F32;
+import boofcv.struct.convolve.Kernel1D_I32;
+import boofcv.struct.image.*;
+
+import static boofcv.alg.filter.convolve.ConvolveDownNoBorder.checkParametersH;
+import static boofcv.alg.filter.convolve.ConvolveDownNoBorder.checkParametersV;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link ConvolveDownNormalized} for 1D kernels.  The image is split into
+ * sub-images which are processed by {@link BoofConcurrency}'s thread pool using the single threaded code.
+ * </p>
+ *
+ * <p>
+ * Horizontal convolution is split into bands of rows.  Vertical convolution is split into strips of columns,
+ * since each output row is computed from several input rows and the kernel is re-normalized along the top
+ * and bottom of the image.  Strips are always wider than the kernel so that the same code path is taken as
+ * when the whole image is processed at once.  The output is identical to the single threaded version.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ConvolveDownNormalized_MT {
+
+	/**
+	 * Concurrent version of {@link ConvolveDownNormalized#horizontal(Kernel1D_F32, ImageFloat32, ImageFloat32, int)}.
+	 */
+	public static void horizontal(final Kernel1D_F32 kernel, final ImageFloat32 image, final ImageFloat32 dest , final int skip ) {
+		checkParametersH(image, dest, skip);
+
+		BoofConcurrency.loopBlocks(0, image.height, new IntRangeTask() {
+			@Override
+			public void process(int y0, int y1) {
+				ConvolveDownNormalized.horizontal(kernel,
+						image.subimage(0, y0, image.width, y1),
+						dest.subimage(0, y0, dest.width, y1), skip);
+			}
+		});
+	}
+
+	/**
+	 * Concurrent version of {@link ConvolveDownNormalized#horizontal(Kernel1D_I32, ImageUInt8, ImageInt8, int)}.
+	 */
+	public static void horizontal(final Kernel1D_I32 kernel, final ImageUInt8 image, final ImageInt8 dest , final int skip ) {
+		checkParametersH(image, dest, skip);
+
+		BoofConcurrency.loopBlocks(0, image.height, new IntRangeTask() {
+			@Override
+			public void process(int y0, int y1) {
+				ConvolveDownNormalized.horizontal(kernel,
+						image.subimage(0, y0, image.width, y1),
+						(ImageInt8)dest.subimage(0, y0, dest.width, y1), skip);
+			}
+		});
+	}
+
+	/**
+	 * Concurrent version of {@link ConvolveDownNormalized#horizontal(Kernel1D_I32, ImageSInt16, ImageInt16, int)}.
+	 */
+	public static void horizontal(final Kernel1D_I32 kernel, final ImageSInt16 image, final ImageInt16 dest , final int skip ) {
+		checkParametersH(image, dest, skip);
+
+		BoofConcurrency.loopBlocks(0, image.height, new IntRangeTask() {
+			@Override
+			public void process(int y0, int y1) {
+				ConvolveDownNormalized.horizontal(kernel,
+						image.subimage(0, y0, image.width, y1),
+						(ImageInt16)dest.subimage(0, y0, dest.width, y1), skip);
+			}
+		});
+	}
+
+	/**
+	 * Concurrent version of {@link ConvolveDownNormalized#vertical(Kernel1D_F32, ImageFloat32, ImageFloat32, int)}.
+	 */
+	public static void vertical(final Kernel1D_F32 kernel, final ImageFloat32 image, final ImageFloat32 dest , final int skip ) {
+		checkParametersV(image, dest, skip);
+
+		BoofConcurrency.loopBlocks(0, image.width, kernel.width+1, new IntRangeTask() {
+			@Override
+			public void process(int x0, int x1) {
+				ConvolveDownNormalized.vertical(kernel,
+						image.subimage(x0, 0, x1, image.height),
+						dest.subimage(x0, 0, x1, dest.height), skip);
+			}
+		});
+	}
+
+	/**
+	 * Concurrent version of {@link ConvolveDownNormalized#vertical(Kernel1D_I32, ImageUInt8, ImageInt8, int)}.
+	 */
+	public static void vertical(final Kernel1D_I32 kernel, final ImageUInt8 image, final ImageInt8 dest , final int skip ) {
+		checkParametersV(image, dest, skip);
+
+		BoofConcurrency.loopBlocks(0, image.width, kernel.width+1, new IntRangeTask() {
+			@Override
+			public void process(int x0, int x1) {
+				ConvolveDownNormalized.vertical(kernel,
+						image.subimage(x0, 0, x1, image.height),
+						(ImageInt8)dest.subimage(x0, 0, x1, dest.height), skip);
+			}
+		});
+	}
+
+	/**
+	 * Concurrent version of {@link ConvolveDownNormalized#vertical(Kernel1D_I32, ImageSInt16, ImageInt16, int)}.
+	 */
+	public static void vertical(final Kernel1D_I32 kernel, final ImageSInt16 image, final ImageInt16 dest , final int skip ) {
+		checkParametersV(image, dest, skip);
+
+		BoofConcurrency.loopBlocks(0, image.width, kernel.width+1, new IntRangeTask() {
+			@Override
+			public void process(int x0, int x1) {
+				ConvolveDownNormalized.vertical(kernel,
+						image.subimage(x0, 0, x1, image.height),
+						(ImageInt16)dest.subimage(x0, 0, x1, dest.height), skip);
+			}
+		});
+	}
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.convolve;
+
+import boofcv.alg.InputSanityCheck;
+import boofcv.alg.filter.convolve.border.ConvolveJustBorder_General;
+import boofcv.alg.filter.convolve.fft.ConvolveFft_F32;
+import boofcv.core.image.border.ImageBorder_F32;
+import boofcv.struct.convolve.Kernel2D_F32;
+import boofcv.struct.image.ImageFloat32;
+
+/**
+ * <p>
+ * Convolves large kernels across an image using the Fast Fourier Transform, see {@link ConvolveFft_F32}.
+ * Each thread has its own {@link ConvolveFft_F32}, so the kernel's spectrum is reused when the same
+ * kernel is applied to several images of the same size.
+ * </p>
+ *
+ * <p>
+ * {@link GConvolveImageOps} automatically switches to these functions for kernels which are at least
+ * {@link #MINIMUM_KERNEL_WIDTH} wide.  The results differ from spatial convolution by floating point
+ * round off.  Call {@link ConvolveImageNoBorder} or {@link ConvolveWithBorder} directly when identical
+ * results are required.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ConvolveImageFft {
+
+	/**
+	 * Kernels at least this wide are convolved in the frequency domain by {@link GConvolveImageOps}
+	 */
+	public static final int MINIMUM_KERNEL_WIDTH = 15;
+
+	private static final ThreadLocal<ConvolveFft_F32> algorithms = new ThreadLocal<ConvolveFft_F32>() {
+		@Override
+		protected ConvolveFft_F32 initialValue() {
+			return new ConvolveFft_F32();
+		}
+	};
+
+	/**
+	 * Performs a 2D convolution across the image.  The image's borders are not processed.
+	 *
+	 * @param kernel A square kernel that will be convolved across the source image
+	 * @param input  The source image that is to be convolved
+	 * @param output   The results of the convolution
+	 */
+	public static void convolve(Kernel2D_F32 kernel, ImageFloat32 input, ImageFloat32 output) {
+		algorithms.get().convolve(kernel,input,output);
+	}
+
+	/**
+	 * Performs a 2D convolution across the image.  Borders are handled as specified by the 'border'
+	 * parameter.
+	 *
+	 * @param kernel The kernel that is being convolved. Not modified.
+	 * @param input The original image. Not modified.
+	 * @param output Where the resulting image is written to. Modified.
+	 * @param border How the image borders are handled.
+	 */
+	public static void convolve(Kernel2D_F32 kernel,
+								ImageFloat32 input, ImageFloat32 output , ImageBorder_F32 border ) {
+		InputSanityCheck.checkSameShape(input, output);
+
+		border.setImage(input);
+		convolve(kernel,input,output);
+		ConvolveJustBorder_General.convolve(kernel,border,output,kernel.getRadius());
+	}
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.convolve.fft;
+
+import boofcv.alg.InputSanityCheck;
+import boofcv.alg.transform.fft.FourierTransform2D_F32;
+import boofcv.alg.transform.fft.FourierTransformOps;
+import boofcv.struct.convolve.Kernel2D_F32;
+import boofcv.struct.image.ImageFloat32;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Convolves a {@link Kernel2D_F32} across an image using the Fast Fourier Transform.  The cost per pixel
+ * grows with the log of the kernel's size instead of its area, which makes it much faster than
+ * {@link boofcv.alg.filter.convolve.ConvolveImageNoBorder} for large kernels.  The results are the same
+ * as {@link boofcv.alg.filter.convolve.ConvolveImageNoBorder#convolve(Kernel2D_F32, ImageFloat32, ImageFloat32)},
+ * up to floating point error, and the image border isn't processed.
+ * </p>
+ *
+ * <p>
+ * The image is processed in tiles using overlap-save.  Each tile's transform has a power of two size
+ * and its input overlaps with its neighbors by the kernel's width minus one, so no tile sees wrap around.
+ * Limiting the tile size keeps the memory usage and transform size bounded for large images.
+ * The kernel's spectrum is saved and reused until the kernel or tile size changes.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ConvolveFft_F32 {
+
+	/**
+	 * Default maximum length of a tile's side
+	 */
+	public static final int DEFAULT_MAX_TILE = 256;
+
+	// maximum length of a tile's side, unless the kernel is too big
+	private int maxTile;
+
+	private FourierTransform2D_F32 fft;
+
+	// copy of the kernel whose spectrum has been computed
+	private float kernelData[] = new float[0];
+	private int kernelWidth = -1;
+	// spectrum of the kernel after it has been flipped and scaled
+	private ImageFloat32 kernelSpectrum = new ImageFloat32(1,1);
+
+	// size of a tile's transform
+	private int tileWidth,tileHeight;
+	private ImageFloat32 tile = new ImageFloat32(1,1);
+	private ImageFloat32 tileSpectrum = new ImageFloat32(1,1);
+
+	/**
+	 * Configures the convolution
+	 *
+	 * @param maxTile Maximum length of a tile's side.  Rounded up to a power of two.  If the kernel is too
+	 *                large relative to the tile, the tile is enlarged.
+	 * @param concurrent If true the transforms will be computed using multiple threads.
+	 */
+	public ConvolveFft_F32( int maxTile , boolean concurrent ) {
+		this.maxTile = nextPowerOfTwo(maxTile);
+		this.fft = new FourierTransform2D_F32(concurrent);
+	}
+
+	public ConvolveFft_F32() {
+		this(DEFAULT_MAX_TILE,false);
+	}
+
+	/**
+	 * Performs a 2D convolution across the image.  The image's borders are not processed.
+	 *
+	 * @param kernel A square kernel that will be convolved across the source image.  Not modified.
+	 * @param input The source image that is to be convolved.  Not modified.
+	 * @param output The results of the convolution.  Modified.
+	 */
+	public void convolve( Kernel2D_F32 kernel , ImageFloat32 input , ImageFloat32 output ) {
+		InputSanityCheck.checkSameShape(input, output);
+
+		final int radius = kernel.getRadius();
+		final int regionWidth = input.width - 2*radius;
+		final int regionHeight = input.height - 2*radius;
+		if( regionWidth <= 0 || regionHeight <= 0 )
+			return;
+
+		selectTileShape(kernel.width,regionWidth,regionHeight);
+		updateKernelSpectrum(kernel);
+
+		// number of output pixels along each side of a tile
+		final int blockWidth = tileWidth - kernel.width + 1;
+		final int blockHeight = tileHeight - kernel.width + 1;
+
+		for( int y0 = radius; y0 < input.height-radius; y0 += blockHeight ) {
+			int y1 = Math.min(input.height-radius,y0+blockHeight);
+			for( int x0 = radius; x0 < input.width-radius; x0 += blockWidth ) {
+				int x1 = Math.min(input.width-radius,x0+blockWidth);
+				processTile(input,output,radius,x0,y0,x1,y1);
+			}
+		}
+	}
+
+	/**
+	 * Computes the convolution for output pixels inside of the rectangle (x0,y0) to (x1,y1), exclusive.
+	 */
+	private void processTile( ImageFloat32 input , ImageFloat32 output , int radius ,
+							  int x0 , int y0 , int x1 , int y1 ) {
+		// copy the input pixels the outputs depend on, the rest of the tile is zero
+		int w = x1-x0 + 2*radius;
+		int h = y1-y0 + 2*radius;
+		for( int y = 0; y < h; y++ ) {
+			int indexIn = input.startIndex + (y0-radius+y)*input.stride + x0-radius;
+			int indexTile = y*tile.stride;
+			System.arraycopy(input.data,indexIn,tile.data,indexTile,w);
+			Arrays.fill(tile.data,indexTile+w,indexTile+tileWidth,0);
+		}
+		Arrays.fill(tile.data,h*tile.stride,tileHeight*tile.stride,0);
+
+		fft.forward(tile,tileSpectrum);
+		FourierTransformOps.multiplyComplex(tileSpectrum,kernelSpectrum,tileSpectrum);
+		fft.inverse(tileSpectrum,tile);
+
+		// the output for pixel (x0,y0) is at the tile's origin
+		for( int y = y0; y < y1; y++ ) {
+			int indexTile = (y-y0)*tile.stride;
+			int indexOut = output.startIndex + y*output.stride + x0;
+			System.arraycopy(tile.data,indexTile,output.data,indexOut,x1-x0);
+		}
+	}
+
+	/**
+	 * Selects the smallest power of two tile which contains the entire image, unless that is larger
+	 * than the maximum tile size.
+	 */
+	private void selectTileShape( int kernelWidth , int regionWidth , int regionHeight ) {
+		// always have at least as many output pixels in a tile as the kernel's width
+		int limit = Math.max(maxTile,nextPowerOfTwo(2*kernelWidth));
+
+		int tileWidth = Math.min(limit,nextPowerOfTwo(regionWidth+kernelWidth-1));
+		int tileHeight = Math.min(limit,nextPowerOfTwo(regionHeight+kernelWidth-1));
+
+		if( tileWidth != this.tileWidth || tileHeight != this.tileHeight ) {
+			this.tileWidth = tileWidth;
+			this.tileHeight = tileHeight;
+			tile.reshape(tileWidth,tileHeight);
+			tileSpectrum.reshape(FourierTransform2D_F32.packedWidth(tileWidth),tileHeight);
+			// the kernel's spectrum depends on the tile size
+			kernelWidth = -1;
+		}
+	}
+
+	/**
+	 * Computes the kernel's spectrum if the kernel has changed.  The output for a pixel is at the tile's
+	 * top left corner, so the kernel is placed at the origin and wraps around.
+	 */
+	private void updateKernelSpectrum( Kernel2D_F32 kernel ) {
+		int N = kernel.width*kernel.width;
+		if( kernel.width == kernelWidth && equals(kernel.data,kernelData,N) )
+			return;
+
+		kernelWidth = kernel.width;
+		if( kernelData.length < N )
+			kernelData = new float[N];
+		System.arraycopy(kernel.data,0,kernelData,0,N);
+
+		// the tile is used as storage since it is about to be overwritten anyways
+		// output(x,y) = sum kernel(i,j)*tile(x+i,y+j), so kernel(i,j) goes to (-i,-j) modulo the tile size
+		tile.reshape(tileWidth,tileHeight);
+		Arrays.fill(tile.data,0,tileHeight*tile.stride,0);
+		for( int i = 0; i < kernelWidth; i++ ) {
+			int y = (tileHeight-i) % tileHeight;
+			for( int j = 0; j < kernelWidth; j++ ) {
+				int x = (tileWidth-j) % tileWidth;
+				tile.data[y*tile.stride+x] = kernel.data[i*kernelWidth+j];
+			}
+		}
+
+		kernelSpectrum.reshape(FourierTransform2D_F32.packedWidth(tileWidth),tileHeight);
+		fft.forward(tile,kernelSpectrum);
+
+		// the forward transform divides by the number of pixels.  Undo that so the product of the two spectrums
+		// has the same scale as the tile's spectrum
+		float scale = (float)tileWidth*tileHeight;
+		for( int i = 0; i < kernelSpectrum.data.length; i++ )
+			kernelSpectrum.data[i] *= scale;
+	}
+
+	private static boolean equals( float a[] , float b[] , int length ) {
+		for( int i = 0; i < length; i++ ) {
+			if( a[i] != b[i] )
+				return false;
+		}
+		return true;
+	}
+
+	private static int nextPowerOfTwo( int n ) {
+		int p = 1;
+		while( p < n )
+			p *= 2;
+		return p;
+	}
+
+	public int getTileWidth() {
+		return tileWidth;
+	}
+
+	public int getTileHeight() {
+		return tileHeight;
+	}
+}
@@ -1196,4 +1196,42 @@ public class ImageMiscOps {
 		}
 	}
 
+	/**
+	 * Fills the whole image with the specified value
+	 *
+	 * @param input An image.
+	 * @param value The value that the image is being filled with.
+	 */
+	public static void fill(ImageUInt8Buffer input, int value) {
+
+		for (int y = 0; y < input.height; y++) {
+			int index = input.getStartIndex() + y * input.getStride();
+			for (int x = 0; x < input.width; x++) {
+				input.data.put(index++, (byte)value);
+			}
+		}
+	}
+
+	/**
+	 * Draws a filled rectangle that is aligned along the image axis inside the image.
+	 *
+	 * @param img Image the rectangle is drawn in.  Modified
+	 * @param value Value of the rectangle
+	 * @param x0 Top left x-coordinate
+	 * @param y0 Top left y-coordinate
+	 * @param width Rectangle width
+	 * @param height Rectangle height
+	 */
+	public static void fillRectangle(ImageUInt8Buffer img, int value, int x0, int y0, int width, int height) {
+		int x1 = x0 + width;
+		int y1 = y0 + height;
+
+		for (int y = y0; y < y1; y++) {
+			for (int x = x0; x < x1; x++) {
+				if( img.isInBounds(x,y ))
+					img.unsafe_set(x, y, value);
+			}
+		}
+	}
+
 }
@@ -21,6 +21,8 @@ package boofcv.alg.misc;
 import boofcv.alg.InputSanityCheck;
 import boofcv.struct.image.*;
 
+import java.nio.ByteBuffer;
+
 /**
  * Functions which perform basic arithmetic (e.g. addition, subtraction, multiplication, or division) on a pixel by pixel basis.
  *
@@ -2592,4 +2594,102 @@ public class PixelMath {
 		}
 	}
 
+	/**
+	 * Multiply each element by a scalar value. Both input and output images can
+	 * be the same instance.
+	 *
+	 * @param input The input image. Not modified.
+	 * @param value What each element is multiplied by.
+	 * @param output The output image. Modified.
+	 */
+	public static void multiply( ImageUInt8Buffer input , double value , ImageUInt8Buffer output ) {
+
+		InputSanityCheck.checkSameShape(input,output);
+
+		for( int y = 0; y < input.height; y++ ) {
+			int indexSrc = input.startIndex + y* input.stride;
+			int indexDst = output.startIndex + y* output.stride;
+			int end = indexSrc + input.width;
+
+			for( ; indexSrc < end; indexSrc++, indexDst++ ) {
+				output.data.put(indexDst, (byte)((input.data.get(indexSrc) & 0xFF) * value));
+			}
+		}
+	}
+
+	/**
+	 * Add a scalar value to each element. Both input and output images can be the same instance.
+	 *
+	 * @param input The input image. Not modified.
+	 * @param value What is added to each element.
+	 * @param output The output image. Modified.
+	 */
+	public static void plus( ImageUInt8Buffer input , int value , ImageUInt8Buffer output ) {
+
+		InputSanityCheck.checkSameShape(input,output);
+
+		for( int y = 0; y < input.height; y++ ) {
+			int indexSrc = input.startIndex + y* input.stride;
+			int indexDst = output.startIndex + y* output.stride;
+			int end = indexSrc + input.width;
+
+			for( ; indexSrc < end; indexSrc++, indexDst++ ) {
+				output.data.put(indexDst, (byte)((input.data.get(indexSrc) & 0xFF) + value));
+			}
+		}
+	}
+
+	/**
+	 * Bounds image pixels to be between these two values
+	 * 
+	 * @param img Image
+	 * @param min minimum value.
+	 * @param max maximum value.
+	 */
+	public static void boundImage( ImageUInt8Buffer img , int min , int max ) {
+		final int h = img.getHeight();
+		final int w = img.getWidth();
+
+		ByteBuffer data = img.data;
+
+		for (int y = 0; y < h; y++) {
+			int index = img.getStartIndex() + y * img.getStride();
+			int indexEnd = index+w;
+			for (; index < indexEnd; index++) {
+				int value = data.get(index) & 0xFF;
+				if( value < min )
+					data.put(index, (byte)min);
+				else if( value > max )
+					data.put(index, (byte)max);
+			}
+		}
+	}
+
+	/**
+	 * <p>
+	 * Computes the absolute value of the difference between each pixel in the two images.<br>
+	 * d(x,y) = |img1(x,y) - img2(x,y)|
+	 * </p>
+	 * @param imgA Input image. Not modified.
+	 * @param imgB Input image. Not modified.
+	 * @param diff Absolute value of difference image. Modified.
+	 */
+	public static void diffAbs( ImageUInt8Buffer imgA , ImageUInt8Buffer imgB , ImageUInt8 diff ) {
+		InputSanityCheck.checkSameShape(imgA,imgB,diff);
+
+		final int h = imgA.getHeight();
+		final int w = imgA.getWidth();
+
+		for (int y = 0; y < h; y++) {
+			int indexA = imgA.getStartIndex() + y * imgA.getStride();
+			int indexB = imgB.getStartIndex() + y * imgB.getStride();
+			int indexDiff = diff.getStartIndex() + y * diff.getStride();
+
+			int indexEnd = indexA+w;
+			for (; indexA < indexEnd; indexA++, indexB++, indexDiff++ ) {
+				diff.data[indexDiff] = (byte)Math.abs((imgA.data.get(indexA) & 0xFF) - (imgB.data.get(indexB) & 0xFF));
+			}
+		}
+	}
+
 }
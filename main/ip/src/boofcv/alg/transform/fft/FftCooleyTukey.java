@@ -19,7 +19,246 @@
 package boofcv.alg.transform.fft;
 
 /**
+ * <p>
+ * Fast Fourier Transform of complex data with an arbitrary length.  When the length is a power of two the iterative
+ * radix-2 Cooley-Tukey algorithm is used.  Other lengths are converted into a circular convolution with a
+ * power of two length using Bluestein's algorithm, so the cost is always O(N log N).
+ * </p>
+ *
+ * <p>
+ * Neither direction is normalized.  Calling {@link #forward} then {@link #inverse} will scale the data by N.
+ * Twiddle factors and other tables are computed when the instance is created, so an instance should be reused
+ * for all transforms of the same length.  Each instance has its own work space so an instance can only be used by
+ * one thread at a time.
+ * </p>
+ *
  * @author Peter Abeles
  */
 public class FftCooleyTukey {
+
+	// length of the transform
+	private int length;
+
+	// tables for the radix-2 transform.  Its length is the padded length when Bluestein is used
+	private Radix2Tables radix2;
+	// tables for Bluestein's algorithm.  null if the length is a power of two
+	private BluesteinTables bluestein;
+
+	// work space for Bluestein's algorithm
+	private double workR[],workI[];
+
+	/**
+	 * Creates a transform for the specified length
+	 *
+	 * @param length Number of elements in the transform.  Must be &ge; 1.
+	 */
+	public FftCooleyTukey( int length ) {
+		if( length < 1 )
+			throw new IllegalArgumentException("Length must be at least 1");
+		this.length = length;
+
+		if( isPowerOfTwo(length) ) {
+			radix2 = new Radix2Tables(length);
+		} else {
+			radix2 = new Radix2Tables(paddedLength(length));
+			bluestein = new BluesteinTables(length,radix2);
+			workR = new double[ bluestein.padded ];
+			workI = new double[ bluestein.padded ];
+		}
+	}
+
+	/**
+	 * Returns true if the number is a power of two
+	 */
+	public static boolean isPowerOfTwo( int n ) {
+		return n > 0 && (n & (n-1)) == 0;
+	}
+
+	/**
+	 * Computes the forward transform, X[k] = sum x[n]*exp(-2*pi*i*k*n/N), in place.
+	 *
+	 * @param real Real component.  At least N elements.  Modified.
+	 * @param imag Imaginary component.  At least N elements.  Modified.
+	 */
+	public void forward( double real[] , double imag[] ) {
+		if( bluestein == null ) {
+			transformRadix2(radix2,real,imag,false);
+		} else {
+			transformBluestein(real,imag);
+		}
+	}
+
+	/**
+	 * Computes the inverse transform, x[n] = sum X[k]*exp(2*pi*i*k*n/N), in place.  Not divided by N.
+	 *
+	 * @param real Real component.  At least N elements.  Modified.
+	 * @param imag Imaginary component.  At least N elements.  Modified.
+	 */
+	public void inverse( double real[] , double imag[] ) {
+		if( bluestein == null ) {
+			transformRadix2(radix2,real,imag,true);
+		} else {
+			// inverse(x) = conj(forward(conj(x)))
+			for( int i = 0; i < length; i++ )
+				imag[i] = -imag[i];
+			transformBluestein(real,imag);
+			for( int i = 0; i < length; i++ )
+				imag[i] = -imag[i];
+		}
+	}
+
+	/**
+	 * Iterative radix-2 decimation in time transform
+	 */
+	private static void transformRadix2( Radix2Tables t , double real[] , double imag[] , boolean inverse ) {
+		final int n = t.length;
+		final int reverse[] = t.reverse;
+
+		for( int i = 0; i < n; i++ ) {
+			int j = reverse[i];
+			if( j > i ) {
+				double tmp = real[i]; real[i] = real[j]; real[j] = tmp;
+				tmp = imag[i]; imag[i] = imag[j]; imag[j] = tmp;
+			}
+		}
+
+		final double cos[] = t.cos;
+		final double sin[] = inverse ? t.sin : t.sinNeg;
+
+		for( int size = 2; size <= n; size *= 2 ) {
+			int half = size/2;
+			int step = n/size;
+			for( int start = 0; start < n; start += size ) {
+				for( int j = 0, k = 0; j < half; j++, k += step ) {
+					double wr = cos[k];
+					double wi = sin[k];
+					int a = start + j;
+					int b = a + half;
+
+					double tr = wr*real[b] - wi*imag[b];
+					double ti = wr*imag[b] + wi*real[b];
+
+					real[b] = real[a] - tr;
+					imag[b] = imag[a] - ti;
+					real[a] += tr;
+					imag[a] += ti;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Forward transform using Bluestein's algorithm.  X[k] = w[k]*sum (x[n]*w[n])*conj(w[k-n]),
+	 * where w[n] = exp(-pi*i*n^2/N), which is a convolution computed with a power of two transform.
+	 */
+	private void transformBluestein( double real[] , double imag[] ) {
+		final BluesteinTables t = bluestein;
+		final int padded = t.padded;
+
+		for( int i = 0; i < length; i++ ) {
+			double cr = t.chirpR[i], ci = t.chirpI[i];
+			workR[i] = real[i]*cr - imag[i]*ci;
+			workI[i] = real[i]*ci + imag[i]*cr;
+		}
+		for( int i = length; i < padded; i++ ) {
+			workR[i] = 0;
+			workI[i] = 0;
+		}
+
+		transformRadix2(radix2,workR,workI,false);
+
+		for( int i = 0; i < padded; i++ ) {
+			double ar = workR[i], ai = workI[i];
+			double br = t.filterR[i], bi = t.filterI[i];
+			workR[i] = ar*br - ai*bi;
+			workI[i] = ar*bi + ai*br;
+		}
+
+		transformRadix2(radix2,workR,workI,true);
+
+		// the filter's spectrum was already divided by the padded length
+		for( int i = 0; i < length; i++ ) {
+			double cr = t.chirpR[i], ci = t.chirpI[i];
+			real[i] = workR[i]*cr - workI[i]*ci;
+			imag[i] = workR[i]*ci + workI[i]*cr;
+		}
+	}
+
+	/**
+	 * Length of the power of two transform used by Bluestein's algorithm.  Large enough to avoid wrap around in
+	 * the convolution.
+	 */
+	private static int paddedLength( int length ) {
+		int padded = Integer.highestOneBit(2*length-1);
+		if( padded < 2*length-1 )
+			padded *= 2;
+		return padded;
+	}
+
+	public int getLength() {
+		return length;
+	}
+
+	/**
+	 * Twiddle factors and bit reversal permutation for a power of two length
+	 */
+	private static class Radix2Tables {
+		int length;
+		double cos[],sin[],sinNeg[];
+		int reverse[];
+
+		Radix2Tables( int length ) {
+			this.length = length;
+			int half = Math.max(1,length/2);
+			cos = new double[half];
+			sin = new double[half];
+			sinNeg = new double[half];
+			for( int k = 0; k < half; k++ ) {
+				double theta = 2.0*Math.PI*k/length;
+				cos[k] = Math.cos(theta);
+				sin[k] = Math.sin(theta);
+				sinNeg[k] = -sin[k];
+			}
+
+			int bits = Integer.numberOfTrailingZeros(length);
+			reverse = new int[length];
+			for( int i = 0; i < length; i++ ) {
+				reverse[i] = bits == 0 ? 0 : Integer.reverse(i) >>> (32-bits);
+			}
+		}
+	}
+
+	/**
+	 * Chirp and the spectrum of the chirp filter used by Bluestein's algorithm
+	 */
+	private static class BluesteinTables {
+		// length of the power of two transform
+		int padded;
+		double chirpR[],chirpI[];
+		double filterR[],filterI[];
+
+		BluesteinTables( int length , Radix2Tables radix2 ) {
+			padded = radix2.length;
+
+			chirpR = new double[length];
+			chirpI = new double[length];
+			for( int i = 0; i < length; i++ ) {
+				// reduce i^2 modulo 2N before converting into an angle to avoid losing precision
+				long k = ((long)i*i) % (2L*length);
+				double theta = Math.PI*k/length;
+				chirpR[i] = Math.cos(theta);
+				chirpI[i] = -Math.sin(theta);
+			}
+
+			filterR = new double[padded];
+			filterI = new double[padded];
+			filterR[0] = chirpR[0]/padded;
+			filterI[0] = -chirpI[0]/padded;
+			for( int i = 1; i < length; i++ ) {
+				filterR[i] = filterR[padded-i] = chirpR[i]/padded;
+				filterI[i] = filterI[padded-i] = -chirpI[i]/padded;
+			}
+			transformRadix2(radix2,filterR,filterI,false);
+		}
+	}
 }
@@ -0,0 +1,320 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.transform.fft;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
+import boofcv.struct.image.ImageFloat64;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Two dimensional discrete Fourier transform of a real image.  Since the input is real its spectrum is conjugate
+ * symmetric and only the columns from 0 to width/2 are computed.  The spectrum is stored in a packed image
+ * with interleaved real and imaginary components.  Frequency (u,v) is at (2*u,v) and (2*u+1,v) in the packed
+ * image, see {@link #packedWidth(int)}.  The forward transform is divided by the number of pixels and the inverse
+ * is not scaled, the same as FourierTransformNaive.
+ * </p>
+ *
+ * <p>
+ * The transform is computed by applying {@link FftCooleyTukey} to the rows and then the columns.  Two real rows are
+ * transformed at once by packing them into a single complex row.  Any image size is supported, but powers of two
+ * are the fastest.  Optionally, the rows and columns can be split across several threads.  The output is
+ * identical either way.  Internal storage is saved between calls.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class FourierTransform2D_F64 {
+
+	// should the work be split across threads
+	private boolean concurrent;
+
+	// size of the most recently processed image
+	private int width,height;
+
+	// work space for each thread
+	private final List<Workspace> available = new ArrayList<Workspace>();
+
+	// stores the results of the column pass in the inverse transform
+	private ImageFloat64 spectrum = new ImageFloat64(1,1);
+
+	public FourierTransform2D_F64( boolean concurrent ) {
+		this.concurrent = concurrent;
+	}
+
+	public FourierTransform2D_F64() {
+		this(false);
+	}
+
+	/**
+	 * Width of the packed spectrum for an image with the specified width
+	 */
+	public static int packedWidth( int width ) {
+		return 2*(width/2+1);
+	}
+
+	/**
+	 * Computes the Fourier transform of a real image.
+	 *
+	 * @param input Real image.  Not modified.
+	 * @param output (Optional) Packed spectrum.  width = packedWidth(input.width) and height = input.height.
+	 *               Can be null.  Modified.
+	 * @return The packed spectrum
+	 */
+	public ImageFloat64 forward( final ImageFloat64 input , ImageFloat64 output ) {
+		if( output == null ) {
+			output = new ImageFloat64(packedWidth(input.width),input.height);
+		} else if( output.width != packedWidth(input.width) || output.height != input.height ) {
+			throw new IllegalArgumentException("Unexpected output shape.  Should be "+
+					packedWidth(input.width)+" x "+input.height);
+		}
+		setShape(input.width,input.height);
+
+		final ImageFloat64 spectrum = output;
+		final double scale = 1.0/((double)width*height);
+
+		loop((height+1)/2, new IntRangeTask() {
+			@Override
+			public void process(int index0, int index1) {
+				Workspace w = takeWorkspace();
+				for( int i = index0; i < index1; i++ )
+					forwardRows(input,spectrum,2*i,scale,w);
+				releaseWorkspace(w);
+			}
+		});
+
+		loop(width/2+1, new IntRangeTask() {
+			@Override
+			public void process(int index0, int index1) {
+				Workspace w = takeWorkspace();
+				for( int i = index0; i < index1; i++ )
+					transformColumn(spectrum,spectrum,i,false,w);
+				releaseWorkspace(w);
+			}
+		});
+
+		return output;
+	}
+
+	/**
+	 * Computes the real image from its packed spectrum.
+	 *
+	 * @param input Packed spectrum.  Not modified.
+	 * @param output Real image.  Its size must be consistent with the input's size.  Modified.
+	 */
+	public void inverse( final ImageFloat64 input , final ImageFloat64 output ) {
+		if( input.width != packedWidth(output.width) || input.height != output.height ) {
+			throw new IllegalArgumentException("Unexpected input shape.  Should be "+
+					packedWidth(output.width)+" x "+output.height);
+		}
+		setShape(output.width,output.height);
+		spectrum.reshape(input.width,input.height);
+
+		loop(width/2+1, new IntRangeTask() {
+			@Override
+			public void process(int index0, int index1) {
+				Workspace w = takeWorkspace();
+				for( int i = index0; i < index1; i++ )
+					transformColumn(input,spectrum,i,true,w);
+				releaseWorkspace(w);
+			}
+		});
+
+		loop((height+1)/2, new IntRangeTask() {
+			@Override
+			public void process(int index0, int index1) {
+				Workspace w = takeWorkspace();
+				for( int i = index0; i < index1; i++ )
+					inverseRows(spectrum,output,2*i,w);
+				releaseWorkspace(w);
+			}
+		});
+	}
+
+	/**
+	 * Transforms rows y and y+1 by putting the second row into the imaginary component then separating
+	 * the two spectrums.
+	 */
+	private void forwardRows( ImageFloat64 input , ImageFloat64 output , int y , double scale , Workspace w ) {
+		final double rowR[] = w.rowR;
+		final double rowI[] = w.rowI;
+		final boolean hasSecond = y+1 < height;
+
+		int indexIn = input.startIndex + y*input.stride;
+		for( int x = 0; x < width; x++ )
+			rowR[x] = input.data[indexIn+x];
+		if( hasSecond ) {
+			indexIn += input.stride;
+			for( int x = 0; x < width; x++ )
+				rowI[x] = input.data[indexIn+x];
+		} else {
+			for( int x = 0; x < width; x++ )
+				rowI[x] = 0;
+		}
+
+		w.rowFft.forward(rowR,rowI);
+
+		// A[k] = (Z[k] + conj(Z[N-k]))/2 and B[k] = (Z[k] - conj(Z[N-k]))/(2i)
+		int indexA = output.startIndex + y*output.stride;
+		int indexB = indexA + output.stride;
+		double s = scale*0.5;
+		for( int k = 0; k <= width/2; k++ ) {
+			int j = k == 0 ? 0 : width-k;
+			double zr = rowR[k], zi = rowI[k];
+			double cr = rowR[j], ci = -rowI[j];
+
+			output.data[indexA+2*k]   = (zr+cr)*s;
+			output.data[indexA+2*k+1] = (zi+ci)*s;
+			if( hasSecond ) {
+				output.data[indexB+2*k]   =  (zi-ci)*s;
+				output.data[indexB+2*k+1] = -(zr-cr)*s;
+			}
+		}
+	}
+
+	/**
+	 * Reconstructs the complete spectrum of rows y and y+1, combines them into one complex row, and then
+	 * computes the inverse transform.  Row y is the real component of the result and y+1 the imaginary.
+	 */
+	private void inverseRows( ImageFloat64 input , ImageFloat64 output , int y , Workspace w ) {
+		final double rowR[] = w.rowR;
+		final double rowI[] = w.rowI;
+		final boolean hasSecond = y+1 < height;
+
+		// Z[k] = A[k] + i*B[k]
+		int indexA = input.startIndex + y*input.stride;
+		int indexB = indexA + input.stride;
+		for( int k = 0; k <= width/2; k++ ) {
+			double ar = input.data[indexA+2*k], ai = input.data[indexA+2*k+1];
+			double br = 0, bi = 0;
+			if( hasSecond ) {
+				br = input.data[indexB+2*k];
+				bi = input.data[indexB+2*k+1];
+			}
+			rowR[k] = ar - bi;
+			rowI[k] = ai + br;
+			// the other half is the conjugate of each spectrum
+			if( k > 0 && width-k > width/2 ) {
+				rowR[width-k] = ar + bi;
+				rowI[width-k] = br - ai;
+			}
+		}
+
+		w.rowFft.inverse(rowR,rowI);
+
+		int indexOut = output.startIndex + y*output.stride;
+		for( int x = 0; x < width; x++ )
+			output.data[indexOut+x] = rowR[x];
+		if( hasSecond ) {
+			indexOut += output.stride;
+			for( int x = 0; x < width; x++ )
+				output.data[indexOut+x] = rowI[x];
+		}
+	}
+
+	/**
+	 * Applies the transform to a complex column in the packed spectrum
+	 */
+	private void transformColumn( ImageFloat64 input , ImageFloat64 output , int column , boolean inverse , Workspace w ) {
+		final double colR[] = w.colR;
+		final double colI[] = w.colI;
+
+		int indexIn = input.startIndex + 2*column;
+		for( int y = 0; y < height; y++ , indexIn += input.stride ) {
+			colR[y] = input.data[indexIn];
+			colI[y] = input.data[indexIn+1];
+		}
+
+		if( inverse )
+			w.colFft.inverse(colR,colI);
+		else
+			w.colFft.forward(colR,colI);
+
+		int indexOut = output.startIndex + 2*column;
+		for( int y = 0; y < height; y++ , indexOut += output.stride ) {
+			output.data[indexOut] = colR[y];
+			output.data[indexOut+1] = colI[y];
+		}
+	}
+
+	private void loop( int length , IntRangeTask task ) {
+		if( concurrent )
+			BoofConcurrency.loopBlocks(0,length,task);
+		else
+			task.process(0,length);
+	}
+
+	/**
+	 * Discards work spaces which are for a different image shape
+	 */
+	private void setShape( int width , int height ) {
+		if( width == 0 || height == 0 )
+			throw new IllegalArgumentException("Image must not be empty");
+		if( this.width != width || this.height != height ) {
+			this.width = width;
+			this.height = height;
+			synchronized( available ) {
+				available.clear();
+			}
+		}
+	}
+
+	private Workspace takeWorkspace() {
+		synchronized( available ) {
+			if( available.isEmpty() )
+				return new Workspace(width,height);
+			return available.remove(available.size()-1);
+		}
+	}
+
+	private void releaseWorkspace( Workspace w ) {
+		synchronized( available ) {
+			available.add(w);
+		}
+	}
+
+	public boolean isConcurrent() {
+		return concurrent;
+	}
+
+	public void setConcurrent(boolean concurrent) {
+		this.concurrent = concurrent;
+	}
+
+	/**
+	 * Storage used by a single thread
+	 */
+	private static class Workspace {
+		FftCooleyTukey rowFft,colFft;
+		double rowR[],rowI[];
+		double colR[],colI[];
+
+		Workspace( int width , int height ) {
+			rowFft = new FftCooleyTukey(width);
+			colFft = new FftCooleyTukey(height);
+			rowR = new double[width];
+			rowI = new double[width];
+			colR = new double[height];
+			colI = new double[height];
+		}
+	}
+}
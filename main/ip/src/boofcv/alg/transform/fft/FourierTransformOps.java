@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.transform.fft;
+
+import boofcv.alg.InputSanityCheck;
+import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.ImageFloat64;
+
+/**
+ * Operations on images which contain complex numbers with interleaved real and imaginary components, such as
+ * the packed spectrum computed by {@link FourierTransform2D_F32}.
+ *
+ * @author Peter Abeles
+ */
+public class FourierTransformOps {
+
+	/**
+	 * Element-wise complex multiplication, c = a*b.  The output can be the same as either input.
+	 *
+	 * @param a Complex image.  Not modified.
+	 * @param b Complex image.  Not modified.
+	 * @param c Complex image.  Modified.
+	 */
+	public static void multiplyComplex( ImageFloat32 a , ImageFloat32 b , ImageFloat32 c ) {
+		InputSanityCheck.checkSameShape(a,b,c);
+
+		for( int y = 0; y < a.height; y++ ) {
+			int indexA = a.startIndex + y*a.stride;
+			int indexB = b.startIndex + y*b.stride;
+			int indexC = c.startIndex + y*c.stride;
+
+			int end = indexA + a.width;
+			for( ; indexA < end; indexA += 2 , indexB += 2 , indexC += 2 ) {
+				float ar = a.data[indexA], ai = a.data[indexA+1];
+				float br = b.data[indexB], bi = b.data[indexB+1];
+
+				c.data[indexC]   = ar*br - ai*bi;
+				c.data[indexC+1] = ar*bi + ai*br;
+			}
+		}
+	}
+
+	/**
+	 * Element-wise complex multiplication, c = a*b.  The output can be the same as either input.
+	 *
+	 * @param a Complex image.  Not modified.
+	 * @param b Complex image.  Not modified.
+	 * @param c Complex image.  Modified.
+	 */
+	public static void multiplyComplex( ImageFloat64 a , ImageFloat64 b , ImageFloat64 c ) {
+		InputSanityCheck.checkSameShape(a,b,c);
+
+		for( int y = 0; y < a.height; y++ ) {
+			int indexA = a.startIndex + y*a.stride;
+			int indexB = b.startIndex + y*b.stride;
+			int indexC = c.startIndex + y*c.stride;
+
+			int end = indexA + a.width;
+			for( ; indexA < end; indexA += 2 , indexB += 2 , indexC += 2 ) {
+				double ar = a.data[indexA], ai = a.data[indexA+1];
+				double br = b.data[indexB], bi = b.data[indexB+1];
+
+				c.data[indexC]   = ar*br - ai*bi;
+				c.data[indexC+1] = ar*bi + ai*br;
+			}
+		}
+	}
+
+	/**
+	 * Computes the normalized cross power spectrum, c = a*conj(b)/|a*conj(b)|.  Used in phase correlation.
+	 * Elements with a magnitude of zero are set to zero.  The output can be the same as either input.
+	 *
+	 * @param a Complex image.  Not modified.
+	 * @param b Complex image.  Not modified.
+	 * @param c Complex image.  Modified.
+	 */
+	public static void crossPowerSpectrum( ImageFloat32 a , ImageFloat32 b , ImageFloat32 c ) {
+		InputSanityCheck.checkSameShape(a,b,c);
+
+		for( int y = 0; y < a.height; y++ ) {
+			int indexA = a.startIndex + y*a.stride;
+			int indexB = b.startIndex + y*b.stride;
+			int indexC = c.startIndex + y*c.stride;
+
+			int end = indexA + a.width;
+			for( ; indexA < end; indexA += 2 , indexB += 2 , indexC += 2 ) {
+				float ar = a.data[indexA], ai = a.data[indexA+1];
+				float br = b.data[indexB], bi = b.data[indexB+1];
+
+				float real = ar*br + ai*bi;
+				float imag = ai*br - ar*bi;
+				float norm = (float)Math.sqrt(real*real + imag*imag);
+
+				if( norm > 0 ) {
+					c.data[indexC]   = real/norm;
+					c.data[indexC+1] = imag/norm;
+				} else {
+					c.data[indexC]   = 0;
+					c.data[indexC+1] = 0;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Computes the normalized cross power spectrum, c = a*conj(b)/|a*conj(b)|.  Used in phase correlation.
+	 * Elements with a magnitude of zero are set to zero.  The output can be the same as either input.
+	 *
+	 * @param a Complex image.  Not modified.
+	 * @param b Complex image.  Not modified.
+	 * @param c Complex image.  Modified.
+	 */
+	public static void crossPowerSpectrum( ImageFloat64 a , ImageFloat64 b , ImageFloat64 c ) {
+		InputSanityCheck.checkSameShape(a,b,c);
+
+		for( int y = 0; y < a.height; y++ ) {
+			int indexA = a.startIndex + y*a.stride;
+			int indexB = b.startIndex + y*b.stride;
+			int indexC = c.startIndex + y*c.stride;
+
+			int end = indexA + a.width;
+			for( ; indexA < end; indexA += 2 , indexB += 2 , indexC += 2 ) {
+				double ar = a.data[indexA], ai = a.data[indexA+1];
+				double br = b.data[indexB], bi = b.data[indexB+1];
+
+				double real = ar*br + ai*bi;
+				double imag = ai*br - ar*bi;
+				double norm = Math.sqrt(real*real + imag*imag);
+
+				if( norm > 0 ) {
+					c.data[indexC]   = real/norm;
+					c.data[indexC+1] = imag/norm;
+				} else {
+					c.data[indexC]   = 0;
+					c.data[indexC+1] = 0;
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,355 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.transform.ii;
+
+import boofcv.struct.ImageRectangle;
+import boofcv.struct.image.ImageSInt64;
+import boofcv.struct.image.ImageUInt16;
+import boofcv.struct.image.ImageUInt8;
+
+/**
+ * <p>
+ * Integral image which is computed one row at a time, for images which are streamed in row by row, e.g. from a
+ * line scan camera.  Only the most recently added rows are saved, so memory usage does not depend on the image's
+ * height.  Blocks and {@link IntegralKernel} can be evaluated as soon as all the rows they touch have been added.
+ * Rows are referred to by their index in the full image.
+ * </p>
+ *
+ * <p>
+ * Values are accumulated using 64-bit integers, so very tall images will not overflow.  The definition of the
+ * integral image and blocks is the same as in {@link IntegralImageOps}.
+ * </p>
+ *
+ * <p>
+ * Each row is written twice into a buffer which is twice the window's height.  That way the saved rows are always
+ * contiguous in memory and can be accessed as a regular integral image using {@link #getWindow()}.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class IntegralImageStream {
+
+	// number of rows which are saved
+	private int maxRows;
+
+	// storage for the rows.  Row i is saved at rows (i % maxRows) and (i % maxRows) + maxRows
+	private ImageSInt64 storage;
+	// view of the saved rows inside of storage
+	private ImageSInt64 window = new ImageSInt64();
+
+	// total number of rows which have been added
+	private int numRows;
+
+	/**
+	 * Specifies the image's width and how many rows are saved.
+	 *
+	 * @param width Width of the input image.
+	 * @param maxRows Number of rows which are saved.  Must be at least one more than the height of the
+	 *                largest block which is going to be evaluated.
+	 */
+	public IntegralImageStream( int width , int maxRows ) {
+		if( maxRows < 1 )
+			throw new IllegalArgumentException("Must save at least one row");
+
+		this.maxRows = maxRows;
+		storage = new ImageSInt64(width,maxRows*2);
+		window.data = storage.data;
+		window.stride = storage.stride;
+		window.width = width;
+		reset();
+	}
+
+	/**
+	 * Discards all the rows so that a new image can be processed
+	 */
+	public void reset() {
+		numRows = 0;
+		window.startIndex = 0;
+		window.height = 0;
+	}
+
+	/**
+	 * Adds a row from an unsigned 8-bit image.
+	 *
+	 * @param data Array containing the row.  Values are unsigned.
+	 * @param offset Index of the row's first pixel in data.
+	 */
+	public void addRow( byte data[] , int offset ) {
+		long dst[] = storage.data;
+		int indexPrev = previousRowIndex();
+		int indexDst = nextRowIndex();
+		int width = storage.width;
+
+		long total = 0;
+		if( indexPrev < 0 ) {
+			for( int x = 0; x < width; x++ ) {
+				dst[indexDst++] = total += data[offset++] & 0xFF;
+			}
+		} else {
+			for( int x = 0; x < width; x++ ) {
+				total += data[offset++] & 0xFF;
+				dst[indexDst++] = dst[indexPrev++] + total;
+			}
+		}
+		finishRow();
+	}
+
+	/**
+	 * Adds a row from an unsigned 16-bit image.
+	 *
+	 * @param data Array containing the row.  Values are unsigned.
+	 * @param offset Index of the row's first pixel in data.
+	 */
+	public void addRow( short data[] , int offset ) {
+		long dst[] = storage.data;
+		int indexPrev = previousRowIndex();
+		int indexDst = nextRowIndex();
+		int width = storage.width;
+
+		long total = 0;
+		if( indexPrev < 0 ) {
+			for( int x = 0; x < width; x++ ) {
+				dst[indexDst++] = total += data[offset++] & 0xFFFF;
+			}
+		} else {
+			for( int x = 0; x < width; x++ ) {
+				total += data[offset++] & 0xFFFF;
+				dst[indexDst++] = dst[indexPrev++] + total;
+			}
+		}
+		finishRow();
+	}
+
+	/**
+	 * Adds every row in the image, from top to bottom.
+	 *
+	 * @param rows One or more rows from the input image. Not modified.
+	 */
+	public void addRows( ImageUInt8 rows ) {
+		checkWidth(rows.width);
+		for( int y = 0; y < rows.height; y++ ) {
+			addRow(rows.data,rows.startIndex + y*rows.stride);
+		}
+	}
+
+	/**
+	 * Adds every row in the image, from top to bottom.
+	 *
+	 * @param rows One or more rows from the input image. Not modified.
+	 */
+	public void addRows( ImageUInt16 rows ) {
+		checkWidth(rows.width);
+		for( int y = 0; y < rows.height; y++ ) {
+			addRow(rows.data,rows.startIndex + y*rows.stride);
+		}
+	}
+
+	private void checkWidth( int width ) {
+		if( width != storage.width )
+			throw new IllegalArgumentException("Row width doesn't match. "+width+" != "+storage.width);
+	}
+
+	/**
+	 * Index of the most recently added row in storage or -1 if there is none
+	 */
+	private int previousRowIndex() {
+		if( numRows == 0 )
+			return -1;
+		return ((numRows-1) % maxRows)*storage.stride;
+	}
+
+	private int nextRowIndex() {
+		return (numRows % maxRows)*storage.stride;
+	}
+
+	/**
+	 * Copies the new row into its second location and updates the window
+	 */
+	private void finishRow() {
+		int index = nextRowIndex();
+		System.arraycopy(storage.data,index,storage.data,index + maxRows*storage.stride,storage.width);
+		numRows++;
+
+		int first = getFirstRow();
+		window.startIndex = (first % maxRows)*storage.stride;
+		window.height = numRows - first;
+	}
+
+	/**
+	 * Index of the oldest row which is still saved.
+	 */
+	public int getFirstRow() {
+		return Math.max(0,numRows-maxRows);
+	}
+
+	/**
+	 * Total number of rows which have been added.  The most recent row's index is one less than this.
+	 */
+	public int getNumRows() {
+		return numRows;
+	}
+
+	/**
+	 * Number of rows which are saved
+	 */
+	public int getMaxRows() {
+		return maxRows;
+	}
+
+	public int getWidth() {
+		return storage.width;
+	}
+
+	/**
+	 * Returns the saved rows as an integral image.  Row 0 in the returned image is row {@link #getFirstRow()} in
+	 * the full image.  The returned image is only valid until the next row is added.  Since the top of the
+	 * returned image is not the top of the full image, functions which treat pixels outside the image as zero
+	 * should not be used with it unless {@link #getFirstRow()} is zero.
+	 *
+	 * @return View of the saved rows.  Don't modify.
+	 */
+	public ImageSInt64 getWindow() {
+		return window;
+	}
+
+	/**
+	 * Returns the value of the integral image at the specified pixel.
+	 *
+	 * @param x Column
+	 * @param y Row in the full image.  Must be saved.
+	 */
+	public long get( int x , int y ) {
+		if( x < 0 || x >= storage.width )
+			throw new IllegalArgumentException("x is out of bounds");
+		return storage.data[rowIndex(y) + x];
+	}
+
+	/**
+	 * Returns true if all the rows needed to compute the block are saved.  See {@link #block_zero}.
+	 *
+	 * @param y0 Lower bound of the block.  Exclusive.
+	 * @param y1 Upper bound of the block.  Inclusive.
+	 */
+	public boolean isAvailable( int y0 , int y1 ) {
+		if( y1 >= numRows )
+			return false;
+		return y0 < 0 || y0 >= getFirstRow();
+	}
+
+	/**
+	 * Returns true if all the rows needed to convolve the kernel centered at row y are saved.
+	 * See {@link #convolveSparse}.
+	 *
+	 * @param kernel Convolution kernel.
+	 * @param y Row the convolution is performed at.
+	 */
+	public boolean isAvailable( IntegralKernel kernel , int y ) {
+		for( ImageRectangle r : kernel.blocks ) {
+			if( !isAvailable(y+r.y0,y+r.y1) )
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * <p>
+	 * Computes the value of a block and treats pixels outside of the image as zero.  The block is defined as
+	 * follows: x0 < x <= x1 and y0 < y <= y1.  All the rows which are inside the image must be available,
+	 * see {@link #isAvailable(int, int)}.
+	 * </p>
+	 *
+	 * @param x0 Lower bound of the block.  Exclusive.
+	 * @param y0 Lower bound of the block.  Exclusive.
+	 * @param x1 Upper bound of the block.  Inclusive.
+	 * @param y1 Upper bound of the block.  Inclusive.
+	 * @return Value inside the block.
+	 */
+	public long block_zero( int x0 , int y0 , int x1 , int y1 ) {
+		if( y1 < 0 )
+			return 0;
+
+		x0 = Math.min(x0,storage.width-1);
+		x1 = Math.min(x1,storage.width-1);
+
+		long data[] = storage.data;
+		int indexBottom = rowIndex(y1);
+		long br=0,tr=0,bl=0,tl=0;
+
+		if( x1 >= 0 )
+			br = data[indexBottom + x1];
+		if( x0 >= 0 )
+			bl = data[indexBottom + x0];
+
+		if( y0 >= 0 ) {
+			int indexTop = rowIndex(y0);
+			if( x1 >= 0 )
+				tr = data[indexTop + x1];
+			if( x0 >= 0 )
+				tl = data[indexTop + x0];
+		}
+
+		return br-tr-bl+tl;
+	}
+
+	/**
+	 * Convolves a kernel around a single point.  All the rows it touches must be available,
+	 * see {@link #isAvailable(IntegralKernel, int)}.
+	 *
+	 * @param kernel Convolution kernel.
+	 * @param x Pixel the convolution is performed at.
+	 * @param y Pixel the convolution is performed at.  Row in the full image.
+	 * @return Value of the convolution
+	 */
+	public long convolveSparse( IntegralKernel kernel , int x , int y ) {
+		long ret = 0;
+		int N = kernel.getNumBlocks();
+
+		for( int i = 0; i < N; i++ ) {
+			ImageRectangle r = kernel.blocks[i];
+			ret += block_zero(x+r.x0,y+r.y0,x+r.x1,y+r.y1)*kernel.scales[i];
+		}
+
+		return ret;
+	}
+
+	/**
+	 * Convolves a kernel across an entire row.  All the rows it touches must be available,
+	 * see {@link #isAvailable(IntegralKernel, int)}.
+	 *
+	 * @param kernel Convolution kernel.
+	 * @param y Row the convolution is performed at.  Row in the full image.
+	 * @param output Storage for the convolved row.  Must be at least as long as the image's width.  Modified.
+	 */
+	public void convolveRow( IntegralKernel kernel , int y , long output[] ) {
+		for( int x = 0; x < storage.width; x++ ) {
+			output[x] = convolveSparse(kernel,x,y);
+		}
+	}
+
+	/**
+	 * Index of the row's first element in storage
+	 */
+	private int rowIndex( int y ) {
+		if( y >= numRows )
+			throw new IllegalArgumentException("Row "+y+" has not been added yet");
+		if( y < getFirstRow() )
+			throw new IllegalArgumentException("Row "+y+" has already been discarded");
+		return (y % maxRows)*storage.stride;
+	}
+}
@@ -51,6 +51,13 @@ public class PyramidDiscreteSampleBlur<T extends ImageSingleBand> extends Pyrami
 	GenericConvolveDown<T,T> horizontal;
 	GenericConvolveDown<T,T> vertical;
 
+	// blur kernel and image type.  Saved so that the convolution can be changed to concurrent
+	private Kernel1D kernel;
+	private Class<T> imageType;
+
+	// is the blur and down sampling done using multiple threads
+	private boolean concurrent = false;
+
 	// amount of blur applied to each layer
 	double sigmas[];
 
@@ -68,10 +75,9 @@ public class PyramidDiscreteSampleBlur<T extends ImageSingleBand> extends Pyrami
 	{
 		super(imageType,saveOriginalReference,scaleFactors);
 
-		horizontal = FactoryConvolveDown.convolve(kernel,imageType,imageType,
-				BorderType.NORMALIZED,true,1);
-		vertical = FactoryConvolveDown.convolve(kernel,imageType,imageType,
-				BorderType.NORMALIZED,false,1);
+		this.kernel = kernel;
+		this.imageType = imageType;
+		createConvolution();
 
 		sigmas = new double[ scaleFactors.length ];
 		sigmas[0] = 0;
@@ -85,6 +91,31 @@ public class PyramidDiscreteSampleBlur<T extends ImageSingleBand> extends Pyrami
 		}
 	}
 
+	private void createConvolution() {
+		horizontal = FactoryConvolveDown.convolve(kernel,imageType,imageType,
+				BorderType.NORMALIZED,true,1,concurrent);
+		vertical = FactoryConvolveDown.convolve(kernel,imageType,imageType,
+				BorderType.NORMALIZED,false,1,concurrent);
+	}
+
+	/**
+	 * Specifies if the blur and down sampling inside each layer should be split across multiple threads.
+	 * Layers are still computed one after another since each layer depends on the previous one.  The results
+	 * are identical either way.
+	 *
+	 * @param concurrent true for multiple threads and false for a single thread
+	 */
+	public void setConcurrent(boolean concurrent) {
+		if( this.concurrent == concurrent )
+			return;
+		this.concurrent = concurrent;
+		createConvolution();
+	}
+
+	public boolean isConcurrent() {
+		return concurrent;
+	}
+
 	@Override
 	public void process(T input) {
 		super.initialize(input.width,input.height);
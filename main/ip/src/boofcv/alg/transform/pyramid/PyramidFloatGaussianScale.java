@@ -18,12 +18,11 @@
 
 package boofcv.alg.transform.pyramid;
 
-import boofcv.abst.filter.blur.BlurStorageFilter;
 import boofcv.alg.distort.DistortImageOps;
 import boofcv.alg.distort.PixelTransformAffine_F32;
 import boofcv.alg.distort.impl.DistortSupport;
+import boofcv.alg.filter.blur.GBlurImageOps;
 import boofcv.alg.interpolate.InterpolatePixel;
-import boofcv.factory.filter.blur.FactoryBlurFilter;
 import boofcv.struct.image.ImageSingleBand;
 import boofcv.struct.pyramid.PyramidFloat;
 
@@ -51,6 +50,14 @@ public class PyramidFloatGaussianScale< T extends ImageSingleBand> extends Pyram
 
 	// used to store the blurred image
 	protected T tempImage;
+	// stores intermediate results while blurring
+	protected T storage;
+
+	// is the blur done using multiple threads
+	protected boolean concurrent = false;
+
+	// is the blur done using a recursive filter instead of convolution
+	protected boolean recursive = false;
 
 	// how much each layer is blurred before sub-sampling
 	protected float[] sigmaLayers;
@@ -96,6 +103,7 @@ public class PyramidFloatGaussianScale< T extends ImageSingleBand> extends Pyram
 
 		if( tempImage == null ) {
 			tempImage = (T)input._createNew(input.width,input.height);
+			storage = (T)input._createNew(input.width,input.height);
 		}
 
 		for( int i = 0; i < scale.length; i++ ) {
@@ -103,9 +111,12 @@ public class PyramidFloatGaussianScale< T extends ImageSingleBand> extends Pyram
 			T layer = getLayer(i);
 
 			// Apply the requested blur to the previous layer
-			BlurStorageFilter<T> blur = (BlurStorageFilter<T>) FactoryBlurFilter.gaussian(layer.getClass(), sigmaLayers[i],-1);
 			tempImage.reshape(prev.width,prev.height);
-			blur.process(prev,tempImage);
+			storage.reshape(prev.width,prev.height);
+			if( recursive )
+				GBlurImageOps.gaussianRecursive(prev,tempImage,sigmaLayers[i],storage,concurrent);
+			else
+				GBlurImageOps.gaussian(prev,tempImage,sigmaLayers[i],-1,storage,concurrent);
 
 			// Resample the blurred image
 			if( scale[i] == 1 ) {
@@ -117,6 +128,36 @@ public class PyramidFloatGaussianScale< T extends ImageSingleBand> extends Pyram
 		}
 	}
 
+	/**
+	 * Specifies if the blur inside each layer should be split across multiple threads.  The results are
+	 * identical either way.
+	 *
+	 * @param concurrent true for multiple threads and false for a single thread
+	 */
+	public void setConcurrent(boolean concurrent) {
+		this.concurrent = concurrent;
+	}
+
+	public boolean isConcurrent() {
+		return concurrent;
+	}
+
+	/**
+	 * Specifies if the blur should be applied using a recursive filter, which is faster for large sigmas.  Only
+	 * {@link boofcv.struct.image.ImageFloat32} is supported and every sigma must be &ge; 0.5.
+	 *
+	 * @see boofcv.alg.filter.blur.BlurImageOps#gaussianRecursive
+	 *
+	 * @param recursive true for a recursive filter and false for convolution
+	 */
+	public void setRecursive(boolean recursive) {
+		this.recursive = recursive;
+	}
+
+	public boolean isRecursive() {
+		return recursive;
+	}
+
 	public InterpolatePixel<T> getInterpolate() {
 		return interpolate;
 	}
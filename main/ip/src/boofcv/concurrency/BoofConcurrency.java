@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.concurrency;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * <p>
+ * Thread pool which is shared by all the concurrent algorithms in BoofCV.  Work is submitted as a range of
+ * indexes which is split into contiguous blocks, one block for each thread.  The calling thread processes
+ * the first block itself and then waits for the other blocks to finish.
+ * </p>
+ *
+ * <p>
+ * If a task is submitted from inside of a thread owned by the pool it will be processed on that thread
+ * without being split up.  This prevents nested concurrent algorithms from waiting on themselves.
+ * </p>
+ *
+ * <p>
+ * The number of threads can be changed at any time.  Calls which are already running finish using the old
+ * pool, which is shut down once the last of them returns.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class BoofConcurrency {
+
+	// maximum number of threads which work can be split across
+	private static int maxThreads = Runtime.getRuntime().availableProcessors();
+
+	// shared thread pool.  Lazily created.
+	private static Pool pool;
+
+	/**
+	 * Specifies the maximum number of threads work will be split across.  If set to one then all the
+	 * work is done by the calling thread.  The existing pool, if any, is shut down after the calls
+	 * currently using it have finished.
+	 *
+	 * @param maxThreads Maximum number of threads.  Must be &ge; 1.
+	 */
+	public static synchronized void setMaxThreads( int maxThreads ) {
+		if( maxThreads < 1 )
+			throw new IllegalArgumentException("There must be at least one thread");
+
+		BoofConcurrency.maxThreads = maxThreads;
+		if( pool != null ) {
+			pool.retired = true;
+			if( pool.users == 0 )
+				pool.executor.shutdown();
+			pool = null;
+		}
+	}
+
+	/**
+	 * Returns the maximum number of threads work will be split across.
+	 */
+	public static synchronized int getMaxThreads() {
+		return maxThreads;
+	}
+
+	/**
+	 * Splits the range of indexes into blocks which are processed concurrently.  Each block will have
+	 * at least one index.
+	 *
+	 * @see #loopBlocks(int, int, int, IntRangeTask)
+	 */
+	public static void loopBlocks( int start , int end , IntRangeTask task ) {
+		loopBlocks(start,end,1,task);
+	}
+
+	/**
+	 * Splits the range of indexes into contiguous blocks which are processed concurrently.  Returns after
+	 * all the blocks have been processed.  If a block throws an exception it is rethrown by this function.
+	 *
+	 * @param start First index, inclusive.
+	 * @param end Last index, exclusive.
+	 * @param minBlock Minimum number of indexes in a block.  Used to avoid overhead on small problems.
+	 * @param task Processes a single block.
+	 */
+	public static void loopBlocks( int start , int end , int minBlock , IntRangeTask task ) {
+		final int length = end-start;
+		if( length <= 0 )
+			return;
+
+		Pool pool;
+		int numBlocks;
+		synchronized (BoofConcurrency.class) {
+			numBlocks = Math.min(maxThreads,length/Math.max(1,minBlock));
+			if( numBlocks <= 1 || Thread.currentThread() instanceof WorkerThread ) {
+				pool = null;
+			} else {
+				pool = getPool();
+				pool.users++;
+			}
+		}
+
+		if( pool == null ) {
+			task.process(start,end);
+			return;
+		}
+
+		try {
+			process(pool.executor,start,length,numBlocks,task);
+		} finally {
+			synchronized (BoofConcurrency.class) {
+				pool.users--;
+				if( pool.retired && pool.users == 0 )
+					pool.executor.shutdown();
+			}
+		}
+	}
+
+	/**
+	 * Submits all but the first block to the executor, processes the first block, then waits for the others
+	 */
+	private static void process( ExecutorService executor , int start , int length , int numBlocks ,
+								 IntRangeTask task ) {
+		List<Future<?>> futures = new ArrayList<Future<?>>(numBlocks-1);
+		for( int block = 1; block < numBlocks; block++ ) {
+			int index0 = start + length*block/numBlocks;
+			int index1 = start + length*(block+1)/numBlocks;
+			futures.add( executor.submit(new Block(task,index0,index1)) );
+		}
+
+		// the first block is processed by the calling thread
+		RuntimeException failure = null;
+		try {
+			task.process(start,start + length/numBlocks);
+		} catch( RuntimeException e ) {
+			failure = e;
+		}
+
+		// wait for all the blocks to finish, even if one failed, so that the caller doesn't see modifications
+		// after it returns
+		for( int i = 0; i < futures.size(); i++ ) {
+			try {
+				futures.get(i).get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				if( failure == null )
+					failure = new RuntimeException(e);
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if( cause instanceof Error )
+					throw (Error)cause;
+				if( failure == null ) {
+					if( cause instanceof RuntimeException )
+						failure = (RuntimeException)cause;
+					else
+						failure = new RuntimeException(cause);
+				}
+			}
+		}
+
+		if( failure != null )
+			throw failure;
+	}
+
+	private static Pool getPool() {
+		if( pool == null ) {
+			pool = new Pool(Executors.newFixedThreadPool(maxThreads, new ThreadFactory() {
+				int count = 0;
+				@Override
+				public synchronized Thread newThread(Runnable r) {
+					return new WorkerThread(r,"BoofConcurrency-"+(count++));
+				}
+			}));
+		}
+		return pool;
+	}
+
+	/**
+	 * Executor along with the number of calls which are using it.  Fields are guarded by the class lock.
+	 */
+	private static class Pool {
+		ExecutorService executor;
+		// number of calls to loopBlocks which are submitting to or waiting on the executor
+		int users;
+		// true if the pool has been replaced and should be shut down once there are no users
+		boolean retired;
+
+		private Pool(ExecutorService executor) {
+			this.executor = executor;
+		}
+	}
+
+	/**
+	 * Wraps a block inside a Runnable so it can be submitted to the pool
+	 */
+	private static class Block implements Runnable {
+		IntRangeTask task;
+		int index0,index1;
+
+		private Block(IntRangeTask task, int index0, int index1) {
+			this.task = task;
+			this.index0 = index0;
+			this.index1 = index1;
+		}
+
+		@Override
+		public void run() {
+			task.process(index0,index1);
+		}
+	}
+
+	/**
+	 * Daemon thread owned by the pool.  Having its own type makes it easy to detect nested calls.
+	 */
+	private static class WorkerThread extends Thread {
+		private WorkerThread(Runnable target, String name) {
+			super(target,name);
+			setDaemon(true);
+		}
+	}
+}
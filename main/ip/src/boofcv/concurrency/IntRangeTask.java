@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.concurrency;
+
+/**
+ * Task which processes a contiguous block of indexes.  Used by {@link BoofConcurrency} to split up a loop
+ * across several threads.  Different blocks are processed at the same time, so implementations must not
+ * write to shared state outside of the block they are given.
+ *
+ * @author Peter Abeles
+ */
+public interface IntRangeTask {
+
+	/**
+	 * Processes all the indexes from index0 to index1-1.
+	 *
+	 * @param index0 First index in the block, inclusive.
+	 * @param index1 Last index in the block, exclusive.
+	 */
+	public void process( int index0 , int index1 );
+}
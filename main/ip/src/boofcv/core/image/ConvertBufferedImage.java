@@ -18,6 +18,8 @@
 
 package boofcv.core.image;
 
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeTask;
 import boofcv.struct.image.*;
 import sun.awt.image.ByteInterleavedRaster;
 import sun.awt.image.IntegerInterleavedRaster;
@@ -202,6 +204,35 @@ public class ConvertBufferedImage {
 		}
 	}
 
+	/**
+	 * Converts a buffered image into an image of the specified type.  If concurrent the image is split into
+	 * blocks of rows which are converted in parallel.  'dst' can be a sub-image.
+	 *
+	 * @param src Input BufferedImage which is to be converted
+	 * @param dst The image which it is being converted into.  Must be the same shape as src.
+	 * @param orderRgb If applicable, should it adjust the ordering of each color band to maintain color consistency
+	 * @param concurrent If true the conversion will be done using multiple threads
+	 */
+	public static <T extends ImageBase> void convertFrom(final BufferedImage src, final T dst ,
+														 final boolean orderRgb , boolean concurrent ) {
+		if (src.getWidth() != dst.getWidth() || src.getHeight() != dst.getHeight()) {
+			throw new IllegalArgumentException("image dimension are different");
+		}
+
+		if( !concurrent ) {
+			convertFrom(src,dst,orderRgb);
+			return;
+		}
+
+		final int width = src.getWidth();
+		BoofConcurrency.loopBlocks(0, src.getHeight(), new IntRangeTask() {
+			@Override
+			public void process(int y0, int y1) {
+				convertFrom(src.getSubimage(0, y0, width, y1 - y0), dst.subimage(0, y0, width, y1), orderRgb);
+			}
+		});
+	}
+
 	/**
 	 * Converts a buffered image into an image of the specified type.  In a 'dst' image is provided
 	 * it will be used for output, otherwise a new image will be created.
@@ -241,6 +272,9 @@ public class ConvertBufferedImage {
 				ConvertRaster.bufferedToGray((ByteInterleavedRaster) src.getRaster(), dst);
 			} else if (src.getRaster() instanceof IntegerInterleavedRaster) {
 				ConvertRaster.bufferedToGray((IntegerInterleavedRaster) src.getRaster(), dst);
+			} else if( isIndexed(src) ) {
+				ConvertRaster.bufferedToGray((ByteInterleavedRaster) src.getRaster(),
+						(IndexColorModel)src.getColorModel(), dst);
 			} else {
 				ConvertRaster.bufferedToGray(src, dst);
 			}
@@ -270,7 +304,7 @@ public class ConvertBufferedImage {
 		}
 
 		try {
-			if (src.getRaster() instanceof ShortInterleavedRaster ) {
+			if (src.getRaster() instanceof ShortInterleavedRaster && src.getRaster().getNumBands() == 1 ) {
 				ConvertRaster.bufferedToGray((ShortInterleavedRaster) src.getRaster(), dst);
 				return dst;
 			}
@@ -305,6 +339,9 @@ public class ConvertBufferedImage {
 				ConvertRaster.bufferedToGray((ByteInterleavedRaster) src.getRaster(), dst);
 			} else if (src.getRaster() instanceof IntegerInterleavedRaster) {
 				ConvertRaster.bufferedToGray((IntegerInterleavedRaster) src.getRaster(), dst);
+			} else if( isIndexed(src) ) {
+				ConvertRaster.bufferedToGray((ByteInterleavedRaster) src.getRaster(),
+						(IndexColorModel)src.getColorModel(), dst);
 			} else {
 				ConvertRaster.bufferedToGray(src, dst);
 			}
@@ -353,33 +390,45 @@ public class ConvertBufferedImage {
 			else if( dst.getNumBands() != numBands )
 				throw new IllegalArgumentException("Expected "+numBands+" bands in dst not "+dst.getNumBands());
 
+			// bands are written in the order they appear in the raster.  If requested, write through a view
+			// which maps the raster's bands onto the RGB ordered bands in 'dst'
+			MultiSpectral<T> out = orderRgb ? createOrderedView(dst, src) : dst;
+
 			if( type == ImageUInt8.class ) {
 				if (src.getRaster() instanceof ByteInterleavedRaster &&
 						src.getType() != BufferedImage.TYPE_BYTE_INDEXED ) {
 					if( src.getType() == BufferedImage.TYPE_BYTE_GRAY)  {
-						for( int i = 0; i < dst.getNumBands(); i++ )
-							ConvertRaster.bufferedToGray(src, ((MultiSpectral<ImageUInt8>) dst).getBand(i));
+						for( int i = 0; i < out.getNumBands(); i++ )
+							ConvertRaster.bufferedToGray((ByteInterleavedRaster) src.getRaster(),
+									((MultiSpectral<ImageUInt8>) out).getBand(i));
 					} else {
-						ConvertRaster.bufferedToMulti_U8((ByteInterleavedRaster) src.getRaster(), (MultiSpectral<ImageUInt8>)dst);
+						ConvertRaster.bufferedToMulti_U8((ByteInterleavedRaster) src.getRaster(), (MultiSpectral<ImageUInt8>)out);
 					}
 				} else if (src.getRaster() instanceof IntegerInterleavedRaster) {
-					ConvertRaster.bufferedToMulti_U8((IntegerInterleavedRaster) src.getRaster(), (MultiSpectral<ImageUInt8>)dst);
+					ConvertRaster.bufferedToMulti_U8((IntegerInterleavedRaster) src.getRaster(), (MultiSpectral<ImageUInt8>)out);
+				} else if( isIndexed(src) ) {
+					ConvertRaster.bufferedToMulti_U8((ByteInterleavedRaster) src.getRaster(),
+							(IndexColorModel)src.getColorModel(), (MultiSpectral<ImageUInt8>)out);
 				} else {
-					ConvertRaster.bufferedToMulti_U8(src, (MultiSpectral<ImageUInt8>)dst);
+					ConvertRaster.bufferedToMulti_U8(src, (MultiSpectral<ImageUInt8>)out);
 				}
 			} else if( type == ImageFloat32.class ) {
 				if (src.getRaster() instanceof ByteInterleavedRaster &&
 						src.getType() != BufferedImage.TYPE_BYTE_INDEXED  ) {
 					if( src.getType() == BufferedImage.TYPE_BYTE_GRAY)  {
-						for( int i = 0; i < dst.getNumBands(); i++ )
-							ConvertRaster.bufferedToGray(src,((MultiSpectral<ImageFloat32>)dst).getBand(i));
+						for( int i = 0; i < out.getNumBands(); i++ )
+							ConvertRaster.bufferedToGray((ByteInterleavedRaster) src.getRaster(),
+									((MultiSpectral<ImageFloat32>)out).getBand(i));
 					} else {
-						ConvertRaster.bufferedToMulti_F32((ByteInterleavedRaster) src.getRaster(), (MultiSpectral<ImageFloat32>)dst);
+						ConvertRaster.bufferedToMulti_F32((ByteInterleavedRaster) src.getRaster(), (MultiSpectral<ImageFloat32>)out);
 					}
 				} else if (src.getRaster() instanceof IntegerInterleavedRaster) {
-					ConvertRaster.bufferedToMulti_F32((IntegerInterleavedRaster) src.getRaster(), (MultiSpectral<ImageFloat32>)dst);
+					ConvertRaster.bufferedToMulti_F32((IntegerInterleavedRaster) src.getRaster(), (MultiSpectral<ImageFloat32>)out);
+				} else if( isIndexed(src) ) {
+					ConvertRaster.bufferedToMulti_F32((ByteInterleavedRaster) src.getRaster(),
+							(IndexColorModel)src.getColorModel(), (MultiSpectral<ImageFloat32>)out);
 				} else {
-					ConvertRaster.bufferedToMulti_F32(src, (MultiSpectral<ImageFloat32>)dst);
+					ConvertRaster.bufferedToMulti_F32(src, (MultiSpectral<ImageFloat32>)out);
 				}
 			} else {
 				throw new IllegalArgumentException("Band type not supported yet");
@@ -397,12 +446,47 @@ public class ConvertBufferedImage {
 			}
 		}
 
-		// if requested, ensure the ordering of the bands
-		if( orderRgb ) {
-			orderBandsIntoRGB(dst,src);
+		return dst;
+	}
+
+	/**
+	 * Creates a view of 'dst' whose bands are in the same order as the bands in the BufferedImage's raster.  Writing
+	 * the raster into the view places each color into its RGB ordered band in 'dst'.  The band instances in 'dst'
+	 * are not modified, which is required when 'dst' is a sub-image.
+	 */
+	private static <T extends ImageSingleBand>
+	MultiSpectral<T> createOrderedView( MultiSpectral<T> dst , BufferedImage src ) {
+		MultiSpectral<T> order = new MultiSpectral<T>(dst.type,dst.getNumBands());
+		MultiSpectral<T> view = new MultiSpectral<T>(dst.type,dst.getNumBands());
+		view.width = order.width = dst.width;
+		view.height = order.height = dst.height;
+		view.stride = order.stride = dst.stride;
+		view.startIndex = order.startIndex = dst.startIndex;
+		for( int i = 0; i < dst.getNumBands(); i++ ) {
+			order.bands[i] = dst.bands[i];
+			view.bands[i] = dst.bands[i];
 		}
+		orderBandsIntoRGB(order,src);
+
+		// band 'i' in RGB order is read from band 'j' in the raster
+		for( int i = 0; i < dst.getNumBands(); i++ ) {
+			for( int j = 0; j < dst.getNumBands(); j++ ) {
+				if( order.bands[i] == dst.bands[j] ) {
+					view.bands[j] = dst.bands[i];
+					break;
+				}
+			}
+		}
+		return view;
+	}
 
-		return dst;
+	/**
+	 * Returns true if the image is TYPE_BYTE_INDEXED and the raster can be read directly
+	 */
+	private static boolean isIndexed( BufferedImage src ) {
+		return src.getType() == BufferedImage.TYPE_BYTE_INDEXED &&
+				src.getRaster() instanceof ByteInterleavedRaster &&
+				src.getColorModel() instanceof IndexColorModel;
 	}
 
 	/**
@@ -0,0 +1,253 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.core.image;
+
+import boofcv.struct.image.*;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.ShortBuffer;
+
+/**
+ * <p>
+ * Functions for copying images to and from {@link ByteBuffer}, which is how frames are typically provided by
+ * camera drivers and shared memory.  The copy is done one row at a time using bulk operations, which is much
+ * faster than reading one pixel at a time.
+ * </p>
+ *
+ * <p>
+ * Buffers which are backed by an array can be wrapped by an array based image without copying, see
+ * {@link #wrapArrayUInt8} and {@link #wrapArrayInterleavedInt8}.  An 8-bit image in a direct or memory mapped buffer
+ * can be wrapped by {@link ImageUInt8Buffer} and processed without copying.
+ * </p>
+ *
+ * <p>
+ * The image's first pixel is at the buffer's current position and the stride is the number of bytes between
+ * the start of each row.  The buffer's position is not modified.  Multi-byte pixels are read using the buffer's
+ * byte order.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ConvertByteBuffer {
+
+	/**
+	 * Creates an image which shares the array backing the buffer.  Modifications to the image will be visible
+	 * in the buffer and the reverse.  Direct buffers have no array and must be copied instead.
+	 *
+	 * @param buffer Buffer containing the image.  Must be backed by an array.
+	 * @param width Image width.
+	 * @param height Image height.
+	 * @param stride Number of bytes between the start of each row.
+	 * @return Image which shares the buffer's data.
+	 */
+	public static ImageUInt8 wrapArrayUInt8( ByteBuffer buffer , int width , int height , int stride ) {
+		checkHasArray(buffer);
+		checkSize(buffer,width,height,stride,1);
+
+		ImageUInt8 ret = new ImageUInt8();
+		ret.data = buffer.array();
+		ret.startIndex = buffer.arrayOffset() + buffer.position();
+		ret.stride = stride;
+		ret.width = width;
+		ret.height = height;
+
+		return ret;
+	}
+
+	/**
+	 * Creates an image which shares the array backing the buffer.  Modifications to the image will be visible
+	 * in the buffer and the reverse.  Direct buffers have no array and must be copied instead.
+	 *
+	 * @param buffer Buffer containing the image.  Must be backed by an array.
+	 * @param width Image width.
+	 * @param height Image height.
+	 * @param numBands Number of bands in each pixel.
+	 * @param stride Number of bytes between the start of each row.
+	 * @return Image which shares the buffer's data.
+	 */
+	public static ImageInterleavedInt8 wrapArrayInterleavedInt8( ByteBuffer buffer , int width , int height ,
+																int numBands , int stride ) {
+		checkHasArray(buffer);
+		checkSize(buffer,width*numBands,height,stride,1);
+
+		ImageInterleavedInt8 ret = new ImageInterleavedInt8();
+		ret.data = buffer.array();
+		ret.startIndex = buffer.arrayOffset() + buffer.position();
+		ret.stride = stride;
+		ret.width = width;
+		ret.height = height;
+		ret.numBands = numBands;
+
+		return ret;
+	}
+
+	/**
+	 * Copies an 8-bit image out of the buffer.
+	 *
+	 * @param input Buffer containing the image.  Not modified.
+	 * @param stride Number of bytes between the start of each row.
+	 * @param output Output image.  Its shape specifies the shape of the image in the buffer.  Modified.
+	 */
+	public static void copy( ByteBuffer input , int stride , ImageUInt8 output ) {
+		checkSize(input,output.width,output.height,stride,1);
+		ByteBuffer src = input.duplicate();
+		int start = input.position();
+
+		for( int y = 0; y < output.height; y++ ) {
+			src.position(start + y*stride);
+			src.get(output.data,output.startIndex + y*output.stride,output.width);
+		}
+	}
+
+	/**
+	 * Copies an interleaved 8-bit image out of the buffer.
+	 *
+	 * @param input Buffer containing the image.  Not modified.
+	 * @param stride Number of bytes between the start of each row.
+	 * @param output Output image.  Its shape specifies the shape of the image in the buffer.  Modified.
+	 */
+	public static void copy( ByteBuffer input , int stride , ImageInterleavedInt8 output ) {
+		int length = output.width*output.numBands;
+		checkSize(input,length,output.height,stride,1);
+		ByteBuffer src = input.duplicate();
+		int start = input.position();
+
+		for( int y = 0; y < output.height; y++ ) {
+			src.position(start + y*stride);
+			src.get(output.data,output.startIndex + y*output.stride,length);
+		}
+	}
+
+	/**
+	 * Copies a 16-bit image out of the buffer.
+	 *
+	 * @param input Buffer containing the image.  Not modified.
+	 * @param stride Number of bytes between the start of each row.  Must be a multiple of 2.
+	 * @param output Output image.  Its shape specifies the shape of the image in the buffer.  Modified.
+	 */
+	public static void copy( ByteBuffer input , int stride , ImageInt16 output ) {
+		checkSize(input,output.width,output.height,stride,2);
+		ShortBuffer src = view(input).asShortBuffer();
+
+		for( int y = 0; y < output.height; y++ ) {
+			src.position(y*stride/2);
+			src.get(output.data,output.startIndex + y*output.stride,output.width);
+		}
+	}
+
+	/**
+	 * Copies a 32-bit floating point image out of the buffer.
+	 *
+	 * @param input Buffer containing the image.  Not modified.
+	 * @param stride Number of bytes between the start of each row.  Must be a multiple of 4.
+	 * @param output Output image.  Its shape specifies the shape of the image in the buffer.  Modified.
+	 */
+	public static void copy( ByteBuffer input , int stride , ImageFloat32 output ) {
+		checkSize(input,output.width,output.height,stride,4);
+		FloatBuffer src = view(input).asFloatBuffer();
+
+		for( int y = 0; y < output.height; y++ ) {
+			src.position(y*stride/4);
+			src.get(output.data,output.startIndex + y*output.stride,output.width);
+		}
+	}
+
+	/**
+	 * Copies an 8-bit image into the buffer.
+	 *
+	 * @param input Input image.  Not modified.
+	 * @param output Buffer the image is written into.  Modified.
+	 * @param stride Number of bytes between the start of each row.
+	 */
+	public static void copy( ImageUInt8 input , ByteBuffer output , int stride ) {
+		checkSize(output,input.width,input.height,stride,1);
+		ByteBuffer dst = output.duplicate();
+		int start = output.position();
+
+		for( int y = 0; y < input.height; y++ ) {
+			dst.position(start + y*stride);
+			dst.put(input.data,input.startIndex + y*input.stride,input.width);
+		}
+	}
+
+	/**
+	 * Copies a 16-bit image into the buffer.
+	 *
+	 * @param input Input image.  Not modified.
+	 * @param output Buffer the image is written into.  Modified.
+	 * @param stride Number of bytes between the start of each row.  Must be a multiple of 2.
+	 */
+	public static void copy( ImageInt16 input , ByteBuffer output , int stride ) {
+		checkSize(output,input.width,input.height,stride,2);
+		ShortBuffer dst = view(output).asShortBuffer();
+
+		for( int y = 0; y < input.height; y++ ) {
+			dst.position(y*stride/2);
+			dst.put(input.data,input.startIndex + y*input.stride,input.width);
+		}
+	}
+
+	/**
+	 * Copies a 32-bit floating point image into the buffer.
+	 *
+	 * @param input Input image.  Not modified.
+	 * @param output Buffer the image is written into.  Modified.
+	 * @param stride Number of bytes between the start of each row.  Must be a multiple of 4.
+	 */
+	public static void copy( ImageFloat32 input , ByteBuffer output , int stride ) {
+		checkSize(output,input.width,input.height,stride,4);
+		FloatBuffer dst = view(output).asFloatBuffer();
+
+		for( int y = 0; y < input.height; y++ ) {
+			dst.position(y*stride/4);
+			dst.put(input.data,input.startIndex + y*input.stride,input.width);
+		}
+	}
+
+	/**
+	 * Creates a buffer which starts at the input's position and has the same byte order.  The byte order of
+	 * a duplicate is not copied.
+	 */
+	private static ByteBuffer view( ByteBuffer buffer ) {
+		ByteOrder order = buffer.order();
+		return buffer.slice().order(order);
+	}
+
+	/**
+	 * Makes sure the buffer can be accessed as an array
+	 */
+	private static void checkHasArray( ByteBuffer buffer ) {
+		if( !buffer.hasArray() )
+			throw new IllegalArgumentException("The buffer isn't backed by an array.  Use copy() instead.");
+	}
+
+	/**
+	 * Makes sure the buffer is large enough to contain the image
+	 */
+	private static void checkSize( ByteBuffer buffer , int width , int height , int stride , int bytesPerPixel ) {
+		if( stride % bytesPerPixel != 0 )
+			throw new IllegalArgumentException("The stride must be a multiple of "+bytesPerPixel);
+		if( stride < width*bytesPerPixel )
+			throw new IllegalArgumentException("The stride is smaller than a row");
+		if( height > 0 && buffer.remaining() < (height-1)*stride + width*bytesPerPixel )
+			throw new IllegalArgumentException("The buffer is too small for the image");
+	}
+}
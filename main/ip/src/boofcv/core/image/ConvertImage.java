@@ -23,6 +23,8 @@ import boofcv.core.image.impl.ImplConvertImage;
 import boofcv.core.image.impl.ImplConvertMsToSingle;
 import boofcv.struct.image.*;
 
+import java.nio.ByteBuffer;
+
 /**
  * <p>
  * Functions for converting between different image types. Pixel values are converted by typecasting.
@@ -1366,4 +1368,86 @@ public class ConvertImage {
 		return output;
 	}
 
+	/**
+	 * <p>
+	 * Converts an {@link boofcv.struct.image.ImageUInt8Buffer} into a {@link boofcv.struct.image.ImageUInt8}.
+	 * Each row is copied out of the buffer with a single bulk operation.
+	 * </p>
+	 *
+	 * @param input Input image which is being converted. Not modified.
+	 * @param output (Optional) The output image.  If null a new image is created. Modified.
+	 * @return Converted image.
+	 */
+	public static ImageUInt8 convert(ImageUInt8Buffer input, ImageUInt8 output) {
+		if (output == null) {
+			output = new ImageUInt8(input.width, input.height);
+		} else {
+			InputSanityCheck.checkSameShape(input, output);
+		}
+
+		ByteBuffer src = input.data.duplicate();
+		for (int y = 0; y < input.height; y++) {
+			src.position(input.startIndex + y*input.stride);
+			src.get(output.data, output.startIndex + y*output.stride, input.width);
+		}
+
+		return output;
+	}
+
+	/**
+	 * <p>
+	 * Converts an {@link boofcv.struct.image.ImageUInt8} into a {@link boofcv.struct.image.ImageUInt8Buffer}.
+	 * Each row is copied into the buffer with a single bulk operation.
+	 * </p>
+	 *
+	 * @param input Input image which is being converted. Not modified.
+	 * @param output (Optional) The output image.  If null a new image is created. Modified.
+	 * @return Converted image.
+	 */
+	public static ImageUInt8Buffer convert(ImageUInt8 input, ImageUInt8Buffer output) {
+		if (output == null) {
+			output = new ImageUInt8Buffer(input.width, input.height);
+		} else {
+			InputSanityCheck.checkSameShape(input, output);
+		}
+
+		ByteBuffer dst = output.data.duplicate();
+		for (int y = 0; y < input.height; y++) {
+			dst.position(output.startIndex + y*output.stride);
+			dst.put(input.data, input.startIndex + y*input.stride, input.width);
+		}
+
+		return output;
+	}
+
+	/**
+	 * <p>
+	 * Converts an {@link boofcv.struct.image.ImageUInt8Buffer} into a {@link boofcv.struct.image.ImageFloat32}.
+	 * Pixels are read directly from the buffer, there is no intermediate copy.
+	 * </p>
+	 *
+	 * @param input Input image which is being converted. Not modified.
+	 * @param output (Optional) The output image.  If null a new image is created. Modified.
+	 * @return Converted image.
+	 */
+	public static ImageFloat32 convert(ImageUInt8Buffer input, ImageFloat32 output) {
+		if (output == null) {
+			output = new ImageFloat32(input.width, input.height);
+		} else {
+			InputSanityCheck.checkSameShape(input, output);
+		}
+
+		for (int y = 0; y < input.height; y++) {
+			int indexSrc = input.startIndex + y*input.stride;
+			int indexDst = output.startIndex + y*output.stride;
+			int end = indexSrc + input.width;
+
+			for (; indexSrc < end; indexSrc++) {
+				output.data[indexDst++] = input.data.get(indexSrc) & 0xFF;
+			}
+		}
+
+		return output;
+	}
+
 }
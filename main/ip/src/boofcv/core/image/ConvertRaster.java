@@ -27,6 +27,7 @@ import sun.awt.image.IntegerInterleavedRaster;
 import sun.awt.image.ShortInterleavedRaster;
 
 import java.awt.image.BufferedImage;
+import java.awt.image.IndexColorModel;
 import java.awt.image.WritableRaster;
 
 /**
@@ -37,6 +38,17 @@ import java.awt.image.WritableRaster;
  */
 public class ConvertRaster {
 
+	// Look up tables for the average of three 8-bit values.  The index is their sum.
+	private static final byte[] AVERAGE_U8 = new byte[3*255+1];
+	private static final float[] AVERAGE_F32 = new float[3*255+1];
+
+	static {
+		for( int i = 0; i < AVERAGE_U8.length; i++ ) {
+			AVERAGE_U8[i] = (byte)(i/3);
+			AVERAGE_F32[i] = i/3.0f;
+		}
+	}
+
 	/**
 	 * A faster convert that works directly with a specific raster
 	 */
@@ -63,9 +75,7 @@ public class ConvertRaster {
 					int g = srcData[indexSrc++] & 0xFF;
 					int b = srcData[indexSrc++] & 0xFF;
 
-					int ave = (r + g + b) / 3;
-
-					data[indexDst] = (byte) ave;
+					data[indexDst] = AVERAGE_U8[r + g + b];
 				}
 				indexSrc += srcStrideDiff;
 			}
@@ -91,9 +101,7 @@ public class ConvertRaster {
 					int g = srcData[indexSrc++] & 0xFF;
 					int b = srcData[indexSrc++] & 0xFF;
 
-					int ave = (r + g + b) / 3;
-
-					data[indexDst] = (byte) ave;
+					data[indexDst] = AVERAGE_U8[r + g + b];
 				}
 				indexSrc += srcStrideDiff;
 			}
@@ -156,9 +164,7 @@ public class ConvertRaster {
 					int g = srcData[indexSrc++] & 0xFF;
 					int b = srcData[indexSrc++] & 0xFF;
 
-					float ave = (r + g + b) / 3.0f;
-
-					data[indexDst] = ave;
+					data[indexDst] = AVERAGE_F32[r + g + b];
 				}
 				indexSrc += srcStrideDiff;
 			}
@@ -183,9 +189,7 @@ public class ConvertRaster {
 					int g = srcData[indexSrc++] & 0xFF;
 					int b = srcData[indexSrc++] & 0xFF;
 
-					float ave = (r + g + b) / 3.0f;
-
-					data[indexDst] = ave;
+					data[indexDst] = AVERAGE_F32[r + g + b];
 				}
 				indexSrc += srcStrideDiff;
 			}
@@ -341,9 +345,7 @@ public class ConvertRaster {
 				int g = (rgb >>> 8) & 0xFF;
 				int b = rgb & 0xFF;
 
-				int ave = (r + g + b) / 3;
-
-				data[indexDst++] = (byte) ave;
+				data[indexDst++] = AVERAGE_U8[r + g + b];
 			}
 			indexSrc += srcStrideDiff;
 		}
@@ -372,9 +374,7 @@ public class ConvertRaster {
 				int g = (rgb >>> 8) & 0xFF;
 				int b = rgb & 0xFF;
 
-				float ave = (r + g + b) / 3.0f;
-
-				data[indexDst++] = ave;
+				data[indexDst++] = AVERAGE_F32[r + g + b];
 			}
 			indexSrc += srcStrideDiff;
 		}
@@ -483,6 +483,138 @@ public class ConvertRaster {
 		}
 	}
 
+	/**
+	 * Converts an indexed color image using look up tables created from its color model.  Each pixel is
+	 * the average of the red, green, and blue values of its color.
+	 */
+	public static void bufferedToGray(ByteInterleavedRaster src, IndexColorModel model, ImageUInt8 dst) {
+		byte[] srcData = src.getDataStorage();
+		byte[] data = dst.data;
+
+		int rgb[] = new int[256];
+		model.getRGBs(rgb);
+		byte[] table = new byte[256];
+		for( int i = 0; i < 256; i++ ) {
+			int c = rgb[i];
+			table[i] = AVERAGE_U8[((c >>> 16) & 0xFF) + ((c >>> 8) & 0xFF) + (c & 0xFF)];
+		}
+
+		int srcStride = src.getScanlineStride();
+		int srcOffset = src.getDataOffset(0);
+		int srcPixelStride = src.getPixelStride();
+
+		for (int y = 0; y < dst.height; y++) {
+			int indexSrc = srcOffset + y*srcStride;
+			int indexDst = dst.startIndex + y*dst.stride;
+			for (int x = 0; x < dst.width; x++, indexSrc += srcPixelStride) {
+				data[indexDst++] = table[srcData[indexSrc] & 0xFF];
+			}
+		}
+	}
+
+	/**
+	 * Converts an indexed color image using look up tables created from its color model.  Each pixel is
+	 * the average of the red, green, and blue values of its color.
+	 */
+	public static void bufferedToGray(ByteInterleavedRaster src, IndexColorModel model, ImageFloat32 dst) {
+		byte[] srcData = src.getDataStorage();
+		float[] data = dst.data;
+
+		int rgb[] = new int[256];
+		model.getRGBs(rgb);
+		float[] table = new float[256];
+		for( int i = 0; i < 256; i++ ) {
+			int c = rgb[i];
+			table[i] = AVERAGE_F32[((c >>> 16) & 0xFF) + ((c >>> 8) & 0xFF) + (c & 0xFF)];
+		}
+
+		int srcStride = src.getScanlineStride();
+		int srcOffset = src.getDataOffset(0);
+		int srcPixelStride = src.getPixelStride();
+
+		for (int y = 0; y < dst.height; y++) {
+			int indexSrc = srcOffset + y*srcStride;
+			int indexDst = dst.startIndex + y*dst.stride;
+			for (int x = 0; x < dst.width; x++, indexSrc += srcPixelStride) {
+				data[indexDst++] = table[srcData[indexSrc] & 0xFF];
+			}
+		}
+	}
+
+	/**
+	 * Converts an indexed color image into a 3-band RGB image using look up tables created from its
+	 * color model.
+	 */
+	public static void bufferedToMulti_U8(ByteInterleavedRaster src, IndexColorModel model,
+										  MultiSpectral<ImageUInt8> dst) {
+		byte[] srcData = src.getDataStorage();
+
+		byte[] red = new byte[256];
+		byte[] green = new byte[256];
+		byte[] blue = new byte[256];
+		model.getReds(red);
+		model.getGreens(green);
+		model.getBlues(blue);
+
+		byte[] band1 = dst.getBand(0).data;
+		byte[] band2 = dst.getBand(1).data;
+		byte[] band3 = dst.getBand(2).data;
+
+		int srcStride = src.getScanlineStride();
+		int srcOffset = src.getDataOffset(0);
+		int srcPixelStride = src.getPixelStride();
+
+		for (int y = 0; y < dst.height; y++) {
+			int indexSrc = srcOffset + y*srcStride;
+			int indexDst = dst.startIndex + y*dst.stride;
+			for (int x = 0; x < dst.width; x++, indexSrc += srcPixelStride, indexDst++) {
+				int index = srcData[indexSrc] & 0xFF;
+				band1[indexDst] = red[index];
+				band2[indexDst] = green[index];
+				band3[indexDst] = blue[index];
+			}
+		}
+	}
+
+	/**
+	 * Converts an indexed color image into a 3-band RGB image using look up tables created from its
+	 * color model.
+	 */
+	public static void bufferedToMulti_F32(ByteInterleavedRaster src, IndexColorModel model,
+										   MultiSpectral<ImageFloat32> dst) {
+		byte[] srcData = src.getDataStorage();
+
+		int rgb[] = new int[256];
+		model.getRGBs(rgb);
+		float[] red = new float[256];
+		float[] green = new float[256];
+		float[] blue = new float[256];
+		for( int i = 0; i < 256; i++ ) {
+			red[i] = (rgb[i] >>> 16) & 0xFF;
+			green[i] = (rgb[i] >>> 8) & 0xFF;
+			blue[i] = rgb[i] & 0xFF;
+		}
+
+		float[] band1 = dst.getBand(0).data;
+		float[] band2 = dst.getBand(1).data;
+		float[] band3 = dst.getBand(2).data;
+
+		int srcStride = src.getScanlineStride();
+		int srcOffset = src.getDataOffset(0);
+		int srcPixelStride = src.getPixelStride();
+
+		for (int y = 0; y < dst.height; y++) {
+			int indexSrc = srcOffset + y*srcStride;
+			int indexDst = dst.startIndex + y*dst.stride;
+			for (int x = 0; x < dst.width; x++, indexSrc += srcPixelStride, indexDst++) {
+				int index = srcData[indexSrc] & 0xFF;
+				band1[indexDst] = red[index];
+				band2[indexDst] = green[index];
+				band3[indexDst] = blue[index];
+			}
+		}
+	}
+
 	/**
 	 * <p>
 	 * Converts a buffered image into an 8bit intensity image using the
@@ -620,9 +752,7 @@ public class ConvertRaster {
 					int g = (argb >>> 8) & 0xFF;
 					int b = argb & 0xFF;
 
-					float ave = (r + g + b) / 3.0f;
-
-					data[index++] = ave;
+					data[index++] = AVERAGE_F32[r + g + b];
 				}
 			}
 		}
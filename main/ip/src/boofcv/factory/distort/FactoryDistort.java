@@ -19,8 +19,12 @@
 package boofcv.factory.distort;
 
 import boofcv.alg.distort.ImageDistort;
+import boofcv.alg.distort.ImageDistortCache;
+import boofcv.alg.distort.ImageDistort_MT;
 import boofcv.alg.distort.impl.*;
 import boofcv.alg.interpolate.InterpolatePixel;
+import boofcv.alg.interpolate.TypeInterpolate;
+import boofcv.core.image.border.BorderType;
 import boofcv.core.image.border.ImageBorder;
 import boofcv.struct.image.*;
 
@@ -82,16 +86,58 @@ public class FactoryDistort {
 	ImageDistort<T> distortCached(InterpolatePixel<T> interp, ImageBorder border ,
 								  Class<T> imageType)
 	{
+		return distortCached(interp,border,imageType,false);
+	}
+
+	/**
+	 * Avoid recomputing the distortion map for the entire image each time
+	 * by caching the distortion for each pixel.  If bilinear interpolation is used then the source pixel
+	 * index and interpolation weights can also be precomputed, which is faster but requires more memory.
+	 *
+	 * @see ImageDistortCache#setPrecomputeBilinear(boolean)
+	 *
+	 * @param interp Which interpolation algorithm should be used.
+	 * @param border Specifies how requests to pixels outside the image should be handled.  If null then no change
+	 * @param imageType Type of image being processed.
+	 * @param precomputeBilinear If true and the interpolation is bilinear then it will be precomputed.
+	 * @return Image distort which caches the distortion.
+	 */
+	public static <T extends ImageSingleBand>
+	ImageDistortCache<T> distortCached(InterpolatePixel<T> interp, ImageBorder border ,
+									   Class<T> imageType , boolean precomputeBilinear )
+	{
+		ImageDistortCache ret;
 		if( imageType == ImageFloat32.class ) {
-			return (ImageDistort<T>)new ImplImageDistortCache_F32((InterpolatePixel<ImageFloat32>)interp,border);
+			ret = new ImplImageDistortCache_F32((InterpolatePixel<ImageFloat32>)interp,border);
 		} else if( ImageSInt32.class.isAssignableFrom(imageType) ) {
-			return (ImageDistort<T>)new ImplImageDistortCache_S32((InterpolatePixel<ImageSInt32>)interp,border);
+			ret = new ImplImageDistortCache_S32((InterpolatePixel<ImageSInt32>)interp,border);
 		} else if( ImageInt16.class.isAssignableFrom(imageType) ) {
-			return (ImageDistort<T>)new ImplImageDistortCache_I16((InterpolatePixel<ImageInt16>)interp,border);
+			ret = new ImplImageDistortCache_I16((InterpolatePixel<ImageInt16>)interp,border);
 		} else if( ImageInt8.class.isAssignableFrom(imageType) ) {
-			return (ImageDistort<T>)new ImplImageDistortCache_I8((InterpolatePixel<ImageInt8>)interp,border);
+			ret = new ImplImageDistortCache_I8((InterpolatePixel<ImageInt8>)interp,border);
 		} else {
 			throw new IllegalArgumentException("Image type not supported: "+imageType.getSimpleName());
 		}
+		ret.setPrecomputeBilinear(precomputeBilinear);
+		return ret;
+	}
+
+	/**
+	 * Concurrent version of {@link #distortCached}.  The output image is split into tiles which are processed
+	 * by different threads, each with its own interpolation and border instance.
+	 *
+	 * @see ImageDistort_MT
+	 *
+	 * @param interpType Which type of interpolation should be used.
+	 * @param borderType How pixels outside the source image are handled.  If null then no change
+	 * @param borderValue Value of pixels outside the image when borderType is {@link BorderType#VALUE}.
+	 * @param imageType Type of image being processed.
+	 * @return Concurrent image distort which caches the distortion.
+	 */
+	public static <T extends ImageSingleBand>
+	ImageDistort_MT<T> distortCached_MT(TypeInterpolate interpType, BorderType borderType, double borderValue,
+										Class<T> imageType)
+	{
+		return new ImageDistort_MT<T>(interpType,borderType,borderValue,imageType);
 	}
 }
@@ -19,6 +19,7 @@
 package boofcv.factory.filter.blur;
 
 import boofcv.abst.filter.blur.BlurStorageFilter;
+import boofcv.abst.filter.blur.GaussianBoxBlurFilter;
 import boofcv.abst.filter.blur.MedianImageFilter;
 import boofcv.struct.image.ImageSingleBand;
 
@@ -61,4 +62,17 @@ public class FactoryBlurFilter {
 	public static <T extends ImageSingleBand> BlurStorageFilter<T> gaussian( Class<T> type , double sigma , int radius ) {
 		return new BlurStorageFilter<T>("gaussian",type,sigma,radius);
 	}
+
+	/**
+	 * Creates a filter which approximates Gaussian blur using several box filter passes.  Its run time
+	 * does not depend on sigma.
+	 *
+	 * @param type Image type.
+	 * @param sigma Gaussian distribution's sigma.
+	 * @param numPasses Number of box filter passes.  Three is a good choice.
+	 * @return approximate Gaussian image filter.
+	 */
+	public static <T extends ImageSingleBand> GaussianBoxBlurFilter<T> gaussianBox( Class<T> type , double sigma , int numPasses ) {
+		return new GaussianBoxBlurFilter<T>(type,sigma,numPasses);
+	}
 }
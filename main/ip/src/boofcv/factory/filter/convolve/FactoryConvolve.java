@@ -21,7 +21,9 @@ package boofcv.factory.filter.convolve;
 import boofcv.abst.filter.convolve.ConvolveInterface;
 import boofcv.abst.filter.convolve.GenericConvolve;
 import boofcv.alg.filter.convolve.ConvolveImageNoBorder;
+import boofcv.alg.filter.convolve.ConvolveImageNoBorder_MT;
 import boofcv.alg.filter.convolve.ConvolveNormalized;
+import boofcv.alg.filter.convolve.ConvolveNormalized_MT;
 import boofcv.alg.filter.convolve.ConvolveWithBorder;
 import boofcv.core.image.border.BorderType;
 import boofcv.core.image.border.FactoryImageBorder;
@@ -51,6 +53,26 @@ public class FactoryConvolve {
 	public static <Input extends ImageSingleBand, Output extends ImageSingleBand>
 	ConvolveInterface<Input,Output>
 	convolve( Kernel1D kernel, Class<Input> inputType, Class<Output> outputType , BorderType border , boolean isHorizontal )
+	{
+		return convolve(kernel,inputType,outputType,border,isHorizontal,false);
+	}
+
+	/**
+	 * Creates a filter for convolving 1D kernels along the image.  Concurrent implementations are only
+	 * available for {@link BorderType#SKIP} and {@link BorderType#NORMALIZED}, other border types are
+	 * always processed by a single thread.
+	 *
+	 * @param kernel Convolution kernel.
+	 * @param inputType Specifies input image type.
+	 * @param outputType Specifies input image type.
+	 * @param border How the image border is handled.
+	 * @param concurrent If true the image will be processed using multiple threads.
+	 * @return FilterInterface which will perform the specified convolution.
+	 */
+	public static <Input extends ImageSingleBand, Output extends ImageSingleBand>
+	ConvolveInterface<Input,Output>
+	convolve( Kernel1D kernel, Class<Input> inputType, Class<Output> outputType , BorderType border ,
+			  boolean isHorizontal , boolean concurrent )
 	{
 		outputType = BoofTesting.convertToGenericType(outputType);
 
@@ -60,7 +82,7 @@ public class FactoryConvolve {
 		try {
 			switch( border ) {
 				case SKIP:
-					m = ConvolveImageNoBorder.class.
+					m = (concurrent ? ConvolveImageNoBorder_MT.class : ConvolveImageNoBorder.class).
 							getMethod(direction,kernel.getClass(),inputType,outputType,boolean.class);
 					break;
 
@@ -77,7 +99,7 @@ public class FactoryConvolve {
 					break;
 
 				case NORMALIZED:
-					m = ConvolveNormalized.class.
+					m = (concurrent ? ConvolveNormalized_MT.class : ConvolveNormalized.class).
 							getMethod(direction,kernel.getClass(),inputType,outputType);
 					break;
 
@@ -104,6 +126,26 @@ public class FactoryConvolve {
 	public static <Input extends ImageSingleBand, Output extends ImageSingleBand>
 	ConvolveInterface<Input,Output>
 	convolve( Kernel2D kernel, Class<Input> inputType, Class<Output> outputType , BorderType borderType)
+	{
+		return convolve(kernel,inputType,outputType,borderType,false);
+	}
+
+	/**
+	 * Creates a filter for convolving 2D kernels along the image axis.  Concurrent implementations are only
+	 * available for {@link BorderType#SKIP} and {@link BorderType#NORMALIZED}, other border types are
+	 * always processed by a single thread.
+	 *
+	 * @param kernel Convolution kernel.
+	 * @param inputType Specifies input image type.
+	 * @param outputType Specifies input image type.
+	 * @param borderType How the image border is handled.
+	 * @param concurrent If true the image will be processed using multiple threads.
+	 * @return FilterInterface which will perform the specified convolution.
+	 */
+	public static <Input extends ImageSingleBand, Output extends ImageSingleBand>
+	ConvolveInterface<Input,Output>
+	convolve( Kernel2D kernel, Class<Input> inputType, Class<Output> outputType , BorderType borderType,
+			  boolean concurrent )
 	{
 		outputType = BoofTesting.convertToGenericType(outputType);
 
@@ -112,7 +154,7 @@ public class FactoryConvolve {
 		try {
 			switch(borderType) {
 				case SKIP:
-					m = ConvolveImageNoBorder.class.
+					m = (concurrent ? ConvolveImageNoBorder_MT.class : ConvolveImageNoBorder.class).
 							getMethod("convolve",kernel.getClass(),inputType,outputType);
 					break;
 
@@ -129,7 +171,7 @@ public class FactoryConvolve {
 					break;
 
 				case NORMALIZED:
-					m = ConvolveNormalized.class.
+					m = (concurrent ? ConvolveNormalized_MT.class : ConvolveNormalized.class).
 							getMethod("convolve",kernel.getClass(),inputType,outputType);
 					break;
 
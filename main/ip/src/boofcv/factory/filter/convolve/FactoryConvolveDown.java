@@ -21,6 +21,7 @@ package boofcv.factory.filter.convolve;
 import boofcv.abst.filter.convolve.GenericConvolveDown;
 import boofcv.alg.filter.convolve.ConvolveDownNoBorder;
 import boofcv.alg.filter.convolve.ConvolveDownNormalized;
+import boofcv.alg.filter.convolve.ConvolveDownNormalized_MT;
 import boofcv.core.image.border.BorderType;
 import boofcv.struct.convolve.Kernel1D;
 import boofcv.struct.convolve.Kernel2D;
@@ -51,6 +52,25 @@ public class FactoryConvolveDown {
 	GenericConvolveDown<Input,Output>
 	convolve( Kernel1D kernel, Class<Input> inputType, Class<Output> outputType , BorderType border ,
 			  boolean isHorizontal , int skip )
+	{
+		return convolve(kernel,inputType,outputType,border,isHorizontal,skip,false);
+	}
+
+	/**
+	 * Creates a filter for convolving 1D kernels along the image.  A concurrent implementation is only
+	 * available for {@link BorderType#NORMALIZED}, other border types are always processed by a single thread.
+	 *
+	 * @param kernel Convolution kernel.
+	 * @param inputType Specifies input image type.
+	 * @param outputType Specifies input image type.
+	 * @param border How the image border is handled.
+	 * @param concurrent If true the image will be processed using multiple threads.
+	 * @return FilterInterface which will perform the specified convolution.
+	 */
+	public static <Input extends ImageSingleBand, Output extends ImageSingleBand>
+	GenericConvolveDown<Input,Output>
+	convolve( Kernel1D kernel, Class<Input> inputType, Class<Output> outputType , BorderType border ,
+			  boolean isHorizontal , int skip , boolean concurrent )
 	{
 		outputType = BoofTesting.convertToGenericType(outputType);
 
@@ -67,7 +87,7 @@ public class FactoryConvolveDown {
 					throw new IllegalArgumentException("Extended border is currently not supported.");
 
 				case NORMALIZED:
-					m = ConvolveDownNormalized.class.
+					m = (concurrent ? ConvolveDownNormalized_MT.class : ConvolveDownNormalized.class).
 							getMethod(direction,kernel.getClass(),inputType,outputType,int.class);
 					break;
 
@@ -49,12 +49,34 @@ public class FactoryPyramid {
 	public static <T extends ImageSingleBand>
 	PyramidDiscrete<T> discreteGaussian( int[] scaleFactors , double sigma , int radius ,
 										 boolean saveOriginalReference, Class<T> imageType )
+	{
+		return discreteGaussian(scaleFactors,sigma,radius,saveOriginalReference,imageType,false);
+	}
+
+	/**
+	 * Creates an updater for discrete pyramids where a Gaussian is convolved across the input
+	 * prior to sub-sampling.  Optionally the blur and sub-sampling inside each layer is split across
+	 * multiple threads.
+	 *
+	 * @param imageType Type of input image.
+	 * @param sigma Gaussian sigma.  If < 0 then a sigma is selected using the radius.
+	 * @param radius Radius of the Gaussian kernel.  If < 0 then the radius is selected using sigma.
+	 * @param concurrent If true each layer will be computed using multiple threads.
+	 * @return PyramidUpdaterDiscrete
+	 */
+	public static <T extends ImageSingleBand>
+	PyramidDiscrete<T> discreteGaussian( int[] scaleFactors , double sigma , int radius ,
+										 boolean saveOriginalReference, Class<T> imageType ,
+										 boolean concurrent )
 	{
 		Class<Kernel1D> kernelType = FactoryKernel.getKernelType(imageType,1);
 
 		Kernel1D kernel = FactoryKernelGaussian.gaussian(kernelType,sigma,radius);
 
-		return new PyramidDiscreteSampleBlur<T>(kernel,sigma,imageType,saveOriginalReference,scaleFactors);
+		PyramidDiscreteSampleBlur<T> pyramid =
+				new PyramidDiscreteSampleBlur<T>(kernel,sigma,imageType,saveOriginalReference,scaleFactors);
+		pyramid.setConcurrent(concurrent);
+		return pyramid;
 	}
 
 	/**
@@ -67,10 +89,28 @@ public class FactoryPyramid {
 	 */
 	public static <T extends ImageSingleBand>
 	PyramidFloat<T> floatGaussian( double scaleFactors[], double []sigmas , Class<T> imageType ) {
+		return floatGaussian(scaleFactors,sigmas,imageType,false);
+	}
+
+	/**
+	 * Creates an updater for float pyramids where each layer is blurred using a Gaussian with the specified
+	 * sigma.  Bilinear interpolation is used when sub-sampling.  Optionally the blur inside each layer is
+	 * split across multiple threads.
+	 *
+	 * @param imageType Type of image in the pyramid.
+	 * @param sigmas Gaussian blur magnitude for each layer.
+	 * @param concurrent If true each layer will be computed using multiple threads.
+	 * @return PyramidUpdaterFloat
+	 */
+	public static <T extends ImageSingleBand>
+	PyramidFloat<T> floatGaussian( double scaleFactors[], double []sigmas , Class<T> imageType ,
+								   boolean concurrent ) {
 
 		InterpolatePixel<T> interp = FactoryInterpolation.bilinearPixel(imageType);
 
-		return new PyramidFloatGaussianScale<T>(interp,scaleFactors,sigmas,imageType);
+		PyramidFloatGaussianScale<T> pyramid = new PyramidFloatGaussianScale<T>(interp,scaleFactors,sigmas,imageType);
+		pyramid.setConcurrent(concurrent);
+		return pyramid;
 	}
 
 	/**
@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.struct.image;
+
+import georegression.struct.point.Point2D_I32;
+
+/**
+ * <p>
+ * Binary image where each pixel is stored as a single bit, 64 pixels to each long.  Uses one eighth the memory of
+ * a binary {@link ImageUInt8} and allows binary operations to process 64 pixels at once, see
+ * {@link boofcv.alg.filter.binary.BinaryPackedOps}.
+ * </p>
+ *
+ * <p>
+ * Each row starts at a new word.  Pixel (x,y) is stored in word startIndex + y*stride + x/64, at bit x%64, where
+ * bit zero is the least significant bit.  The bits after the last pixel in a row are not part of the image and
+ * their value is undefined.  Unlike other images, {@link #startIndex} and {@link #stride} are measured in words
+ * and not pixels.  A sub-image must start at a column which is a multiple of 64.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ImageBinaryPacked extends ImageBase<ImageBinaryPacked> {
+
+	/**
+	 * Number of pixels stored in each word
+	 */
+	public static final int BITS = 64;
+
+	/**
+	 * Packed pixel values
+	 */
+	public long data[];
+
+	/**
+	 * True if this image was created by {@link #subimage}.  The shape alone can't be used, a sub-image at the
+	 * origin can have the same stride as a full image.
+	 */
+	protected boolean subImage = false;
+
+	/**
+	 * Creates a new binary image with all pixels set to zero.
+	 *
+	 * @param width  number of columns in the image.
+	 * @param height number of rows in the image.
+	 */
+	public ImageBinaryPacked(int width, int height) {
+		this.width = width;
+		this.height = height;
+		this.stride = wordsPerRow(width);
+		this.data = new long[stride*height];
+	}
+
+	public ImageBinaryPacked() {
+	}
+
+	/**
+	 * Returns the number of words needed to store a row with the specified number of pixels
+	 */
+	public static int wordsPerRow( int width ) {
+		return (width+BITS-1)/BITS;
+	}
+
+	/**
+	 * Returns the value of the specified pixel.
+	 *
+	 * @param x pixel coordinate.
+	 * @param y pixel coordinate.
+	 * @return 1 if the pixel is true or 0 if false.
+	 */
+	public int get(int x, int y) {
+		if (!isInBounds(x, y))
+			throw new ImageAccessException("Requested pixel is out of bounds: "+x+" "+y);
+
+		return unsafe_get(x,y);
+	}
+
+	public int unsafe_get(int x, int y) {
+		return (int)(data[getIndex(x,y)] >>> x) & 1;
+	}
+
+	/**
+	 * Sets the value of the specified pixel.
+	 *
+	 * @param x pixel coordinate.
+	 * @param y pixel coordinate.
+	 * @param value Zero for false and anything else for true.
+	 */
+	public void set(int x, int y, int value) {
+		if (!isInBounds(x, y))
+			throw new ImageAccessException("Requested pixel is out of bounds: "+x+" "+y);
+
+		unsafe_set(x,y,value);
+	}
+
+	public void unsafe_set(int x, int y, int value) {
+		int index = getIndex(x,y);
+		if( value != 0 )
+			data[index] |= 1L << x;
+		else
+			data[index] &= ~(1L << x);
+	}
+
+	/**
+	 * Sets every pixel in the image to the specified value
+	 *
+	 * @param value Zero for false and anything else for true.
+	 */
+	public void fill( int value ) {
+		if( width == 0 )
+			return;
+		long word = value != 0 ? ~0L : 0L;
+		long lastMask = lastWordMask(width);
+		int N = wordsPerRow(width);
+
+		for( int y = 0; y < height; y++ ) {
+			int index = startIndex + y*stride;
+			int end = index + N - 1;
+			for( ; index < end; index++ )
+				data[index] = word;
+			data[end] = (data[end] & ~lastMask) | (word & lastMask);
+		}
+	}
+
+	/**
+	 * Returns a mask for the bits in the last word of a row which are inside the image.
+	 */
+	public static long lastWordMask( int width ) {
+		int remainder = width % BITS;
+		return remainder == 0 ? ~0L : (1L << remainder) - 1;
+	}
+
+	/**
+	 * Index of the word which contains the specified pixel
+	 */
+	@Override
+	public int getIndex(int x, int y) {
+		return startIndex + y*stride + x/BITS;
+	}
+
+	@Override
+	public Point2D_I32 indexToPixel( int index ) {
+		index -= startIndex;
+		return new Point2D_I32( (index % stride)*BITS , index / stride );
+	}
+
+	@Override
+	public boolean isSubimage() {
+		return subImage || startIndex != 0 || stride != wordsPerRow(width);
+	}
+
+	/**
+	 * Creates a sub-image which shares the same data.  The left side must be a multiple of 64.
+	 *
+	 * @param x0 x-coordinate of top-left corner of the sub-image, inclusive.  Must be a multiple of 64.
+	 * @param y0 y-coordinate of top-left corner of the sub-image, inclusive.
+	 * @param x1 x-coordinate of bottom-right corner of the sub-image, exclusive.
+	 * @param y1 y-coordinate of bottom-right corner of the sub-image, exclusive.
+	 * @return A sub-image of 'this' image.
+	 */
+	@Override
+	public ImageBinaryPacked subimage(int x0, int y0, int x1, int y1) {
+		if (x0 < 0 || y0 < 0)
+			throw new IllegalArgumentException("x0 or y0 is less than zero");
+		if (x1 < x0 || y1 < y0)
+			throw new IllegalArgumentException("x1 or y1 is less than x0 or y0 respectively");
+		if (x1 > width || y1 > height)
+			throw new IllegalArgumentException("x1 or y1 is more than the width or height respectively");
+		if( x0 % BITS != 0 )
+			throw new IllegalArgumentException("x0 must be a multiple of "+BITS);
+
+		ImageBinaryPacked ret = new ImageBinaryPacked();
+		ret.data = data;
+		ret.stride = stride;
+		ret.width = x1 - x0;
+		ret.height = y1 - y0;
+		ret.startIndex = startIndex + y0*stride + x0/BITS;
+		ret.subImage = true;
+
+		return ret;
+	}
+
+	@Override
+	public void reshape(int width, int height) {
+		if( isSubimage() )
+			throw new IllegalArgumentException("Can't reshape sub-images");
+
+		int stride = wordsPerRow(width);
+		if( data.length < stride*height )
+			data = new long[stride*height];
+
+		this.stride = stride;
+		this.width = width;
+		this.height = height;
+	}
+
+	@Override
+	public void setTo(ImageBinaryPacked orig) {
+		if (orig.width != width || orig.height != height)
+			throw new IllegalArgumentException("The width and/or height of 'orig' is not the same as this class");
+
+		if (!orig.isSubimage() && !isSubimage()) {
+			System.arraycopy(orig.data, 0, data, 0, stride*height);
+		} else if( width > 0 ) {
+			int N = wordsPerRow(width);
+			long lastMask = lastWordMask(width);
+			for (int y = 0; y < height; y++) {
+				int indexSrc = orig.startIndex + y*orig.stride;
+				int indexDst = startIndex + y*stride;
+				System.arraycopy(orig.data, indexSrc, data, indexDst, N-1);
+				int last = N-1;
+				data[indexDst+last] = (data[indexDst+last] & ~lastMask) | (orig.data[indexSrc+last] & lastMask);
+			}
+		}
+	}
+
+	@Override
+	public ImageBinaryPacked clone() {
+		ImageBinaryPacked ret = new ImageBinaryPacked(width,height);
+		ret.setTo(this);
+		return ret;
+	}
+
+	@Override
+	public ImageBinaryPacked _createNew(int imgWidth, int imgHeight) {
+		if( imgWidth == -1 || imgHeight == -1 )
+			return new ImageBinaryPacked();
+		return new ImageBinaryPacked(imgWidth,imgHeight);
+	}
+}
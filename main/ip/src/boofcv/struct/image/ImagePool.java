@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.struct.image;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * Pool of images which are used to store temporary results.  Instead of declaring a new image each time, an
+ * algorithm borrows an image of the desired type and shape and returns it when it is done.  Once the pool contains
+ * enough images, no more memory is allocated.  If no image with the same shape is available, then an image
+ * whose array is large enough is reshaped.
+ * </p>
+ *
+ * <p>
+ * Memory is held by the pool until {@link #clear()} is called or, for the pool returned by {@link #local()}, the
+ * thread exits.  To bound the memory, at most {@link #getMaxAvailable()} images are kept after being released and
+ * any additional images are discarded.
+ * </p>
+ *
+ * <p>
+ * The pool is not thread safe.  Each thread has its own pool which is accessed using {@link #local()}.
+ * Counters are provided for the number of allocations and the number of borrowed images.  They make it easy to
+ * check that an application doesn't allocate memory after the first few frames.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings({"unchecked"})
+public class ImagePool {
+
+	// one pool for each thread
+	private static final ThreadLocal<ImagePool> pools = new ThreadLocal<ImagePool>() {
+		@Override
+		protected ImagePool initialValue() {
+			return new ImagePool();
+		}
+	};
+
+	// images which can be borrowed, by image type
+	private Map<Class,List<ImageSingleBand>> available = new HashMap<Class,List<ImageSingleBand>>();
+	// images which have been borrowed and not returned
+	private IdentityHashMap<ImageSingleBand,Boolean> borrowed = new IdentityHashMap<ImageSingleBand,Boolean>();
+
+	// maximum number of released images which are kept
+	private int maxAvailable = 10;
+
+	// number of times a new array was allocated
+	private int allocationCount;
+	// largest number of images borrowed at the same time
+	private int peakBorrowed;
+	// number of bytes in all the arrays owned by the pool
+	private long totalBytes;
+
+	/**
+	 * Returns the pool for the current thread.
+	 */
+	public static ImagePool local() {
+		return pools.get();
+	}
+
+	/**
+	 * Borrows an image with the specified type and shape.  Its contents are not defined.  It must be returned
+	 * using {@link #release} once it is no longer needed.
+	 *
+	 * @param type Type of image.
+	 * @param width Image width.
+	 * @param height Image height.
+	 * @return Image which is not being used by anything else.
+	 */
+	public <T extends ImageSingleBand> T borrow( Class<T> type , int width , int height ) {
+		List<ImageSingleBand> list = available.get(type);
+
+		T image;
+		int best = list == null ? -1 : select(list,width,height);
+		if( best == -1 ) {
+			image = FactoryImage.create(type,width,height);
+			allocationCount++;
+			totalBytes += bytes(image);
+		} else {
+			image = (T)list.get(best);
+			list.set(best,list.get(list.size()-1));
+			list.remove(list.size()-1);
+
+			long before = bytes(image);
+			image.reshape(width,height);
+			long after = bytes(image);
+			if( before != after ) {
+				allocationCount++;
+				totalBytes += after - before;
+			}
+		}
+
+		borrowed.put(image,Boolean.TRUE);
+		peakBorrowed = Math.max(peakBorrowed,borrowed.size());
+
+		return image;
+	}
+
+	/**
+	 * Selects which available image to use.  An image with the same shape is preferred, then the smallest image
+	 * which is large enough, and then the largest image.
+	 *
+	 * @return index of the image or -1 if the list is empty
+	 */
+	private static int select( List<ImageSingleBand> list , int width , int height ) {
+		int N = width*height;
+		int bestFits = -1;
+		int bestFitsLength = Integer.MAX_VALUE;
+		int largest = -1;
+		int largestLength = -1;
+
+		for( int i = 0; i < list.size(); i++ ) {
+			ImageSingleBand image = list.get(i);
+			if( image.width == width && image.height == height )
+				return i;
+
+			int length = Array.getLength(image._getData());
+			if( length >= N && length < bestFitsLength ) {
+				bestFits = i;
+				bestFitsLength = length;
+			}
+			if( length > largestLength ) {
+				largest = i;
+				largestLength = length;
+			}
+		}
+
+		return bestFits != -1 ? bestFits : largest;
+	}
+
+	/**
+	 * Returns a borrowed image to the pool.  The image must not be used after it has been returned.
+	 *
+	 * @param image Image which was borrowed from this pool.
+	 */
+	public void release( ImageSingleBand image ) {
+		if( borrowed.remove(image) == null )
+			throw new IllegalArgumentException("The image was not borrowed from this pool");
+
+		if( getAvailableCount() >= maxAvailable ) {
+			totalBytes -= bytes(image);
+			return;
+		}
+
+		List<ImageSingleBand> list = available.get(image.getClass());
+		if( list == null ) {
+			list = new ArrayList<ImageSingleBand>();
+			available.put(image.getClass(),list);
+		}
+		list.add(image);
+	}
+
+	/**
+	 * Returns true if the image was borrowed from this pool and has not been returned yet.
+	 */
+	public boolean isBorrowed( ImageSingleBand image ) {
+		return borrowed.containsKey(image);
+	}
+
+	/**
+	 * Discards all the images which are not borrowed.  Borrowed images can still be returned.
+	 */
+	public void clear() {
+		for( List<ImageSingleBand> list : available.values() ) {
+			for( ImageSingleBand image : list )
+				totalBytes -= bytes(image);
+			list.clear();
+		}
+	}
+
+	/**
+	 * Sets the allocation count and peak number of borrowed images to zero.
+	 */
+	public void resetCounters() {
+		allocationCount = 0;
+		peakBorrowed = borrowed.size();
+	}
+
+	/**
+	 * Number of times an image's array has been allocated since the counters were reset.  If an application
+	 * reaches a steady state this will stop increasing.
+	 */
+	public int getAllocationCount() {
+		return allocationCount;
+	}
+
+	/**
+	 * Number of images which are currently borrowed.
+	 */
+	public int getBorrowedCount() {
+		return borrowed.size();
+	}
+
+	/**
+	 * Largest number of images which were borrowed at the same time since the counters were reset.
+	 */
+	public int getPeakBorrowedCount() {
+		return peakBorrowed;
+	}
+
+	/**
+	 * Number of images which are available to be borrowed.
+	 */
+	public int getAvailableCount() {
+		int total = 0;
+		for( List<ImageSingleBand> list : available.values() )
+			total += list.size();
+		return total;
+	}
+
+	/**
+	 * Maximum number of released images which are kept by the pool.  Additional images are discarded.
+	 */
+	public int getMaxAvailable() {
+		return maxAvailable;
+	}
+
+	/**
+	 * Changes the maximum number of released images which are kept.  Images beyond the limit are discarded
+	 * when they are released.  Default is 10.
+	 */
+	public void setMaxAvailable(int maxAvailable) {
+		this.maxAvailable = maxAvailable;
+	}
+
+	/**
+	 * Number of bytes used by the arrays of all the images owned by the pool, both available and borrowed.
+	 */
+	public long getTotalBytes() {
+		return totalBytes;
+	}
+
+	private static long bytes( ImageSingleBand image ) {
+		return (long)Array.getLength(image._getData())*image.getTypeInfo().getNumBits()/8;
+	}
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.struct.image;
+
+import java.nio.ByteBuffer;
+
+/**
+ * <p>
+ * Image with unsigned 8-bit pixels which are stored in a {@link ByteBuffer} instead of an array.  The buffer can
+ * be direct or memory mapped, which is how frames are provided by many camera drivers and by shared memory.  Wrapping
+ * such a buffer lets the frame be processed without first copying it into an {@link ImageUInt8}.
+ * </p>
+ *
+ * <p>
+ * Pixel (x,y) is stored at absolute index startIndex + y*stride + x in the buffer.  Pixels are accessed with
+ * absolute get and put, so the buffer's position and limit are never modified.  Operations which support this image
+ * type are in {@link boofcv.core.image.ConvertImage}, {@link boofcv.alg.misc.PixelMath}, and
+ * {@link boofcv.alg.misc.ImageMiscOps}.  To use other operations, such as blur or image derivatives, convert it
+ * into an {@link ImageUInt8} or {@link ImageFloat32} first.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ImageUInt8Buffer extends ImageBase<ImageUInt8Buffer> {
+
+	/**
+	 * Buffer which contains the pixels
+	 */
+	public ByteBuffer data;
+
+	/**
+	 * Creates a new image which is stored in a direct buffer.
+	 *
+	 * @param width  number of columns in the image.
+	 * @param height number of rows in the image.
+	 */
+	public ImageUInt8Buffer(int width, int height) {
+		this.data = ByteBuffer.allocateDirect(width*height);
+		this.width = width;
+		this.height = height;
+		this.stride = width;
+	}
+
+	/**
+	 * Creates an image which wraps the buffer.  The first pixel is at the buffer's current position.  Modifications
+	 * to the image will be visible in the buffer and the reverse.
+	 *
+	 * @param data Buffer containing the image.
+	 * @param width  number of columns in the image.
+	 * @param height number of rows in the image.
+	 * @param stride Number of bytes between the start of each row.
+	 */
+	public ImageUInt8Buffer(ByteBuffer data, int width, int height, int stride) {
+		if( stride < width )
+			throw new IllegalArgumentException("The stride is smaller than a row");
+		if( height > 0 && data.limit() - data.position() < (height-1)*stride + width )
+			throw new IllegalArgumentException("The buffer is too small for the image");
+
+		this.data = data;
+		this.startIndex = data.position();
+		this.width = width;
+		this.height = height;
+		this.stride = stride;
+	}
+
+	public ImageUInt8Buffer() {
+	}
+
+	/**
+	 * Returns the value of the specified pixel.
+	 *
+	 * @param x pixel coordinate.
+	 * @param y pixel coordinate.
+	 * @return Pixel intensity value.
+	 */
+	public int get(int x, int y) {
+		if (!isInBounds(x, y))
+			throw new ImageAccessException("Requested pixel is out of bounds: "+x+" "+y);
+
+		return unsafe_get(x,y);
+	}
+
+	public int unsafe_get(int x, int y) {
+		return data.get(getIndex(x, y)) & 0xFF;
+	}
+
+	/**
+	 * Sets the value of the specified pixel.
+	 *
+	 * @param x	 pixel coordinate.
+	 * @param y	 pixel coordinate.
+	 * @param value The pixel's new value.
+	 */
+	public void set(int x, int y, int value) {
+		if (!isInBounds(x, y))
+			throw new ImageAccessException("Requested pixel is out of bounds: "+x+" "+y);
+
+		unsafe_set(x,y,value);
+	}
+
+	public void unsafe_set(int x, int y, int value) {
+		data.put(getIndex(x, y),(byte)value);
+	}
+
+	/**
+	 * Creates a sub-image which shares the same buffer.
+	 *
+	 * @param x0 x-coordinate of top-left corner of the sub-image, inclusive.
+	 * @param y0 y-coordinate of top-left corner of the sub-image, inclusive.
+	 * @param x1 x-coordinate of bottom-right corner of the sub-image, exclusive.
+	 * @param y1 y-coordinate of bottom-right corner of the sub-image, exclusive.
+	 * @return A sub-image of 'this' image.
+	 */
+	@Override
+	public ImageUInt8Buffer subimage(int x0, int y0, int x1, int y1) {
+		if (x0 < 0 || y0 < 0)
+			throw new IllegalArgumentException("x0 or y0 is less than zero");
+		if (x1 < x0 || y1 < y0)
+			throw new IllegalArgumentException("x1 or y1 is less than x0 or y0 respectively");
+		if (x1 > width || y1 > height)
+			throw new IllegalArgumentException("x1 or y1 is more than the width or height respectively");
+
+		ImageUInt8Buffer ret = new ImageUInt8Buffer();
+		ret.data = data;
+		ret.stride = Math.max(width, stride);
+		ret.width = x1 - x0;
+		ret.height = y1 - y0;
+		ret.startIndex = startIndex + y0 * stride + x0;
+
+		return ret;
+	}
+
+	/**
+	 * Changes the image's width and height.  If the buffer is too small a new direct buffer is declared.
+	 *
+	 * @param width The new width.
+	 * @param height The new height.
+	 */
+	@Override
+	public void reshape(int width, int height) {
+		if( isSubimage() )
+			throw new IllegalArgumentException("Can't reshape sub-images");
+
+		if( data.capacity() < width*height )
+			data = ByteBuffer.allocateDirect(width*height);
+
+		this.stride = width;
+		this.width = width;
+		this.height = height;
+	}
+
+	@Override
+	public void setTo(ImageUInt8Buffer orig) {
+		if (orig.width != width || orig.height != height)
+			throw new IllegalArgumentException("The width and/or height of 'orig' is not the same as this class");
+
+		// duplicates are used so that the position and limit of the original buffers are not modified
+		ByteBuffer src = orig.data.duplicate();
+		ByteBuffer dst = data.duplicate();
+
+		for (int y = 0; y < height; y++) {
+			int indexSrc = orig.startIndex + y*orig.stride;
+			src.limit(indexSrc + width);
+			src.position(indexSrc);
+			dst.position(startIndex + y*stride);
+			dst.put(src);
+		}
+	}
+
+	@Override
+	public ImageUInt8Buffer clone() {
+		ImageUInt8Buffer ret = new ImageUInt8Buffer(width,height);
+		ret.setTo(this);
+		return ret;
+	}
+
+	@Override
+	public ImageUInt8Buffer _createNew(int imgWidth, int imgHeight) {
+		if( imgWidth == -1 || imgHeight == -1 )
+			return new ImageUInt8Buffer();
+		return new ImageUInt8Buffer(imgWidth,imgHeight);
+	}
+}
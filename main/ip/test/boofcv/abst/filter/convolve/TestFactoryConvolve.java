@@ -34,6 +34,8 @@ import boofcv.struct.convolve.Kernel2D_F32;
 import boofcv.struct.convolve.Kernel2D_I32;
 import boofcv.struct.image.*;
 import boofcv.testing.BoofTesting;
+import boofcv.testing.MaxThreadsRule;
+import org.junit.Rule;
 import org.junit.Test;
 
 import java.util.Random;
@@ -45,6 +47,9 @@ import java.util.Random;
 @SuppressWarnings({"unchecked"})
 public class TestFactoryConvolve {
 
+	@Rule
+	public MaxThreadsRule threads = new MaxThreadsRule(3);
+
 	int radius = 2;
 	Random rand = new Random(2342);
 
@@ -180,4 +185,30 @@ public class TestFactoryConvolve {
 		ConvolveNormalized.convolve(kernel,input,expected8);
 		BoofTesting.assertEquals(expected8,found8,0);
 	}
+
+	@Test
+	public void concurrent() {
+		Kernel1D_F32 kernel1 = FactoryKernel.random1D_F32(radius,1,6,rand);
+		Kernel2D_F32 kernel2 = FactoryKernel.random2D_F32(radius,1,6,rand);
+
+		ImageFloat32 input = new ImageFloat32(width,height);
+		ImageFloat32 found = new ImageFloat32(width,height);
+		ImageFloat32 expected = new ImageFloat32(width,height);
+
+		ImageMiscOps.fillUniform(input,rand,0,5);
+
+		for( BorderType type : new BorderType[]{BorderType.SKIP,BorderType.NORMALIZED,BorderType.EXTENDED}) {
+			for( boolean horizontal : new boolean[]{true,false}) {
+				FactoryConvolve.convolve(kernel1,ImageFloat32.class,ImageFloat32.class,type,horizontal,false).
+						process(input,expected);
+				FactoryConvolve.convolve(kernel1,ImageFloat32.class,ImageFloat32.class,type,horizontal,true).
+						process(input,found);
+				BoofTesting.assertEquals(expected,found,0);
+			}
+
+			FactoryConvolve.convolve(kernel2,ImageFloat32.class,ImageFloat32.class,type,false).process(input,expected);
+			FactoryConvolve.convolve(kernel2,ImageFloat32.class,ImageFloat32.class,type,true).process(input,found);
+			BoofTesting.assertEquals(expected,found,0);
+		}
+	}
 }
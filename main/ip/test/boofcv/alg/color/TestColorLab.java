@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.color;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.MultiSpectral;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestColorLab {
+	Random rand = new Random(234);
+
+	double lab_F64[] = new double[3];
+	double rgb_F64[] = new double[3];
+
+	float lab_F32[] = new float[3];
+	float rgb_F32[] = new float[3];
+
+	/**
+	 * Compare against values computed by hand
+	 */
+	@Test
+	public void knownValues() {
+		ColorLab.rgbToLab(255.0, 255.0, 255.0, lab_F64);
+		check(lab_F64, 100, 0, 0, 1e-4);
+
+		ColorLab.rgbToLab(0.0, 0.0, 0.0, lab_F64);
+		check(lab_F64, 0, 0, 0, 1e-4);
+
+		ColorLab.rgbToLab(255.0, 0.0, 0.0, lab_F64);
+		check(lab_F64, 53.24, 80.09, 67.20, 0.02);
+
+		ColorLab.rgbToLab(0.0, 0.0, 255.0, lab_F64);
+		check(lab_F64, 32.30, 79.19, -107.86, 0.02);
+	}
+
+	@Test
+	public void backAndForth_F64_and_F32() {
+		check(0, 0, 0);
+		check(255, 0, 0);
+		check(0, 255, 0);
+		check(0, 0, 255);
+		check(255, 255, 255);
+		check(2, 1, 3);
+
+		for( int i = 0; i < 100; i++ ) {
+			double r = rand.nextDouble()*255;
+			double g = rand.nextDouble()*255;
+			double b = rand.nextDouble()*255;
+
+			check(r,g,b);
+		}
+	}
+
+	private void check( double r , double g , double b ) {
+		ColorLab.rgbToLab(r,g,b, lab_F64);
+		ColorLab.labToRgb(lab_F64[0], lab_F64[1], lab_F64[2], rgb_F64);
+		check(rgb_F64,r,g,b,0.01);
+
+		float fr = (float)r, fg = (float)g, fb = (float)b;
+		ColorLab.rgbToLab(fr,fg,fb, lab_F32);
+		ColorLab.labToRgb(lab_F32[0], lab_F32[1], lab_F32[2], rgb_F32);
+		check(rgb_F32,fr,fg,fb,0.02);
+	}
+
+	@Test
+	public void multispectral_F32() {
+		MultiSpectral<ImageFloat32> rgb = new MultiSpectral<ImageFloat32>(ImageFloat32.class,10,15,3);
+		MultiSpectral<ImageFloat32> lab = new MultiSpectral<ImageFloat32>(ImageFloat32.class,10,15,3);
+		MultiSpectral<ImageFloat32> found = new MultiSpectral<ImageFloat32>(ImageFloat32.class,10,15,3);
+
+		GImageMiscOps.fillUniform(rgb, rand, 0, 255);
+
+		ColorLab.rgbToLab_F32(rgb,lab);
+		ColorLab.labToRgb_F32(lab,found);
+
+		for( int y = 0; y < rgb.height; y++ ) {
+			for( int x = 0; x < rgb.width; x++ ) {
+				float r = rgb.getBand(0).get(x,y);
+				float g = rgb.getBand(1).get(x,y);
+				float b = rgb.getBand(2).get(x,y);
+
+				ColorLab.rgbToLab(r,g,b,lab_F32);
+				assertEquals(lab_F32[0],lab.getBand(0).get(x,y),1e-4);
+				assertEquals(lab_F32[1],lab.getBand(1).get(x,y),1e-4);
+				assertEquals(lab_F32[2],lab.getBand(2).get(x,y),1e-4);
+
+				assertEquals(r,found.getBand(0).get(x,y),0.01);
+				assertEquals(g,found.getBand(1).get(x,y),0.01);
+				assertEquals(b,found.getBand(2).get(x,y),0.01);
+			}
+		}
+	}
+
+	private static void check( double found[] , double a , double b , double c , double tol ) {
+		assertEquals(a,found[0],tol);
+		assertEquals(b,found[1],tol);
+		assertEquals(c,found[2],tol);
+	}
+
+	private static void check( float found[] , float a , float b , float c , double tol ) {
+		assertEquals(a,found[0],tol);
+		assertEquals(b,found[1],tol);
+		assertEquals(c,found[2],tol);
+	}
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.color;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.image.ImageInterleavedInt8;
+import boofcv.struct.image.ImageUInt8;
+import boofcv.struct.image.MultiSpectral;
+import boofcv.testing.BoofTesting;
+import boofcv.testing.MaxThreadsRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestColorPackedU8 {
+
+	@Rule
+	public MaxThreadsRule threads = new MaxThreadsRule(3);
+
+	Random rand = new Random(234);
+
+	int width = 31;
+	int height = 25;
+
+	static final int YCBCR = 0;
+	static final int HSV = 1;
+	static final int LAB = 2;
+
+	@Test
+	public void interleaved() {
+		for( int space = 0; space < 3; space++ ) {
+			for( int downSample = 1; downSample <= 3; downSample++ ) {
+				ImageInterleavedInt8 rgb = new ImageInterleavedInt8(width,height,3);
+				randomFill(rgb);
+				ImageInterleavedInt8 found = new ImageInterleavedInt8(width/downSample,height/downSample,3);
+
+				// see if sub-images are handled correctly
+				ImageInterleavedInt8 rgbSub = createSubImageOf(rgb);
+				ImageInterleavedInt8 foundSub = createSubImageOf(found);
+
+				convert(space, rgb, downSample, found, false);
+				convert(space, rgbSub, downSample, foundSub, false);
+
+				checkExpected(space,rgb,downSample,found);
+				checkExpected(space,rgb,downSample,foundSub);
+			}
+		}
+	}
+
+	@Test
+	public void multiSpectral() {
+		for( int space = 0; space < 3; space++ ) {
+			for( int downSample = 1; downSample <= 3; downSample++ ) {
+				ImageInterleavedInt8 rgb = new ImageInterleavedInt8(width,height,3);
+				randomFill(rgb);
+				MultiSpectral<ImageUInt8> ms = new MultiSpectral<ImageUInt8>(ImageUInt8.class,width+2,height+3,3);
+				ms = ms.subimage(1,2,width+1,height+2);
+				for( int y = 0; y < height; y++ ) {
+					for( int x = 0; x < width; x++ ) {
+						for( int band = 0; band < 3; band++ )
+							ms.getBand(band).set(x,y,rgb.data[rgb.getIndex(x,y,band)] & 0xFF);
+					}
+				}
+
+				ImageInterleavedInt8 expected = new ImageInterleavedInt8(width/downSample,height/downSample,3);
+				ImageInterleavedInt8 found = new ImageInterleavedInt8(width/downSample,height/downSample,3);
+
+				convert(space, rgb, downSample, expected, false);
+				convert(space, ms, downSample, found, false);
+
+				BoofTesting.assertEquals(expected, found, 1e-8);
+			}
+		}
+	}
+
+	@Test
+	public void concurrent() {
+		for( int space = 0; space < 3; space++ ) {
+			for( int downSample = 1; downSample <= 2; downSample++ ) {
+				ImageInterleavedInt8 rgb = new ImageInterleavedInt8(width,height,3);
+				randomFill(rgb);
+
+				ImageInterleavedInt8 expected = new ImageInterleavedInt8(width/downSample,height/downSample,3);
+				ImageInterleavedInt8 found = new ImageInterleavedInt8(width/downSample,height/downSample,3);
+
+				convert(space, rgb, downSample, expected, false);
+				convert(space, rgb, downSample, found, true);
+
+				BoofTesting.assertEquals(expected, found, 1e-8);
+			}
+		}
+	}
+
+	/**
+	 * The HSV special cases where saturation or value is zero and the hue wraps around
+	 */
+	@Test
+	public void hsv_specialCases() {
+		ImageInterleavedInt8 rgb = new ImageInterleavedInt8(4,1,3);
+		rgb.set(0,0,(byte)0,(byte)0,(byte)0);
+		rgb.set(1,0,(byte)120,(byte)120,(byte)120);
+		rgb.set(2,0,(byte)255,(byte)0,(byte)10);
+		rgb.set(3,0,(byte)255,(byte)0,(byte)0);
+
+		ImageInterleavedInt8 hsv = new ImageInterleavedInt8(4,1,3);
+		ColorPackedU8.rgbToHsv(rgb,1,hsv,false);
+
+		assertEquals(0,hsv.getBand(0,0,1));
+		assertEquals(0,hsv.getBand(0,0,2));
+		assertEquals(0,hsv.getBand(1,0,1));
+		assertEquals(120,hsv.getBand(1,0,2) & 0xFF);
+		// slightly less than 360 degrees
+		assertEquals(254,hsv.getBand(2,0,0) & 0xFF);
+		assertEquals(0,hsv.getBand(3,0,0));
+		assertEquals(255,hsv.getBand(3,0,1) & 0xFF);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void badOutputShape() {
+		ImageInterleavedInt8 rgb = new ImageInterleavedInt8(width,height,3);
+		ImageInterleavedInt8 found = new ImageInterleavedInt8(width,height,3);
+		ColorPackedU8.rgbToLab(rgb,2,found,false);
+	}
+
+	private ImageInterleavedInt8 createSubImageOf( ImageInterleavedInt8 image ) {
+		ImageInterleavedInt8 larger = new ImageInterleavedInt8(image.width+5,image.height+4,image.numBands);
+		ImageInterleavedInt8 sub = larger.subimage(2,3,image.width+2,image.height+3);
+		for( int y = 0; y < image.height; y++ ) {
+			System.arraycopy(image.data,image.getIndex(0,y),sub.data,sub.getIndex(0,y),image.width*image.numBands);
+		}
+		return sub;
+	}
+
+	private void randomFill( ImageInterleavedInt8 rgb ) {
+		for( int i = 0; i < rgb.data.length; i++ )
+			rgb.data[i] = (byte)rand.nextInt(256);
+	}
+
+	private void convert( int space , ImageInterleavedInt8 rgb , int downSample ,
+						  ImageInterleavedInt8 output , boolean concurrent ) {
+		switch( space ) {
+			case YCBCR: ColorPackedU8.rgbToYCbCr(rgb,downSample,output,concurrent); break;
+			case HSV: ColorPackedU8.rgbToHsv(rgb,downSample,output,concurrent); break;
+			case LAB: ColorPackedU8.rgbToLab(rgb,downSample,output,concurrent); break;
+		}
+	}
+
+	private void convert( int space , MultiSpectral<ImageUInt8> rgb , int downSample ,
+						  ImageInterleavedInt8 output , boolean concurrent ) {
+		switch( space ) {
+			case YCBCR: ColorPackedU8.rgbToYCbCr(rgb,downSample,output,concurrent); break;
+			case HSV: ColorPackedU8.rgbToHsv(rgb,downSample,output,concurrent); break;
+			case LAB: ColorPackedU8.rgbToLab(rgb,downSample,output,concurrent); break;
+		}
+	}
+
+	/**
+	 * Averages the input inside each block then compares against the reference implementation of each color space
+	 */
+	private void checkExpected( int space , ImageInterleavedInt8 rgb , int downSample , ImageInterleavedInt8 found ) {
+		int N = downSample*downSample;
+		byte ycbcr[] = new byte[3];
+		float hsv[] = new float[3];
+		double lab[] = new double[3];
+
+		for( int y = 0; y < found.height; y++ ) {
+			for( int x = 0; x < found.width; x++ ) {
+				int sum[] = new int[3];
+				for( int i = 0; i < downSample; i++ ) {
+					for( int j = 0; j < downSample; j++ ) {
+						for( int band = 0; band < 3; band++ )
+							sum[band] += rgb.getBand(x*downSample+j,y*downSample+i,band) & 0xFF;
+					}
+				}
+				int r = (sum[0] + N/2)/N;
+				int g = (sum[1] + N/2)/N;
+				int b = (sum[2] + N/2)/N;
+
+				int f0 = found.getBand(x,y,0) & 0xFF;
+				int f1 = found.getBand(x,y,1) & 0xFF;
+				int f2 = found.getBand(x,y,2) & 0xFF;
+
+				if( space == YCBCR ) {
+					ColorYuv.rgbToYCbCr(r,g,b,ycbcr);
+					assertEquals(ycbcr[0] & 0xFF, f0);
+					assertEquals(ycbcr[1] & 0xFF, f1);
+					assertEquals(ycbcr[2] & 0xFF, f2);
+				} else if( space == HSV ) {
+					ColorHsv.rgbToHsv((float)r,(float)g,(float)b,hsv);
+					if( hsv[1] != 0 ) {
+						double h = hsv[0]*256.0/ColorHsv.PI2_F64;
+						double diff = Math.abs(h - f0);
+						assertTrue(Math.min(diff,256-diff) <= 1);
+					}
+					assertEquals(hsv[1]*255, f1, 1);
+					assertEquals(hsv[2], f2, 1e-8);
+				} else {
+					ColorLab.rgbToLab((double)r,(double)g,(double)b,lab);
+					assertEquals(clamp(lab[0]*255.0/100.0), f0, 1.0);
+					assertEquals(clamp(lab[1]+128), f1, 1.0);
+					assertEquals(clamp(lab[2]+128), f2, 1.0);
+				}
+			}
+		}
+	}
+
+	private static double clamp( double value ) {
+		return Math.max(0,Math.min(255,value));
+	}
+}
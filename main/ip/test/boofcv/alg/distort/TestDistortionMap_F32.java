@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.distort;
+
+import boofcv.alg.interpolate.InterpolatePixel;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.factory.distort.FactoryDistort;
+import boofcv.factory.interpolate.FactoryInterpolation;
+import boofcv.struct.image.ImageFloat32;
+import boofcv.testing.BoofTesting;
+import georegression.struct.affine.Affine2D_F32;
+import org.junit.Test;
+
+import java.nio.FloatBuffer;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestDistortionMap_F32 {
+
+	Random rand = new Random(234);
+
+	PixelTransformAffine_F32 tran = new PixelTransformAffine_F32(new Affine2D_F32(1.1f,0.1f,-0.05f,0.9f,3,-2));
+
+	@Test
+	public void compute() {
+		DistortionMap_F32 map = DistortionMap_F32.compute(tran,30,40);
+
+		assertEquals(30,map.getWidth());
+		assertEquals(40,map.getHeight());
+		assertEquals(30*40*2*4,map.getStorageBytes());
+
+		for( int y = 0; y < 40; y++ ) {
+			for( int x = 0; x < 30; x++ ) {
+				tran.compute(x,y);
+				assertEquals(tran.distX,map.getX(x,y),1e-8);
+				assertEquals(tran.distY,map.getY(x,y),1e-8);
+			}
+		}
+	}
+
+	@Test
+	public void constructor_badSize() {
+		try {
+			new DistortionMap_F32(10,20,FloatBuffer.allocate(10*20));
+			fail("Should have thrown an exception");
+		} catch( IllegalArgumentException ignore ) {}
+	}
+
+	/**
+	 * The map can't be modified through the buffer it returns
+	 */
+	@Test
+	public void getData_readOnly() {
+		DistortionMap_F32 map = DistortionMap_F32.compute(tran,30,40);
+
+		FloatBuffer data = map.getData();
+		assertTrue(data.isReadOnly());
+		assertEquals(30*40*2,data.remaining());
+
+		// moving the position of one view doesn't affect the others
+		data.position(10);
+		assertEquals(0,map.getData().position());
+	}
+
+	/**
+	 * Distort images in several threads at the same time using a single map
+	 */
+	@Test
+	public void shareAcrossThreads() throws InterruptedException {
+		final int width = 160, height = 120;
+		final ImageFloat32 src = new ImageFloat32(width,height);
+		ImageMiscOps.fillUniform(src,rand,0,100);
+
+		InterpolatePixel<ImageFloat32> interp = FactoryInterpolation.bilinearPixel(ImageFloat32.class);
+		ImageDistort<ImageFloat32> standard = FactoryDistort.distort(interp,null,ImageFloat32.class);
+		standard.setModel(tran);
+		ImageFloat32 expected = new ImageFloat32(width,height);
+		standard.apply(src,expected);
+
+		final DistortionMap_F32 map = DistortionMap_F32.compute(tran,width,height);
+
+		final ImageFloat32 found[] = new ImageFloat32[4];
+		Thread threads[] = new Thread[found.length];
+		for( int i = 0; i < threads.length; i++ ) {
+			final int which = i;
+			found[i] = new ImageFloat32(width,height);
+			threads[i] = new Thread() {
+				@Override
+				public void run() {
+					ImageDistortCache<ImageFloat32> alg = FactoryDistort.distortCached(
+							FactoryInterpolation.bilinearPixel(ImageFloat32.class),null,ImageFloat32.class,which%2==0);
+					alg.setMap(map);
+					for( int trial = 0; trial < 5; trial++ )
+						alg.apply(src,found[which]);
+				}
+			};
+			threads[i].start();
+		}
+
+		for( int i = 0; i < threads.length; i++ ) {
+			threads[i].join();
+			BoofTesting.assertEquals(expected,found[i],1e-4);
+		}
+	}
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.distort;
+
+import boofcv.alg.interpolate.InterpolatePixel;
+import boofcv.alg.interpolate.TypeInterpolate;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.core.image.border.BorderType;
+import boofcv.core.image.border.FactoryImageBorder;
+import boofcv.core.image.border.ImageBorder;
+import boofcv.factory.distort.FactoryDistort;
+import boofcv.factory.interpolate.FactoryInterpolation;
+import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.ImageSingleBand;
+import boofcv.struct.image.ImageUInt8;
+import boofcv.testing.BoofTesting;
+import boofcv.testing.MaxThreadsRule;
+import georegression.struct.affine.Affine2D_F32;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestImageDistort_MT {
+
+	Random rand = new Random(234);
+
+	int width = 150;
+	int height = 110;
+
+	PixelTransformAffine_F32 tran = new PixelTransformAffine_F32(new Affine2D_F32(1.1f,0.2f,-0.1f,0.9f,-5,4));
+
+	@Rule
+	public MaxThreadsRule threads = new MaxThreadsRule(3);
+
+	@Test
+	public void compareToSingleThread() {
+		compareToSingleThread(ImageFloat32.class, BorderType.EXTENDED);
+		compareToSingleThread(ImageFloat32.class, BorderType.VALUE);
+		compareToSingleThread(ImageFloat32.class, null);
+		compareToSingleThread(ImageUInt8.class, BorderType.EXTENDED);
+		compareToSingleThread(ImageUInt8.class, null);
+	}
+
+	private <T extends ImageSingleBand> void compareToSingleThread( Class<T> imageType , BorderType borderType ) {
+		T src = GeneralizedImageOps.createSingleBand(imageType,width,height);
+		GImageMiscOps.fillUniform(src,rand,0,200);
+
+		ImageDistort<T> expected = createSingle(imageType, borderType);
+		ImageDistort_MT<T> alg = FactoryDistort.distortCached_MT(TypeInterpolate.BILINEAR,borderType,2,imageType);
+		alg.setTileSize(16,10);
+
+		expected.setModel(tran);
+		alg.setModel(tran);
+
+		// entire image
+		T dst0 = GeneralizedImageOps.createSingleBand(imageType,width,height);
+		T dst1 = BoofTesting.createSubImageOf((T)dst0._createNew(width, height));
+		expected.apply(src,dst0);
+		alg.apply(src,dst1);
+		BoofTesting.assertEquals(dst0,dst1,1e-4);
+
+		// crop region which isn't aligned to the tiles.  Pixels outside the crop must not be modified.
+		GImageMiscOps.fill(dst0,7);
+		GImageMiscOps.fill(dst1,7);
+		expected.apply(src,dst0,13,21,101,87);
+		alg.apply(src,dst1,13,21,101,87);
+		BoofTesting.assertEquals(dst0,dst1,1e-4);
+	}
+
+	private <T extends ImageSingleBand> ImageDistort<T> createSingle( Class<T> imageType , BorderType borderType ) {
+		InterpolatePixel<T> interp = FactoryInterpolation.bilinearPixel(imageType);
+		ImageBorder<T> border;
+		if( borderType == null )
+			border = null;
+		else if( borderType == BorderType.VALUE )
+			border = FactoryImageBorder.value(imageType,2);
+		else
+			border = FactoryImageBorder.general(imageType,borderType);
+		return FactoryDistort.distort(interp,border,imageType);
+	}
+
+	/**
+	 * A map can be provided instead of a model
+	 */
+	@Test
+	public void setMap() {
+		ImageFloat32 src = new ImageFloat32(width,height);
+		GImageMiscOps.fillUniform(src,rand,0,200);
+
+		ImageDistort<ImageFloat32> expected = createSingle(ImageFloat32.class, BorderType.EXTENDED);
+		expected.setModel(tran);
+
+		DistortionMap_F32 map = DistortionMap_F32.compute(tran,width,height);
+		ImageDistort_MT<ImageFloat32> alg =
+				FactoryDistort.distortCached_MT(TypeInterpolate.BILINEAR,BorderType.EXTENDED,0,ImageFloat32.class);
+		alg.setMap(map);
+
+		ImageFloat32 dst0 = new ImageFloat32(width,height);
+		ImageFloat32 dst1 = new ImageFloat32(width,height);
+
+		expected.apply(src,dst0);
+		alg.apply(src,dst1);
+		assertTrue(map == alg.getMap());
+		BoofTesting.assertEquals(dst0,dst1,1e-4);
+
+		// output has a different shape than the map
+		try {
+			alg.apply(src,new ImageFloat32(width+1,height));
+			fail("Should have thrown an exception");
+		} catch( IllegalArgumentException ignore ) {}
+	}
+
+	/**
+	 * Changing the model should cause the map to be recomputed
+	 */
+	@Test
+	public void setModel_changed() {
+		ImageFloat32 src = new ImageFloat32(width,height);
+		GImageMiscOps.fillUniform(src,rand,0,200);
+
+		ImageDistort<ImageFloat32> expected = createSingle(ImageFloat32.class, BorderType.EXTENDED);
+		ImageDistort_MT<ImageFloat32> alg =
+				FactoryDistort.distortCached_MT(TypeInterpolate.BILINEAR,BorderType.EXTENDED,0,ImageFloat32.class);
+
+		ImageFloat32 dst0 = new ImageFloat32(width,height);
+		ImageFloat32 dst1 = new ImageFloat32(width,height);
+
+		alg.setModel(tran);
+		alg.apply(src,dst1);
+
+		PixelTransformAffine_F32 other = new PixelTransformAffine_F32(new Affine2D_F32(0.8f,0,0,0.8f,3,2));
+		expected.setModel(other);
+		alg.setModel(other);
+		expected.apply(src,dst0);
+		alg.apply(src,dst1);
+		BoofTesting.assertEquals(dst0,dst1,1e-4);
+	}
+}
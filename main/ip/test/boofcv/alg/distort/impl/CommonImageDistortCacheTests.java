@@ -18,6 +18,7 @@
 
 package boofcv.alg.distort.impl;
 
+import boofcv.alg.distort.DistortionMap_F32;
 import boofcv.alg.distort.ImageDistort;
 import boofcv.alg.distort.ImageDistortCache;
 import boofcv.alg.distort.PixelTransformAffine_F32;
@@ -35,6 +36,8 @@ import org.junit.Test;
 
 import java.util.Random;
 
+import static org.junit.Assert.assertTrue;
+
 /**
  * @author Peter Abeles
  */
@@ -96,6 +99,109 @@ public abstract class CommonImageDistortCacheTests<T extends ImageSingleBand> {
 		BoofTesting.assertEquals(dst0, dst1, 1e-4);
 	}
 	
+	/**
+	 * Output should be identical when the bilinear interpolation is precomputed
+	 */
+	@Test
+	public void precomputeBilinear() {
+		ImageDistortCache<T> standard = create(interp,border,imageType);
+		ImageDistortCache<T> alg = create(FactoryInterpolation.bilinearPixel(imageType),border,imageType);
+		alg.setPrecomputeBilinear(true);
+
+		standard.setModel(tran);
+		alg.setModel(tran);
+
+		standard.apply(src,dst0);
+		alg.apply(src,dst1);
+		BoofTesting.assertEquals(dst0, dst1, 0);
+		assertTrue(alg.getCacheBytes() > standard.getCacheBytes());
+
+		standard.apply(src,dst0,10,30,80,60);
+		alg.apply(src,dst1,10,30,80,60);
+		BoofTesting.assertEquals(dst0, dst1, 0);
+
+		// no border
+		standard = create(interp,null,imageType);
+		alg = create(FactoryInterpolation.bilinearPixel(imageType),null,imageType);
+		alg.setPrecomputeBilinear(true);
+		standard.setModel(tran);
+		alg.setModel(tran);
+		GImageMiscOps.fill(dst0,0);
+		GImageMiscOps.fill(dst1,0);
+		standard.apply(src,dst0);
+		alg.apply(src,dst1);
+		BoofTesting.assertEquals(dst0, dst1, 0);
+	}
+
+	/**
+	 * The precomputed values depend on the source image's shape and must be updated when it changes
+	 */
+	@Test
+	public void precomputeBilinear_changeSource() {
+		ImageDistortCache<T> standard = create(interp,border,imageType);
+		ImageDistortCache<T> alg = create(FactoryInterpolation.bilinearPixel(imageType),border,imageType);
+		alg.setPrecomputeBilinear(true);
+
+		standard.setModel(tran);
+		alg.setModel(tran);
+
+		alg.apply(src,dst1);
+
+		T larger = GeneralizedImageOps.createSingleBand(imageType,250,320);
+		GImageMiscOps.addGaussian(larger, rand, 10, 0, 255);
+		T sub = BoofTesting.createSubImageOf(larger);
+
+		standard.apply(sub,dst0);
+		alg.apply(sub,dst1);
+		BoofTesting.assertEquals(dst0, dst1, 0);
+	}
+
+	/**
+	 * Makes sure the cache is indexed correctly when the output is a sub-image
+	 */
+	@Test
+	public void subimageOutput() {
+		for( int i = 0; i < 2; i++ ) {
+			ImageDistort<T> standard = FactoryDistort.distort(interp,border,imageType);
+			ImageDistortCache<T> alg = create(FactoryInterpolation.bilinearPixel(imageType),border,imageType);
+			alg.setPrecomputeBilinear(i == 1);
+
+			standard.setModel(tran);
+			alg.setModel(tran);
+
+			T dstSub = BoofTesting.createSubImageOf(dst1);
+
+			standard.apply(src,dst0);
+			alg.apply(src,dstSub);
+
+			BoofTesting.assertEquals(dst0, dstSub, 1e-4);
+		}
+	}
+	
+	/**
+	 * Two instances sharing the same map should produce the same results as when the map is computed internally
+	 */
+	@Test
+	public void sharedMap() {
+		ImageDistort<T> standard = FactoryDistort.distort(interp,border,imageType);
+		standard.setModel(tran);
+		standard.apply(src,dst0);
+
+		DistortionMap_F32 map = DistortionMap_F32.compute(tran,dst0.width,dst0.height);
+
+		for( int i = 0; i < 2; i++ ) {
+			ImageDistortCache<T> alg = create(FactoryInterpolation.bilinearPixel(imageType),border,imageType);
+			alg.setPrecomputeBilinear(i == 1);
+			alg.setMap(map);
+			assertTrue(map == alg.getMap());
+
+			GImageMiscOps.fill(dst1,0);
+			alg.apply(src,dst1);
+
+			BoofTesting.assertEquals(dst0, dst1, 1e-4);
+		}
+	}
+
 	public abstract ImageDistortCache<T> 
 	create(InterpolatePixel<T> interp, ImageBorder<T> border , Class<T> imageType );
 }
@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.enhance;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.image.ImageUInt16;
+import boofcv.struct.image.ImageUInt8;
+import boofcv.testing.BoofTesting;
+import boofcv.testing.MaxThreadsRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestTiledAdaptiveEqualization {
+
+	@Rule
+	public MaxThreadsRule threads = new MaxThreadsRule(3);
+
+	int width = 40;
+	int height = 30;
+	Random rand = new Random(234);
+
+	/**
+	 * With a single tile and no clipping it should be the same as global histogram equalization
+	 */
+	@Test
+	public void singleTile_global() {
+		ImageUInt8 input = new ImageUInt8(width,height);
+		ImageMiscOps.fillUniform(input, rand, 0, 100);
+		ImageUInt8 found = new ImageUInt8(width,height);
+
+		TiledAdaptiveEqualization alg = new TiledAdaptiveEqualization(1,1,0,false);
+		alg.process(input, found);
+
+		int expected[] = equalizeTable(input, 0, 0, width, height);
+		for( int y = 0; y < height; y++ ) {
+			for( int x = 0; x < width; x++ ) {
+				assertEquals(expected[input.get(x,y)], found.get(x,y));
+			}
+		}
+	}
+
+	/**
+	 * Pixels in a corner, between the image border and the center of the corner tile, should only be transformed by
+	 * that tile's table.
+	 */
+	@Test
+	public void corners_useOneTable() {
+		ImageUInt8 input = new ImageUInt8(width,height);
+		ImageMiscOps.fillUniform(input, rand, 0, 256);
+		ImageUInt8 found = new ImageUInt8(width,height);
+
+		new TiledAdaptiveEqualization(2,2,0,false).process(input, found);
+
+		// tiles are 20 x 15 and the centers are at 9.5 and 7
+		int tableTL[] = equalizeTable(input, 0, 0, 20, 15);
+		int tableBR[] = equalizeTable(input, 20, 15, 40, 30);
+		for( int y = 0; y < 7; y++ ) {
+			for( int x = 0; x < 10; x++ ) {
+				assertEquals(tableTL[input.get(x,y)], found.get(x,y));
+				assertEquals(tableBR[input.get(x+30,y+23)], found.get(x+30,y+23));
+			}
+		}
+	}
+
+	/**
+	 * The output should be continuous across tile borders even when the tables on each side are very different
+	 */
+	@Test
+	public void continuousAcrossTiles() {
+		ImageUInt8 input = new ImageUInt8(width,height);
+		// dark left tile and bright right tile
+		ImageMiscOps.fillUniform(input, rand, 0, 50);
+		ImageMiscOps.fillRectangle(input, 220, 20, 0, 20, height);
+		// the same value on both sides of the border
+		ImageMiscOps.fillRectangle(input, 128, 19, 0, 2, height);
+
+		ImageUInt8 found = new ImageUInt8(width,height);
+		new TiledAdaptiveEqualization(2,1,0,false).process(input, found);
+
+		int tableLeft[] = equalizeTable(input, 0, 0, 20, height);
+		int tableRight[] = equalizeTable(input, 20, 0, 40, height);
+		assertTrue(tableLeft[128] - tableRight[128] > 200);
+
+		// centers are at 9.5 and 29.5, so the weights of the two columns only differ by 0.05
+		for( int y = 0; y < height; y++ ) {
+			assertTrue(Math.abs(found.get(19,y) - found.get(20,y)) <= 20);
+		}
+	}
+
+	/**
+	 * A uniform region will be mapped to the maximum value unless the histogram is clipped
+	 */
+	@Test
+	public void clipLimit() {
+		ImageUInt8 input = new ImageUInt8(width,height);
+		ImageMiscOps.fill(input, 100);
+		ImageUInt8 found = new ImageUInt8(width,height);
+
+		new TiledAdaptiveEqualization(2,2,0,false).process(input, found);
+		assertEquals(255, found.get(5,5));
+
+		new TiledAdaptiveEqualization(2,2,2,false).process(input, found);
+		int clipped = found.get(5,5);
+		assertTrue(clipped < 255);
+		assertTrue(clipped > 100);
+
+		// less clipping should increase the contrast
+		new TiledAdaptiveEqualization(2,2,10,false).process(input, found);
+		assertTrue(found.get(5,5) > clipped);
+	}
+
+	/**
+	 * U8 and U16 should produce identical results when the maximum value is the same
+	 */
+	@Test
+	public void compare_U8_U16() {
+		ImageUInt8 input = new ImageUInt8(width,height);
+		ImageMiscOps.fillUniform(input, rand, 0, 256);
+		ImageUInt16 input16 = new ImageUInt16(width,height);
+		for( int i = 0; i < input.data.length; i++ )
+			input16.data[i] = (short)(input.data[i] & 0xFF);
+
+		ImageUInt8 found = new ImageUInt8(width,height);
+		ImageUInt16 found16 = new ImageUInt16(width,height);
+
+		TiledAdaptiveEqualization alg = new TiledAdaptiveEqualization(3,2,2,false);
+		alg.process(input, found);
+		alg.process(input16, 255, found16);
+
+		BoofTesting.assertEquals(found, found16, 1e-8);
+	}
+
+	/**
+	 * Values above the maximum value are treated as the maximum value
+	 */
+	@Test
+	public void U16_aboveMaxValue() {
+		ImageUInt16 input = new ImageUInt16(width,height);
+		ImageMiscOps.fillUniform(input, rand, 0, 4096);
+		input.set(5,6,60000);
+		ImageUInt16 found = new ImageUInt16(width,height);
+
+		new TiledAdaptiveEqualization(2,2,2,false).process(input, 4095, found);
+
+		for( int i = 0; i < found.data.length; i++ )
+			assertTrue((found.data[i] & 0xFFFF) <= 4095);
+
+		ImageUInt16 expected = new ImageUInt16(width,height);
+		input.set(5,6,4095);
+		new TiledAdaptiveEqualization(2,2,2,false).process(input, 4095, expected);
+		BoofTesting.assertEquals(expected, found, 1e-8);
+	}
+
+	@Test
+	public void subimage() {
+		ImageUInt8 input = new ImageUInt8(width,height);
+		ImageMiscOps.fillUniform(input, rand, 0, 256);
+		ImageUInt8 found = new ImageUInt8(width,height);
+
+		BoofTesting.checkSubImage(this, "subimage", true, input, found);
+	}
+
+	public void subimage( ImageUInt8 input , ImageUInt8 found ) {
+		new TiledAdaptiveEqualization(3,4,2,false).process(input, found);
+	}
+
+	@Test
+	public void inplace() {
+		ImageUInt8 input = new ImageUInt8(width,height);
+		ImageMiscOps.fillUniform(input, rand, 0, 256);
+		ImageUInt8 expected = new ImageUInt8(width,height);
+
+		TiledAdaptiveEqualization alg = new TiledAdaptiveEqualization(3,4,2,false);
+		alg.process(input, expected);
+		alg.process(input, input);
+
+		BoofTesting.assertEquals(expected, input, 1e-8);
+	}
+
+	@Test
+	public void concurrent() {
+		ImageUInt16 input = new ImageUInt16(width,height);
+		ImageMiscOps.fillUniform(input, rand, 0, 1024);
+		ImageUInt16 expected = new ImageUInt16(width,height);
+		ImageUInt16 found = new ImageUInt16(width,height);
+
+		new TiledAdaptiveEqualization(4,3,2,false).process(input, 1023, expected);
+		new TiledAdaptiveEqualization(4,3,2,true).process(input, 1023, found);
+
+		BoofTesting.assertEquals(expected, found, 1e-8);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void tooManyTiles() {
+		ImageUInt8 input = new ImageUInt8(5,5);
+		new TiledAdaptiveEqualization(6,2,2,false).process(input, input.clone());
+	}
+
+	/**
+	 * Equalization table computed from the histogram of a rectangular region with no clipping
+	 */
+	private int[] equalizeTable( ImageUInt8 input , int x0 , int y0 , int x1 , int y1 ) {
+		int histogram[] = new int[256];
+		for( int y = y0; y < y1; y++ ) {
+			for( int x = x0; x < x1; x++ ) {
+				histogram[input.get(x,y)]++;
+			}
+		}
+		int total = (x1-x0)*(y1-y0);
+		int table[] = new int[256];
+		int sum = 0;
+		for( int i = 0; i < 256; i++ ) {
+			sum += histogram[i];
+			table[i] = (int)Math.round(sum*255.0/total);
+		}
+		return table;
+	}
+}
@@ -27,6 +27,7 @@ import georegression.struct.point.Point2D_I32;
 import org.ddogleg.struct.FastQueue;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 
@@ -148,6 +149,41 @@ public class TestBinaryImageOps {
 		BoofTesting.assertEquals(expected,output,0);
 	}
 
+	@Test
+	public void contourRunLength() {
+		ImageUInt8 input = new ImageUInt8(30,40);
+		ImageMiscOps.fillUniform(input,rand,0,2);
+
+		ImageSInt32 labeled = new ImageSInt32(30,40);
+		List<Contour> expected = BinaryImageOps.contour(input,8,labeled);
+		List<List<Point2D_I32>> expectedClusters = BinaryImageOps.labelToClusters(labeled,expected.size(),null);
+
+		List<List<Point2D_I32>> foundClusters = new ArrayList<List<Point2D_I32>>();
+		List<Contour> found = BinaryImageOps.contourRunLength(input,8,foundClusters);
+
+		assertEquals(expected.size(),found.size());
+		assertEquals(expectedClusters.size(),foundClusters.size());
+		for( int i = 0; i < expected.size(); i++ ) {
+			assertEquals(expected.get(i).external.size(),found.get(i).external.size());
+			assertEquals(expectedClusters.get(i).size(),foundClusters.get(i).size());
+		}
+	}
+
+	@Test
+	public void contour_concurrent() {
+		ImageUInt8 input = new ImageUInt8(30,40);
+		ImageMiscOps.fillUniform(input,rand,0,2);
+
+		ImageSInt32 expected = new ImageSInt32(30,40);
+		ImageSInt32 found = new ImageSInt32(30,40);
+
+		List<Contour> contoursExpected = BinaryImageOps.contour(input,8,expected);
+		List<Contour> contoursFound = BinaryImageOps.contour(input,8,found,true);
+
+		assertEquals(contoursExpected.size(),contoursFound.size());
+		BoofTesting.assertEquals(expected,found,0);
+	}
+
 	@Test
 	public void relabel() {
 		ImageSInt32 input = new ImageSInt32(4,5);
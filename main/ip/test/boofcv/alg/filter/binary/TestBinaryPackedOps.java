@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.binary;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.image.ImageBinaryPacked;
+import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.ImageUInt8;
+import boofcv.testing.BoofTesting;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestBinaryPackedOps {
+
+	Random rand = new Random(234);
+
+	// widths which test the edges of words
+	int widths[] = new int[]{1,5,63,64,65,130};
+	int height = 7;
+
+	@Test
+	public void pack_unpack() {
+		for( int width : widths ) {
+			ImageUInt8 binary = randomBinary(width,height);
+
+			ImageBinaryPacked packed = BinaryPackedOps.pack(binary,null);
+			for( int y = 0; y < height; y++ ) {
+				for( int x = 0; x < width; x++ ) {
+					assertEquals(binary.get(x,y),packed.get(x,y));
+				}
+			}
+
+			ImageUInt8 found = BinaryPackedOps.unpack(packed,null);
+			BoofTesting.assertEquals(binary,found,0);
+
+			// sub-images
+			ImageUInt8 subFound = BoofTesting.createSubImageOf(found);
+			ImageMiscOps.fill(subFound,2);
+			BinaryPackedOps.unpack(BinaryPackedOps.pack(BoofTesting.createSubImageOf(binary),null),subFound);
+			BoofTesting.assertEquals(binary,subFound,0);
+		}
+	}
+
+	@Test
+	public void threshold_F32() {
+		for( int width : widths ) {
+			ImageFloat32 input = new ImageFloat32(width,height);
+			ImageMiscOps.fillUniform(input,rand,0,100);
+			input.set(0,0,50);
+
+			for( boolean down : new boolean[]{true,false}) {
+				ImageUInt8 expected = ThresholdImageOps.threshold(input,null,50,down);
+				ImageBinaryPacked found = BinaryPackedOps.threshold(input,null,50,down);
+				BoofTesting.assertEquals(expected,BinaryPackedOps.unpack(found,null),0);
+			}
+		}
+	}
+
+	@Test
+	public void threshold_U8() {
+		for( int width : widths ) {
+			ImageUInt8 input = new ImageUInt8(width,height);
+			ImageMiscOps.fillUniform(input,rand,0,256);
+			input.set(0,0,200);
+
+			for( boolean down : new boolean[]{true,false}) {
+				ImageUInt8 expected = ThresholdImageOps.threshold(input,null,200,down);
+				ImageBinaryPacked found = BinaryPackedOps.threshold(input,null,200,down);
+				BoofTesting.assertEquals(expected,BinaryPackedOps.unpack(found,null),0);
+			}
+		}
+	}
+
+	@Test
+	public void logicAnd() throws Exception {
+		compareLogic("logicAnd");
+	}
+
+	@Test
+	public void logicOr() throws Exception {
+		compareLogic("logicOr");
+	}
+
+	@Test
+	public void logicXor() throws Exception {
+		compareLogic("logicXor");
+	}
+
+	@Test
+	public void erode4() throws Exception {
+		compareMorph("erode4");
+	}
+
+	@Test
+	public void dilate4() throws Exception {
+		compareMorph("dilate4");
+	}
+
+	@Test
+	public void edge4() throws Exception {
+		compareMorph("edge4");
+	}
+
+	@Test
+	public void erode8() throws Exception {
+		compareMorph("erode8");
+	}
+
+	@Test
+	public void dilate8() throws Exception {
+		compareMorph("dilate8");
+	}
+
+	@Test
+	public void edge8() throws Exception {
+		compareMorph("edge8");
+	}
+
+	@Test
+	public void removePointNoise() throws Exception {
+		compareMorph("removePointNoise");
+	}
+
+	/**
+	 * Compares against the same function in {@link BinaryImageOps}.  Also checks sub-images and processing
+	 * the image in place
+	 */
+	private void compareMorph( String name ) throws Exception {
+		Method expectedM = BinaryImageOps.class.getMethod(name,ImageUInt8.class,ImageUInt8.class);
+		Method foundM = BinaryPackedOps.class.getMethod(name,ImageBinaryPacked.class,ImageBinaryPacked.class);
+
+		for( int width : widths ) {
+			for( int trial = 0; trial < 3; trial++ ) {
+				ImageUInt8 binary = randomBinary(width,height);
+				// mostly filled in images so that erode has something to do
+				if( trial == 1 )
+					BinaryImageOps.logicOr(binary,randomBinary(width,height),binary);
+				else if( trial == 2 )
+					ImageMiscOps.fill(binary,1);
+
+				ImageUInt8 expected = new ImageUInt8(width,height);
+				expectedM.invoke(null,binary,expected);
+
+				ImageBinaryPacked packed = BinaryPackedOps.pack(binary,null);
+				ImageBinaryPacked found = new ImageBinaryPacked(width,height);
+				foundM.invoke(null,packed,found);
+				BoofTesting.assertEquals(expected,BinaryPackedOps.unpack(found,null),0);
+
+				// sub-images.  Pixels outside the sub-image should be ignored and not modified
+				ImageBinaryPacked larger = new ImageBinaryPacked(width+128,height+2);
+				larger.fill(1);
+				ImageBinaryPacked subIn = larger.subimage(64,1,64+width,1+height);
+				subIn.setTo(packed);
+				ImageBinaryPacked largerOut = new ImageBinaryPacked(width+128,height+2);
+				largerOut.fill(1);
+				ImageBinaryPacked subOut = largerOut.subimage(64,1,64+width,1+height);
+				foundM.invoke(null,subIn,subOut);
+				BoofTesting.assertEquals(expected,BinaryPackedOps.unpack(subOut,null),0);
+				assertEquals(1,largerOut.get(64+width,1));
+				assertEquals(1,largerOut.get(63,1));
+				assertEquals(1,largerOut.get(64,0));
+
+				// in place
+				foundM.invoke(null,packed,packed);
+				BoofTesting.assertEquals(expected,BinaryPackedOps.unpack(packed,null),0);
+			}
+		}
+	}
+
+	private void compareLogic( String name ) throws Exception {
+		Method expectedM = BinaryImageOps.class.getMethod(name,ImageUInt8.class,ImageUInt8.class,ImageUInt8.class);
+		Method foundM = BinaryPackedOps.class.getMethod(name,
+				ImageBinaryPacked.class,ImageBinaryPacked.class,ImageBinaryPacked.class);
+
+		for( int width : widths ) {
+			ImageUInt8 a = randomBinary(width,height);
+			ImageUInt8 b = randomBinary(width,height);
+
+			ImageUInt8 expected = new ImageUInt8(width,height);
+			expectedM.invoke(null,a,b,expected);
+
+			ImageBinaryPacked packedA = BinaryPackedOps.pack(a,null);
+			ImageBinaryPacked packedB = BinaryPackedOps.pack(b,null);
+			ImageBinaryPacked found = new ImageBinaryPacked(width,height);
+			foundM.invoke(null,packedA,packedB,found);
+			BoofTesting.assertEquals(expected,BinaryPackedOps.unpack(found,null),0);
+
+			// output is one of the inputs
+			foundM.invoke(null,packedA,packedB,packedA);
+			BoofTesting.assertEquals(expected,BinaryPackedOps.unpack(packedA,null),0);
+		}
+	}
+
+	private ImageUInt8 randomBinary( int width , int height ) {
+		ImageUInt8 binary = new ImageUInt8(width,height);
+		ImageMiscOps.fillUniform(binary,rand,0,2);
+		return binary;
+	}
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.binary;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.image.ImageSInt32;
+import boofcv.struct.image.ImageUInt8;
+import boofcv.testing.BoofTesting;
+import boofcv.testing.MaxThreadsRule;
+import georegression.struct.point.Point2D_I32;
+import org.ddogleg.struct.FastQueue;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestLinearContourLabelChang2004_MT {
+
+	Random rand = new Random(234);
+
+	@Rule
+	public MaxThreadsRule threads = new MaxThreadsRule(3);
+
+	@Test
+	public void compareToSerial_random() {
+		for( int rule = 4; rule <= 8; rule += 4 ) {
+			for( int stripHeight = 1; stripHeight <= 5; stripHeight++ ) {
+				for( int trial = 0; trial < 10; trial++ ) {
+					ImageUInt8 binary = new ImageUInt8(30,25);
+					ImageMiscOps.fillUniform(binary,rand,0,2);
+					compareToSerial(binary,rule,stripHeight);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void compareToSerial_testImages() {
+		byte[][] images = new byte[][]{TestLinearContourLabelChang2004.TEST1,TestLinearContourLabelChang2004.TEST2};
+		for( byte[] data : images ) {
+			ImageUInt8 binary = new ImageUInt8(13,8);
+			binary.data = data;
+			compareToSerial(binary,4,1);
+			compareToSerial(binary,8,1);
+			compareToSerial(binary,8,2);
+		}
+
+		ImageUInt8 binary = new ImageUInt8(5,7);
+		binary.data = TestLinearContourLabelChang2004.TEST3;
+		compareToSerial(binary,4,1);
+		compareToSerial(binary,8,2);
+
+		binary = new ImageUInt8(7,8);
+		binary.data = TestLinearContourLabelChang2004.TEST4;
+		compareToSerial(binary,4,1);
+		compareToSerial(binary,8,2);
+	}
+
+	/**
+	 * A single blob which touches the image border and crosses every seam
+	 */
+	@Test
+	public void singleLargeBlob() {
+		ImageUInt8 binary = new ImageUInt8(20,30);
+		ImageMiscOps.fill(binary,1);
+		ImageMiscOps.fillRectangle(binary,0,5,5,10,20);
+		binary.set(0,29,0);
+		compareToSerial(binary,4,2);
+		compareToSerial(binary,8,2);
+	}
+
+	@Test
+	public void subimage() {
+		ImageUInt8 binary = new ImageUInt8(30,25);
+		ImageMiscOps.fillUniform(binary,rand,0,2);
+
+		ImageUInt8 binarySub = BoofTesting.createSubImageOf(binary);
+		ImageSInt32 labeled = new ImageSInt32(30,25);
+		ImageSInt32 labeledSub = BoofTesting.createSubImageOf(labeled);
+
+		LinearContourLabelChang2004_MT alg = new LinearContourLabelChang2004_MT(8);
+		alg.setMinimumStripHeight(3);
+		alg.process(binarySub,labeledSub);
+
+		LinearContourLabelChang2004 serial = new LinearContourLabelChang2004(8);
+		ImageSInt32 expected = new ImageSInt32(30,25);
+		serial.process(binary,expected);
+
+		BoofTesting.assertEquals(expected,labeledSub,0);
+		compareContours(serial.getContours(),alg.getContours());
+	}
+
+	/**
+	 * Calling process multiple times should produce the same results
+	 */
+	@Test
+	public void multipleCalls() {
+		LinearContourLabelChang2004_MT alg = new LinearContourLabelChang2004_MT(8);
+		alg.setMinimumStripHeight(2);
+		LinearContourLabelChang2004 serial = new LinearContourLabelChang2004(8);
+
+		for( int trial = 0; trial < 5; trial++ ) {
+			ImageUInt8 binary = new ImageUInt8(20+trial,15+trial);
+			ImageMiscOps.fillUniform(binary,rand,0,2);
+
+			ImageSInt32 found = new ImageSInt32(binary.width,binary.height);
+			ImageSInt32 expected = new ImageSInt32(binary.width,binary.height);
+			alg.process(binary,found);
+			serial.process(binary,expected);
+
+			BoofTesting.assertEquals(expected,found,0);
+			compareContours(serial.getContours(),alg.getContours());
+		}
+	}
+
+	private void compareToSerial( ImageUInt8 binary , int rule , int stripHeight ) {
+		LinearContourLabelChang2004 serial = new LinearContourLabelChang2004(rule);
+		ImageSInt32 expected = new ImageSInt32(binary.width,binary.height);
+		serial.process(binary,expected);
+
+		LinearContourLabelChang2004_MT alg = new LinearContourLabelChang2004_MT(rule);
+		alg.setMinimumStripHeight(stripHeight);
+		ImageSInt32 found = new ImageSInt32(binary.width,binary.height);
+		alg.process(binary,found);
+
+		BoofTesting.assertEquals(expected,found,0);
+		compareContours(serial.getContours(),alg.getContours());
+	}
+
+	private void compareContours( FastQueue<Contour> expected , FastQueue<Contour> found ) {
+		assertEquals(expected.size,found.size);
+		for( int i = 0; i < expected.size; i++ ) {
+			Contour a = expected.get(i);
+			Contour b = found.get(i);
+
+			assertEquals(a.id,b.id);
+			compare(a.external,b.external);
+			assertEquals(a.internal.size(),b.internal.size());
+			for( int j = 0; j < a.internal.size(); j++ ) {
+				compare(a.internal.get(j),b.internal.get(j));
+			}
+		}
+	}
+
+	private void compare( List<Point2D_I32> a , List<Point2D_I32> b ) {
+		assertEquals(a.size(),b.size());
+		for( int i = 0; i < a.size(); i++ ) {
+			assertEquals(a.get(i).x,b.get(i).x);
+			assertEquals(a.get(i).y,b.get(i).y);
+		}
+	}
+}
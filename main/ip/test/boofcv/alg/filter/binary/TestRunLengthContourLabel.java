@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.binary;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.image.ImageSInt32;
+import boofcv.struct.image.ImageUInt8;
+import boofcv.testing.BoofTesting;
+import georegression.struct.point.Point2D_I32;
+import org.ddogleg.struct.FastQueue;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestRunLengthContourLabel {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void compareToChang_random() {
+		for( int rule = 4; rule <= 8; rule += 4 ) {
+			for( int trial = 0; trial < 20; trial++ ) {
+				ImageUInt8 binary = new ImageUInt8(30,25);
+				// alternate between dense and sparse images
+				if( trial % 2 == 0 ) {
+					ImageMiscOps.fillUniform(binary,rand,0,2);
+				} else {
+					for( int i = 0; i < 40; i++ ) {
+						binary.set(rand.nextInt(binary.width),rand.nextInt(binary.height),1);
+					}
+				}
+				compareToChang(binary,rule);
+			}
+		}
+	}
+
+	@Test
+	public void compareToChang_testImages() {
+		byte[][] images = new byte[][]{TestLinearContourLabelChang2004.TEST1,TestLinearContourLabelChang2004.TEST2};
+		for( byte[] data : images ) {
+			ImageUInt8 binary = new ImageUInt8(13,8);
+			binary.data = data;
+			compareToChang(binary,4);
+			compareToChang(binary,8);
+		}
+
+		ImageUInt8 binary = new ImageUInt8(5,7);
+		binary.data = TestLinearContourLabelChang2004.TEST3;
+		compareToChang(binary,4);
+		compareToChang(binary,8);
+
+		binary = new ImageUInt8(7,8);
+		binary.data = TestLinearContourLabelChang2004.TEST4;
+		compareToChang(binary,4);
+		compareToChang(binary,8);
+	}
+
+	/**
+	 * Runs which only touch diagonally are connected with 8 but not 4 connectivity
+	 */
+	@Test
+	public void diagonalRuns() {
+		ImageUInt8 binary = new ImageUInt8(8,3);
+		ImageMiscOps.fillRectangle(binary,1,0,0,3,1);
+		ImageMiscOps.fillRectangle(binary,1,3,1,2,1);
+		ImageMiscOps.fillRectangle(binary,1,6,2,2,1);
+
+		RunLengthContourLabel alg = new RunLengthContourLabel(4);
+		alg.process(binary);
+		assertEquals(3,alg.getNumberOfRuns());
+		assertEquals(3,alg.getContours().size);
+
+		alg = new RunLengthContourLabel(8);
+		alg.process(binary);
+		assertEquals(2,alg.getContours().size);
+	}
+
+	@Test
+	public void subimage() {
+		ImageUInt8 binary = new ImageUInt8(30,25);
+		ImageMiscOps.fillUniform(binary,rand,0,2);
+		ImageUInt8 binarySub = BoofTesting.createSubImageOf(binary);
+
+		RunLengthContourLabel alg = new RunLengthContourLabel(8);
+		alg.process(binarySub);
+		ImageSInt32 found = BoofTesting.createSubImageOf(new ImageSInt32(30,25));
+		alg.renderLabels(found);
+
+		LinearContourLabelChang2004 chang = new LinearContourLabelChang2004(8);
+		ImageSInt32 expected = new ImageSInt32(30,25);
+		chang.process(binary,expected);
+
+		BoofTesting.assertEquals(expected,found,0);
+		compareContours(chang.getContours(),alg.getContours());
+	}
+
+	/**
+	 * Calling process multiple times should produce the same results
+	 */
+	@Test
+	public void multipleCalls() {
+		RunLengthContourLabel alg = new RunLengthContourLabel(8);
+
+		for( int trial = 0; trial < 5; trial++ ) {
+			ImageUInt8 binary = new ImageUInt8(20+trial,15-trial);
+			ImageMiscOps.fillUniform(binary,rand,0,2);
+
+			LinearContourLabelChang2004 chang = new LinearContourLabelChang2004(8);
+			chang.process(binary,new ImageSInt32(binary.width,binary.height));
+
+			alg.process(binary);
+			compareContours(chang.getContours(),alg.getContours());
+		}
+	}
+
+	private void compareToChang( ImageUInt8 binary , int rule ) {
+		LinearContourLabelChang2004 chang = new LinearContourLabelChang2004(rule);
+		ImageSInt32 expected = new ImageSInt32(binary.width,binary.height);
+		chang.process(binary,expected);
+
+		RunLengthContourLabel alg = new RunLengthContourLabel(rule);
+		alg.process(binary);
+
+		compareContours(chang.getContours(),alg.getContours());
+
+		ImageSInt32 found = new ImageSInt32(binary.width,binary.height);
+		alg.renderLabels(found);
+		BoofTesting.assertEquals(expected,found,0);
+
+		List<List<Point2D_I32>> clustersExpected =
+				BinaryImageOps.labelToClusters(expected,chang.getContours().size,null);
+		List<List<Point2D_I32>> clustersFound = alg.getClusters(new FastQueue<Point2D_I32>(Point2D_I32.class,true));
+		assertEquals(clustersExpected.size(),clustersFound.size());
+		for( int i = 0; i < clustersExpected.size(); i++ ) {
+			compare(clustersExpected.get(i),clustersFound.get(i));
+		}
+	}
+
+	private void compareContours( FastQueue<Contour> expected , FastQueue<Contour> found ) {
+		assertEquals(expected.size,found.size);
+		for( int i = 0; i < expected.size; i++ ) {
+			Contour a = expected.get(i);
+			Contour b = found.get(i);
+
+			assertEquals(a.id,b.id);
+			compare(a.external,b.external);
+			assertEquals(a.internal.size(),b.internal.size());
+			for( int j = 0; j < a.internal.size(); j++ ) {
+				compare(a.internal.get(j),b.internal.get(j));
+			}
+		}
+	}
+
+	private void compare( List<Point2D_I32> a , List<Point2D_I32> b ) {
+		assertEquals(a.size(),b.size());
+		for( int i = 0; i < a.size(); i++ ) {
+			assertEquals(a.get(i).x,b.get(i).x);
+			assertEquals(a.get(i).y,b.get(i).y);
+		}
+	}
+}
@@ -18,6 +18,8 @@
 
 package boofcv.alg.filter.blur;
 
+import boofcv.alg.filter.blur.impl.ImplGaussianBox;
+import boofcv.alg.filter.blur.impl.ImplGaussianRecursive;
 import boofcv.alg.filter.blur.impl.ImplMedianSortNaive;
 import boofcv.alg.filter.convolve.ConvolveNormalized;
 import boofcv.alg.misc.GImageMiscOps;
@@ -29,6 +31,8 @@ import boofcv.struct.convolve.Kernel1D_I32;
 import boofcv.struct.image.ImageFloat32;
 import boofcv.struct.image.ImageUInt8;
 import boofcv.testing.BoofTesting;
+import boofcv.testing.MaxThreadsRule;
+import org.junit.Rule;
 import org.junit.Test;
 
 import java.util.Random;
@@ -38,6 +42,9 @@ import java.util.Random;
  */
 public class TestBlurImageOps {
 
+	@Rule
+	public MaxThreadsRule threads = new MaxThreadsRule(3);
+
 	Random rand = new Random(234);
 
 	int width = 10;
@@ -108,6 +115,43 @@ public class TestBlurImageOps {
 		}
 	}
 
+	/**
+	 * Radius large enough that the constant time algorithm is used
+	 */
+	@Test
+	public void median_U8_constantTime() {
+		ImageUInt8 input = new ImageUInt8(width,height);
+		ImageUInt8 found = new ImageUInt8(width,height);
+		ImageUInt8 expected = new ImageUInt8(width,height);
+
+		GImageMiscOps.fillUniform(input, rand, 0, 200);
+
+		int radius = BlurImageOps.MEDIAN_CONSTANT_TIME_RADIUS;
+		ImplMedianSortNaive.process(input,expected,radius,null);
+		BlurImageOps.median(input,found,radius);
+		BoofTesting.assertEquals(expected,found,0);
+
+		ImageMiscOps.fill(found,0);
+		BlurImageOps.median(input,found,radius,true);
+		BoofTesting.assertEquals(expected,found,0);
+	}
+
+	@Test
+	public void median_U8_concurrent() {
+		ImageUInt8 input = new ImageUInt8(width,height);
+		ImageUInt8 found = new ImageUInt8(width,height);
+		ImageUInt8 expected = new ImageUInt8(width,height);
+
+		GImageMiscOps.fillUniform(input, rand, 0, 20);
+
+		for( int radius = 1; radius <= 4; radius++ ) {
+			ImplMedianSortNaive.process(input,expected,radius,null);
+			BlurImageOps.median(input,found,radius,true);
+
+			BoofTesting.assertEquals(expected,found,0);
+		}
+	}
+
 	@Test
 	public void median_F32() {
 		ImageFloat32 input = new ImageFloat32(width,height);
@@ -175,4 +219,84 @@ public class TestBlurImageOps {
 			BoofTesting.assertEquals(expected,found,1e-4);
 		}
 	}
+
+	/**
+	 * The concurrent implementation should produce identical results
+	 */
+	@Test
+	public void gaussian_concurrent() {
+		ImageUInt8 inputU8 = new ImageUInt8(width,height);
+		ImageFloat32 inputF32 = new ImageFloat32(width,height);
+		GImageMiscOps.fillUniform(inputU8, rand, 0, 20);
+		GImageMiscOps.fillUniform(inputF32, rand, 0, 20);
+
+		for( int radius = 1; radius <= 4; radius++ ) {
+			ImageUInt8 expectedU8 = BlurImageOps.gaussian(inputU8,null,-1,radius,null,false);
+			ImageUInt8 foundU8 = BlurImageOps.gaussian(inputU8,null,-1,radius,null,true);
+			BoofTesting.assertEquals(expectedU8,foundU8,0);
+
+			ImageFloat32 expectedF32 = BlurImageOps.gaussian(inputF32,null,-1,radius,null,false);
+			ImageFloat32 foundF32 = BlurImageOps.gaussian(inputF32,null,-1,radius,null,true);
+			BoofTesting.assertEquals(expectedF32,foundF32,0);
+		}
+	}
+
+	@Test
+	public void gaussianRecursive_F32() {
+		ImageFloat32 input = new ImageFloat32(width,height);
+		ImageFloat32 found = new ImageFloat32(width,height);
+		ImageFloat32 expected = new ImageFloat32(width,height);
+		ImageFloat32 storage = new ImageFloat32(width,height);
+
+		GImageMiscOps.fillUniform(input, rand, 0, 20);
+
+		ImplGaussianRecursive.Coefficients c = ImplGaussianRecursive.coefficients(1.5);
+		ImplGaussianRecursive.horizontal(c,input,storage,0,height);
+		ImplGaussianRecursive.vertical(c,storage,expected,0,width,null);
+
+		BlurImageOps.gaussianRecursive(input,found,1.5,null);
+		BoofTesting.assertEquals(expected,found,1e-4);
+
+		ImageMiscOps.fill(found,0);
+		BlurImageOps.gaussianRecursive(input,found,1.5,null,true);
+		BoofTesting.assertEquals(expected,found,1e-4);
+	}
+
+	@Test
+	public void gaussianBox_U8() {
+		ImageUInt8 input = new ImageUInt8(width,height);
+		ImageUInt8 found = new ImageUInt8(width,height);
+		ImageUInt8 expected = new ImageUInt8(width,height);
+		ImageUInt8 storage = new ImageUInt8(width,height);
+
+		GImageMiscOps.fillUniform(input, rand, 0, 20);
+
+		int radii[] = new int[3];
+		ImplGaussianBox.computeRadii(2.5,radii);
+		ImplGaussianBox.process(input,expected,radii,storage,null);
+
+		BlurImageOps.gaussianBox(input,found,2.5,3,null);
+		BoofTesting.assertEquals(expected,found,0);
+	}
+
+	@Test
+	public void gaussianBox_F32() {
+		ImageFloat32 input = new ImageFloat32(width,height);
+		ImageFloat32 found = new ImageFloat32(width,height);
+		ImageFloat32 expected = new ImageFloat32(width,height);
+		ImageFloat32 storage = new ImageFloat32(width,height);
+
+		GImageMiscOps.fillUniform(input, rand, 0, 20);
+
+		int radii[] = new int[3];
+		ImplGaussianBox.computeRadii(2.5,radii);
+		ImplGaussianBox.process(input,expected,radii,storage,null);
+
+		BlurImageOps.gaussianBox(input,found,2.5,3,null);
+		BoofTesting.assertEquals(expected,found,1e-4);
+
+		// should be similar to Gaussian blur
+		BlurImageOps.gaussian(input,expected,2.5,-1,storage);
+		BoofTesting.assertEquals(expected,found,1.5);
+	}
 }
@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.blur.impl;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.ImageUInt8;
+import boofcv.testing.BoofTesting;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestImplGaussianBox {
+
+	Random rand = new Random(234);
+
+	int width = 20;
+	int height = 15;
+
+	/**
+	 * The combined variance of all the boxes should be close to sigma squared
+	 */
+	@Test
+	public void computeRadii() {
+		for( int numPasses = 1; numPasses <= 5; numPasses++ ) {
+			int radii[] = new int[numPasses];
+			for( double sigma : new double[]{1,2,3.5,5,10,25} ) {
+				ImplGaussianBox.computeRadii(sigma,radii);
+
+				double variance = 0;
+				for( int i = 0; i < numPasses; i++ ) {
+					assertTrue(radii[i] >= 0);
+					assertTrue(Math.abs(radii[i]-radii[0]) <= 1);
+					int w = 2*radii[i]+1;
+					variance += (w*w-1)/12.0;
+				}
+
+				// changing a box's width by two changes the variance by roughly width/3
+				double tol = (2*radii[numPasses-1]+2)/3.0;
+				assertEquals(sigma*sigma,variance,tol);
+			}
+		}
+	}
+
+	/**
+	 * The impulse response from three passes should be close to the requested Gaussian
+	 */
+	@Test
+	public void impulseResponse() {
+		for( double sigma : new double[]{2,5,10} ) {
+			ImageFloat32 input = new ImageFloat32(301,1);
+			ImageFloat32 output = new ImageFloat32(301,1);
+			ImageFloat32 storage = new ImageFloat32(301,1);
+			input.set(150,0,1);
+
+			int radii[] = new int[3];
+			ImplGaussianBox.computeRadii(sigma,radii);
+			// only blur horizontally
+			for( int i = 0; i < radii.length; i++ ) {
+				ImplGaussianBox.horizontal(input,storage,radii[i]);
+				input.setTo(storage);
+			}
+			output.setTo(input);
+
+			double sum = 0, variance = 0;
+			for( int x = 0; x < input.width; x++ ) {
+				sum += output.get(x,0);
+				variance += (x-150)*(x-150)*output.get(x,0);
+			}
+
+			assertEquals(1,sum,1e-4);
+			assertEquals(sigma,Math.sqrt(variance),sigma*0.1);
+		}
+	}
+
+	@Test
+	public void horizontal_U8() {
+		ImageUInt8 input = new ImageUInt8(width,height);
+		ImageMiscOps.fillUniform(input,rand,0,200);
+
+		for( int radius = 0; radius <= width+1; radius++ ) {
+			ImageUInt8 found = new ImageUInt8(width,height);
+			ImplGaussianBox.horizontal(input,found,radius);
+
+			for( int y = 0; y < height; y++ ) {
+				for( int x = 0; x < width; x++ ) {
+					int x0 = Math.max(0,x-radius), x1 = Math.min(width-1,x+radius);
+					int total = 0;
+					for( int i = x0; i <= x1; i++ )
+						total += input.get(i,y);
+					int count = x1-x0+1;
+					assertEquals((total+count/2)/count,found.get(x,y));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void vertical_U8() {
+		ImageUInt8 input = new ImageUInt8(width,height);
+		ImageMiscOps.fillUniform(input,rand,0,200);
+
+		for( int radius = 0; radius <= height+1; radius++ ) {
+			ImageUInt8 found = new ImageUInt8(width,height);
+			ImplGaussianBox.vertical(input,found,radius,radius%2==0 ? null : new int[width+2]);
+
+			for( int y = 0; y < height; y++ ) {
+				for( int x = 0; x < width; x++ ) {
+					int y0 = Math.max(0,y-radius), y1 = Math.min(height-1,y+radius);
+					int total = 0;
+					for( int i = y0; i <= y1; i++ )
+						total += input.get(x,i);
+					int count = y1-y0+1;
+					assertEquals((total+count/2)/count,found.get(x,y));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void horizontal_F32() {
+		ImageFloat32 input = new ImageFloat32(width,height);
+		ImageMiscOps.fillUniform(input,rand,0,200);
+
+		for( int radius = 0; radius <= width+1; radius++ ) {
+			ImageFloat32 found = new ImageFloat32(width,height);
+			ImplGaussianBox.horizontal(input,found,radius);
+
+			for( int y = 0; y < height; y++ ) {
+				for( int x = 0; x < width; x++ ) {
+					int x0 = Math.max(0,x-radius), x1 = Math.min(width-1,x+radius);
+					float total = 0;
+					for( int i = x0; i <= x1; i++ )
+						total += input.get(i,y);
+					assertEquals(total/(x1-x0+1),found.get(x,y),1e-3f);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void vertical_F32() {
+		ImageFloat32 input = new ImageFloat32(width,height);
+		ImageMiscOps.fillUniform(input,rand,0,200);
+
+		for( int radius = 0; radius <= height+1; radius++ ) {
+			ImageFloat32 found = new ImageFloat32(width,height);
+			ImplGaussianBox.vertical(input,found,radius,radius%2==0 ? null : new float[width+2]);
+
+			for( int y = 0; y < height; y++ ) {
+				for( int x = 0; x < width; x++ ) {
+					int y0 = Math.max(0,y-radius), y1 = Math.min(height-1,y+radius);
+					float total = 0;
+					for( int i = y0; i <= y1; i++ )
+						total += input.get(x,i);
+					assertEquals(total/(y1-y0+1),found.get(x,y),1e-3f);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Compare against applying each pass by hand.  Also checks in place and radius zero passes
+	 */
+	@Test
+	public void process() {
+		ImageFloat32 input = new ImageFloat32(width,height);
+		ImageFloat32 storage = new ImageFloat32(width,height);
+		ImageMiscOps.fillUniform(input,rand,0,200);
+
+		int radii[] = new int[]{2,0,3};
+
+		ImageFloat32 expected = input.clone();
+		for( int i = 0; i < radii.length; i++ ) {
+			ImplGaussianBox.horizontal(expected,storage,radii[i]);
+			ImplGaussianBox.vertical(storage,expected,radii[i],null);
+		}
+
+		ImageFloat32 found = new ImageFloat32(width,height);
+		ImplGaussianBox.process(input,found,radii,storage,null);
+		BoofTesting.assertEquals(expected,found,1e-4);
+
+		found = input.clone();
+		ImplGaussianBox.process(found,found,radii,storage,new float[width]);
+		BoofTesting.assertEquals(expected,found,1e-4);
+
+		// all the passes do nothing
+		found = new ImageFloat32(width,height);
+		ImplGaussianBox.process(input,found,new int[]{0,0},storage,null);
+		BoofTesting.assertEquals(input,found,1e-8);
+	}
+
+	@Test
+	public void checkSubImage() {
+		ImageUInt8 inputU8 = new ImageUInt8(width,height);
+		ImageMiscOps.fillUniform(inputU8,rand,0,200);
+		BoofTesting.checkSubImage(this,"checkSubImage",true,inputU8,new ImageUInt8(width,height),new ImageUInt8(width,height));
+
+		ImageFloat32 inputF32 = new ImageFloat32(width,height);
+		ImageMiscOps.fillUniform(inputF32,rand,0,200);
+		BoofTesting.checkSubImage(this,"checkSubImage",true,inputF32,new ImageFloat32(width,height),new ImageFloat32(width,height));
+	}
+
+	public void checkSubImage( ImageUInt8 input , ImageUInt8 output , ImageUInt8 storage ) {
+		ImplGaussianBox.process(input,output,new int[]{1,2,3},storage,null);
+	}
+
+	public void checkSubImage( ImageFloat32 input , ImageFloat32 output , ImageFloat32 storage ) {
+		ImplGaussianBox.process(input,output,new int[]{1,2,3},storage,null);
+	}
+}
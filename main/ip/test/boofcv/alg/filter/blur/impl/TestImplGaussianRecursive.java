@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.blur.impl;
+
+import boofcv.alg.filter.blur.BlurImageOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.image.ImageFloat32;
+import boofcv.testing.BoofTesting;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestImplGaussianRecursive {
+
+	Random rand = new Random(234);
+
+	/**
+	 * The impulse response should have unit area and the requested standard deviation
+	 */
+	@Test
+	public void impulseResponse() {
+		for( double sigma : new double[]{0.5,1,2,5,10} ) {
+			ImageFloat32 input = new ImageFloat32(301,1);
+			ImageFloat32 output = new ImageFloat32(301,1);
+			input.set(150,0,1);
+
+			ImplGaussianRecursive.horizontal(ImplGaussianRecursive.coefficients(sigma),input,output,0,1);
+
+			double sum = 0, mean = 0;
+			for( int x = 0; x < input.width; x++ ) {
+				sum += output.get(x,0);
+				mean += x*output.get(x,0);
+			}
+			mean /= sum;
+			double variance = 0;
+			for( int x = 0; x < input.width; x++ ) {
+				variance += (x-mean)*(x-mean)*output.get(x,0);
+			}
+			variance /= sum;
+
+			assertEquals(1,sum,1e-3);
+			assertEquals(150,mean,1e-3);
+			assertEquals(sigma,Math.sqrt(variance),sigma*1e-3);
+		}
+	}
+
+	/**
+	 * The border should be the same as if the image was extended by repeating the edge pixels
+	 */
+	@Test
+	public void border() {
+		double sigma = 3;
+		int pad = 100;
+		ImplGaussianRecursive.Coefficients c = ImplGaussianRecursive.coefficients(sigma);
+
+		ImageFloat32 input = new ImageFloat32(20,15);
+		ImageMiscOps.fillUniform(input,rand,0,100);
+
+		ImageFloat32 padded = new ImageFloat32(input.width+2*pad,input.height+2*pad);
+		for( int y = 0; y < padded.height; y++ ) {
+			int yy = Math.min(input.height-1,Math.max(0,y-pad));
+			for( int x = 0; x < padded.width; x++ ) {
+				int xx = Math.min(input.width-1,Math.max(0,x-pad));
+				padded.set(x,y,input.get(xx,yy));
+			}
+		}
+
+		ImageFloat32 found = new ImageFloat32(input.width,input.height);
+		ImageFloat32 expected = new ImageFloat32(padded.width,padded.height);
+
+		ImplGaussianRecursive.horizontal(c,input,found,0,input.height);
+		ImplGaussianRecursive.vertical(c,found,found,0,input.width,null);
+		ImplGaussianRecursive.horizontal(c,padded,expected,0,padded.height);
+		ImplGaussianRecursive.vertical(c,expected,expected,0,padded.width,null);
+
+		ImageFloat32 center = expected.subimage(pad,pad,pad+input.width,pad+input.height);
+		BoofTesting.assertEquals(center,found,1e-3);
+	}
+
+	/**
+	 * Compare against convolution with a Gaussian kernel which isn't truncated
+	 */
+	@Test
+	public void compareToKernel() {
+		ImageFloat32 input = new ImageFloat32(100,80);
+		ImageMiscOps.fillUniform(input,rand,0,255);
+
+		for( double sigma : new double[]{2,4} ) {
+			int radius = (int)Math.ceil(6*sigma);
+			ImageFloat32 expected = BlurImageOps.gaussian(input,null,sigma,radius,null);
+
+			ImplGaussianRecursive.Coefficients c = ImplGaussianRecursive.coefficients(sigma);
+			ImageFloat32 found = new ImageFloat32(input.width,input.height);
+			ImplGaussianRecursive.horizontal(c,input,found,0,input.height);
+			ImplGaussianRecursive.vertical(c,found,found,0,input.width,null);
+
+			double sumSq = 0;
+			int total = 0;
+			for( int y = radius; y < input.height-radius; y++ ) {
+				for( int x = radius; x < input.width-radius; x++ ) {
+					double e = expected.get(x,y)-found.get(x,y);
+					sumSq += e*e;
+					total++;
+				}
+			}
+			assertTrue(Math.sqrt(sumSq/total) < 0.5);
+		}
+	}
+
+	/**
+	 * Process a sub-set of the rows and columns at a time
+	 */
+	@Test
+	public void partial() {
+		ImageFloat32 input = new ImageFloat32(30,25);
+		ImageMiscOps.fillUniform(input,rand,0,100);
+		ImplGaussianRecursive.Coefficients c = ImplGaussianRecursive.coefficients(2.5);
+
+		ImageFloat32 expected = new ImageFloat32(input.width,input.height);
+		ImplGaussianRecursive.horizontal(c,input,expected,0,input.height);
+		ImplGaussianRecursive.vertical(c,expected,expected,0,input.width,null);
+
+		ImageFloat32 storage = new ImageFloat32(input.width,input.height);
+		ImageFloat32 found = new ImageFloat32(input.width,input.height);
+		ImplGaussianRecursive.horizontal(c,input,storage,0,10);
+		ImplGaussianRecursive.horizontal(c,input,storage,10,25);
+		float work[] = new float[4*input.width];
+		ImplGaussianRecursive.vertical(c,storage,found,0,7,work);
+		ImplGaussianRecursive.vertical(c,storage,found,7,30,work);
+
+		BoofTesting.assertEquals(expected,found,1e-4);
+	}
+
+	@Test
+	public void subimage() {
+		ImageFloat32 input = new ImageFloat32(30,25);
+		ImageMiscOps.fillUniform(input,rand,0,100);
+
+		ImageFloat32 found = new ImageFloat32(input.width,input.height);
+		ImageFloat32 expected = new ImageFloat32(input.width,input.height);
+
+		BoofTesting.checkSubImage(this, "subimage", true, input, found, expected);
+	}
+
+	public void subimage(ImageFloat32 input, ImageFloat32 found, ImageFloat32 expected) {
+		ImplGaussianRecursive.Coefficients c = ImplGaussianRecursive.coefficients(1.5);
+
+		ImageFloat32 storage = new ImageFloat32(input.width,input.height);
+		ImplGaussianRecursive.horizontal(c,input,storage,0,input.height);
+		ImplGaussianRecursive.vertical(c,storage,found,0,input.width,null);
+
+		for( int y = 0; y < input.height; y++ ) {
+			for( int x = 0; x < input.width; x++ ) {
+				expected.set(x,y,input.get(x,y));
+			}
+		}
+		ImplGaussianRecursive.horizontal(c,expected,expected,0,input.height);
+		ImplGaussianRecursive.vertical(c,expected,expected,0,input.width,null);
+
+		BoofTesting.assertEquals(expected,found,1e-4);
+	}
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.blur.impl;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.image.ImageFloat32;
+import boofcv.testing.BoofTesting;
+import boofcv.testing.MaxThreadsRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestImplGaussianRecursive_MT {
+
+	Random rand = new Random(234);
+
+	@Rule
+	public MaxThreadsRule threads = new MaxThreadsRule(3);
+
+	@Test
+	public void compareToSingleThread() {
+		ImageFloat32 input = new ImageFloat32(150,60);
+		ImageMiscOps.fillUniform(input,rand,0,100);
+
+		ImageFloat32 found = new ImageFloat32(input.width,input.height);
+		ImageFloat32 expected = new ImageFloat32(input.width,input.height);
+
+		BoofTesting.checkSubImage(this, "compareToSingleThread", true, input, found, expected);
+	}
+
+	public void compareToSingleThread(ImageFloat32 input, ImageFloat32 found, ImageFloat32 expected) {
+		ImplGaussianRecursive.Coefficients c = ImplGaussianRecursive.coefficients(3);
+		ImageFloat32 storage = new ImageFloat32(input.width,input.height);
+
+		ImplGaussianRecursive.horizontal(c,input,storage,0,input.height);
+		ImplGaussianRecursive.vertical(c,storage,expected,0,input.width,null);
+
+		ImplGaussianRecursive_MT.horizontal(c,input,storage);
+		ImplGaussianRecursive_MT.vertical(c,storage,found);
+
+		BoofTesting.assertEquals(expected,found,0);
+	}
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.blur.impl;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.image.ImageUInt8;
+import boofcv.testing.BoofTesting;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestImplMedianHistogramConstant {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void compareToSort() {
+		ImageUInt8 image = new ImageUInt8(20,30);
+		ImageMiscOps.fillUniform(image,rand, 0, 256);
+
+		ImageUInt8 found = new ImageUInt8( image.width , image.height );
+		ImageUInt8 expected = new ImageUInt8( image.width , image.height );
+
+		BoofTesting.checkSubImage(this, "compareToSort", true, image, found, expected);
+	}
+
+	public void compareToSort(ImageUInt8 image, ImageUInt8 found, ImageUInt8 expected) {
+		for( int radius = 1; radius <= 6; radius++ ) {
+			ImplMedianHistogramConstant.process(image,found,radius,null);
+			ImplMedianSortNaive.process(image,expected,radius,null);
+
+			BoofTesting.assertEquals(expected,found,0);
+		}
+	}
+
+	/**
+	 * The region is larger than the image
+	 */
+	@Test
+	public void radiusLargerThanImage() {
+		ImageUInt8 image = new ImageUInt8(7,5);
+		ImageMiscOps.fillUniform(image,rand, 0, 256);
+
+		ImageUInt8 found = new ImageUInt8( image.width , image.height );
+		ImageUInt8 expected = new ImageUInt8( image.width , image.height );
+
+		ImplMedianHistogramConstant.process(image,found,10,null);
+		ImplMedianSortNaive.process(image,expected,10,null);
+
+		BoofTesting.assertEquals(expected,found,0);
+	}
+
+	/**
+	 * Process the image in several vertical strips and see if it's the same as processing it all at once
+	 */
+	@Test
+	public void strips() {
+		ImageUInt8 image = new ImageUInt8(40,30);
+		ImageMiscOps.fillUniform(image,rand, 0, 256);
+
+		int radius = 4;
+		ImageUInt8 found = new ImageUInt8( image.width , image.height );
+		ImageUInt8 expected = new ImageUInt8( image.width , image.height );
+
+		ImplMedianHistogramConstant.process(image,expected,radius,null);
+
+		short storage[] = new short[ ImplMedianHistogramConstant.storageSize(image.width,radius,0,image.width) ];
+		ImplMedianHistogramConstant.process(image,found,radius,0,3,storage);
+		ImplMedianHistogramConstant.process(image,found,radius,3,20,storage);
+		ImplMedianHistogramConstant.process(image,found,radius,20,40,storage);
+
+		BoofTesting.assertEquals(expected,found,0);
+	}
+}
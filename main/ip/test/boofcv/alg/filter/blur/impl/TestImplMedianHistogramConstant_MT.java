@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.blur.impl;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.image.ImageUInt8;
+import boofcv.testing.BoofTesting;
+import boofcv.testing.MaxThreadsRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestImplMedianHistogramConstant_MT {
+
+	Random rand = new Random(234);
+
+	@Rule
+	public MaxThreadsRule threads = new MaxThreadsRule(3);
+
+	@Test
+	public void compareToSingleThread() {
+		ImageUInt8 image = new ImageUInt8(120,40);
+		ImageMiscOps.fillUniform(image,rand, 0, 256);
+
+		ImageUInt8 found = new ImageUInt8( image.width , image.height );
+		ImageUInt8 expected = new ImageUInt8( image.width , image.height );
+
+		BoofTesting.checkSubImage(this, "compareToSingleThread", true, image, found, expected);
+	}
+
+	public void compareToSingleThread(ImageUInt8 image, ImageUInt8 found, ImageUInt8 expected) {
+		for( int radius = 1; radius <= 12; radius += 3 ) {
+			ImplMedianHistogramConstant_MT.process(image,found,radius);
+			ImplMedianHistogramConstant.process(image,expected,radius,null);
+
+			BoofTesting.assertEquals(expected,found,0);
+		}
+	}
+}
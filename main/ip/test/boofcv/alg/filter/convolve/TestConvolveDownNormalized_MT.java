@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.convolve;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.factory.filter.kernel.FactoryKernel;
+import boofcv.struct.convolve.Kernel1D;
+import boofcv.struct.convolve.Kernel1D_F32;
+import boofcv.struct.image.ImageSingleBand;
+import boofcv.testing.BoofTesting;
+import boofcv.testing.MaxThreadsRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestConvolveDownNormalized_MT {
+
+	Random rand = new Random(234);
+
+	@Rule
+	public MaxThreadsRule threads = new MaxThreadsRule(4);
+
+	/**
+	 * Output should be identical to the single threaded version
+	 */
+	@Test
+	public void compareToSingleThread() throws Exception {
+		int total = 0;
+		for( Method m : ConvolveDownNormalized_MT.class.getMethods() ) {
+			if( m.getDeclaringClass() != ConvolveDownNormalized_MT.class )
+				continue;
+
+			Class<?> params[] = m.getParameterTypes();
+			Method expected = ConvolveDownNormalized.class.getMethod(m.getName(),params);
+
+			for( int skip = 1; skip <= 3; skip++ ) {
+				for( int radius = 1; radius <= 10; radius += 3 ) {
+					compare(m,expected,skip,radius,21,32);
+					compare(m,expected,skip,radius,32,21);
+				}
+			}
+			total++;
+		}
+		assertEquals(6,total);
+	}
+
+	private void compare( Method found , Method expected , int skip , int radius , int width , int height )
+			throws Exception
+	{
+		Class<?> params[] = found.getParameterTypes();
+
+		Kernel1D kernel;
+		if( params[0] == Kernel1D_F32.class )
+			kernel = FactoryKernel.random1D_F32(radius,0,5,rand);
+		else
+			kernel = FactoryKernel.random1D_I32(radius,1,5,rand);
+
+		boolean horizontal = found.getName().equals("horizontal");
+		int outWidth = horizontal ? width/skip : width;
+		int outHeight = horizontal ? height : height/skip;
+
+		ImageSingleBand input = ConvolutionTestHelper.createImage(params[1],width,height);
+		ImageSingleBand outFound = ConvolutionTestHelper.createImage(params[2],outWidth,outHeight);
+		ImageSingleBand outExpected = ConvolutionTestHelper.createImage(params[2],outWidth,outHeight);
+		GImageMiscOps.fillUniform(input,rand,0,100);
+
+		found.invoke(null,kernel,input,outFound,skip);
+		expected.invoke(null,kernel,input,outExpected,skip);
+
+		BoofTesting.assertEquals(outExpected,outFound,0);
+	}
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.convolve;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.core.image.border.BorderType;
+import boofcv.core.image.border.FactoryImageBorder;
+import boofcv.core.image.border.ImageBorder_F32;
+import boofcv.struct.convolve.Kernel2D_F32;
+import boofcv.struct.image.ImageFloat32;
+import boofcv.testing.BoofTesting;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestConvolveImageFft {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void convolve_noborder() {
+		Kernel2D_F32 kernel = randomKernel(17);
+		ImageFloat32 input = new ImageFloat32(40,35);
+		ImageMiscOps.fillUniform(input,rand,0,100);
+		ImageFloat32 expected = new ImageFloat32(40,35);
+		ImageFloat32 found = new ImageFloat32(40,35);
+
+		ConvolveImageNoBorder.convolve(kernel,input,expected);
+		ConvolveImageFft.convolve(kernel,input,found);
+		BoofTesting.assertEquals(expected,found,1e-2);
+
+		// the kernel's spectrum will be reused
+		ImageMiscOps.fillUniform(input,rand,0,100);
+		ConvolveImageNoBorder.convolve(kernel,input,expected);
+		ConvolveImageFft.convolve(kernel,input,found);
+		BoofTesting.assertEquals(expected,found,1e-2);
+	}
+
+	@Test
+	public void convolve_border() {
+		Kernel2D_F32 kernel = randomKernel(17);
+		ImageFloat32 input = new ImageFloat32(40,35);
+		ImageMiscOps.fillUniform(input,rand,0,100);
+		ImageFloat32 expected = new ImageFloat32(40,35);
+		ImageFloat32 found = new ImageFloat32(40,35);
+
+		ImageBorder_F32 border = (ImageBorder_F32)FactoryImageBorder.general(input, BorderType.EXTENDED);
+		ConvolveWithBorder.convolve(kernel,input,expected,border);
+		ConvolveImageFft.convolve(kernel,input,found,border);
+		BoofTesting.assertEquals(expected,found,1e-2);
+	}
+
+	/**
+	 * Large kernels should be automatically convolved using the FFT
+	 */
+	@Test
+	public void generic() {
+		Kernel2D_F32 kernel = randomKernel(ConvolveImageFft.MINIMUM_KERNEL_WIDTH);
+		ImageFloat32 input = new ImageFloat32(40,35);
+		ImageMiscOps.fillUniform(input,rand,0,100);
+		ImageFloat32 expected = new ImageFloat32(40,35);
+		ImageFloat32 found = new ImageFloat32(40,35);
+
+		ConvolveImageNoBorder.convolve(kernel,input,expected);
+		GConvolveImageOps.convolve(kernel,input,found);
+		BoofTesting.assertEquals(expected,found,1e-2);
+
+		ImageBorder_F32 border = (ImageBorder_F32)FactoryImageBorder.general(input, BorderType.EXTENDED);
+		ConvolveWithBorder.convolve(kernel,input,expected,border);
+		GConvolveImageOps.convolve(kernel,input,found,border);
+		BoofTesting.assertEquals(expected,found,1e-2);
+	}
+
+	private Kernel2D_F32 randomKernel( int width ) {
+		Kernel2D_F32 kernel = new Kernel2D_F32(width);
+		for( int i = 0; i < kernel.data.length; i++ )
+			kernel.data[i] = rand.nextFloat()*2-1;
+		return kernel;
+	}
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.convolve;
+
+import boofcv.testing.MaxThreadsRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestConvolveImageNoBorder_MT {
+
+	@Rule
+	public MaxThreadsRule threads = new MaxThreadsRule(4);
+
+	@Test
+	public void compareToStandard() {
+		CompareToStandardConvolution a = new CompareToStandardConvolution(ConvolveImageNoBorder_MT.class);
+		a.performTests(20);
+	}
+
+	/**
+	 * Larger kernels will create bands which are thinner than the kernel
+	 */
+	@Test
+	public void compareToStandard_largeKernel() {
+		CompareToStandardConvolution a = new CompareToStandardConvolution(ConvolveImageNoBorder_MT.class);
+
+		int total = 0;
+		for( Method m : ConvolveImageNoBorder_MT.class.getMethods() ) {
+			if( m.getDeclaringClass() != ConvolveImageNoBorder_MT.class )
+				continue;
+			for( int radius = 2; radius <= 6; radius++ ) {
+				a.compareMethod(m, m.getName(), radius);
+			}
+			total++;
+		}
+		assertEquals(20,total);
+	}
+}
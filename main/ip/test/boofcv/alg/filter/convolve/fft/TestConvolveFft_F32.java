@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.convolve.fft;
+
+import boofcv.alg.filter.convolve.noborder.ConvolveImageStandard;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.alg.misc.ImageStatistics;
+import boofcv.struct.convolve.Kernel2D_F32;
+import boofcv.struct.image.ImageFloat32;
+import boofcv.testing.BoofTesting;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestConvolveFft_F32 {
+
+	Random rand = new Random(234);
+
+	/**
+	 * Compare against spatial convolution for a variety of image and kernel sizes.  A small maximum tile
+	 * size is used so that the image is split into many tiles.
+	 */
+	@Test
+	public void compareToStandard() {
+		for( int maxTile : new int[]{16,256} ) {
+			ConvolveFft_F32 alg = new ConvolveFft_F32(maxTile,false);
+			for( int kernelWidth : new int[]{1,3,7,15} ) {
+				for( int[] shape : new int[][]{{30,25},{15,40},{67,33}} ) {
+					compare(alg,kernelWidth,shape[0],shape[1]);
+				}
+			}
+		}
+	}
+
+	private void compare( ConvolveFft_F32 alg , int kernelWidth , int width , int height ) {
+		Kernel2D_F32 kernel = randomKernel(kernelWidth);
+
+		ImageFloat32 input = new ImageFloat32(width,height);
+		ImageMiscOps.fillUniform(input,rand,0,100);
+		ImageFloat32 expected = new ImageFloat32(width,height);
+		ImageFloat32 found = new ImageFloat32(width,height);
+		// the border should not be modified
+		ImageMiscOps.fill(expected,-1);
+		ImageMiscOps.fill(found,-1);
+
+		ConvolveImageStandard.convolve(kernel,input,expected);
+		alg.convolve(kernel,input,found);
+
+		BoofTesting.assertEquals(expected,found,1e-2);
+	}
+
+	/**
+	 * Make sure the cached spectrum is updated when the kernel's values are changed
+	 */
+	@Test
+	public void kernelChanged() {
+		ConvolveFft_F32 alg = new ConvolveFft_F32();
+		Kernel2D_F32 kernel = randomKernel(5);
+
+		ImageFloat32 input = new ImageFloat32(30,20);
+		ImageMiscOps.fillUniform(input,rand,0,100);
+		ImageFloat32 expected = new ImageFloat32(30,20);
+		ImageFloat32 found = new ImageFloat32(30,20);
+
+		alg.convolve(kernel,input,found);
+		kernel.data[3] += 2;
+		alg.convolve(kernel,input,found);
+
+		ConvolveImageStandard.convolve(kernel,input,expected);
+		BoofTesting.assertEquals(expected,found,1e-2);
+	}
+
+	/**
+	 * The tile should contain the whole image if it's small enough and be enlarged for large kernels
+	 */
+	@Test
+	public void tileShape() {
+		ConvolveFft_F32 alg = new ConvolveFft_F32(16,false);
+
+		alg.convolve(randomKernel(3),new ImageFloat32(10,6),new ImageFloat32(10,6));
+		assertEquals(16,alg.getTileWidth());
+		assertEquals(8,alg.getTileHeight());
+
+		alg.convolve(randomKernel(15),new ImageFloat32(100,100),new ImageFloat32(100,100));
+		assertEquals(32,alg.getTileWidth());
+		assertEquals(32,alg.getTileHeight());
+	}
+
+	/**
+	 * Kernel is larger than the image.  Nothing should be processed
+	 */
+	@Test
+	public void kernelLargerThanImage() {
+		ImageFloat32 output = new ImageFloat32(5,5);
+		new ConvolveFft_F32().convolve(randomKernel(7),new ImageFloat32(5,5),output);
+		assertEquals(0,ImageStatistics.maxAbs(output),1e-8);
+	}
+
+	@Test
+	public void checkSubImage() {
+		ImageFloat32 input = new ImageFloat32(30,25);
+		ImageMiscOps.fillUniform(input,rand,0,100);
+		BoofTesting.checkSubImage(this,"checkSubImage",true,input,new ImageFloat32(30,25));
+	}
+
+	public void checkSubImage( ImageFloat32 input , ImageFloat32 output ) {
+		Kernel2D_F32 kernel = new Kernel2D_F32(5);
+		for( int i = 0; i < kernel.data.length; i++ )
+			kernel.data[i] = i;
+		new ConvolveFft_F32(16,false).convolve(kernel,input,output);
+	}
+
+	private Kernel2D_F32 randomKernel( int width ) {
+		Kernel2D_F32 kernel = new Kernel2D_F32(width);
+		for( int i = 0; i < kernel.data.length; i++ )
+			kernel.data[i] = rand.nextFloat()*2-1;
+		return kernel;
+	}
+}
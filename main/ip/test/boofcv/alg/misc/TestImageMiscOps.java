@@ -22,6 +22,7 @@ import boofcv.core.image.FactoryGImageSingleBand;
 import boofcv.core.image.GImageSingleBand;
 import boofcv.core.image.GeneralizedImageOps;
 import boofcv.struct.image.ImageSingleBand;
+import boofcv.struct.image.ImageUInt8Buffer;
 import org.junit.Test;
 
 import java.lang.reflect.InvocationTargetException;
@@ -96,6 +97,36 @@ public class TestImageMiscOps {
 		return ImageSingleBand.class.isAssignableFrom(param[0]);
 	}
 
+	@Test
+	public void fill_U8Buffer() {
+		ImageUInt8Buffer img = new ImageUInt8Buffer(width+2,height);
+		ImageUInt8Buffer sub = img.subimage(1,0,width+1,height);
+
+		ImageMiscOps.fill(sub,200);
+
+		for( int y = 0; y < height; y++ ) {
+			for( int x = 0; x < width+2; x++ ) {
+				boolean inside = x >= 1 && x <= width;
+				assertEquals(inside ? 200 : 0,img.get(x,y));
+			}
+		}
+	}
+
+	@Test
+	public void fillRectangle_U8Buffer() {
+		ImageUInt8Buffer img = new ImageUInt8Buffer(width,height);
+
+		// partially outside the image
+		ImageMiscOps.fillRectangle(img,150,7,10,5,8);
+
+		for( int y = 0; y < height; y++ ) {
+			for( int x = 0; x < width; x++ ) {
+				boolean inside = x >= 7 && y >= 10;
+				assertEquals(inside ? 150 : 0,img.get(x,y));
+			}
+		}
+	}
+
 	private void testFill( Method m ) throws InvocationTargetException, IllegalAccessException {
 		Class paramTypes[] = m.getParameterTypes();
 		ImageSingleBand orig = GeneralizedImageOps.createSingleBand(paramTypes[0], width, height);
@@ -18,12 +18,12 @@
 
 package boofcv.alg.misc;
 
+import boofcv.core.image.ConvertImage;
 import boofcv.core.image.FactoryGImageSingleBand;
 import boofcv.core.image.GImageSingleBand;
 import boofcv.core.image.GeneralizedImageOps;
-import boofcv.struct.image.ImageBase;
-import boofcv.struct.image.ImageSingleBand;
-import boofcv.struct.image.MultiSpectral;
+import boofcv.struct.image.*;
+import boofcv.testing.BoofTesting;
 import org.junit.Test;
 
 import java.lang.reflect.InvocationTargetException;
@@ -106,9 +106,69 @@ public class TestPixelMath {
 		if( param.length < 1 )
 			return false;
 
+		// tested separately by the *_U8Buffer tests
+		if( param[0] == ImageUInt8Buffer.class )
+			return false;
+
 		return ImageBase.class.isAssignableFrom(param[0]);
 	}
 
+	@Test
+	public void multiply_U8Buffer() {
+		ImageUInt8 input = new ImageUInt8(width,height);
+		ImageMiscOps.fillUniform(input,rand,0,100);
+		ImageUInt8Buffer inputB = ConvertImage.convert(input,(ImageUInt8Buffer)null);
+		ImageUInt8Buffer outputB = new ImageUInt8Buffer(width+2,height+2).subimage(1,1,width+1,height+1);
+
+		ImageUInt8 expected = new ImageUInt8(width,height);
+		PixelMath.multiply(input,2.5,expected);
+		PixelMath.multiply(inputB,2.5,outputB);
+
+		BoofTesting.assertEquals(expected,ConvertImage.convert(outputB,(ImageUInt8)null),0);
+	}
+
+	@Test
+	public void plus_U8Buffer() {
+		ImageUInt8 input = new ImageUInt8(width,height);
+		ImageMiscOps.fillUniform(input,rand,0,200);
+		ImageUInt8Buffer inputB = ConvertImage.convert(input,(ImageUInt8Buffer)null);
+		ImageUInt8Buffer outputB = new ImageUInt8Buffer(width+2,height+2).subimage(1,1,width+1,height+1);
+
+		ImageUInt8 expected = new ImageUInt8(width,height);
+		PixelMath.plus(input,40,expected);
+		PixelMath.plus(inputB,40,outputB);
+
+		BoofTesting.assertEquals(expected,ConvertImage.convert(outputB,(ImageUInt8)null),0);
+	}
+
+	@Test
+	public void boundImage_U8Buffer() {
+		ImageUInt8 input = new ImageUInt8(width,height);
+		ImageMiscOps.fillUniform(input,rand,0,256);
+		ImageUInt8Buffer inputB = ConvertImage.convert(input,(ImageUInt8Buffer)null);
+
+		PixelMath.boundImage(input,20,200);
+		PixelMath.boundImage(inputB,20,200);
+
+		BoofTesting.assertEquals(input,ConvertImage.convert(inputB,(ImageUInt8)null),0);
+	}
+
+	@Test
+	public void diffAbs_U8Buffer() {
+		ImageUInt8 inputA = new ImageUInt8(width,height);
+		ImageUInt8 inputB = new ImageUInt8(width,height);
+		ImageMiscOps.fillUniform(inputA,rand,0,256);
+		ImageMiscOps.fillUniform(inputB,rand,0,256);
+
+		ImageUInt8 expected = new ImageUInt8(width,height);
+		ImageUInt8 found = new ImageUInt8(width,height);
+		PixelMath.diffAbs(inputA,inputB,expected);
+		PixelMath.diffAbs(ConvertImage.convert(inputA,(ImageUInt8Buffer)null),
+				ConvertImage.convert(inputB,(ImageUInt8Buffer)null),found);
+
+		BoofTesting.assertEquals(expected,found,0);
+	}
+
 	private void testDivide( Method m ) throws InvocationTargetException, IllegalAccessException {
 		Class paramTypes[] = m.getParameterTypes();
 		ImageSingleBand input = GeneralizedImageOps.createSingleBand(paramTypes[0], width, height);
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.transform.fft;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestFftCooleyTukey {
+
+	Random rand = new Random(234);
+
+	int lengths[] = new int[]{1,2,3,4,5,7,8,12,16,17,31,64,100};
+
+	/**
+	 * Compare against a direct computation of the DFT for power of two and other lengths
+	 */
+	@Test
+	public void forward() {
+		for( int length : lengths ) {
+			double real[] = randomArray(length);
+			double imag[] = randomArray(length);
+
+			double expectedR[] = new double[length];
+			double expectedI[] = new double[length];
+			dft(real,imag,expectedR,expectedI,-1);
+
+			new FftCooleyTukey(length).forward(real,imag);
+
+			for( int i = 0; i < length; i++ ) {
+				assertEquals(expectedR[i],real[i],1e-8);
+				assertEquals(expectedI[i],imag[i],1e-8);
+			}
+		}
+	}
+
+	@Test
+	public void inverse() {
+		for( int length : lengths ) {
+			double real[] = randomArray(length);
+			double imag[] = randomArray(length);
+
+			double expectedR[] = new double[length];
+			double expectedI[] = new double[length];
+			dft(real,imag,expectedR,expectedI,1);
+
+			new FftCooleyTukey(length).inverse(real,imag);
+
+			for( int i = 0; i < length; i++ ) {
+				assertEquals(expectedR[i],real[i],1e-8);
+				assertEquals(expectedI[i],imag[i],1e-8);
+			}
+		}
+	}
+
+	/**
+	 * Forward then inverse should scale the original data by the length
+	 */
+	@Test
+	public void forwardInverse() {
+		for( int length : new int[]{128,1000,1023} ) {
+			double real[] = randomArray(length);
+			double imag[] = randomArray(length);
+			double origR[] = real.clone();
+			double origI[] = imag.clone();
+
+			FftCooleyTukey alg = new FftCooleyTukey(length);
+			alg.forward(real,imag);
+			alg.inverse(real,imag);
+
+			for( int i = 0; i < length; i++ ) {
+				assertEquals(origR[i],real[i]/length,1e-8);
+				assertEquals(origI[i],imag[i]/length,1e-8);
+			}
+		}
+	}
+
+	@Test
+	public void isPowerOfTwo() {
+		assertTrue(FftCooleyTukey.isPowerOfTwo(1));
+		assertTrue(FftCooleyTukey.isPowerOfTwo(2));
+		assertTrue(FftCooleyTukey.isPowerOfTwo(1024));
+		assertFalse(FftCooleyTukey.isPowerOfTwo(0));
+		assertFalse(FftCooleyTukey.isPowerOfTwo(3));
+		assertFalse(FftCooleyTukey.isPowerOfTwo(1023));
+	}
+
+	private double[] randomArray( int length ) {
+		double a[] = new double[length];
+		for( int i = 0; i < length; i++ )
+			a[i] = rand.nextDouble()*10-5;
+		return a;
+	}
+
+	public static void dft( double inR[] , double inI[] , double outR[] , double outI[] , int sign ) {
+		int N = inR.length;
+		for( int k = 0; k < N; k++ ) {
+			double sumR = 0, sumI = 0;
+			for( int n = 0; n < N; n++ ) {
+				double theta = sign*2.0*Math.PI*((long)k*n % N)/N;
+				double c = Math.cos(theta), s = Math.sin(theta);
+				sumR += inR[n]*c - inI[n]*s;
+				sumI += inR[n]*s + inI[n]*c;
+			}
+			outR[k] = sumR;
+			outI[k] = sumI;
+		}
+	}
+}
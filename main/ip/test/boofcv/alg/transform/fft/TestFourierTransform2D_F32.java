@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.transform.fft;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.image.ImageFloat32;
+import boofcv.testing.BoofTesting;
+import boofcv.testing.MaxThreadsRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestFourierTransform2D_F32 {
+
+	Random rand = new Random(234);
+
+	int shapes[][] = new int[][]{{8,4},{7,5},{6,9},{1,3},{4,1},{1,1},{16,16},{13,11}};
+
+	@Rule
+	public MaxThreadsRule threads = new MaxThreadsRule(3);
+
+	/**
+	 * Compare against a direct computation of the 2D DFT
+	 */
+	@Test
+	public void forward() {
+		for( int[] shape : shapes ) {
+			int w = shape[0], h = shape[1];
+			ImageFloat32 input = new ImageFloat32(w,h);
+			ImageMiscOps.fillUniform(input,rand,-5,5);
+
+			ImageFloat32 found = new FourierTransform2D_F32().forward(input,null);
+
+			assertEquals(FourierTransform2D_F32.packedWidth(w),found.width);
+			assertEquals(h,found.height);
+
+			for( int v = 0; v < h; v++ ) {
+				for( int u = 0; u <= w/2; u++ ) {
+					double sumR = 0, sumI = 0;
+					for( int y = 0; y < h; y++ ) {
+						for( int x = 0; x < w; x++ ) {
+							double theta = -2.0*Math.PI*((double)u*x/w + (double)v*y/h);
+							sumR += input.get(x,y)*Math.cos(theta);
+							sumI += input.get(x,y)*Math.sin(theta);
+						}
+					}
+					assertEquals(sumR/(w*h),found.get(2*u,v),1e-4);
+					assertEquals(sumI/(w*h),found.get(2*u+1,v),1e-4);
+				}
+			}
+		}
+	}
+
+	/**
+	 * The inverse should recover the original image
+	 */
+	@Test
+	public void forwardInverse() {
+		for( boolean concurrent : new boolean[]{false,true}) {
+			FourierTransform2D_F32 alg = new FourierTransform2D_F32(concurrent);
+			for( int[] shape : shapes ) {
+				ImageFloat32 input = new ImageFloat32(shape[0],shape[1]);
+				ImageMiscOps.fillUniform(input,rand,-5,5);
+				ImageFloat32 spectrum = alg.forward(input,null);
+				ImageFloat32 copy = spectrum.clone();
+
+				ImageFloat32 found = new ImageFloat32(shape[0],shape[1]);
+				alg.inverse(spectrum,found);
+
+				BoofTesting.assertEquals(input,found,1e-4);
+				// the input should not be modified
+				BoofTesting.assertEquals(copy,spectrum,1e-6);
+			}
+		}
+	}
+
+	@Test
+	public void concurrent() {
+		ImageFloat32 input = new ImageFloat32(60,45);
+		ImageMiscOps.fillUniform(input,rand,-5,5);
+
+		ImageFloat32 expected = new FourierTransform2D_F32(false).forward(input,null);
+		ImageFloat32 found = new FourierTransform2D_F32(true).forward(input,null);
+
+		BoofTesting.assertEquals(expected,found,1e-6);
+	}
+
+	@Test
+	public void checkSubImage() {
+		ImageFloat32 input = new ImageFloat32(10,7);
+		ImageMiscOps.fillUniform(input,rand,-5,5);
+		ImageFloat32 spectrum = new ImageFloat32(FourierTransform2D_F32.packedWidth(10),7);
+		ImageFloat32 output = new ImageFloat32(10,7);
+
+		BoofTesting.checkSubImage(this,"checkSubImage",true,input,spectrum,output);
+	}
+
+	public void checkSubImage( ImageFloat32 input , ImageFloat32 spectrum , ImageFloat32 output ) {
+		FourierTransform2D_F32 alg = new FourierTransform2D_F32();
+		alg.forward(input,spectrum);
+		alg.inverse(spectrum,output);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void badShape() {
+		new FourierTransform2D_F32().forward(new ImageFloat32(10,7),new ImageFloat32(10,7));
+	}
+}
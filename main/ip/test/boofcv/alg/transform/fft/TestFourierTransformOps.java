@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.transform.fft;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.ImageFloat64;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestFourierTransformOps {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void multiplyComplex_F32() {
+		ImageFloat32 a = new ImageFloat32(10,6);
+		ImageFloat32 b = new ImageFloat32(10,6);
+		ImageFloat32 c = new ImageFloat32(10,6);
+		ImageMiscOps.fillUniform(a,rand,-5,5);
+		ImageMiscOps.fillUniform(b,rand,-5,5);
+
+		FourierTransformOps.multiplyComplex(a,b,c);
+
+		for( int y = 0; y < a.height; y++ ) {
+			for( int x = 0; x < a.width; x += 2 ) {
+				float ar = a.get(x,y), ai = a.get(x+1,y);
+				float br = b.get(x,y), bi = b.get(x+1,y);
+				assertEquals(ar*br-ai*bi,c.get(x,y),1e-4f);
+				assertEquals(ar*bi+ai*br,c.get(x+1,y),1e-4f);
+			}
+		}
+	}
+
+	@Test
+	public void multiplyComplex_F64() {
+		ImageFloat64 a = new ImageFloat64(10,6);
+		ImageFloat64 b = new ImageFloat64(10,6);
+		ImageFloat64 c = new ImageFloat64(10,6);
+		ImageMiscOps.fillUniform(a,rand,-5,5);
+		ImageMiscOps.fillUniform(b,rand,-5,5);
+
+		FourierTransformOps.multiplyComplex(a,b,c);
+
+		for( int y = 0; y < a.height; y++ ) {
+			for( int x = 0; x < a.width; x += 2 ) {
+				double ar = a.get(x,y), ai = a.get(x+1,y);
+				double br = b.get(x,y), bi = b.get(x+1,y);
+				assertEquals(ar*br-ai*bi,c.get(x,y),1e-8);
+				assertEquals(ar*bi+ai*br,c.get(x+1,y),1e-8);
+			}
+		}
+
+		// the output can be one of the inputs
+		ImageFloat64 expected = c.clone();
+		FourierTransformOps.multiplyComplex(a,b,a);
+		for( int i = 0; i < a.data.length; i++ )
+			assertEquals(expected.data[i],a.data[i],1e-8);
+	}
+
+	@Test
+	public void crossPowerSpectrum_F32() {
+		ImageFloat32 a = new ImageFloat32(10,6);
+		ImageFloat32 b = new ImageFloat32(10,6);
+		ImageFloat32 c = new ImageFloat32(10,6);
+		ImageMiscOps.fillUniform(a,rand,-5,5);
+		ImageMiscOps.fillUniform(b,rand,-5,5);
+		// a zero element
+		b.set(2,1,0); b.set(3,1,0);
+
+		FourierTransformOps.crossPowerSpectrum(a,b,c);
+
+		for( int y = 0; y < a.height; y++ ) {
+			for( int x = 0; x < a.width; x += 2 ) {
+				float ar = a.get(x,y), ai = a.get(x+1,y);
+				float br = b.get(x,y), bi = -b.get(x+1,y);
+				float real = ar*br-ai*bi, imag = ar*bi+ai*br;
+				float norm = (float)Math.sqrt(real*real + imag*imag);
+				if( norm == 0 ) norm = 1;
+				assertEquals(real/norm,c.get(x,y),1e-4f);
+				assertEquals(imag/norm,c.get(x+1,y),1e-4f);
+			}
+		}
+	}
+
+	@Test
+	public void crossPowerSpectrum_F64() {
+		ImageFloat64 a = new ImageFloat64(10,6);
+		ImageFloat64 b = new ImageFloat64(10,6);
+		ImageFloat64 c = new ImageFloat64(10,6);
+		ImageMiscOps.fillUniform(a,rand,-5,5);
+		ImageMiscOps.fillUniform(b,rand,-5,5);
+
+		FourierTransformOps.crossPowerSpectrum(a,b,c);
+
+		for( int y = 0; y < a.height; y++ ) {
+			for( int x = 0; x < a.width; x += 2 ) {
+				double ar = a.get(x,y), ai = a.get(x+1,y);
+				double br = b.get(x,y), bi = -b.get(x+1,y);
+				double real = ar*br-ai*bi, imag = ar*bi+ai*br;
+				double norm = Math.sqrt(real*real + imag*imag);
+				assertEquals(real/norm,c.get(x,y),1e-8);
+				assertEquals(imag/norm,c.get(x+1,y),1e-8);
+			}
+		}
+	}
+}
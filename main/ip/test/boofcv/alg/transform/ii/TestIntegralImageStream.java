@@ -0,0 +1,257 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.transform.ii;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.ImageRectangle;
+import boofcv.struct.image.ImageSInt32;
+import boofcv.struct.image.ImageSInt64;
+import boofcv.struct.image.ImageUInt16;
+import boofcv.struct.image.ImageUInt8;
+import boofcv.testing.BoofTesting;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestIntegralImageStream {
+
+	Random rand = new Random(234);
+	int width = 20;
+	int height = 35;
+
+	/**
+	 * Adds rows one at a time and compares the saved rows against the integral image of the whole image
+	 */
+	@Test
+	public void addRows_U8() {
+		ImageUInt8 input = new ImageUInt8(width,height);
+		ImageMiscOps.fillUniform(input,rand,0,255);
+		ImageSInt32 expected = IntegralImageOps.transform(input,null);
+
+		IntegralImageStream alg = new IntegralImageStream(width,7);
+		for( int y = 0; y < height; y++ ) {
+			alg.addRows(input.subimage(0,y,width,y+1));
+			checkWindow(alg,expected);
+		}
+		assertEquals(height,alg.getNumRows());
+		assertEquals(height-7,alg.getFirstRow());
+	}
+
+	@Test
+	public void addRows_U16() {
+		ImageUInt16 input = new ImageUInt16(width,height);
+		ImageMiscOps.fillUniform(input,rand,0,60000);
+		ImageSInt64 expected = new ImageSInt64(width,height);
+		for( int y = 0; y < height; y++ ) {
+			for( int x = 0; x < width; x++ ) {
+				long above = y > 0 ? expected.get(x,y-1) : 0;
+				long left = x > 0 ? expected.get(x-1,y) : 0;
+				long diag = x > 0 && y > 0 ? expected.get(x-1,y-1) : 0;
+				expected.set(x,y,input.get(x,y) + above + left - diag);
+			}
+		}
+
+		IntegralImageStream alg = new IntegralImageStream(width,4);
+		// add several rows at once
+		for( int y = 0; y < height; y += 3 ) {
+			alg.addRows(input.subimage(0,y,width,Math.min(height,y+3)));
+			checkWindow(alg,expected);
+		}
+	}
+
+	/**
+	 * Sub-images should be handled correctly
+	 */
+	@Test
+	public void addRows_subimage() {
+		ImageUInt8 input = new ImageUInt8(width,height);
+		ImageMiscOps.fillUniform(input,rand,0,255);
+		ImageSInt32 expected = IntegralImageOps.transform(input,null);
+
+		ImageUInt8 sub = BoofTesting.createSubImageOf(input);
+		IntegralImageStream alg = new IntegralImageStream(width,5);
+		alg.addRows(sub);
+		checkWindow(alg,expected);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void addRows_wrongWidth() {
+		IntegralImageStream alg = new IntegralImageStream(width,5);
+		alg.addRows(new ImageUInt8(width+1,2));
+	}
+
+	private void checkWindow( IntegralImageStream alg , IntegralAccess expected ) {
+		ImageSInt64 window = alg.getWindow();
+		int first = alg.getFirstRow();
+		assertEquals(alg.getNumRows()-first,window.height);
+		for( int y = first; y < alg.getNumRows(); y++ ) {
+			for( int x = 0; x < width; x++ ) {
+				assertEquals(expected.get(x,y),alg.get(x,y));
+				assertEquals(expected.get(x,y),window.get(x,y-first));
+			}
+		}
+	}
+
+	private void checkWindow( IntegralImageStream alg , final ImageSInt32 expected ) {
+		checkWindow(alg,new IntegralAccess() {
+			@Override
+			public long get(int x, int y) {return expected.get(x,y);}
+		});
+	}
+
+	private void checkWindow( IntegralImageStream alg , final ImageSInt64 expected ) {
+		checkWindow(alg,new IntegralAccess() {
+			@Override
+			public long get(int x, int y) {return expected.get(x,y);}
+		});
+	}
+
+	private interface IntegralAccess {
+		long get( int x , int y );
+	}
+
+	/**
+	 * Pixels with large values in a tall image will overflow a 32-bit integer
+	 */
+	@Test
+	public void noOverflow() {
+		ImageUInt16 row = new ImageUInt16(width,1);
+		ImageMiscOps.fill(row,65535);
+
+		int tall = 2000;
+		IntegralImageStream alg = new IntegralImageStream(width,3);
+		for( int y = 0; y < tall; y++ )
+			alg.addRows(row);
+
+		long expected = 65535L*width*tall;
+		assertTrue(expected > Integer.MAX_VALUE);
+		assertEquals(expected,alg.get(width-1,tall-1));
+		assertEquals(65535L*width*2,alg.block_zero(-1,tall-3,width-1,tall-1));
+	}
+
+	@Test
+	public void block_zero() {
+		ImageUInt8 input = new ImageUInt8(width,height);
+		ImageMiscOps.fillUniform(input,rand,0,255);
+		ImageSInt32 expected = IntegralImageOps.transform(input,null);
+
+		IntegralImageStream alg = new IntegralImageStream(width,height);
+		alg.addRows(input);
+
+		for( int i = 0; i < 100; i++ ) {
+			int x0 = rand.nextInt(width+4)-3;
+			int y0 = rand.nextInt(height+2)-3;
+			int x1 = x0 + rand.nextInt(8);
+			int y1 = Math.min(height-1,y0 + rand.nextInt(8));
+
+			int found = (int)alg.block_zero(x0,y0,x1,y1);
+			assertEquals(IntegralImageOps.block_zero(expected,x0,y0,x1,y1),found);
+		}
+	}
+
+	@Test
+	public void isAvailable() {
+		IntegralImageStream alg = new IntegralImageStream(width,5);
+		ImageUInt8 row = new ImageUInt8(width,1);
+
+		assertFalse(alg.isAvailable(-1,0));
+		alg.addRows(row);
+		assertTrue(alg.isAvailable(-1,0));
+		assertTrue(alg.isAvailable(-5,0));
+		assertFalse(alg.isAvailable(-1,1));
+
+		for( int i = 0; i < 6; i++ )
+			alg.addRows(row);
+
+		// rows 2 to 6 are saved
+		assertTrue(alg.isAvailable(2,6));
+		assertFalse(alg.isAvailable(1,6));
+		assertFalse(alg.isAvailable(2,7));
+		assertTrue(alg.isAvailable(-1,-1));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void get_discarded() {
+		IntegralImageStream alg = new IntegralImageStream(width,2);
+		alg.addRows(new ImageUInt8(width,3));
+		alg.get(0,0);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void get_notAdded() {
+		IntegralImageStream alg = new IntegralImageStream(width,2);
+		alg.addRows(new ImageUInt8(width,3));
+		alg.get(0,3);
+	}
+
+	/**
+	 * Compare against the integral image of the whole image as soon as each row can be convolved
+	 */
+	@Test
+	public void convolveSparse_convolveRow() {
+		ImageUInt8 input = new ImageUInt8(width,height);
+		ImageMiscOps.fillUniform(input,rand,0,255);
+		ImageSInt32 integral = IntegralImageOps.transform(input,null);
+
+		IntegralKernel kernel = new IntegralKernel(2);
+		kernel.blocks[0] = new ImageRectangle(-3,-3,2,2);
+		kernel.blocks[1] = new ImageRectangle(-2,-1,1,0);
+		kernel.scales[0] = 1;
+		kernel.scales[1] = -2;
+
+		IntegralImageStream alg = new IntegralImageStream(width,6);
+		long found[] = new long[width];
+		int nextRow = 0;
+		for( int y = 0; y < height; y++ ) {
+			alg.addRows(input.subimage(0,y,width,y+1));
+
+			while( nextRow < height && alg.isAvailable(kernel,nextRow) ) {
+				alg.convolveRow(kernel,nextRow,found);
+				for( int x = 0; x < width; x++ ) {
+					int expected = IntegralImageOps.convolveSparse(integral,kernel,x,nextRow);
+					assertEquals(expected,alg.convolveSparse(kernel,x,nextRow));
+					assertEquals(expected,found[x]);
+				}
+				nextRow++;
+			}
+		}
+		// the last rows can't be processed until the image has been fully added
+		assertEquals(height-2,nextRow);
+	}
+
+	@Test
+	public void reset() {
+		IntegralImageStream alg = new IntegralImageStream(width,5);
+		ImageUInt8 row = new ImageUInt8(width,1);
+		ImageMiscOps.fill(row,2);
+		alg.addRows(row);
+		alg.addRows(row);
+		alg.reset();
+
+		assertEquals(0,alg.getNumRows());
+		assertEquals(0,alg.getWindow().height);
+		alg.addRows(row);
+		assertEquals(2*width,alg.get(width-1,0));
+	}
+}
@@ -19,11 +19,14 @@
 package boofcv.alg.transform.pyramid;
 
 import boofcv.alg.filter.convolve.ConvolveNormalized;
+import boofcv.alg.misc.GImageMiscOps;
 import boofcv.factory.filter.kernel.FactoryKernelGaussian;
 import boofcv.struct.convolve.Kernel1D_F32;
 import boofcv.struct.image.ImageFloat32;
 import boofcv.struct.pyramid.ImagePyramid;
 import boofcv.testing.BoofTesting;
+import boofcv.testing.MaxThreadsRule;
+import org.junit.Rule;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
@@ -33,6 +36,9 @@ import static org.junit.Assert.assertEquals;
  */
 public class TestPyramidDiscreteSampleBlur extends GenericPyramidTests<ImageFloat32> {
 
+	@Rule
+	public MaxThreadsRule threads = new MaxThreadsRule(3);
+
 	public TestPyramidDiscreteSampleBlur() {
 		super(ImageFloat32.class);
 	}
@@ -113,4 +119,28 @@ public class TestPyramidDiscreteSampleBlur extends GenericPyramidTests<ImageFloa
 		Kernel1D_F32 kernel = FactoryKernelGaussian.gaussian(Kernel1D_F32.class,-1,3);
 		return new PyramidDiscreteSampleBlur<ImageFloat32>(kernel,3,ImageFloat32.class,true,new int[]{1,2,4});
 	}
+
+	/**
+	 * The concurrent implementation should produce identical results
+	 */
+	@Test
+	public void concurrent() {
+		ImageFloat32 input = new ImageFloat32(width,height);
+		GImageMiscOps.fillUniform(input, rand, 0, 100);
+
+		Kernel1D_F32 kernel = FactoryKernelGaussian.gaussian(Kernel1D_F32.class,-1,3);
+		int scales[] = new int[]{2,4,8};
+
+		PyramidDiscreteSampleBlur<ImageFloat32> expected =
+				new PyramidDiscreteSampleBlur<ImageFloat32>(kernel,3,ImageFloat32.class,false,scales);
+		PyramidDiscreteSampleBlur<ImageFloat32> found =
+				new PyramidDiscreteSampleBlur<ImageFloat32>(kernel,3,ImageFloat32.class,false,scales);
+		found.setConcurrent(true);
+
+		expected.process(input);
+		found.process(input);
+
+		for( int i = 0; i < scales.length; i++ )
+			BoofTesting.assertEquals(expected.getLayer(i),found.getLayer(i),0);
+	}
 }
@@ -20,14 +20,18 @@ package boofcv.alg.transform.pyramid;
 
 import boofcv.abst.filter.blur.BlurFilter;
 import boofcv.alg.distort.DistortImageOps;
+import boofcv.alg.filter.blur.BlurImageOps;
 import boofcv.alg.interpolate.InterpolatePixel;
 import boofcv.alg.interpolate.TypeInterpolate;
+import boofcv.alg.misc.GImageMiscOps;
 import boofcv.factory.filter.blur.FactoryBlurFilter;
 import boofcv.factory.interpolate.FactoryInterpolation;
 import boofcv.misc.BoofMiscOps;
 import boofcv.struct.image.ImageFloat32;
 import boofcv.struct.pyramid.ImagePyramid;
 import boofcv.testing.BoofTesting;
+import boofcv.testing.MaxThreadsRule;
+import org.junit.Rule;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
@@ -38,6 +42,9 @@ import static org.junit.Assert.assertEquals;
  */
 public class TestPyramidFloatGaussianScale extends GenericPyramidTests<ImageFloat32> {
 
+	@Rule
+	public MaxThreadsRule threads = new MaxThreadsRule(3);
+
 	double sigmas[] = new double[]{1,2};
 	double scales[] = new double[]{3,5};
 
@@ -115,4 +122,45 @@ public class TestPyramidFloatGaussianScale extends GenericPyramidTests<ImageFloa
 		assertEquals(1,alg.getSigma(0),1e-6);
 		assertEquals(4.123105625617661,alg.getSigma(1),0.001);
 	}
+
+	/**
+	 * The concurrent implementation should produce identical results
+	 */
+	@Test
+	public void concurrent() {
+		ImageFloat32 img = new ImageFloat32(width,height);
+		GImageMiscOps.fillUniform(img, rand, 0, 100);
+
+		InterpolatePixel<ImageFloat32> interp = FactoryInterpolation.bilinearPixel(img);
+		PyramidFloatGaussianScale<ImageFloat32> expected =
+				new PyramidFloatGaussianScale<ImageFloat32>(interp,scales,sigmas,imageType);
+		interp = FactoryInterpolation.bilinearPixel(img);
+		PyramidFloatGaussianScale<ImageFloat32> found =
+				new PyramidFloatGaussianScale<ImageFloat32>(interp,scales,sigmas,imageType);
+		found.setConcurrent(true);
+
+		expected.process(img);
+		found.process(img);
+
+		for( int i = 0; i < scales.length; i++ )
+			BoofTesting.assertEquals(expected.getLayer(i),found.getLayer(i),0);
+	}
+
+	/**
+	 * When configured to use a recursive filter the first layer should be the same as blurring with it directly
+	 */
+	@Test
+	public void recursive() {
+		ImageFloat32 img = new ImageFloat32(width,height);
+		GImageMiscOps.fillUniform(img, rand, 0, 100);
+
+		InterpolatePixel<ImageFloat32> interp = FactoryInterpolation.bilinearPixel(img);
+		PyramidFloatGaussianScale<ImageFloat32> alg =
+				new PyramidFloatGaussianScale<ImageFloat32>(interp,new double[]{1,2},sigmas,imageType);
+		alg.setRecursive(true);
+		alg.process(img);
+
+		ImageFloat32 expected = BlurImageOps.gaussianRecursive(img,null,sigmas[0],null);
+		BoofTesting.assertEquals(expected,alg.getLayer(0),1e-4);
+	}
 }
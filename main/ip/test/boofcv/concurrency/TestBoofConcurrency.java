@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.concurrency;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestBoofConcurrency {
+
+	int originalThreads = BoofConcurrency.getMaxThreads();
+
+	@After
+	public void restore() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+	}
+
+	/**
+	 * Every index should be processed exactly once no matter how many threads there are
+	 */
+	@Test
+	public void loopBlocks_coverage() {
+		for( int numThreads = 1; numThreads <= 5; numThreads++ ) {
+			BoofConcurrency.setMaxThreads(numThreads);
+
+			for( int length = 0; length < 12; length++ ) {
+				final int counts[] = new int[ length+3 ];
+
+				BoofConcurrency.loopBlocks(3, 3 + length, new IntRangeTask() {
+					@Override
+					public void process(int index0, int index1) {
+						for( int i = index0; i < index1; i++ )
+							counts[i]++;
+					}
+				});
+
+				for( int i = 0; i < 3; i++ )
+					assertEquals(0,counts[i]);
+				for( int i = 3; i < counts.length; i++ )
+					assertEquals(1,counts[i]);
+			}
+		}
+	}
+
+	/**
+	 * Changing the number of threads while another thread is using the pool should not cause its work to be
+	 * rejected or lost
+	 */
+	@Test
+	public void setMaxThreads_whileRunning() throws InterruptedException {
+		BoofConcurrency.setMaxThreads(3);
+
+		final RuntimeException failure[] = new RuntimeException[1];
+		final AtomicBoolean finished = new AtomicBoolean(false);
+		Thread worker = new Thread() {
+			@Override
+			public void run() {
+				try {
+					while( !finished.get() ) {
+						final int counts[] = new int[100];
+						BoofConcurrency.loopBlocks(0, counts.length, new IntRangeTask() {
+							@Override
+							public void process(int index0, int index1) {
+								for( int i = index0; i < index1; i++ )
+									counts[i]++;
+							}
+						});
+						for( int i = 0; i < counts.length; i++ )
+							if( counts[i] != 1 )
+								throw new RuntimeException("Index not processed once");
+					}
+				} catch( RuntimeException e ) {
+					failure[0] = e;
+				}
+			}
+		};
+		worker.start();
+
+		for( int i = 0; i < 200; i++ ) {
+			BoofConcurrency.setMaxThreads(2 + i%3);
+			Thread.yield();
+		}
+		finished.set(true);
+		worker.join();
+
+		if( failure[0] != null )
+			throw failure[0];
+	}
+
+	/**
+	 * Blocks should never be smaller than the minimum size, unless the whole range is smaller
+	 */
+	@Test
+	public void loopBlocks_minBlock() {
+		BoofConcurrency.setMaxThreads(4);
+
+		final int sizes[] = new int[1];
+		BoofConcurrency.loopBlocks(0, 20, 8, new IntRangeTask() {
+			@Override
+			public void process(int index0, int index1) {
+				synchronized ( sizes ) {
+					if( index1-index0 < 8 )
+						sizes[0]++;
+				}
+			}
+		});
+		assertEquals(0,sizes[0]);
+	}
+
+	/**
+	 * Calls from inside the pool should be processed without being split
+	 */
+	@Test
+	public void loopBlocks_nested() {
+		BoofConcurrency.setMaxThreads(3);
+
+		final int counts[] = new int[ 30 ];
+		BoofConcurrency.loopBlocks(0, 3, new IntRangeTask() {
+			@Override
+			public void process(int index0, int index1) {
+				for( int i = index0; i < index1; i++ ) {
+					final int offset = i*10;
+					BoofConcurrency.loopBlocks(0, 10, new IntRangeTask() {
+						@Override
+						public void process(int index0, int index1) {
+							for( int j = index0; j < index1; j++ )
+								counts[offset+j]++;
+						}
+					});
+				}
+			}
+		});
+
+		for( int i = 0; i < counts.length; i++ )
+			assertEquals(1,counts[i]);
+	}
+
+	/**
+	 * An exception thrown inside of a block should be passed on to the caller
+	 */
+	@Test
+	public void loopBlocks_exception() {
+		BoofConcurrency.setMaxThreads(4);
+
+		try {
+			BoofConcurrency.loopBlocks(0, 100, new IntRangeTask() {
+				@Override
+				public void process(int index0, int index1) {
+					if( index1 == 100 )
+						throw new IllegalArgumentException("Egads");
+				}
+			});
+			fail("Exception should have been thrown");
+		} catch( IllegalArgumentException e ) {
+			assertEquals("Egads",e.getMessage());
+		}
+	}
+}
@@ -23,6 +23,8 @@ import boofcv.alg.misc.ImageInterleavedTestingOps;
 import boofcv.alg.misc.ImageMiscOps;
 import boofcv.struct.image.*;
 import boofcv.testing.BoofTesting;
+import boofcv.testing.MaxThreadsRule;
+import org.junit.Rule;
 import org.junit.Test;
 
 import javax.swing.*;
@@ -37,6 +39,9 @@ import static org.junit.Assert.*;
  */
 public class TestConvertBufferedImage {
 
+	@Rule
+	public MaxThreadsRule threads = new MaxThreadsRule(3);
+
 	Random rand = new Random(234);
 
 	int imgWidth = 10;
@@ -234,6 +239,93 @@ public class TestConvertBufferedImage {
 		}
 	}
 
+	/**
+	 * Indexed images are converted using look up tables from their color model
+	 */
+	@Test
+	public void convertFromMulti_indexed() {
+		BufferedImage origImg = TestConvertRaster.createByteIndexed(imgWidth, imgHeight, rand);
+
+		for( int j = 0; j < 2; j++ ) {
+			if( j == 1 ) {
+				origImg = origImg.getSubimage(1,2,imgWidth-1,imgHeight-2);
+			}
+
+			MultiSpectral<ImageUInt8> msU8 = ConvertBufferedImage.convertFromMulti(origImg,null,true,ImageUInt8.class);
+			MultiSpectral<ImageFloat32> msF32 = ConvertBufferedImage.convertFromMulti(origImg,null,true,ImageFloat32.class);
+
+			for( int y = 0; y < origImg.getHeight(); y++ ) {
+				for( int x = 0; x < origImg.getWidth(); x++ ) {
+					int rgb = origImg.getRGB(x,y);
+					for( int band = 0; band < 3; band++ ) {
+						int expected = (rgb >> (16-8*band)) & 0xFF;
+						assertEquals(expected, msU8.getBand(band).get(x, y));
+						assertEquals(expected, msF32.getBand(band).get(x, y), 1e-8);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Converts into a sub-image of a MultiSpectral and sees if the parent's bands are in RGB order
+	 */
+	@Test
+	public void convertFrom_subimage_orderRgb() {
+		int types[] = new int[]{BufferedImage.TYPE_3BYTE_BGR,BufferedImage.TYPE_INT_BGR,BufferedImage.TYPE_INT_RGB};
+
+		for( int type : types ) {
+			BufferedImage input = TestConvertRaster.createByteBuffByType(imgWidth, imgHeight, type, rand);
+
+			MultiSpectral<ImageUInt8> parent = new MultiSpectral<ImageUInt8>(ImageUInt8.class,imgWidth+3,imgHeight+4,3);
+			MultiSpectral<ImageUInt8> sub = parent.subimage(2,3,imgWidth+2,imgHeight+3);
+
+			ConvertBufferedImage.convertFrom(input, sub, true);
+
+			for( int y = 0; y < imgHeight; y++ ) {
+				for( int x = 0; x < imgWidth; x++ ) {
+					int rgb = input.getRGB(x,y);
+					assertEquals((rgb >> 16) & 0xFF, parent.getBand(0).get(x+2, y+3));
+					assertEquals((rgb >> 8) & 0xFF, parent.getBand(1).get(x+2, y+3));
+					assertEquals(rgb & 0xFF, parent.getBand(2).get(x+2, y+3));
+				}
+			}
+		}
+	}
+
+	/**
+	 * The concurrent conversion should produce the same results as the single threaded one for every type
+	 */
+	@Test
+	public void convertFrom_concurrent() {
+		int types[] = new int[]{
+				BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_INT_ARGB, BufferedImage.TYPE_INT_ARGB_PRE,
+				BufferedImage.TYPE_INT_BGR, BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_4BYTE_ABGR,
+				BufferedImage.TYPE_4BYTE_ABGR_PRE, BufferedImage.TYPE_USHORT_565_RGB,
+				BufferedImage.TYPE_USHORT_555_RGB, BufferedImage.TYPE_BYTE_GRAY, BufferedImage.TYPE_USHORT_GRAY,
+				BufferedImage.TYPE_BYTE_BINARY, BufferedImage.TYPE_BYTE_INDEXED};
+
+		int width = 30, height = 45;
+		for( int type : types ) {
+			BufferedImage input = TestConvertRaster.createByteBuffByType(width, height, type, rand);
+			int numBands = type == BufferedImage.TYPE_BYTE_INDEXED ? 3 : input.getRaster().getNumBands();
+
+			ImageBase[] images = new ImageBase[]{
+					new ImageUInt8(width, height), new ImageFloat32(width, height),
+					new MultiSpectral<ImageUInt8>(ImageUInt8.class, width, height, numBands),
+					new MultiSpectral<ImageFloat32>(ImageFloat32.class, width, height, numBands)};
+
+			for( ImageBase expected : images ) {
+				ImageBase found = expected._createNew(width,height);
+
+				ConvertBufferedImage.convertFrom(input, expected, true, false);
+				ConvertBufferedImage.convertFrom(input, found, true, true);
+
+				BoofTesting.assertEquals(expected, found, 1e-8);
+			}
+		}
+	}
+
 	/**
 	 * Not all types support conversion into 16 bit images, so the special case of 16bit image are handled here
 	 */
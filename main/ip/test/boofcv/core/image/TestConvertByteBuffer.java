@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.core.image;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.image.*;
+import boofcv.testing.BoofTesting;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestConvertByteBuffer {
+
+	Random rand = new Random(234);
+	int width = 10;
+	int height = 12;
+
+	@Test
+	public void wrapArrayUInt8() {
+		int stride = width+3;
+		ByteBuffer buffer = ByteBuffer.allocate(5 + stride*height);
+		buffer.position(5);
+		for( int i = 0; i < buffer.capacity(); i++ )
+			buffer.put(i,(byte)i);
+
+		ImageUInt8 found = ConvertByteBuffer.wrapArrayUInt8(buffer,width,height,stride);
+
+		assertTrue(found.data == buffer.array());
+		for( int y = 0; y < height; y++ ) {
+			for( int x = 0; x < width; x++ ) {
+				assertEquals(buffer.get(5+y*stride+x) & 0xFF,found.get(x,y));
+			}
+		}
+
+		// changes should be visible in the buffer
+		found.set(2,3,99);
+		assertEquals(99,buffer.get(5+3*stride+2));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void wrapArrayUInt8_direct() {
+		ByteBuffer buffer = ByteBuffer.allocateDirect(width*height);
+		ConvertByteBuffer.wrapArrayUInt8(buffer,width,height,width);
+	}
+
+	@Test
+	public void wrapArrayInterleavedInt8() {
+		int stride = width*3+2;
+		ByteBuffer buffer = ByteBuffer.allocate(stride*height);
+		rand.nextBytes(buffer.array());
+
+		ImageInterleavedInt8 found = ConvertByteBuffer.wrapArrayInterleavedInt8(buffer,width,height,3,stride);
+
+		assertTrue(found.data == buffer.array());
+		for( int y = 0; y < height; y++ ) {
+			for( int x = 0; x < width; x++ ) {
+				for( int band = 0; band < 3; band++ )
+					assertEquals(buffer.get(y*stride+x*3+band),found.getBand(x,y,band));
+			}
+		}
+	}
+
+	@Test
+	public void copy_UInt8() {
+		for( boolean direct : new boolean[]{false,true}) {
+			ImageUInt8 expected = new ImageUInt8(width,height);
+			ImageMiscOps.fillUniform(expected,rand,0,255);
+
+			int stride = width+2;
+			ByteBuffer buffer = create(direct,3 + stride*height);
+			buffer.position(3);
+			ConvertByteBuffer.copy(expected,buffer,stride);
+			assertEquals(3,buffer.position());
+			assertEquals(expected.get(1,2),buffer.get(3+2*stride+1) & 0xFF);
+
+			ImageUInt8 found = BoofTesting.createSubImageOf(new ImageUInt8(width,height));
+			ConvertByteBuffer.copy(buffer,stride,found);
+			assertEquals(3,buffer.position());
+			BoofTesting.assertEquals(expected,found,0);
+		}
+	}
+
+	@Test
+	public void copy_InterleavedInt8() {
+		int stride = width*3+1;
+		ByteBuffer buffer = create(true,stride*height);
+		for( int i = 0; i < buffer.capacity(); i++ )
+			buffer.put(i,(byte)rand.nextInt());
+
+		ImageInterleavedInt8 found = new ImageInterleavedInt8(width,height,3);
+		ConvertByteBuffer.copy(buffer,stride,found);
+
+		for( int y = 0; y < height; y++ ) {
+			for( int x = 0; x < width; x++ ) {
+				for( int band = 0; band < 3; band++ )
+					assertEquals(buffer.get(y*stride+x*3+band),found.getBand(x,y,band));
+			}
+		}
+	}
+
+	@Test
+	public void copy_Int16() {
+		for( ByteOrder order : new ByteOrder[]{ByteOrder.BIG_ENDIAN,ByteOrder.LITTLE_ENDIAN}) {
+			ImageUInt16 expected = new ImageUInt16(width,height);
+			ImageMiscOps.fillUniform(expected,rand,0,60000);
+
+			int stride = width*2+4;
+			ByteBuffer buffer = create(true,2 + stride*height).order(order);
+			buffer.position(2);
+			ConvertByteBuffer.copy(expected,buffer,stride);
+			assertEquals(expected.get(1,2),buffer.getShort(2+2*stride+2) & 0xFFFF);
+
+			ImageUInt16 found = BoofTesting.createSubImageOf(new ImageUInt16(width,height));
+			ConvertByteBuffer.copy(buffer,stride,found);
+			BoofTesting.assertEquals(expected,found,0);
+		}
+	}
+
+	@Test
+	public void copy_Float32() {
+		for( ByteOrder order : new ByteOrder[]{ByteOrder.BIG_ENDIAN,ByteOrder.LITTLE_ENDIAN}) {
+			ImageFloat32 expected = new ImageFloat32(width,height);
+			ImageMiscOps.fillUniform(expected,rand,-10,10);
+
+			int stride = width*4+8;
+			ByteBuffer buffer = create(true,4 + stride*height).order(order);
+			buffer.position(4);
+			ConvertByteBuffer.copy(expected,buffer,stride);
+			assertEquals(expected.get(1,2),buffer.getFloat(4+2*stride+4),0);
+
+			ImageFloat32 found = BoofTesting.createSubImageOf(new ImageFloat32(width,height));
+			ConvertByteBuffer.copy(buffer,stride,found);
+			BoofTesting.assertEquals(expected,found,0);
+		}
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void bufferTooSmall() {
+		ByteBuffer buffer = ByteBuffer.allocate(width*height-1);
+		ConvertByteBuffer.copy(buffer,width,new ImageUInt8(width,height));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void badStride() {
+		ByteBuffer buffer = ByteBuffer.allocate(width*height*4);
+		ConvertByteBuffer.copy(buffer,width*2+1,new ImageUInt16(width,height));
+	}
+
+	private static ByteBuffer create( boolean direct , int length ) {
+		return direct ? ByteBuffer.allocateDirect(length) : ByteBuffer.allocate(length);
+	}
+}
@@ -19,10 +19,8 @@
 package boofcv.core.image;
 
 import boofcv.alg.misc.GImageMiscOps;
-import boofcv.struct.image.ImageBase;
-import boofcv.struct.image.ImageInteger;
-import boofcv.struct.image.ImageSingleBand;
-import boofcv.struct.image.MultiSpectral;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.image.*;
 import boofcv.testing.BoofTesting;
 import org.junit.Test;
 
@@ -55,6 +53,10 @@ public class TestConvertImage {
 			Class<?> inputType = inputTypes[0];
 			Class<?> outputType = inputTypes[1];
 
+			// tested separately in convert_U8Buffer()
+			if( inputType == ImageUInt8Buffer.class || outputType == ImageUInt8Buffer.class )
+				continue;
+
 //			System.out.println(m.getName()+" "+inputType.getSimpleName()+" "+outputType.getSimpleName()+" "+m.getReturnType());
 			
 			// make sure the return type equals the output type
@@ -71,6 +73,37 @@ public class TestConvertImage {
 		assertEquals(8*7+8,count);
 	}
 
+	@Test
+	public void convert_U8Buffer() {
+		ImageUInt8 input = new ImageUInt8(imgWidth,imgHeight);
+		ImageMiscOps.fillUniform(input,rand,0,256);
+
+		// use sub-images so that the start index and stride are not trivial
+		ImageUInt8Buffer buffer = new ImageUInt8Buffer(imgWidth+3,imgHeight+2).subimage(2,1,imgWidth+2,imgHeight+1);
+		ImageUInt8 back = new ImageUInt8(imgWidth+4,imgHeight+1).subimage(1,1,imgWidth+1,imgHeight+1);
+		ImageFloat32 found = new ImageFloat32(imgWidth+2,imgHeight+2).subimage(2,0,imgWidth+2,imgHeight);
+
+		assertTrue(buffer == ConvertImage.convert(input,buffer));
+		assertTrue(back == ConvertImage.convert(buffer,back));
+		assertTrue(found == ConvertImage.convert(buffer,found));
+
+		for( int y = 0; y < imgHeight; y++ ) {
+			for( int x = 0; x < imgWidth; x++ ) {
+				assertEquals(input.get(x,y),buffer.get(x,y));
+				assertEquals(input.get(x,y),back.get(x,y));
+				assertEquals(input.get(x,y),found.get(x,y),1e-4);
+			}
+		}
+		assertEquals(0,buffer.data.position());
+
+		// null outputs
+		buffer = ConvertImage.convert(input,(ImageUInt8Buffer)null);
+		back = ConvertImage.convert(buffer,(ImageUInt8)null);
+		found = ConvertImage.convert(buffer,(ImageFloat32)null);
+		BoofTesting.assertEquals(input,back,0);
+		BoofTesting.assertEquals(input,found,1e-4);
+	}
+
 	private void checkConvert( Method m , Class inputType , Class outputType ) {
 		ImageSingleBand input = GeneralizedImageOps.createSingleBand(inputType, imgWidth, imgHeight);
 		ImageSingleBand output = GeneralizedImageOps.createSingleBand(outputType, imgWidth, imgHeight);
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.struct.image;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestImageBinaryPacked {
+
+	@Test
+	public void constructor() {
+		ImageBinaryPacked img = new ImageBinaryPacked(130,5);
+		assertEquals(130,img.width);
+		assertEquals(5,img.height);
+		assertEquals(3,img.stride);
+		assertEquals(15,img.data.length);
+		assertFalse(img.isSubimage());
+	}
+
+	@Test
+	public void get_set() {
+		ImageBinaryPacked img = new ImageBinaryPacked(130,5);
+
+		img.set(0,0,1);
+		img.set(63,1,1);
+		img.set(64,1,1);
+		img.set(129,4,1);
+
+		assertEquals(1,img.get(0,0));
+		assertEquals(1,img.get(63,1));
+		assertEquals(1,img.get(64,1));
+		assertEquals(1,img.get(129,4));
+		assertEquals(0,img.get(1,0));
+		assertEquals(0,img.get(62,1));
+		assertEquals(1L,img.data[0]);
+		assertEquals(1L << 63,img.data[3]);
+		assertEquals(1L,img.data[4]);
+
+		img.set(63,1,0);
+		assertEquals(0,img.get(63,1));
+		assertEquals(1,img.get(64,1));
+
+		try {
+			img.get(130,0);
+			fail("Should have thrown an exception");
+		} catch( ImageAccessException ignore ) {}
+	}
+
+	@Test
+	public void fill() {
+		ImageBinaryPacked img = new ImageBinaryPacked(200,4);
+		ImageBinaryPacked sub = img.subimage(64,1,100,3);
+
+		sub.fill(1);
+		for( int y = 0; y < img.height; y++ ) {
+			for( int x = 0; x < img.width; x++ ) {
+				boolean inside = x >= 64 && x < 100 && y >= 1 && y < 3;
+				assertEquals(inside ? 1 : 0,img.get(x,y));
+			}
+		}
+
+		sub.fill(0);
+		for( int i = 0; i < img.data.length; i++ )
+			assertEquals(0,img.data[i]);
+	}
+
+	@Test
+	public void subimage() {
+		ImageBinaryPacked img = new ImageBinaryPacked(200,4);
+		ImageBinaryPacked sub = img.subimage(128,1,190,4);
+
+		assertTrue(sub.isSubimage());
+		assertEquals(62,sub.width);
+		assertEquals(3,sub.height);
+
+		sub.set(3,1,1);
+		assertEquals(1,img.get(131,2));
+
+		try {
+			img.subimage(10,0,100,2);
+			fail("Should have thrown an exception");
+		} catch( IllegalArgumentException ignore ) {}
+	}
+
+	/**
+	 * A sub-image at the origin which uses the same number of words per row as its parent
+	 */
+	@Test
+	public void subimage_origin() {
+		ImageBinaryPacked img = new ImageBinaryPacked(100,4);
+		img.fill(1);
+		ImageBinaryPacked sub = img.subimage(0,0,70,4);
+
+		assertTrue(sub.isSubimage());
+
+		sub.setTo(new ImageBinaryPacked(70,4));
+		assertEquals(0,img.get(69,0));
+		assertEquals(1,img.get(80,0));
+		assertEquals(1,img.get(99,3));
+
+		try {
+			sub.reshape(50,4);
+			fail("Should have thrown an exception");
+		} catch( IllegalArgumentException ignore ) {}
+	}
+
+	@Test
+	public void reshape() {
+		ImageBinaryPacked img = new ImageBinaryPacked(200,4);
+		img.reshape(10,12);
+		assertEquals(10,img.width);
+		assertEquals(12,img.height);
+		assertEquals(1,img.stride);
+		assertEquals(16,img.data.length);
+
+		img.reshape(300,10);
+		assertEquals(5,img.stride);
+		assertTrue(img.data.length >= 50);
+	}
+
+	@Test
+	public void setTo_clone() {
+		ImageBinaryPacked img = new ImageBinaryPacked(100,6);
+		for( int i = 0; i < 50; i++ ) {
+			img.set((i*37)%100,(i*11)%6,1);
+		}
+
+		ImageBinaryPacked copy = img.clone();
+		checkEquals(img,copy);
+
+		// copy into a sub-image and make sure the pixels outside are not modified
+		ImageBinaryPacked larger = new ImageBinaryPacked(230,8);
+		larger.fill(1);
+		ImageBinaryPacked sub = larger.subimage(64,1,164,7);
+		sub.setTo(img);
+		checkEquals(img,sub);
+		assertEquals(1,larger.get(164,3));
+		assertEquals(1,larger.get(63,3));
+
+		// copy from a sub-image
+		copy = new ImageBinaryPacked(100,6);
+		copy.setTo(sub);
+		checkEquals(img,copy);
+	}
+
+	private void checkEquals( ImageBinaryPacked a , ImageBinaryPacked b ) {
+		for( int y = 0; y < a.height; y++ ) {
+			for( int x = 0; x < a.width; x++ ) {
+				assertEquals(a.get(x,y),b.get(x,y));
+			}
+		}
+	}
+}
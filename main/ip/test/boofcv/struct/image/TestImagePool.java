@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.struct.image;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestImagePool {
+
+	@Test
+	public void borrow_new() {
+		ImagePool pool = new ImagePool();
+
+		ImageFloat32 a = pool.borrow(ImageFloat32.class,10,20);
+		ImageUInt8 b = pool.borrow(ImageUInt8.class,5,6);
+
+		assertEquals(10,a.width);
+		assertEquals(20,a.height);
+		assertEquals(5,b.width);
+		assertEquals(6,b.height);
+
+		assertEquals(2,pool.getAllocationCount());
+		assertEquals(2,pool.getBorrowedCount());
+		assertEquals(2,pool.getPeakBorrowedCount());
+		assertEquals(0,pool.getAvailableCount());
+		assertEquals(10*20*4 + 5*6,pool.getTotalBytes());
+	}
+
+	/**
+	 * Returned images should be reused without allocating memory
+	 */
+	@Test
+	public void release_reuse() {
+		ImagePool pool = new ImagePool();
+
+		ImageFloat32 a = pool.borrow(ImageFloat32.class,10,20);
+		pool.release(a);
+		assertEquals(0,pool.getBorrowedCount());
+		assertEquals(1,pool.getAvailableCount());
+
+		assertTrue(a == pool.borrow(ImageFloat32.class,10,20));
+		assertEquals(1,pool.getAllocationCount());
+		pool.release(a);
+
+		// different type
+		ImageSInt32 b = pool.borrow(ImageSInt32.class,10,20);
+		assertTrue(a != (Object)b);
+		assertEquals(2,pool.getAllocationCount());
+		pool.release(b);
+
+		// smaller image of the same type can be reshaped without declaring memory
+		ImageFloat32 c = pool.borrow(ImageFloat32.class,15,5);
+		assertTrue(a == c);
+		assertEquals(15,c.width);
+		assertEquals(5,c.height);
+		assertEquals(15,c.stride);
+		assertEquals(2,pool.getAllocationCount());
+		pool.release(c);
+
+		// larger image needs a larger array
+		ImageFloat32 d = pool.borrow(ImageFloat32.class,30,30);
+		assertTrue(a == d);
+		assertEquals(3,pool.getAllocationCount());
+		assertEquals(30*30*4 + 10*20*4,pool.getTotalBytes());
+	}
+
+	/**
+	 * Images with the same shape are preferred and then the smallest one which is large enough
+	 */
+	@Test
+	public void borrow_selection() {
+		ImagePool pool = new ImagePool();
+
+		ImageUInt8 a = pool.borrow(ImageUInt8.class,10,10);
+		ImageUInt8 b = pool.borrow(ImageUInt8.class,20,20);
+		ImageUInt8 c = pool.borrow(ImageUInt8.class,5,20);
+		pool.release(a);
+		pool.release(b);
+		pool.release(c);
+
+		assertTrue(c == pool.borrow(ImageUInt8.class,5,20));
+		assertTrue(a == pool.borrow(ImageUInt8.class,9,9));
+		assertTrue(b == pool.borrow(ImageUInt8.class,8,8));
+		assertEquals(3,pool.getAllocationCount());
+	}
+
+	/**
+	 * After the first frame no more memory should be allocated
+	 */
+	@Test
+	public void steadyState() {
+		ImagePool pool = new ImagePool();
+
+		for( int frame = 0; frame < 5; frame++ ) {
+			if( frame == 1 )
+				pool.resetCounters();
+
+			ImageFloat32 a = pool.borrow(ImageFloat32.class,30,20);
+			ImageFloat32 b = pool.borrow(ImageFloat32.class,15,10);
+			pool.release(a);
+			ImageFloat32 c = pool.borrow(ImageFloat32.class,30,20);
+			pool.release(b);
+			pool.release(c);
+		}
+
+		assertEquals(0,pool.getAllocationCount());
+		assertEquals(2,pool.getPeakBorrowedCount());
+		assertEquals(0,pool.getBorrowedCount());
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void release_notBorrowed() {
+		new ImagePool().release(new ImageUInt8(2,3));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void release_twice() {
+		ImagePool pool = new ImagePool();
+		ImageUInt8 a = pool.borrow(ImageUInt8.class,2,3);
+		pool.release(a);
+		pool.release(a);
+	}
+
+	@Test
+	public void maxAvailable() {
+		ImagePool pool = new ImagePool();
+		pool.setMaxAvailable(1);
+		ImageUInt8 a = pool.borrow(ImageUInt8.class,10,10);
+		ImageUInt8 b = pool.borrow(ImageUInt8.class,10,10);
+		pool.release(a);
+		pool.release(b);
+
+		// the second image is discarded and no longer counted
+		assertEquals(1,pool.getAvailableCount());
+		assertEquals(100,pool.getTotalBytes());
+	}
+
+	@Test
+	public void isBorrowed() {
+		ImagePool pool = new ImagePool();
+		ImageUInt8 a = pool.borrow(ImageUInt8.class,10,10);
+		assertTrue(pool.isBorrowed(a));
+		assertFalse(pool.isBorrowed(new ImageUInt8(10,10)));
+		pool.release(a);
+		assertFalse(pool.isBorrowed(a));
+	}
+
+	@Test
+	public void clear() {
+		ImagePool pool = new ImagePool();
+		ImageUInt8 a = pool.borrow(ImageUInt8.class,10,10);
+		ImageUInt8 b = pool.borrow(ImageUInt8.class,10,10);
+		pool.release(a);
+		pool.clear();
+
+		assertEquals(0,pool.getAvailableCount());
+		assertEquals(100,pool.getTotalBytes());
+
+		// borrowed images can still be returned
+		pool.release(b);
+		assertEquals(1,pool.getAvailableCount());
+	}
+
+	@Test
+	public void local() throws InterruptedException {
+		final ImagePool pool = ImagePool.local();
+		assertTrue(pool == ImagePool.local());
+
+		final ImagePool found[] = new ImagePool[1];
+		Thread thread = new Thread() {
+			@Override
+			public void run() {
+				found[0] = ImagePool.local();
+			}
+		};
+		thread.start();
+		thread.join();
+
+		assertTrue(found[0] != null);
+		assertTrue(found[0] != pool);
+	}
+}
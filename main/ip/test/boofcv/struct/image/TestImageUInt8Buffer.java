@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.struct.image;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestImageUInt8Buffer {
+
+	@Test
+	public void constructor() {
+		ImageUInt8Buffer img = new ImageUInt8Buffer(10,5);
+		assertEquals(10,img.width);
+		assertEquals(5,img.height);
+		assertEquals(10,img.stride);
+		assertEquals(0,img.startIndex);
+		assertTrue(img.data.isDirect());
+		assertTrue(img.data.capacity() >= 50);
+		assertFalse(img.isSubimage());
+	}
+
+	@Test
+	public void constructor_wrap() {
+		ByteBuffer buffer = ByteBuffer.allocateDirect(100);
+		buffer.position(7);
+
+		ImageUInt8Buffer img = new ImageUInt8Buffer(buffer,10,5,12);
+		assertTrue(buffer == img.data);
+		assertEquals(7,img.startIndex);
+		assertEquals(12,img.stride);
+
+		// changes in the image are visible in the buffer and the reverse
+		img.set(3,2,200);
+		assertEquals((byte)200,buffer.get(7+2*12+3));
+		buffer.put(7+4*12+9,(byte)45);
+		assertEquals(45,img.get(9,4));
+
+		// position and limit are not modified
+		assertEquals(7,buffer.position());
+		assertEquals(100,buffer.limit());
+
+		// the last row doesn't need to include the padding
+		new ImageUInt8Buffer(buffer,10,5,(100-7-10)/4);
+		try {
+			new ImageUInt8Buffer(buffer,10,5,(100-7-10)/4+1);
+			fail("Should have thrown an exception");
+		} catch( IllegalArgumentException ignore ) {}
+		try {
+			new ImageUInt8Buffer(buffer,10,5,9);
+			fail("Should have thrown an exception");
+		} catch( IllegalArgumentException ignore ) {}
+	}
+
+	@Test
+	public void get_set() {
+		ImageUInt8Buffer img = new ImageUInt8Buffer(10,5);
+
+		img.set(0,0,1);
+		img.set(9,4,255);
+		img.set(3,2,128);
+
+		assertEquals(1,img.get(0,0));
+		assertEquals(255,img.get(9,4));
+		assertEquals(128,img.get(3,2));
+		assertEquals(0,img.get(4,2));
+
+		try {
+			img.get(10,0);
+			fail("Should have thrown an exception");
+		} catch( ImageAccessException ignore ) {}
+		try {
+			img.set(0,5,2);
+			fail("Should have thrown an exception");
+		} catch( ImageAccessException ignore ) {}
+	}
+
+	@Test
+	public void subimage() {
+		ImageUInt8Buffer img = new ImageUInt8Buffer(10,5);
+		ImageUInt8Buffer sub = img.subimage(2,1,7,4);
+
+		assertTrue(img.data == sub.data);
+		assertEquals(5,sub.width);
+		assertEquals(3,sub.height);
+		assertEquals(10,sub.stride);
+		assertTrue(sub.isSubimage());
+
+		sub.set(1,2,17);
+		assertEquals(17,img.get(3,3));
+	}
+
+	@Test
+	public void reshape() {
+		ImageUInt8Buffer img = new ImageUInt8Buffer(10,5);
+		ByteBuffer original = img.data;
+
+		img.reshape(5,4);
+		assertTrue(original == img.data);
+		assertEquals(5,img.width);
+		assertEquals(4,img.height);
+		assertEquals(5,img.stride);
+
+		img.reshape(20,20);
+		assertTrue(img.data.capacity() >= 400);
+		assertTrue(img.data.isDirect());
+
+		try {
+			img.subimage(1,1,3,3).reshape(2,2);
+			fail("Should have thrown an exception");
+		} catch( IllegalArgumentException ignore ) {}
+	}
+
+	@Test
+	public void setTo() {
+		ImageUInt8Buffer src = new ImageUInt8Buffer(10,5);
+		for( int i = 0; i < 50; i++ )
+			src.data.put(i,(byte)(i*5));
+
+		// copy into a sub-image so that the strides are different
+		ImageUInt8Buffer larger = new ImageUInt8Buffer(15,8);
+		ImageUInt8Buffer dst = larger.subimage(3,2,13,7);
+		dst.setTo(src);
+
+		for( int y = 0; y < 5; y++ ) {
+			for( int x = 0; x < 10; x++ ) {
+				assertEquals(src.get(x,y),dst.get(x,y));
+			}
+		}
+		// pixels outside the sub-image are not modified
+		assertEquals(0,larger.get(2,2));
+		assertEquals(0,larger.get(13,2));
+
+		// buffer positions are not modified
+		assertEquals(0,src.data.position());
+		assertEquals(0,larger.data.position());
+
+		ImageUInt8Buffer copy = dst.clone();
+		assertEquals(10,copy.stride);
+		assertEquals(src.get(9,4),copy.get(9,4));
+	}
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.testing;
+
+import boofcv.concurrency.BoofConcurrency;
+import org.junit.rules.ExternalResource;
+
+/**
+ * JUnit rule which changes the maximum number of threads used by {@link BoofConcurrency} before each test
+ * and restores the original value after.  With more than one thread concurrent code will split up the work
+ * even on a single core machine.
+ *
+ * <pre>
+ * {@literal @}Rule
+ * public MaxThreadsRule threads = new MaxThreadsRule(3);
+ * </pre>
+ *
+ * @author Peter Abeles
+ */
+public class MaxThreadsRule extends ExternalResource {
+	private int numThreads;
+	private int originalThreads;
+
+	public MaxThreadsRule(int numThreads) {
+		this.numThreads = numThreads;
+	}
+
+	@Override
+	protected void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(numThreads);
+	}
+
+	@Override
+	protected void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+	}
+}
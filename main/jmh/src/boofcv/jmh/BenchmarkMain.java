@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.jmh;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.NoBenchmarksException;
+import org.openjdk.jmh.runner.ProfilersFailedException;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+
+/**
+ * <p>
+ * Runs the JMH benchmarks.  Accepts the same command line arguments as JMH, but unless specified otherwise
+ * the results are written in JSON format to {@link #DEFAULT_RESULTS} so that they can be compared between
+ * releases.  Options which only print information, such as -h, -l, -lp, and -lprof, behave the same as in JMH.
+ * </p>
+ *
+ * <p>
+ * Examples:
+ * <pre>
+ * java -jar benchmarks.jar                                     all benchmarks
+ * java -jar benchmarks.jar boofcv.jmh.ip                       everything in the ip module
+ * java -jar benchmarks.jar BenchmarkConvolve -p size=640x480   one class at a single image size
+ * java -jar benchmarks.jar -rff release-0.16.json              change the results file
+ * </pre>
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class BenchmarkMain {
+
+	public static final String DEFAULT_RESULTS = "boofcv-jmh.json";
+
+	public static void main( String args[] ) throws IOException {
+		CommandLineOptions cmd;
+		try {
+			cmd = new CommandLineOptions(args);
+		} catch (CommandLineOptionException e) {
+			System.err.println("Bad command line: "+e.getMessage());
+			System.exit(1);
+			return;
+		}
+
+		if( cmd.shouldHelp() ) {
+			cmd.showHelp();
+			return;
+		}
+		if( cmd.shouldListProfilers() ) {
+			cmd.listProfilers();
+			return;
+		}
+		if( cmd.shouldListResultFormats() ) {
+			cmd.listResultFormats();
+			return;
+		}
+
+		Runner runner = new Runner(cmd);
+		if( cmd.shouldList() ) {
+			runner.list();
+			return;
+		}
+		if( cmd.shouldListWithParams() ) {
+			runner.listWithParams(cmd);
+			return;
+		}
+
+		ChainedOptionsBuilder builder = new OptionsBuilder().parent(cmd);
+		if( !cmd.getResultFormat().hasValue() )
+			builder.resultFormat(ResultFormatType.JSON);
+		if( !cmd.getResult().hasValue() )
+			builder.result(DEFAULT_RESULTS);
+
+		try {
+			new Runner(builder.build()).run();
+		} catch (NoBenchmarksException e) {
+			System.err.println("No benchmarks match the include patterns");
+			runner.list();
+			System.exit(1);
+		} catch (ProfilersFailedException e) {
+			System.err.println(e.getMessage());
+			System.exit(1);
+		} catch (RunnerException e) {
+			System.err.println("Benchmark failed");
+			e.printStackTrace(System.err);
+			System.exit(1);
+		}
+	}
+}
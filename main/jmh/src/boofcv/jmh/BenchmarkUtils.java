@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.jmh;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.struct.image.*;
+
+import java.util.Random;
+
+/**
+ * Functions for creating the input to benchmarks from their parameters.  Benchmarks which process images
+ * are parameterized by a size, e.g. "640x480", and an image type, e.g. "U8".
+ *
+ * @author Peter Abeles
+ */
+public class BenchmarkUtils {
+
+	/**
+	 * Image sizes which are tested by default.  Use "-p size=WxH" to select a different one.
+	 */
+	public static final String SIZE_SMALL = "640x480";
+	public static final String SIZE_LARGE = "1920x1080";
+
+	/**
+	 * Parses the width from a string with the format "WxH"
+	 */
+	public static int width( String size ) {
+		return Integer.parseInt(size.substring(0,size.indexOf('x')));
+	}
+
+	/**
+	 * Parses the height from a string with the format "WxH"
+	 */
+	public static int height( String size ) {
+		return Integer.parseInt(size.substring(size.indexOf('x')+1));
+	}
+
+	/**
+	 * Converts the short name of an image type into its class.
+	 *
+	 * @param type One of U8, S8, U16, S16, S32, F32, F64
+	 * @return The image class
+	 */
+	public static <T extends ImageSingleBand> Class<T> imageType( String type ) {
+		if( type.equals("U8") )
+			return (Class)ImageUInt8.class;
+		else if( type.equals("S8") )
+			return (Class)ImageSInt8.class;
+		else if( type.equals("U16") )
+			return (Class)ImageUInt16.class;
+		else if( type.equals("S16") )
+			return (Class)ImageSInt16.class;
+		else if( type.equals("S32") )
+			return (Class)ImageSInt32.class;
+		else if( type.equals("F32") )
+			return (Class)ImageFloat32.class;
+		else if( type.equals("F64") )
+			return (Class)ImageFloat64.class;
+		else
+			throw new IllegalArgumentException("Unknown image type: "+type);
+	}
+
+	/**
+	 * Creates an image filled with uniform random noise between 0 and 255.  The same seed always produces
+	 * the same image so that results are comparable between runs.
+	 */
+	public static <T extends ImageSingleBand> T createImage( Class<T> type , String size , long seed ) {
+		T image = GeneralizedImageOps.createSingleBand(type,width(size),height(size));
+		GImageMiscOps.fillUniform(image,new Random(seed),0,255);
+		return image;
+	}
+
+	/**
+	 * Creates an image made up of overlapping rectangles, each filled with a random value.  Has strong corners
+	 * and edges, which is more representative of natural images than noise when detecting or tracking features.
+	 */
+	public static <T extends ImageSingleBand> T createTextured( Class<T> type , String size , long seed ) {
+		Random rand = new Random(seed);
+		T image = GeneralizedImageOps.createSingleBand(type,width(size),height(size));
+
+		int numRectangles = image.width*image.height/400;
+		for( int i = 0; i < numRectangles; i++ ) {
+			int w = 5 + rand.nextInt(40);
+			int h = 5 + rand.nextInt(40);
+			int x0 = rand.nextInt(image.width-w);
+			int y0 = rand.nextInt(image.height-h);
+
+			GImageMiscOps.fillRectangle(image,rand.nextInt(200),x0,y0,w,h);
+		}
+		return image;
+	}
+}
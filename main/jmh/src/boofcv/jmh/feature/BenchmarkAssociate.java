@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.jmh.feature;
+
+import boofcv.abst.feature.associate.AssociateDescription;
+import boofcv.factory.feature.associate.FactoryAssociation;
+import boofcv.struct.feature.AssociatedIndex;
+import boofcv.struct.feature.TupleDesc_F64;
+import org.ddogleg.struct.FastQueue;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Associates two sets of randomly generated descriptors.  The destination set is a noisy copy of the
+ * source set, with its order shuffled.  The source set doesn't change between iterations.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkAssociate {
+
+	@Param({"500","2000"})
+	public int numFeatures;
+
+	@Param({"64"})
+	public int dof;
+
+	@Param({"GREEDY","GREEDY_BACKWARDS","GREEDY_MT","GREEDY_BACKWARDS_MT","KDTREE",
+			"KD_FOREST","KD_FOREST_INCREMENTAL","KD_FOREST_INCREMENTAL_MT"})
+	public String algorithm;
+
+	FastQueue<TupleDesc_F64> listSrc;
+	FastQueue<TupleDesc_F64> listDst;
+
+	AssociateDescription<TupleDesc_F64> alg;
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+		listSrc = createQueue();
+		listDst = createQueue();
+
+		for( int i = 0; i < numFeatures; i++ ) {
+			TupleDesc_F64 a = listSrc.grow();
+			for( int j = 0; j < dof; j++ )
+				a.value[j] = rand.nextDouble();
+		}
+		for( int i = 0; i < numFeatures; i++ ) {
+			TupleDesc_F64 b = listDst.grow();
+			b.set(listSrc.get((i*7919) % numFeatures));
+			for( int j = 0; j < dof; j++ )
+				b.value[j] += rand.nextGaussian()*0.02;
+		}
+
+		if( algorithm.startsWith("GREEDY") ) {
+			boolean backwards = algorithm.contains("BACKWARDS");
+			boolean concurrent = algorithm.endsWith("_MT");
+			alg = FactoryAssociation.greedy(
+					FactoryAssociation.scoreEuclidean(TupleDesc_F64.class, true), Double.MAX_VALUE, backwards, concurrent);
+		} else if( algorithm.equals("KDTREE") ) {
+			alg = FactoryAssociation.kdtree(dof, 500);
+		} else if( algorithm.equals("KD_FOREST") ) {
+			alg = FactoryAssociation.kdRandomForest(dof, 500, 4, 5, 234);
+		} else if( algorithm.startsWith("KD_FOREST_INCREMENTAL") ) {
+			// the source set is the same every iteration, so the index is only built once
+			boolean concurrent = algorithm.endsWith("_MT");
+			alg = FactoryAssociation.kdForestIncremental(dof, 500, 4, 5, 234, concurrent);
+		} else {
+			throw new IllegalArgumentException("Unknown algorithm: "+algorithm);
+		}
+	}
+
+	private FastQueue<TupleDesc_F64> createQueue() {
+		return new FastQueue<TupleDesc_F64>(numFeatures, TupleDesc_F64.class, true) {
+			@Override
+			protected TupleDesc_F64 createInstance() {
+				return new TupleDesc_F64(dof);
+			}
+		};
+	}
+
+	@Benchmark
+	public FastQueue<AssociatedIndex> associate() {
+		alg.setSource(listSrc);
+		alg.setDestination(listDst);
+		alg.associate();
+		return alg.getMatches();
+	}
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.jmh.feature;
+
+import boofcv.abst.feature.detdesc.DetectDescribePoint;
+import boofcv.factory.feature.detdesc.FactoryDetectDescribe;
+import boofcv.jmh.BenchmarkUtils;
+import boofcv.struct.feature.SurfFeature;
+import boofcv.struct.image.ImageDataType;
+import boofcv.struct.image.ImageSingleBand;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Detects and describes interest points in a single image.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkDetectDescribe {
+
+	@Param({BenchmarkUtils.SIZE_SMALL, BenchmarkUtils.SIZE_LARGE})
+	public String size;
+
+	@Param({"U8","F32"})
+	public String imageType;
+
+	@Param({"SURF_FAST","SURF_STABLE"})
+	public String algorithm;
+
+	ImageSingleBand input;
+
+	DetectDescribePoint<ImageSingleBand,SurfFeature> alg;
+
+	@Setup
+	public void setup() {
+		Class<ImageSingleBand> type = BenchmarkUtils.imageType(imageType);
+		input = BenchmarkUtils.createTextured(type, size, 234);
+
+		ImageDataType<ImageSingleBand> dataType = ImageDataType.single(type);
+		if( algorithm.equals("SURF_FAST") ) {
+			alg = FactoryDetectDescribe.surfFast(null, null, null, dataType);
+		} else if( algorithm.equals("SURF_STABLE") ) {
+			alg = FactoryDetectDescribe.surfStable(null, null, null, dataType);
+		} else {
+			throw new IllegalArgumentException("Unknown algorithm: "+algorithm);
+		}
+	}
+
+	@Benchmark
+	public int detect() {
+		alg.detect(input);
+		return alg.getNumberOfFeatures();
+	}
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.jmh.feature;
+
+import boofcv.abst.feature.detect.interest.ConfigFast;
+import boofcv.abst.feature.detect.interest.ConfigGeneralDetector;
+import boofcv.alg.feature.detect.interest.EasyGeneralFeatureDetector;
+import boofcv.alg.feature.detect.interest.GeneralFeatureDetector;
+import boofcv.alg.filter.derivative.GImageDerivativeOps;
+import boofcv.factory.feature.detect.interest.FactoryDetectPoint;
+import boofcv.jmh.BenchmarkUtils;
+import boofcv.struct.QueueCorner;
+import boofcv.struct.image.ImageSingleBand;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Corner detectors, including computing the image gradient when it is required.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkDetectPoint {
+
+	@Param({BenchmarkUtils.SIZE_SMALL, BenchmarkUtils.SIZE_LARGE})
+	public String size;
+
+	@Param({"U8","F32"})
+	public String imageType;
+
+	@Param({"SHI_TOMASI","HARRIS","FAST"})
+	public String detector;
+
+	ImageSingleBand input;
+
+	EasyGeneralFeatureDetector<ImageSingleBand,ImageSingleBand> alg;
+
+	@Setup
+	public void setup() {
+		Class<ImageSingleBand> type = BenchmarkUtils.imageType(imageType);
+		Class<ImageSingleBand> derivType = GImageDerivativeOps.getDerivativeType(type);
+		input = BenchmarkUtils.createTextured(type, size, 234);
+
+		ConfigGeneralDetector config = new ConfigGeneralDetector(-1,2,1);
+
+		GeneralFeatureDetector<ImageSingleBand,ImageSingleBand> general;
+		if( detector.equals("SHI_TOMASI") ) {
+			general = FactoryDetectPoint.createShiTomasi(config, false, derivType);
+		} else if( detector.equals("HARRIS") ) {
+			general = FactoryDetectPoint.createHarris(config, false, derivType);
+		} else if( detector.equals("FAST") ) {
+			general = FactoryDetectPoint.createFast(new ConfigFast(20, 9), config, type);
+		} else {
+			throw new IllegalArgumentException("Unknown detector: "+detector);
+		}
+
+		alg = new EasyGeneralFeatureDetector<ImageSingleBand,ImageSingleBand>(general, type, derivType);
+	}
+
+	@Benchmark
+	public QueueCorner detect() {
+		alg.detect(input, null);
+		return alg.getMaximums();
+	}
+}
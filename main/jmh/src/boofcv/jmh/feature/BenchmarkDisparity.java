@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.jmh.feature;
+
+import boofcv.abst.feature.disparity.StereoDisparity;
+import boofcv.factory.feature.disparity.DisparityAlgorithms;
+import boofcv.factory.feature.disparity.FactoryStereoDisparity;
+import boofcv.jmh.BenchmarkUtils;
+import boofcv.struct.image.ImageSingleBand;
+import boofcv.struct.image.ImageUInt8;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dense stereo disparity.  The right image is the left image shifted by a constant amount.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkDisparity {
+
+	@Param({BenchmarkUtils.SIZE_SMALL, BenchmarkUtils.SIZE_LARGE})
+	public String size;
+
+	@Param({"U8","F32"})
+	public String imageType;
+
+	@Param({"RECT","RECT_FIVE"})
+	public String algorithm;
+
+	ImageSingleBand left;
+	ImageSingleBand right;
+
+	StereoDisparity<ImageSingleBand,ImageUInt8> alg;
+
+	@Setup
+	public void setup() {
+		Class<ImageSingleBand> type = BenchmarkUtils.imageType(imageType);
+		left = BenchmarkUtils.createTextured(type, size, 234);
+		right = BenchmarkUtils.createTextured(type, size, 234);
+
+		// shift the right image by the true disparity
+		int disparity = 12;
+		ImageSingleBand shifted = left.subimage(disparity, 0, left.width, left.height);
+		right.subimage(0, 0, left.width-disparity, left.height).setTo(shifted);
+
+		alg = FactoryStereoDisparity.regionWta(DisparityAlgorithms.valueOf(algorithm),
+				0, 60, 3, 3, 30, 1, 0.2, type);
+	}
+
+	@Benchmark
+	public ImageUInt8 process() {
+		alg.process(left, right);
+		return alg.getDisparity();
+	}
+}
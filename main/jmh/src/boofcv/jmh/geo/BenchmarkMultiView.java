@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.jmh.geo;
+
+import boofcv.abst.geo.Estimate1ofEpipolar;
+import boofcv.abst.geo.Estimate1ofPnP;
+import boofcv.abst.geo.TriangulateTwoViewsCalibrated;
+import boofcv.factory.geo.EnumEpipolar;
+import boofcv.factory.geo.EnumPNP;
+import boofcv.factory.geo.FactoryMultiView;
+import boofcv.factory.geo.FactoryTriangulate;
+import boofcv.struct.geo.AssociatedPair;
+import boofcv.struct.geo.Point2D3D;
+import georegression.geometry.RotationMatrixGenerator;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.se.Se3_F64;
+import georegression.transform.se.SePointOps_F64;
+import org.ejml.data.DenseMatrix64F;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Two view geometry estimated from a synthetic scene.  Observations are in normalized image coordinates
+ * and are noise free, so the run time isn't affected by the data.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkMultiView {
+
+	// number of points used by the linear estimators.  Minimal solvers are given exactly as many as they need.
+	@Param({"8","50"})
+	public int numPoints;
+
+	Se3_F64 motion;
+
+	// observations of points in general position
+	List<AssociatedPair> pairs;
+	List<Point2D3D> observationPose;
+	// observations of points on a plane
+	List<AssociatedPair> pairsPlanar;
+	// subsets for minimal solvers.  Extra points are used to select between the solutions
+	List<AssociatedPair> pairsMinimal;
+	List<Point2D3D> observationPoseMinimal;
+
+	Estimate1ofEpipolar essential8 = FactoryMultiView.computeFundamental_1(EnumEpipolar.ESSENTIAL_8_LINEAR, 0);
+	Estimate1ofEpipolar essential5 = FactoryMultiView.computeFundamental_1(EnumEpipolar.ESSENTIAL_5_NISTER, 2);
+	Estimate1ofEpipolar homography = FactoryMultiView.computeHomography(true);
+	Estimate1ofPnP epnp = FactoryMultiView.computePnP_1(EnumPNP.EPNP, 10, 0);
+	Estimate1ofPnP p3p = FactoryMultiView.computePnP_1(EnumPNP.P3P_GRUNERT, -1, 2);
+	TriangulateTwoViewsCalibrated triangulateGeometric = FactoryTriangulate.twoGeometric();
+	TriangulateTwoViewsCalibrated triangulateDLT = FactoryTriangulate.twoDLT();
+
+	DenseMatrix64F foundE = new DenseMatrix64F(3,3);
+	Se3_F64 foundPose = new Se3_F64();
+	Point3D_F64 foundPoint = new Point3D_F64();
+
+	@Setup
+	public void setup() {
+		Random rand = new Random(234);
+
+		motion = new Se3_F64();
+		motion.getR().set(RotationMatrixGenerator.eulerArbitrary(0, 1, 2, 0.5, -0.2, 0.15));
+		motion.getT().set(0.1, -0.2, 0.01);
+
+		pairs = new ArrayList<AssociatedPair>();
+		observationPose = new ArrayList<Point2D3D>();
+		pairsPlanar = new ArrayList<AssociatedPair>();
+
+		for( int i = 0; i < numPoints; i++ ) {
+			Point3D_F64 X = new Point3D_F64(rand.nextDouble()*2-1, rand.nextDouble()*2-1, 2+rand.nextDouble());
+			AssociatedPair p = observe(X);
+			pairs.add(p);
+			observationPose.add(new Point2D3D(p.p2, X));
+
+			Point3D_F64 P = new Point3D_F64(rand.nextDouble()*2-1, rand.nextDouble()*2-1, 3);
+			pairsPlanar.add(observe(P));
+		}
+
+		pairsMinimal = pairs.subList(0, 5+2);
+		observationPoseMinimal = observationPose.subList(0, 3+2);
+	}
+
+	/**
+	 * Projects a point in the first camera's reference frame onto both image planes
+	 */
+	private AssociatedPair observe( Point3D_F64 X ) {
+		Point3D_F64 Xb = SePointOps_F64.transform(motion, X, null);
+
+		AssociatedPair p = new AssociatedPair();
+		p.p1.set(X.x/X.z, X.y/X.z);
+		p.p2.set(Xb.x/Xb.z, Xb.y/Xb.z);
+		return p;
+	}
+
+	@Benchmark
+	public DenseMatrix64F essential8() {
+		essential8.process(pairs, foundE);
+		return foundE;
+	}
+
+	@Benchmark
+	public DenseMatrix64F essential5() {
+		essential5.process(pairsMinimal, foundE);
+		return foundE;
+	}
+
+	@Benchmark
+	public DenseMatrix64F homography() {
+		homography.process(pairsPlanar, foundE);
+		return foundE;
+	}
+
+	@Benchmark
+	public Se3_F64 pnpEPnP() {
+		epnp.process(observationPose, foundPose);
+		return foundPose;
+	}
+
+	@Benchmark
+	public Se3_F64 pnpP3P() {
+		p3p.process(observationPoseMinimal, foundPose);
+		return foundPose;
+	}
+
+	/**
+	 * Triangulates every point once
+	 */
+	@Benchmark
+	public Point3D_F64 triangulateGeometric() {
+		for( int i = 0; i < pairs.size(); i++ ) {
+			AssociatedPair p = pairs.get(i);
+			triangulateGeometric.triangulate(p.p1, p.p2, motion, foundPoint);
+		}
+		return foundPoint;
+	}
+
+	/**
+	 * Triangulates every point once
+	 */
+	@Benchmark
+	public Point3D_F64 triangulateDLT() {
+		for( int i = 0; i < pairs.size(); i++ ) {
+			AssociatedPair p = pairs.get(i);
+			triangulateDLT.triangulate(p.p1, p.p2, motion, foundPoint);
+		}
+		return foundPoint;
+	}
+}
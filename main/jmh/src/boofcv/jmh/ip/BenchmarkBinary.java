@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.jmh.ip;
+
+import boofcv.alg.filter.binary.BinaryImageOps;
+import boofcv.alg.filter.binary.BinaryPackedOps;
+import boofcv.alg.filter.binary.Contour;
+import boofcv.alg.filter.binary.GThresholdImageOps;
+import boofcv.jmh.BenchmarkUtils;
+import boofcv.struct.image.ImageBinaryPacked;
+import boofcv.struct.image.ImageSInt32;
+import boofcv.struct.image.ImageSingleBand;
+import boofcv.struct.image.ImageUInt8;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thresholding, binary morphology and contour finding.  Morphology is done on both byte and bit packed images.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkBinary {
+
+	@Param({BenchmarkUtils.SIZE_SMALL, BenchmarkUtils.SIZE_LARGE})
+	public String size;
+
+	@Param({"U8","F32"})
+	public String imageType;
+
+	ImageSingleBand input;
+	ImageUInt8 binary;
+	ImageUInt8 output;
+	ImageSInt32 labeled;
+	ImageBinaryPacked packed;
+	ImageBinaryPacked packedOutput;
+
+	@Setup
+	public void setup() {
+		Class<ImageSingleBand> type = BenchmarkUtils.imageType(imageType);
+		input = BenchmarkUtils.createTextured(type, size, 234);
+
+		binary = new ImageUInt8(input.width, input.height);
+		output = new ImageUInt8(input.width, input.height);
+		labeled = new ImageSInt32(input.width, input.height);
+
+		GThresholdImageOps.threshold(input, binary, 100, false);
+		packed = BinaryPackedOps.pack(binary, null);
+		packedOutput = new ImageBinaryPacked(input.width, input.height);
+	}
+
+	@Benchmark
+	public ImageUInt8 threshold() {
+		return GThresholdImageOps.threshold(input, output, 100, false);
+	}
+
+	@Benchmark
+	public ImageUInt8 erode4() {
+		return BinaryImageOps.erode4(binary, output);
+	}
+
+	@Benchmark
+	public ImageUInt8 dilate8() {
+		return BinaryImageOps.dilate8(binary, output);
+	}
+
+	@Benchmark
+	public ImageUInt8 edge8() {
+		return BinaryImageOps.edge8(binary, output);
+	}
+
+	@Benchmark
+	public ImageBinaryPacked packedErode4() {
+		return BinaryPackedOps.erode4(packed, packedOutput);
+	}
+
+	@Benchmark
+	public ImageBinaryPacked packedDilate8() {
+		return BinaryPackedOps.dilate8(packed, packedOutput);
+	}
+
+	@Benchmark
+	public ImageBinaryPacked packedEdge8() {
+		return BinaryPackedOps.edge8(packed, packedOutput);
+	}
+
+	@Benchmark
+	public List<Contour> contour8() {
+		return BinaryImageOps.contour(binary, 8, labeled);
+	}
+
+	@Benchmark
+	public List<Contour> contour8_MT() {
+		return BinaryImageOps.contour(binary, 8, labeled, true);
+	}
+
+	@Benchmark
+	public List<Contour> contour8_RunLength() {
+		return BinaryImageOps.contourRunLength(binary, 8, null);
+	}
+}
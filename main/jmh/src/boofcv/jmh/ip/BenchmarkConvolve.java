@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.jmh.ip;
+
+import boofcv.alg.filter.blur.GBlurImageOps;
+import boofcv.alg.filter.convolve.GConvolveImageOps;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.factory.filter.kernel.FactoryKernelGaussian;
+import boofcv.jmh.BenchmarkUtils;
+import boofcv.struct.convolve.Kernel1D;
+import boofcv.struct.convolve.Kernel2D;
+import boofcv.struct.image.ImageSingleBand;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Convolution and blur filters.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkConvolve {
+
+	@Param({BenchmarkUtils.SIZE_SMALL, BenchmarkUtils.SIZE_LARGE})
+	public String size;
+
+	@Param({"U8","F32"})
+	public String imageType;
+
+	@Param({"2","10"})
+	public int radius;
+
+	ImageSingleBand input;
+	ImageSingleBand output;
+	ImageSingleBand storage;
+
+	Kernel1D kernel1D;
+	Kernel2D kernel2D;
+
+	@Setup
+	public void setup() {
+		Class<ImageSingleBand> type = BenchmarkUtils.imageType(imageType);
+		input = BenchmarkUtils.createImage(type, size, 234);
+		output = GeneralizedImageOps.createSingleBand(type, input.width, input.height);
+		storage = GeneralizedImageOps.createSingleBand(type, input.width, input.height);
+
+		kernel1D = FactoryKernelGaussian.gaussian1D(type, -1, radius);
+		kernel2D = FactoryKernelGaussian.gaussian2D(type, -1, radius);
+	}
+
+	@Benchmark
+	public ImageSingleBand horizontal() {
+		GConvolveImageOps.horizontalNormalized(kernel1D, input, output);
+		return output;
+	}
+
+	@Benchmark
+	public ImageSingleBand vertical() {
+		GConvolveImageOps.verticalNormalized(kernel1D, input, output);
+		return output;
+	}
+
+	@Benchmark
+	public ImageSingleBand convolve2D() {
+		GConvolveImageOps.convolveNormalized(kernel2D, input, output);
+		return output;
+	}
+
+	@Benchmark
+	public ImageSingleBand gaussian() {
+		return GBlurImageOps.gaussian(input, output, -1, radius, storage);
+	}
+
+	@Benchmark
+	public ImageSingleBand gaussian_MT() {
+		return GBlurImageOps.gaussian(input, output, -1, radius, storage, true);
+	}
+
+	@Benchmark
+	public ImageSingleBand mean() {
+		return GBlurImageOps.mean(input, output, radius, storage);
+	}
+
+	@Benchmark
+	public ImageSingleBand median() {
+		return GBlurImageOps.median(input, output, radius);
+	}
+
+	@Benchmark
+	public ImageSingleBand median_MT() {
+		return GBlurImageOps.median(input, output, radius, true);
+	}
+}
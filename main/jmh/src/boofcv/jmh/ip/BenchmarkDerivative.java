@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.jmh.ip;
+
+import boofcv.alg.filter.derivative.GImageDerivativeOps;
+import boofcv.alg.transform.ii.GIntegralImageOps;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.core.image.border.BorderType;
+import boofcv.jmh.BenchmarkUtils;
+import boofcv.struct.image.ImageSingleBand;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Image gradients and integral images.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkDerivative {
+
+	@Param({BenchmarkUtils.SIZE_SMALL, BenchmarkUtils.SIZE_LARGE})
+	public String size;
+
+	@Param({"U8","F32"})
+	public String imageType;
+
+	ImageSingleBand input;
+	ImageSingleBand derivX, derivY, derivXY;
+	ImageSingleBand integral;
+
+	@Setup
+	public void setup() {
+		Class<ImageSingleBand> type = BenchmarkUtils.imageType(imageType);
+		Class<ImageSingleBand> derivType = GImageDerivativeOps.getDerivativeType(type);
+		Class<ImageSingleBand> integralType = GIntegralImageOps.getIntegralType(type);
+
+		input = BenchmarkUtils.createImage(type, size, 234);
+		derivX = GeneralizedImageOps.createSingleBand(derivType, input.width, input.height);
+		derivY = GeneralizedImageOps.createSingleBand(derivType, input.width, input.height);
+		derivXY = GeneralizedImageOps.createSingleBand(derivType, input.width, input.height);
+		integral = GeneralizedImageOps.createSingleBand(integralType, input.width, input.height);
+	}
+
+	@Benchmark
+	public ImageSingleBand sobel() {
+		GImageDerivativeOps.sobel(input, derivX, derivY, BorderType.EXTENDED);
+		return derivY;
+	}
+
+	@Benchmark
+	public ImageSingleBand three() {
+		GImageDerivativeOps.three(input, derivX, derivY, BorderType.EXTENDED);
+		return derivY;
+	}
+
+	@Benchmark
+	public ImageSingleBand hessianSobel() {
+		GImageDerivativeOps.hessianSobel(input, derivX, derivY, derivXY, BorderType.EXTENDED);
+		return derivXY;
+	}
+
+	@Benchmark
+	public ImageSingleBand integralImage() {
+		return GIntegralImageOps.transform(input, integral);
+	}
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.jmh.ip;
+
+import boofcv.alg.distort.ImageDistort;
+import boofcv.alg.distort.PixelTransformHomography_F32;
+import boofcv.alg.interpolate.InterpolatePixel;
+import boofcv.alg.interpolate.TypeInterpolate;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.core.image.border.BorderType;
+import boofcv.core.image.border.FactoryImageBorder;
+import boofcv.factory.distort.FactoryDistort;
+import boofcv.factory.interpolate.FactoryInterpolation;
+import boofcv.jmh.BenchmarkUtils;
+import boofcv.struct.image.ImageSingleBand;
+import georegression.struct.homo.Homography2D_F32;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies a perspective distortion to an image using bilinear interpolation.  Compares computing the
+ * transform for every pixel against the different cached implementations.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkDistort {
+
+	@Param({BenchmarkUtils.SIZE_SMALL, BenchmarkUtils.SIZE_LARGE})
+	public String size;
+
+	@Param({"U8","F32"})
+	public String imageType;
+
+	/**
+	 * Which implementation is used: NONE = no cache, CACHE = cached transform, PRECOMPUTE = cached
+	 * transform and interpolation weights, MT = cached and split across threads.
+	 */
+	@Param({"NONE","CACHE","PRECOMPUTE","MT"})
+	public String cache;
+
+	ImageSingleBand input;
+	ImageSingleBand output;
+
+	ImageDistort<ImageSingleBand> distort;
+
+	@Setup
+	public void setup() {
+		Class<ImageSingleBand> type = BenchmarkUtils.imageType(imageType);
+		input = BenchmarkUtils.createImage(type, size, 234);
+		output = GeneralizedImageOps.createSingleBand(type, input.width, input.height);
+
+		Homography2D_F32 H = new Homography2D_F32(0.95f,0.05f,20f,-0.04f,0.97f,15f,1e-5f,2e-5f,1f);
+
+		if( cache.equals("MT") ) {
+			distort = FactoryDistort.distortCached_MT(TypeInterpolate.BILINEAR, BorderType.VALUE, 0, type);
+		} else {
+			InterpolatePixel<ImageSingleBand> interp = FactoryInterpolation.bilinearPixel(type);
+			if( cache.equals("NONE") )
+				distort = FactoryDistort.distort(interp, FactoryImageBorder.value(type, 0), type);
+			else
+				distort = FactoryDistort.distortCached(interp, FactoryImageBorder.value(type, 0), type,
+						cache.equals("PRECOMPUTE"));
+		}
+		distort.setModel(new PixelTransformHomography_F32(H));
+	}
+
+	@Benchmark
+	public ImageSingleBand apply() {
+		distort.apply(input, output);
+		return output;
+	}
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.jmh.ip;
+
+import boofcv.factory.transform.pyramid.FactoryPyramid;
+import boofcv.jmh.BenchmarkUtils;
+import boofcv.struct.image.ImageSingleBand;
+import boofcv.struct.pyramid.PyramidDiscrete;
+import boofcv.struct.pyramid.PyramidFloat;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Updating image pyramids.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkPyramid {
+
+	@Param({BenchmarkUtils.SIZE_SMALL, BenchmarkUtils.SIZE_LARGE})
+	public String size;
+
+	@Param({"U8","F32"})
+	public String imageType;
+
+	@Param({"false","true"})
+	public boolean concurrent;
+
+	ImageSingleBand input;
+
+	PyramidDiscrete<ImageSingleBand> discrete;
+	PyramidFloat<ImageSingleBand> scaled;
+
+	@Setup
+	public void setup() {
+		Class<ImageSingleBand> type = BenchmarkUtils.imageType(imageType);
+		input = BenchmarkUtils.createImage(type, size, 234);
+
+		discrete = FactoryPyramid.discreteGaussian(new int[]{1,2,4,8},-1,2,true,type,concurrent);
+		scaled = FactoryPyramid.floatGaussian(new double[]{1,1.5,2,3,4},new double[]{1,1,1,1,1},type,concurrent);
+	}
+
+	@Benchmark
+	public PyramidDiscrete discreteGaussian() {
+		discrete.process(input);
+		return discrete;
+	}
+
+	@Benchmark
+	public PyramidFloat floatGaussian() {
+		scaled.process(input);
+		return scaled;
+	}
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.jmh.sfm;
+
+import boofcv.abst.feature.detect.interest.ConfigGeneralDetector;
+import boofcv.abst.feature.tracker.PointTracker;
+import boofcv.abst.sfm.d2.ImageMotion2D;
+import boofcv.alg.filter.derivative.GImageDerivativeOps;
+import boofcv.factory.feature.tracker.FactoryPointTracker;
+import boofcv.factory.sfm.FactoryMotion2D;
+import boofcv.jmh.BenchmarkUtils;
+import boofcv.struct.image.ImageSingleBand;
+import georegression.struct.homo.Homography2D_F64;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Estimates the motion between frames in a synthetic video sequence, where the camera translates
+ * across a textured scene.  Each invocation processes the next frame in the sequence, so the measured
+ * time includes tracking, spawning new features and RANSAC.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkMotion2D {
+
+	// number of frames in the sequence
+	static final int NUM_FRAMES = 20;
+	// how far the camera moves between each frame, in pixels
+	static final int STEP = 2;
+
+	@Param({BenchmarkUtils.SIZE_SMALL})
+	public String size;
+
+	@Param({"U8","F32"})
+	public String imageType;
+
+	ImageSingleBand frames[] = new ImageSingleBand[NUM_FRAMES];
+	int frame;
+
+	PointTracker<ImageSingleBand> tracker;
+	ImageMotion2D<ImageSingleBand,Homography2D_F64> motion;
+
+	@Setup
+	public void setup() {
+		Class<ImageSingleBand> type = BenchmarkUtils.imageType(imageType);
+		Class<ImageSingleBand> derivType = GImageDerivativeOps.getDerivativeType(type);
+
+		int width = BenchmarkUtils.width(size);
+		int height = BenchmarkUtils.height(size);
+
+		// render each frame from a larger scene
+		ImageSingleBand scene = BenchmarkUtils.createTextured(type,
+				(width+NUM_FRAMES*STEP)+"x"+(height+NUM_FRAMES*STEP), 234);
+		for( int i = 0; i < NUM_FRAMES; i++ ) {
+			int offset = i*STEP;
+			frames[i] = (ImageSingleBand)scene.subimage(offset, offset, offset+width, offset+height).clone();
+		}
+
+		ConfigGeneralDetector config = new ConfigGeneralDetector(300, 3, 1);
+		tracker = FactoryPointTracker.klt(new int[]{1,2,4,8}, config, 3, type, derivType);
+		motion = FactoryMotion2D.createMotion2D(200, 3, 2, 30, 0.6, 0.5, false, tracker, new Homography2D_F64());
+	}
+
+	/**
+	 * Starts the sequence over at the beginning of each iteration
+	 */
+	@Setup(Level.Iteration)
+	public void reset() {
+		motion.reset();
+		frame = 0;
+	}
+
+	@Benchmark
+	public Homography2D_F64 process() {
+		// when the end is reached play the sequence backwards
+		int index = (frame/NUM_FRAMES) % 2 == 0 ? frame % NUM_FRAMES : NUM_FRAMES-1-frame % NUM_FRAMES;
+		frame++;
+
+		motion.process(frames[index]);
+		return motion.getFirstToCurrent();
+	}
+}
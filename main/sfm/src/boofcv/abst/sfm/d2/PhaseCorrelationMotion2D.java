@@ -0,0 +1,315 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.sfm.d2;
+
+import boofcv.alg.filter.misc.AverageDownSampleOps;
+import boofcv.alg.sfm.d2.LogPolarPhaseCorrelation;
+import boofcv.alg.sfm.d2.PhaseCorrelation;
+import boofcv.core.image.GConvertImage;
+import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.ImageSingleBand;
+import georegression.struct.affine.Affine2D_F64;
+
+/**
+ * <p>
+ * Estimates image motion using phase correlation instead of tracking point features.  Works well in scenes with
+ * little texture and the cost per frame is fixed.  Each frame is converted into a {@link ImageFloat32}, down sampled
+ * by a power of two, and a square region at its center is compared against the same region in the key frame.
+ * Translation is always estimated, see {@link PhaseCorrelation}.  Optionally, rotation and scale are estimated
+ * first, see {@link LogPolarPhaseCorrelation}, and then the current frame is rotated and scaled back before
+ * estimating translation.  The motion is described using {@link Affine2D_F64}.
+ * </p>
+ *
+ * <p>
+ * The current frame becomes the new key frame once the corners of the square region have moved by more than
+ * a fraction of its size, since the correlation weakens as the overlap decreases.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class PhaseCorrelationMotion2D<I extends ImageSingleBand>
+		implements ImageMotion2D<I,Affine2D_F64>
+{
+	// length of a side of the square region which is processed
+	private int regionSize;
+	// how much the image is down sampled by.  If &le; 0 it is selected automatically
+	private int downSample;
+	// if true rotation and scale are estimated
+	private boolean estimateRotationScale;
+	// correlation peaks smaller than this are considered a failure
+	private double minimumPeak;
+	// change the key frame when the region has moved by this fraction of its size
+	private double keyFrameFraction;
+
+	private PhaseCorrelation translation = new PhaseCorrelation(true);
+	private LogPolarPhaseCorrelation rotationScale;
+
+	// input image converted into a floating point image, down sampled, and the square region
+	private ImageFloat32 gray = new ImageFloat32(1,1);
+	private ImageFloat32 sampled = new ImageFloat32(1,1);
+	private ImageFloat32 region = new ImageFloat32(1,1);
+	// region after removing the estimated rotation and scale
+	private ImageFloat32 warped = new ImageFloat32(1,1);
+
+	// down sampling and size of the region for the current image shape
+	private int sampleWidth;
+	private int size;
+	// location of the region's top left corner in the sampled image
+	private int offsetX,offsetY;
+
+	// motion in the region's coordinate system.  p_curr = s*R*(p_key - c) + c + t
+	private double foundScale,foundRotation,foundTx,foundTy;
+
+	private Affine2D_F64 worldToKey = new Affine2D_F64();
+	private Affine2D_F64 keyToCurr = new Affine2D_F64();
+	private Affine2D_F64 worldToCurr = new Affine2D_F64();
+
+	private boolean first = true;
+
+	/**
+	 * Configures motion estimation
+	 *
+	 * @param regionSize Length of a side of the square region which is processed.  Try 128
+	 * @param downSample Down sample the image by this amount.  If &le; 0 the largest power of two which keeps the
+	 *                   image at least as large as the region is selected.
+	 * @param estimateRotationScale If true rotation and scale are estimated along with translation
+	 * @param minimumPeak Correlation peaks smaller than this are considered a failure.  Try 0.3
+	 * @param keyFrameFraction Change the key frame when the region has moved by this fraction of its size.  Try 0.2
+	 */
+	public PhaseCorrelationMotion2D(int regionSize, int downSample, boolean estimateRotationScale,
+									double minimumPeak, double keyFrameFraction) {
+		this.regionSize = regionSize;
+		this.downSample = downSample;
+		this.estimateRotationScale = estimateRotationScale;
+		this.minimumPeak = minimumPeak;
+		this.keyFrameFraction = keyFrameFraction;
+
+		if( estimateRotationScale )
+			rotationScale = new LogPolarPhaseCorrelation();
+	}
+
+	@Override
+	public boolean process(I input) {
+		if( first || input.width != gray.width || input.height != gray.height ) {
+			configure(input.width,input.height);
+			extractRegion(input);
+			setKeyFrame();
+			worldToKey.reset();
+			worldToCurr.reset();
+			first = false;
+			return true;
+		}
+
+		extractRegion(input);
+
+		if( !estimateMotion() )
+			return false;
+
+		computeKeyToCurr();
+		worldToKey.concat(keyToCurr,worldToCurr);
+
+		if( maximumCornerMotion() > keyFrameFraction*size ) {
+			worldToKey.set(worldToCurr);
+			if( estimateRotationScale ) {
+				setKeyFrame();
+			} else {
+				translation.setCurrentToReference();
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Estimates the motion of the region relative to the key frame
+	 */
+	private boolean estimateMotion() {
+		ImageFloat32 aligned = region;
+		foundScale = 1;
+		foundRotation = 0;
+
+		if( estimateRotationScale ) {
+			rotationScale.process(region);
+			if( rotationScale.getPeak() < minimumPeak )
+				return false;
+			foundScale = rotationScale.getScale();
+			foundRotation = rotationScale.getRotation();
+			removeRotationScale();
+			aligned = warped;
+		}
+
+		translation.process(aligned);
+		if( translation.getPeak() < minimumPeak )
+			return false;
+
+		// translation was estimated after removing the rotation and scale, so apply them to it
+		double c = Math.cos(foundRotation), s = Math.sin(foundRotation);
+		double tx = translation.getOffsetX(), ty = translation.getOffsetY();
+		foundTx = foundScale*(c*tx - s*ty);
+		foundTy = foundScale*(s*tx + c*ty);
+
+		return true;
+	}
+
+	/**
+	 * Samples the current region at the location predicted by the rotation and scale, which makes it a
+	 * translated version of the key frame
+	 */
+	private void removeRotationScale() {
+		double center = (size-1)/2.0;
+		double c = foundScale*Math.cos(foundRotation), s = foundScale*Math.sin(foundRotation);
+
+		for( int y = 0; y < size; y++ ) {
+			for( int x = 0; x < size; x++ ) {
+				double dx = x - center, dy = y - center;
+				double px = c*dx - s*dy + center;
+				double py = s*dx + c*dy + center;
+				warped.data[y*size+x] = interpolate(region,px,py);
+			}
+		}
+	}
+
+	/**
+	 * Bilinear interpolation.  Points outside the image take the value of the closest pixel.
+	 */
+	private static float interpolate( ImageFloat32 image , double x , double y ) {
+		x = Math.max(0,Math.min(image.width-1,x));
+		y = Math.max(0,Math.min(image.height-1,y));
+		int x0 = Math.min(image.width-2,(int)x);
+		int y0 = Math.min(image.height-2,(int)y);
+		double ax = x - x0, ay = y - y0;
+
+		int index = image.startIndex + y0*image.stride + x0;
+		float[] d = image.data;
+		return (float)((1-ay)*((1-ax)*d[index] + ax*d[index+1]) +
+				ay*((1-ax)*d[index+image.stride] + ax*d[index+image.stride+1]));
+	}
+
+	/**
+	 * Converts the motion inside the region into motion of the input image
+	 */
+	private void computeKeyToCurr() {
+		double a = foundScale*Math.cos(foundRotation), b = foundScale*Math.sin(foundRotation);
+
+		// center of the region and the translation in input image pixels
+		double centerX = sampleWidth*(offsetX + (size-1)/2.0) + (sampleWidth-1)/2.0;
+		double centerY = sampleWidth*(offsetY + (size-1)/2.0) + (sampleWidth-1)/2.0;
+
+		keyToCurr.a11 = a;  keyToCurr.a12 = -b;
+		keyToCurr.a21 = b;  keyToCurr.a22 = a;
+		keyToCurr.tx = centerX - (a*centerX - b*centerY) + sampleWidth*foundTx;
+		keyToCurr.ty = centerY - (b*centerX + a*centerY) + sampleWidth*foundTy;
+	}
+
+	/**
+	 * How far the region's corners have moved from the key frame, in region pixels
+	 */
+	private double maximumCornerMotion() {
+		double a = foundScale*Math.cos(foundRotation), b = foundScale*Math.sin(foundRotation);
+		double half = (size-1)/2.0;
+		double best = 0;
+		for( int i = 0; i < 4; i++ ) {
+			double x = (i%2 == 0 ? -half : half);
+			double y = (i/2 == 0 ? -half : half);
+			double dx = a*x - b*y + foundTx - x;
+			double dy = b*x + a*y + foundTy - y;
+			best = Math.max(best,Math.sqrt(dx*dx + dy*dy));
+		}
+		return best;
+	}
+
+	/**
+	 * Selects the down sampling and the region for the image shape
+	 */
+	private void configure( int width , int height ) {
+		sampleWidth = downSample;
+		if( sampleWidth <= 0 ) {
+			sampleWidth = 1;
+			while( Math.min(width,height)/(sampleWidth*2) >= regionSize )
+				sampleWidth *= 2;
+		}
+		gray.reshape(width,height);
+		AverageDownSampleOps.reshapeDown(sampled,width,height,sampleWidth);
+
+		size = Math.min(regionSize,Math.min(sampled.width,sampled.height));
+		offsetX = (sampled.width-size)/2;
+		offsetY = (sampled.height-size)/2;
+		region.reshape(size,size);
+		warped.reshape(size,size);
+	}
+
+	private void extractRegion( I input ) {
+		ImageFloat32 gray;
+		if( input instanceof ImageFloat32 ) {
+			gray = (ImageFloat32)input;
+		} else {
+			gray = this.gray;
+			GConvertImage.convert(input,gray);
+		}
+
+		if( sampleWidth > 1 ) {
+			AverageDownSampleOps.down(gray,sampleWidth,sampled);
+			gray = sampled;
+		}
+
+		region.setTo(gray.subimage(offsetX,offsetY,offsetX+size,offsetY+size));
+	}
+
+	/**
+	 * Makes the current region the key frame
+	 */
+	private void setKeyFrame() {
+		translation.setReference(region);
+		if( estimateRotationScale )
+			rotationScale.setReference(region);
+	}
+
+	@Override
+	public void reset() {
+		first = true;
+		worldToKey.reset();
+		keyToCurr.reset();
+		worldToCurr.reset();
+	}
+
+	@Override
+	public void setToFirst() {
+		setKeyFrame();
+		worldToKey.reset();
+		keyToCurr.reset();
+		worldToCurr.reset();
+	}
+
+	@Override
+	public Affine2D_F64 getFirstToCurrent() {
+		return worldToCurr;
+	}
+
+	@Override
+	public Class<Affine2D_F64> getTransformType() {
+		return Affine2D_F64.class;
+	}
+
+	/**
+	 * Height of the most recent translation correlation peak.  1 is a perfect match.
+	 */
+	public double getPeak() {
+		return translation.getPeak();
+	}
+}
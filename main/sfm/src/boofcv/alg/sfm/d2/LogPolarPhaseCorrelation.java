@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.sfm.d2;
+
+import boofcv.alg.transform.fft.FourierTransform2D_F32;
+import boofcv.struct.image.ImageFloat32;
+
+/**
+ * <p>
+ * Estimates the rotation and scale between two square images using the Fourier-Mellin transform.  The magnitude
+ * of an image's spectrum doesn't change when the image is translated, while a rotation or scaling of the image
+ * rotates or scales its spectrum.  After resampling the magnitude into log-polar coordinates, rotation and
+ * scale become translations which are found using {@link PhaseCorrelation}.
+ * </p>
+ *
+ * <p>
+ * Since the magnitude of a real image's spectrum is symmetric, only angles from 0 to 180 degrees are sampled and the
+ * estimated rotation is between -90 and 90 degrees.  The magnitude is multiplied by a high pass filter before
+ * resampling to emphasize edges over the large values close to zero frequency.
+ * </p>
+ *
+ * <p>
+ * Reddy, B. S., and B. N. Chatterji. "An FFT-based technique for translation, rotation, and scale-invariant
+ * image registration." IEEE Transactions on Image Processing 5.8 (1996)
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class LogPolarPhaseCorrelation {
+
+	// size of the square images being processed
+	private int size = -1;
+	// number of samples along each axis in the log-polar image
+	private int numAngles,numRadii;
+	// smallest radius sampled and the change in the log of the radius between samples
+	private double minRadius = 2;
+	private double logStep;
+
+	private FourierTransform2D_F32 fft = new FourierTransform2D_F32();
+
+	// Hann window applied to the spatial image and the high pass filter applied to the magnitude
+	private float window[] = new float[0];
+	private float highPass[] = new float[0];
+
+	private ImageFloat32 work = new ImageFloat32(1,1);
+	private ImageFloat32 spectrum = new ImageFloat32(1,1);
+	// magnitude of the spectrum.  One element for each complex number in the packed spectrum
+	private ImageFloat32 magnitude = new ImageFloat32(1,1);
+	// magnitude resampled into log-polar coordinates.  x = log radius, y = angle
+	private ImageFloat32 logPolar = new ImageFloat32(1,1);
+
+	private PhaseCorrelation correlation = new PhaseCorrelation(false);
+
+	private double rotation;
+	private double scale;
+
+	/**
+	 * Specifies the image which the rotation and scale are relative to.
+	 *
+	 * @param image Reference image.  Must be square.  Not modified.
+	 */
+	public void setReference( ImageFloat32 image ) {
+		declareStorage(image);
+		computeLogPolar(image);
+		correlation.setReference(logPolar);
+	}
+
+	/**
+	 * Makes the most recently processed image the reference image.
+	 */
+	public void setCurrentToReference() {
+		correlation.setCurrentToReference();
+	}
+
+	/**
+	 * Estimates the rotation and scale from the reference image to the current image.  The current image
+	 * is approximately the reference image rotated by {@link #getRotation()} and scaled by {@link #getScale()}
+	 * around the image center, then translated.
+	 *
+	 * @param image Current image.  Same shape as the reference.  Not modified.
+	 */
+	public void process( ImageFloat32 image ) {
+		if( image.width != size || image.height != size )
+			throw new IllegalArgumentException("The image must be the same shape as the reference image");
+
+		computeLogPolar(image);
+		correlation.process(logPolar);
+
+		rotation = Math.PI*correlation.getOffsetY()/numAngles;
+		scale = Math.exp(-correlation.getOffsetX()*logStep);
+	}
+
+	private void computeLogPolar( ImageFloat32 image ) {
+		// window the image then compute its spectrum
+		for( int y = 0; y < size; y++ ) {
+			int indexIn = image.startIndex + y*image.stride;
+			int indexOut = y*size;
+			for( int x = 0; x < size; x++ , indexOut++ )
+				work.data[indexOut] = image.data[indexIn++]*window[indexOut];
+		}
+		fft.forward(work,spectrum);
+
+		for( int i = 0; i < highPass.length; i++ ) {
+			float real = spectrum.data[2*i];
+			float imag = spectrum.data[2*i+1];
+			magnitude.data[i] = (float)Math.sqrt(real*real + imag*imag)*highPass[i];
+		}
+
+		// resample with a window along the radius, since it is not periodic
+		for( int a = 0; a < numAngles; a++ ) {
+			double theta = Math.PI*a/numAngles;
+			double c = Math.cos(theta), s = Math.sin(theta);
+			int index = a*numRadii;
+			for( int r = 0; r < numRadii; r++ ) {
+				double radius = minRadius*Math.exp(r*logStep);
+				double w = 0.5 - 0.5*Math.cos(2.0*Math.PI*(r+0.5)/numRadii);
+				logPolar.data[index++] = (float)(w*sampleMagnitude(radius*c,radius*s));
+			}
+		}
+	}
+
+	/**
+	 * Bilinear interpolation of the magnitude at frequency (u,v).  Negative u is handled using symmetry.
+	 */
+	private double sampleMagnitude( double u , double v ) {
+		if( u < 0 ) {
+			u = -u;
+			v = -v;
+		}
+		int u0 = (int)u;
+		int v0 = (int)Math.floor(v);
+		double du = u - u0;
+		double dv = v - v0;
+
+		double m00 = magnitude(u0,v0);
+		double m10 = magnitude(u0+1,v0);
+		double m01 = magnitude(u0,v0+1);
+		double m11 = magnitude(u0+1,v0+1);
+
+		return (1-dv)*((1-du)*m00 + du*m10) + dv*((1-du)*m01 + du*m11);
+	}
+
+	private double magnitude( int u , int v ) {
+		v = ((v % size) + size) % size;
+		return magnitude.data[v*magnitude.width + u];
+	}
+
+	private void declareStorage( ImageFloat32 image ) {
+		if( image.width != image.height )
+			throw new IllegalArgumentException("The image must be square");
+		if( image.width < 8 )
+			throw new IllegalArgumentException("Image is too small");
+		if( image.width == size )
+			return;
+
+		size = image.width;
+		numAngles = size;
+		numRadii = size/2;
+		// stay inside of the packed spectrum so that interpolation doesn't need to check bounds
+		double maxRadius = size/2 - 1;
+		logStep = Math.log(maxRadius/minRadius)/numRadii;
+
+		work.reshape(size,size);
+		spectrum.reshape(FourierTransform2D_F32.packedWidth(size),size);
+		magnitude.reshape(size/2+1,size);
+		logPolar.reshape(numRadii,numAngles);
+
+		window = new float[size*size];
+		for( int y = 0; y < size; y++ ) {
+			double wy = 0.5 - 0.5*Math.cos(2.0*Math.PI*(y+0.5)/size);
+			for( int x = 0; x < size; x++ ) {
+				double wx = 0.5 - 0.5*Math.cos(2.0*Math.PI*(x+0.5)/size);
+				window[y*size+x] = (float)(wx*wy);
+			}
+		}
+
+		// H = (1-X)*(2-X), where X = cos(pi*fx)*cos(pi*fy)
+		int columns = size/2+1;
+		highPass = new float[columns*size];
+		for( int y = 0; y < size; y++ ) {
+			double fy = (y <= size/2 ? y : y-size)/(double)size;
+			for( int x = 0; x < columns; x++ ) {
+				double fx = x/(double)size;
+				double X = Math.cos(Math.PI*fx)*Math.cos(Math.PI*fy);
+				highPass[y*columns+x] = (float)((1-X)*(2-X));
+			}
+		}
+	}
+
+	/**
+	 * Rotation from the reference image to the current image in radians.  Between -pi/2 and pi/2.
+	 */
+	public double getRotation() {
+		return rotation;
+	}
+
+	/**
+	 * Scale factor from the reference image to the current image.
+	 */
+	public double getScale() {
+		return scale;
+	}
+
+	/**
+	 * Height of the correlation peak.  See {@link PhaseCorrelation#getPeak()}.
+	 */
+	public double getPeak() {
+		return correlation.getPeak();
+	}
+}
@@ -0,0 +1,274 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.sfm.d2;
+
+import boofcv.alg.transform.fft.FourierTransform2D_F32;
+import boofcv.alg.transform.fft.FourierTransformOps;
+import boofcv.struct.image.ImageFloat32;
+
+/**
+ * <p>
+ * Estimates the translation between two images of the same size using phase correlation.  The normalized cross
+ * power spectrum of the two images is computed and its inverse Fourier transform has a sharp peak at the
+ * translation.  The cost only depends on the image size and is independent of the image's texture or the amount
+ * of motion.
+ * </p>
+ *
+ * <p>
+ * The cross power spectrum is multiplied by a Gaussian, turning the peak into a Gaussian with a standard deviation
+ * of about one pixel.  Without it, frequencies which contain almost no energy are amplified into noise which can
+ * produce false peaks.  A Gaussian peak also lets its location be found to sub-pixel accuracy by fitting a
+ * parabola to the log of the values along each axis.
+ * </p>
+ *
+ * <p>
+ * Before the transform, each image has its mean subtracted and is optionally multiplied by a Hann window.  The
+ * window suppresses the discontinuity along the image border which would otherwise bias the solution towards
+ * zero motion.  The reference image's spectrum is saved so that only one forward transform is needed for each
+ * new image.
+ * </p>
+ *
+ * <p>
+ * Kuglin, C. D., and D. C. Hines. "The phase correlation image alignment method." Proc. Int. Conf. on
+ * Cybernetics and Society, 1975.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class PhaseCorrelation {
+
+	// should a window be applied to the image
+	private boolean useWindow;
+
+	private FourierTransform2D_F32 fft = new FourierTransform2D_F32();
+
+	// size of the images being processed
+	private int width = -1,height = -1;
+	// Hann window
+	private ImageFloat32 window = new ImageFloat32(1,1);
+	// image after the mean has been removed and the window applied
+	private ImageFloat32 work = new ImageFloat32(1,1);
+
+	// packed spectrum of the reference image and the current image
+	private ImageFloat32 spectrumRef = new ImageFloat32(1,1);
+	private ImageFloat32 spectrumCurr = new ImageFloat32(1,1);
+	// normalized cross power spectrum
+	private ImageFloat32 cross = new ImageFloat32(1,1);
+	// low pass filter applied to the cross power spectrum.  One element for each complex number.
+	private float filter[] = new float[0];
+	private double filterSum;
+	// inverse transform of the cross power spectrum
+	private ImageFloat32 correlation = new ImageFloat32(1,1);
+
+	// the estimated translation and the correlation at the peak
+	private double offsetX,offsetY;
+	private double peak;
+
+	/**
+	 * Configures phase correlation
+	 *
+	 * @param useWindow If true a Hann window is applied to the images.  Should be true unless the images are periodic.
+	 */
+	public PhaseCorrelation( boolean useWindow ) {
+		this.useWindow = useWindow;
+	}
+
+	/**
+	 * Specifies the image which the translation is relative to.
+	 *
+	 * @param image Reference image.  Not modified.
+	 */
+	public void setReference( ImageFloat32 image ) {
+		declareStorage(image.width,image.height);
+		computeSpectrum(image,spectrumRef);
+	}
+
+	/**
+	 * Makes the most recently processed image the reference image.  Its spectrum is reused.
+	 */
+	public void setCurrentToReference() {
+		ImageFloat32 tmp = spectrumRef;
+		spectrumRef = spectrumCurr;
+		spectrumCurr = tmp;
+	}
+
+	/**
+	 * Estimates the translation from the reference image to the current image.  If the translation is
+	 * (tx,ty) then current(x,y) = reference(x-tx,y-ty).  The translation is between -size/2 and size/2
+	 * along each axis.
+	 *
+	 * @param image Current image.  Must be the same shape as the reference.  Not modified.
+	 */
+	public void process( ImageFloat32 image ) {
+		if( image.width != width || image.height != height )
+			throw new IllegalArgumentException("The image must be the same shape as the reference image");
+
+		computeSpectrum(image,spectrumCurr);
+
+		FourierTransformOps.crossPowerSpectrum(spectrumCurr,spectrumRef,cross);
+		for( int i = 0; i < filter.length; i++ ) {
+			cross.data[2*i] *= filter[i];
+			cross.data[2*i+1] *= filter[i];
+		}
+		fft.inverse(cross,correlation);
+
+		findPeak();
+	}
+
+	/**
+	 * Subtracts the mean, applies the window, and computes the spectrum
+	 */
+	private void computeSpectrum( ImageFloat32 image , ImageFloat32 spectrum ) {
+		double total = 0;
+		for( int y = 0; y < height; y++ ) {
+			int index = image.startIndex + y*image.stride;
+			for( int x = 0; x < width; x++ )
+				total += image.data[index++];
+		}
+		float mean = (float)(total/(width*height));
+
+		for( int y = 0; y < height; y++ ) {
+			int indexIn = image.startIndex + y*image.stride;
+			int indexOut = y*width;
+			if( useWindow ) {
+				for( int x = 0; x < width; x++ , indexOut++ )
+					work.data[indexOut] = (image.data[indexIn++] - mean)*window.data[indexOut];
+			} else {
+				for( int x = 0; x < width; x++ , indexOut++ )
+					work.data[indexOut] = image.data[indexIn++] - mean;
+			}
+		}
+
+		fft.forward(work,spectrum);
+	}
+
+	/**
+	 * Finds the largest value in the correlation and refines its location
+	 */
+	private void findPeak() {
+		int bestIndex = 0;
+		float best = -Float.MAX_VALUE;
+		for( int i = 0; i < width*height; i++ ) {
+			if( correlation.data[i] > best ) {
+				best = correlation.data[i];
+				bestIndex = i;
+			}
+		}
+		int px = bestIndex % width;
+		int py = bestIndex / width;
+
+		// neighbors wrap around the image
+		float left  = correlation.data[py*width + (px+width-1)%width];
+		float right = correlation.data[py*width + (px+1)%width];
+		float up    = correlation.data[((py+height-1)%height)*width + px];
+		float down  = correlation.data[((py+1)%height)*width + px];
+
+		offsetX = px + refine(left,best,right);
+		offsetY = py + refine(up,best,down);
+		if( offsetX >= width/2.0 ) offsetX -= width;
+		if( offsetY >= height/2.0 ) offsetY -= height;
+
+		// a perfect match will have a value equal to the sum of the filter across the whole spectrum
+		peak = best/filterSum;
+	}
+
+	/**
+	 * Fits a parabola to the log of three values and returns the location of its maximum relative to the center.
+	 * Exact for a Gaussian peak.
+	 */
+	private static double refine( float lower , float center , float upper ) {
+		if( lower <= 0 || upper <= 0 || center <= 0 )
+			return 0;
+		double a = Math.log(lower), b = Math.log(center), c = Math.log(upper);
+		double denominator = a - 2.0*b + c;
+		if( denominator >= 0 )
+			return 0;
+		double offset = 0.5*(a - c)/denominator;
+		return Math.max(-0.5,Math.min(0.5,offset));
+	}
+
+	private void declareStorage( int width , int height ) {
+		if( width < 2 || height < 2 )
+			throw new IllegalArgumentException("Image is too small");
+		if( this.width == width && this.height == height )
+			return;
+
+		this.width = width;
+		this.height = height;
+		work.reshape(width,height);
+		correlation.reshape(width,height);
+		spectrumRef.reshape(FourierTransform2D_F32.packedWidth(width),height);
+		spectrumCurr.reshape(FourierTransform2D_F32.packedWidth(width),height);
+		cross.reshape(FourierTransform2D_F32.packedWidth(width),height);
+
+		// Gaussian with a standard deviation of 1/(2*pi) cycles per pixel, which produces a peak with a standard
+		// deviation of one pixel
+		int packedColumns = width/2+1;
+		filter = new float[packedColumns*height];
+		double sigmaF = 1.0/(2.0*Math.PI);
+		filterSum = 0;
+		for( int y = 0; y < height; y++ ) {
+			double fy = (y <= height/2 ? y : y-height)/(double)height;
+			for( int x = 0; x < width; x++ ) {
+				double fx = (x <= width/2 ? x : x-width)/(double)width;
+				double value = Math.exp(-(fx*fx+fy*fy)/(2*sigmaF*sigmaF));
+				filterSum += value;
+				if( x < packedColumns )
+					filter[y*packedColumns+x] = (float)value;
+			}
+		}
+
+		window.reshape(width,height);
+		for( int y = 0; y < height; y++ ) {
+			double wy = hann(y,height);
+			for( int x = 0; x < width; x++ ) {
+				window.data[y*width+x] = (float)(wy*hann(x,width));
+			}
+		}
+	}
+
+	private static double hann( int i , int length ) {
+		return 0.5 - 0.5*Math.cos(2.0*Math.PI*(i+0.5)/length);
+	}
+
+	/**
+	 * Translation along the x-axis from the reference to the current image
+	 */
+	public double getOffsetX() {
+		return offsetX;
+	}
+
+	/**
+	 * Translation along the y-axis from the reference to the current image
+	 */
+	public double getOffsetY() {
+		return offsetY;
+	}
+
+	/**
+	 * Height of the correlation peak.  1 is a perfect match and values close to zero indicate no match.
+	 */
+	public double getPeak() {
+		return peak;
+	}
+
+	public boolean isUseWindow() {
+		return useWindow;
+	}
+}
@@ -20,6 +20,7 @@ package boofcv.factory.sfm;
 
 import boofcv.abst.feature.tracker.PointTracker;
 import boofcv.abst.sfm.d2.ImageMotion2D;
+import boofcv.abst.sfm.d2.PhaseCorrelationMotion2D;
 import boofcv.abst.sfm.d2.WrapImageMotionPtkSmartRespawn;
 import boofcv.alg.distort.ImageDistort;
 import boofcv.alg.interpolate.InterpolatePixel;
@@ -116,6 +117,30 @@ public class FactoryMotion2D {
 		return new WrapImageMotionPtkSmartRespawn<I, IT>(smartRespawn);
 	}
 
+	/**
+	 * Estimates the 2D motion of an image using phase correlation.  Better suited than point trackers for scenes
+	 * with little texture and has a fixed cost per frame.  Motion is described using {@link Affine2D_F64}.
+	 *
+	 * @see PhaseCorrelationMotion2D
+	 *
+	 * @param regionSize Length of a side of the square region at the image center which is processed.  Try 128
+	 * @param downSample Down sample the image by this amount.  If &le; 0 it is selected automatically.
+	 * @param estimateRotationScale If true rotation and scale are estimated along with translation.
+	 * @param minimumPeak Correlation peaks smaller than this are considered a failure.  Try 0.3
+	 * @param keyFrameFraction Change the key frame when the region has moved by this fraction of its size.  Try 0.2
+	 * @param imageType Type of image processed
+	 * @param <I> Image input type.
+	 * @return ImageMotion2D
+	 */
+	public static <I extends ImageSingleBand>
+	ImageMotion2D<I,Affine2D_F64> createPhaseCorrelation( int regionSize , int downSample ,
+														  boolean estimateRotationScale ,
+														  double minimumPeak , double keyFrameFraction ,
+														  Class<I> imageType ) {
+		return new PhaseCorrelationMotion2D<I>(regionSize,downSample,estimateRotationScale,
+				minimumPeak,keyFrameFraction);
+	}
+
 	/**
 	 * Estimates the image motion then combines images together.  Typically used for mosaics and stabilization.
 	 *
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.sfm.d2;
+
+import boofcv.alg.sfm.d2.BlobTexture;
+import boofcv.core.image.ConvertImage;
+import boofcv.struct.image.ImageFloat32;
+import boofcv.struct.image.ImageUInt8;
+import georegression.struct.affine.Affine2D_F64;
+import georegression.struct.point.Point2D_F64;
+import georegression.transform.affine.AffinePointOps;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPhaseCorrelationMotion2D {
+
+	Random rand = new Random(234);
+	BlobTexture texture = new BlobTexture(rand,2000,-100,350);
+
+	int width = 260;
+	int height = 200;
+	double cx = (width-1)/2.0;
+	double cy = (height-1)/2.0;
+
+	ImageFloat32 frame = new ImageFloat32(width,height);
+
+	@Test
+	public void translation() {
+		PhaseCorrelationMotion2D<ImageFloat32> alg =
+				new PhaseCorrelationMotion2D<ImageFloat32>(128,1,false,0.3,0.2);
+
+		texture.render(frame,cx,cy,0,1,0,0);
+		assertTrue(alg.process(frame));
+		checkTransform(alg.getFirstToCurrent(),0,1,0,0,0.01);
+
+		texture.render(frame,cx,cy,0,1,4.5,-3.25);
+		assertTrue(alg.process(frame));
+		checkTransform(alg.getFirstToCurrent(),0,1,4.5,-3.25,0.1);
+	}
+
+	/**
+	 * Down sample the image and see if the motion is still estimated in the input image's coordinates
+	 */
+	@Test
+	public void translation_downSample() {
+		PhaseCorrelationMotion2D<ImageFloat32> alg =
+				new PhaseCorrelationMotion2D<ImageFloat32>(64,2,false,0.3,0.2);
+
+		texture.render(frame,cx,cy,0,1,0,0);
+		assertTrue(alg.process(frame));
+
+		texture.render(frame,cx,cy,0,1,6,-4);
+		assertTrue(alg.process(frame));
+		checkTransform(alg.getFirstToCurrent(),0,1,6,-4,0.3);
+	}
+
+	@Test
+	public void rotationScale() {
+		PhaseCorrelationMotion2D<ImageFloat32> alg =
+				new PhaseCorrelationMotion2D<ImageFloat32>(128,1,true,0.3,0.2);
+
+		texture.render(frame,cx,cy,0,1,0,0);
+		assertTrue(alg.process(frame));
+
+		texture.render(frame,cx,cy,0.05,1.05,2,-1);
+		assertTrue(alg.process(frame));
+		checkTransform(alg.getFirstToCurrent(),0.05,1.05,2,-1,0.3);
+	}
+
+	/**
+	 * Motion is accumulated across several key frames
+	 */
+	@Test
+	public void keyFrames() {
+		PhaseCorrelationMotion2D<ImageUInt8> alg =
+				new PhaseCorrelationMotion2D<ImageUInt8>(128,1,false,0.3,0.05);
+		ImageUInt8 gray = new ImageUInt8(width,height);
+
+		for( int i = 0; i < 6; i++ ) {
+			texture.render(frame,cx,cy,0,1,i*4,-i*2);
+			ConvertImage.convert(frame,gray);
+			assertTrue(alg.process(gray));
+		}
+		checkTransform(alg.getFirstToCurrent(),0,1,20,-10,0.5);
+
+		// the first frame should become the origin
+		alg.setToFirst();
+		texture.render(frame,cx,cy,0,1,23,-10);
+		ConvertImage.convert(frame,gray);
+		assertTrue(alg.process(gray));
+		checkTransform(alg.getFirstToCurrent(),0,1,3,0,0.5);
+	}
+
+	@Test
+	public void reset() {
+		PhaseCorrelationMotion2D<ImageFloat32> alg =
+				new PhaseCorrelationMotion2D<ImageFloat32>(128,1,false,0.3,0.2);
+
+		texture.render(frame,cx,cy,0,1,0,0);
+		alg.process(frame);
+		texture.render(frame,cx,cy,0,1,5,5);
+		alg.process(frame);
+		alg.reset();
+
+		assertTrue(alg.process(frame));
+		checkTransform(alg.getFirstToCurrent(),0,1,0,0,1e-8);
+	}
+
+	/**
+	 * Images which do not match should be rejected
+	 */
+	@Test
+	public void noMatch() {
+		PhaseCorrelationMotion2D<ImageFloat32> alg =
+				new PhaseCorrelationMotion2D<ImageFloat32>(128,1,false,0.3,0.2);
+
+		texture.render(frame,cx,cy,0,1,0,0);
+		assertTrue(alg.process(frame));
+
+		new BlobTexture(rand,2000,-100,350).render(frame,cx,cy,0,1,0,0);
+		assertFalse(alg.process(frame));
+	}
+
+	/**
+	 * Compares the found transform against the expected motion at several points
+	 */
+	private void checkTransform( Affine2D_F64 found , double rotation , double scale ,
+								 double tx , double ty , double tol ) {
+		double c = Math.cos(rotation), s = Math.sin(rotation);
+		Point2D_F64 p = new Point2D_F64();
+		Point2D_F64 f = new Point2D_F64();
+		for( int i = 0; i < 5; i++ ) {
+			double x = cx + (i%3-1)*30;
+			double y = cy + (i/3-1)*30;
+			double dx = x - cx, dy = y - cy;
+			double ex = scale*(c*dx - s*dy) + cx + tx;
+			double ey = scale*(s*dx + c*dy) + cy + ty;
+
+			p.set(x,y);
+			AffinePointOps.transform(found,p,f);
+			assertEquals(ex,f.x,tol);
+			assertEquals(ey,f.y,tol);
+		}
+	}
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.sfm.d2;
+
+import boofcv.struct.image.ImageFloat32;
+
+import java.util.Random;
+
+/**
+ * Smooth random texture made up of Gaussian blobs which can be rendered at sub-pixel locations.  Used to test
+ * algorithms which estimate image motion.
+ *
+ * @author Peter Abeles
+ */
+public class BlobTexture {
+	// x, y, sigma, magnitude
+	double blobs[][];
+
+	public BlobTexture( Random rand , int numBlobs , double minXY , double maxXY ) {
+		blobs = new double[numBlobs][4];
+		for( double[] b : blobs ) {
+			b[0] = minXY + rand.nextDouble()*(maxXY-minXY);
+			b[1] = minXY + rand.nextDouble()*(maxXY-minXY);
+			b[2] = 1 + rand.nextDouble()*3;
+			b[3] = rand.nextDouble()*100;
+		}
+	}
+
+	public float value( double x , double y ) {
+		double total = 0;
+		for( double[] b : blobs ) {
+			double dx = x - b[0], dy = y - b[1];
+			double d2 = dx*dx + dy*dy;
+			// skip blobs which are too far away to contribute
+			if( d2 < 36*b[2]*b[2] )
+				total += b[3]*Math.exp(-d2/(2*b[2]*b[2]));
+		}
+		return (float)total;
+	}
+
+	/**
+	 * Renders the texture after it has been rotated and scaled about the point (cx,cy) and then translated.
+	 * p_image = s*R*(p_texture - c) + c + t
+	 */
+	public void render( ImageFloat32 image , double cx , double cy ,
+						double rotation , double scale , double tx , double ty ) {
+		double c = Math.cos(rotation), s = Math.sin(rotation);
+		for( int y = 0; y < image.height; y++ ) {
+			for( int x = 0; x < image.width; x++ ) {
+				double px = x - cx - tx, py = y - cy - ty;
+				double kx = ( c*px + s*py)/scale + cx;
+				double ky = (-s*px + c*py)/scale + cy;
+				image.set(x,y,value(kx,ky));
+			}
+		}
+	}
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.sfm.d2;
+
+import boofcv.struct.image.ImageFloat32;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestLogPolarPhaseCorrelation {
+
+	Random rand = new Random(234);
+	BlobTexture texture = new BlobTexture(rand,1500,-200,200);
+
+	int size = 128;
+	double center = (size-1)/2.0;
+	ImageFloat32 reference = new ImageFloat32(size,size);
+	ImageFloat32 current = new ImageFloat32(size,size);
+
+	@Test
+	public void noMotion() {
+		check(0,1);
+	}
+
+	@Test
+	public void rotation() {
+		check(0.1,1);
+		check(-0.2,1);
+	}
+
+	@Test
+	public void scale() {
+		check(0,1.1);
+		check(0,0.9);
+	}
+
+	@Test
+	public void rotationAndScale() {
+		check(0.3,1.2);
+	}
+
+	private void check( double rotation , double scale ) {
+		LogPolarPhaseCorrelation alg = new LogPolarPhaseCorrelation();
+
+		texture.render(reference,center,center,0,1,0,0);
+		texture.render(current,center,center,rotation,scale,0,0);
+		alg.setReference(reference);
+		alg.process(current);
+
+		assertEquals(rotation,alg.getRotation(),0.01);
+		assertEquals(scale,alg.getScale(),0.01);
+	}
+
+	/**
+	 * Estimate should be insensitive to translation
+	 */
+	@Test
+	public void ignoreTranslation() {
+		LogPolarPhaseCorrelation alg = new LogPolarPhaseCorrelation();
+
+		texture.render(reference,center,center,0,1,0,0);
+		texture.render(current,center,center,0.05,1,5,-3);
+		alg.setReference(reference);
+		alg.process(current);
+
+		assertEquals(0.05,alg.getRotation(),0.01);
+		assertEquals(1,alg.getScale(),0.01);
+	}
+
+	@Test
+	public void setCurrentToReference() {
+		LogPolarPhaseCorrelation alg = new LogPolarPhaseCorrelation();
+
+		texture.render(reference,center,center,0,1,0,0);
+		texture.render(current,center,center,0.1,1,0,0);
+		alg.setReference(reference);
+		alg.process(current);
+		alg.setCurrentToReference();
+
+		texture.render(reference,center,center,0.15,1,0,0);
+		alg.process(reference);
+		assertEquals(0.05,alg.getRotation(),0.01);
+	}
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2011-2013, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.sfm.d2;
+
+import boofcv.struct.image.ImageFloat32;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPhaseCorrelation {
+
+	Random rand = new Random(234);
+	BlobTexture texture = new BlobTexture(rand,300,-50,150);
+
+	int size = 128;
+	ImageFloat32 reference = new ImageFloat32(size,size);
+	ImageFloat32 current = new ImageFloat32(size,size);
+
+	@Test
+	public void identical() {
+		PhaseCorrelation alg = new PhaseCorrelation(true);
+		texture.render(reference,0,0,0,1,0,0);
+		alg.setReference(reference);
+		alg.process(reference);
+
+		assertEquals(0,alg.getOffsetX(),1e-3);
+		assertEquals(0,alg.getOffsetY(),1e-3);
+		assertEquals(1,alg.getPeak(),1e-3);
+	}
+
+	@Test
+	public void integerShift() {
+		checkShift(3,-5,0.1);
+		checkShift(-8,2,0.1);
+	}
+
+	@Test
+	public void subpixelShift() {
+		checkShift(0.5,0.25,0.1);
+		checkShift(-4.3,6.6,0.1);
+	}
+
+	private void checkShift( double tx , double ty , double tol ) {
+		PhaseCorrelation alg = new PhaseCorrelation(true);
+		texture.render(reference,0,0,0,1,0,0);
+		texture.render(current,0,0,0,1,tx,ty);
+		alg.setReference(reference);
+		alg.process(current);
+
+		assertEquals(tx,alg.getOffsetX(),tol);
+		assertEquals(ty,alg.getOffsetY(),tol);
+		assertTrue(alg.getPeak() > 0.3);
+	}
+
+	/**
+	 * Without a window the image is assumed to be periodic, so a circular shift should be found exactly
+	 */
+	@Test
+	public void noWindow_circular() {
+		PhaseCorrelation alg = new PhaseCorrelation(false);
+		texture.render(reference,0,0,0,1,0,0);
+		for( int y = 0; y < size; y++ ) {
+			for( int x = 0; x < size; x++ ) {
+				current.set((x+5)%size,(y+size-7)%size,reference.get(x,y));
+			}
+		}
+		alg.setReference(reference);
+		alg.process(current);
+
+		assertEquals(5,alg.getOffsetX(),0.05);
+		assertEquals(-7,alg.getOffsetY(),0.05);
+	}
+
+	/**
+	 * After the current image becomes the reference its offset should be zero
+	 */
+	@Test
+	public void setCurrentToReference() {
+		PhaseCorrelation alg = new PhaseCorrelation(true);
+		texture.render(reference,0,0,0,1,0,0);
+		texture.render(current,0,0,0,1,2,3);
+		alg.setReference(reference);
+		alg.process(current);
+		alg.setCurrentToReference();
+
+		texture.render(reference,0,0,0,1,3,5);
+		alg.process(reference);
+		assertEquals(1,alg.getOffsetX(),0.1);
+		assertEquals(2,alg.getOffsetY(),0.1);
+	}
+}